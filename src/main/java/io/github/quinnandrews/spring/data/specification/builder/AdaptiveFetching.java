@@ -0,0 +1,344 @@
+package io.github.quinnandrews.spring.data.specification.builder;
+
+import jakarta.persistence.metamodel.Attribute;
+import org.hibernate.Hibernate;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A strategy that chooses how each collection fetched with
+ * {@code fetchOf()} is loaded, from the sizes of the collections it has
+ * observed so far. A {@link SpecificationExecutor} constructed with an
+ * AdaptiveFetching loads every collection fetch in one of three ways:
+ *
+ * <ul>
+ *     <li>{@link Strategy#JOIN} - with a fetch join in the query of the
+ *     Aggregate Roots, which is cheapest while the collections are small,
+ *     since it takes a single round trip and repeats the columns of the
+ *     root only a few times.</li>
+ *     <li>{@link Strategy#BATCH} - with an additional query that fetches
+ *     the collection for a batch of the identifiers of the roots, of at
+ *     most the batch size, in an SQL in clause, which reads each root
+ *     once however large its collection.</li>
+ *     <li>{@link Strategy#SUBSELECT} - with an additional query that
+ *     fetches the collection for the roots whose identifiers are
+ *     selected by a subquery with the filters of the Specification,
+ *     rather than binding their identifiers, once there are more roots
+ *     than fit in a batch. Only the subquery applies the filters, and it
+ *     selects only the identifiers.</li>
+ * </ul>
+ *
+ * <p> After each execution, the average number of rows a fetch join of
+ * the collection returns for each root is sampled from the collections
+ * just loaded, and folded into a moving average, so that the choice
+ * follows the data as it drifts. A collection is joined while its
+ * average is within the join threshold, and at most one collection is
+ * joined per query, since joining several multiplies their sizes. A
+ * collection that has not been observed yet is loaded in a batch. The
+ * {@link Statistics} of each fetched path, including the strategy last
+ * chosen, are exposed by {@link #getStatistics()}, so that they can be
+ * published as metrics.
+ *
+ * <p> Fetches compiled into an EntityGraph (see
+ * {@link ExecutionHints#fetchGraph()}) are left to Hibernate.
+ *
+ * @author Quinn Andrews
+ */
+public final class AdaptiveFetching {
+
+    /**
+     * The weight of a new sample in the moving average.
+     */
+    private static final double SMOOTHING = 0.2;
+
+    /**
+     * The way a collection fetch is loaded.
+     */
+    public enum Strategy {
+
+        /**
+         * Fetch joins the collection in the query of the Aggregate Roots.
+         */
+        JOIN,
+
+        /**
+         * Fetches the collection with an additional query for a batch
+         * of the identifiers of the Aggregate Roots.
+         */
+        BATCH,
+
+        /**
+         * Fetches the collection with an additional query for the
+         * Aggregate Roots whose identifiers are selected by a subquery
+         * with the filters of the Specification.
+         */
+        SUBSELECT
+    }
+
+    private final double joinThreshold;
+    private final int batchSize;
+    private final Map<List<Attribute<?, ?>>, Statistics> statistics = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a new AdaptiveFetching.
+     *
+     * @param joinThreshold The average number of rows per Aggregate Root
+     *                      up to which a collection is fetch joined.
+     * @param batchSize The maximum number of identifiers of a batch.
+     */
+    private AdaptiveFetching(final double joinThreshold,
+                             final int batchSize) {
+        if (joinThreshold < 1) {
+            throw new IllegalArgumentException("Argument 'joinThreshold' must be at least 1.");
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Argument 'batchSize' must be positive.");
+        }
+        this.joinThreshold = joinThreshold;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Returns a strategy that fetch joins a collection while it averages
+     * at most the given number of rows per Aggregate Root, and otherwise
+     * loads it by identifiers, in a single batch if there are at most
+     * the given number of Aggregate Roots, or for a subquery of their
+     * identifiers if there are more.
+     *
+     * @param joinThreshold The average number of rows per Aggregate Root
+     *                      up to which a collection is fetch joined.
+     * @param batchSize The maximum number of identifiers of a batch.
+     * @return A new AdaptiveFetching.
+     * @throws IllegalArgumentException if the join threshold is less than
+     *                                  1, or the batch size is not
+     *                                  positive.
+     */
+    public static AdaptiveFetching of(final double joinThreshold,
+                                      final int batchSize) {
+        return new AdaptiveFetching(joinThreshold, batchSize);
+    }
+
+    /**
+     * Returns the average number of rows per Aggregate Root up to which
+     * a collection is fetch joined.
+     *
+     * @return The join threshold.
+     */
+    public double getJoinThreshold() {
+        return joinThreshold;
+    }
+
+    /**
+     * Returns the maximum number of identifiers of a batch.
+     *
+     * @return The batch size.
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Returns the Statistics observed so far for each fetched path of
+     * associations.
+     *
+     * @return An unmodifiable snapshot of the Statistics, by path.
+     */
+    public Map<List<Attribute<?, ?>>, Statistics> getStatistics() {
+        return Map.copyOf(statistics);
+    }
+
+    /**
+     * Returns the Statistics observed so far for the given path.
+     *
+     * @param path The path of associations of a fetch.
+     * @return An Optional of the Statistics, or empty if the path has not
+     *         been fetched yet.
+     */
+    public Optional<Statistics> getStatistics(final FetchPath<?, ?> path) {
+        Objects.requireNonNull(path, "Argument 'path' cannot be null.");
+        return Optional.ofNullable(statistics.get(path.getAttributes()));
+    }
+
+    /**
+     * Returns the collection fetch of the given fetches to fetch join,
+     * which is the one with the fewest rows per Aggregate Root, if that
+     * is within the join threshold.
+     *
+     * @param fetches The collection fetches of a Specification.
+     * @return An Optional of the fetch to join, or empty if every fetch
+     *         is loaded with an additional query.
+     * @param <T> The Aggregate Root of the Specification.
+     */
+    <T> Optional<FetchNode<T>> joined(final List<FetchNode<T>> fetches) {
+        return fetches.stream()
+                .filter(fetch -> statistics.containsKey(fetch.getPath()))
+                .min(Comparator.comparingDouble(fetch -> statistics.get(fetch.getPath()).getRowsPerRoot()))
+                .filter(fetch -> statistics.get(fetch.getPath()).getRowsPerRoot() <= joinThreshold);
+    }
+
+    /**
+     * Returns the strategy for loading a collection with additional
+     * queries for the given number of Aggregate Roots, which is a batch
+     * of identifiers while they fit in one, and a subquery of the
+     * identifiers otherwise, which takes a single query however many
+     * Aggregate Roots there are.
+     *
+     * @param roots The number of Aggregate Roots.
+     * @return Either BATCH or SUBSELECT.
+     */
+    Strategy additional(final int roots) {
+        return roots <= batchSize ? Strategy.BATCH : Strategy.SUBSELECT;
+    }
+
+    /**
+     * Samples the number of rows per Aggregate Root of the given fetch
+     * from the given Aggregate Roots, whose collections have just been
+     * loaded with the given strategy, and folds it into the moving
+     * average of the path.
+     *
+     * @param fetch The collection fetch.
+     * @param roots The Aggregate Roots loaded with the fetch.
+     * @param strategy The strategy the fetch was loaded with.
+     */
+    void record(final FetchNode<?> fetch,
+                final List<?> roots,
+                final Strategy strategy) {
+        if (roots.isEmpty()) {
+            return;
+        }
+        long rows = 0;
+        for (final Object root : roots) {
+            rows += Math.max(1, count(root, fetch.getPath(), 0));
+        }
+        final double sample = (double) rows / roots.size();
+        statistics.merge(
+                fetch.getPath(),
+                new Statistics(1, sample, strategy),
+                (previous, next) -> new Statistics(
+                        previous.executions + 1,
+                        previous.rowsPerRoot + SMOOTHING * (sample - previous.rowsPerRoot),
+                        strategy));
+    }
+
+    /**
+     * Returns the number of elements at the end of the given path from
+     * the given Entity, counting only associations that are loaded.
+     *
+     * @param entity The Entity to navigate from.
+     * @param path The path of associations.
+     * @param index The index of the association to navigate next.
+     * @return The number of elements.
+     */
+    private static long count(final Object entity,
+                              final List<Attribute<?, ?>> path,
+                              final int index) {
+        if (entity == null || !Hibernate.isInitialized(entity)) {
+            return 0;
+        }
+        final Object value = valueOf(Hibernate.unproxy(entity), path.get(index));
+        if (value == null || !Hibernate.isInitialized(value)) {
+            return 0;
+        }
+        final boolean last = index == path.size() - 1;
+        if (value instanceof Collection<?> collection) {
+            if (last) {
+                return collection.size();
+            }
+            long count = 0;
+            for (final Object element : collection) {
+                count += count(element, path, index + 1);
+            }
+            return count;
+        }
+        if (value instanceof Map<?, ?> map) {
+            return last ? map.size() : map.values().stream().mapToLong(element -> count(element, path, index + 1)).sum();
+        }
+        return last ? 1 : count(value, path, index + 1);
+    }
+
+    /**
+     * Returns the value of the given attribute of the given Entity,
+     * through its field or its getter.
+     *
+     * @param entity The Entity to read.
+     * @param attribute The attribute to read.
+     * @return The value of the attribute.
+     */
+    private static Object valueOf(final Object entity,
+                                  final Attribute<?, ?> attribute) {
+        final Member member = attribute.getJavaMember();
+        if (member instanceof Field field) {
+            ReflectionUtils.makeAccessible(field);
+            return ReflectionUtils.getField(field, entity);
+        }
+        if (member instanceof Method method) {
+            ReflectionUtils.makeAccessible(method);
+            return ReflectionUtils.invokeMethod(method, entity);
+        }
+        return null;
+    }
+
+    /**
+     * What an AdaptiveFetching has observed of a fetched path of
+     * associations.
+     */
+    public static final class Statistics {
+
+        private final long executions;
+        private final double rowsPerRoot;
+        private final Strategy strategy;
+
+        /**
+         * Constructs new Statistics.
+         *
+         * @param executions The number of executions sampled.
+         * @param rowsPerRoot The moving average of rows per root.
+         * @param strategy The strategy last chosen.
+         */
+        private Statistics(final long executions,
+                           final double rowsPerRoot,
+                           final Strategy strategy) {
+            this.executions = executions;
+            this.rowsPerRoot = rowsPerRoot;
+            this.strategy = strategy;
+        }
+
+        /**
+         * Returns the number of executions that fetched the path.
+         *
+         * @return The number of executions sampled.
+         */
+        public long getExecutions() {
+            return executions;
+        }
+
+        /**
+         * Returns the moving average of the number of rows a fetch join
+         * of the path returns for each Aggregate Root.
+         *
+         * @return The average number of rows per Aggregate Root.
+         */
+        public double getRowsPerRoot() {
+            return rowsPerRoot;
+        }
+
+        /**
+         * Returns the strategy the path was last loaded with.
+         *
+         * @return The strategy last chosen.
+         */
+        public Strategy getStrategy() {
+            return strategy;
+        }
+    }
+}
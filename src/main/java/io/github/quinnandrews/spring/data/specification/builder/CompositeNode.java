@@ -0,0 +1,271 @@
+package io.github.quinnandrews.spring.data.specification.builder;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A node that composes a flat list of child nodes with a single
+ * operator, rendering one n-ary SQL and/or clause rather than a deep
+ * tree of nested binary compositions. A composite without any children
+ * is a no-op "ghost" that renders a null Predicate.
+ *
+ * @param <T> The Aggregate Root of the Specification.
+ *
+ * @author Quinn Andrews
+ */
+public final class CompositeNode<T> extends SpecificationNode<T> {
+
+    private static final CompositeNode<?> GHOST = new CompositeNode<>(Operator.AND, List.of());
+
+    private final List<SpecificationNode<T>> children;
+    private final ExecutionHints hints;
+    private int hashCode;
+
+    /**
+     * Constructs a new CompositeNode with a copy of the given children.
+     *
+     * @param operator The operator that composes the children, either
+     *                 {@link Operator#AND} or {@link Operator#OR}.
+     * @param children The child nodes to compose.
+     */
+    CompositeNode(final Operator operator,
+                  final List<SpecificationNode<T>> children) {
+        this(operator, children, ExecutionHints.none());
+    }
+
+    /**
+     * Constructs a new CompositeNode with a copy of the given children,
+     * carrying the given hints to the executor.
+     *
+     * @param operator The operator that composes the children, either
+     *                 {@link Operator#AND} or {@link Operator#OR}.
+     * @param children The child nodes to compose.
+     * @param hints The hints of the queries that execute the composite.
+     */
+    CompositeNode(final Operator operator,
+                  final List<SpecificationNode<T>> children,
+                  final ExecutionHints hints) {
+        super(operator);
+        this.children = List.copyOf(children);
+        this.hints = hints;
+    }
+
+    /**
+     * Returns the shared composite without any children.
+     *
+     * @return A CompositeNode that renders a null Predicate.
+     * @param <T> The Aggregate Root of the Specification.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> CompositeNode<T> ghost() {
+        return (CompositeNode<T>) GHOST;
+    }
+
+    /**
+     * Returns a composite of the given node and Specification with the
+     * given operator. Composites whose operator matches are spliced into
+     * the result rather than nested, with their hints merged into the
+     * hints of the result, and "ghost" Specifications without hints are
+     * dropped.
+     *
+     * @param operator The operator that composes the node and Specification.
+     * @param node The node to compose.
+     * @param specification The Specification to compose, can be null.
+     * @return A composite of the node and Specification, or either of
+     *         them alone if the other is null or a "ghost".
+     * @param <T> The Aggregate Root of the Specification.
+     */
+    static <T> SpecificationNode<T> of(final Operator operator,
+                                       final SpecificationNode<T> node,
+                                       final Specification<T> specification) {
+        if (specification == null || (isGhost(specification) && ExecutionHints.of(specification).isEmpty())) {
+            return node;
+        }
+        final SpecificationNode<T> other = SpecificationNode.of(specification);
+        if (isGhost(node) && ExecutionHints.of(node).isEmpty()) {
+            return other;
+        }
+        final List<SpecificationNode<T>> children = new ArrayList<>();
+        final ExecutionHints hints = splice(children, operator, node).merge(splice(children, operator, other));
+        return new CompositeNode<>(operator, children, hints);
+    }
+
+    /**
+     * Returns true if the given Specification is a composite without
+     * any children.
+     *
+     * @param specification The Specification to check.
+     * @return Boolean indicating whether the Specification is a no-op.
+     */
+    static boolean isGhost(final Specification<?> specification) {
+        return specification instanceof CompositeNode<?> composite && composite.isGhost();
+    }
+
+    /**
+     * Adds the given node to the given List of children. If the node is
+     * a composite with the given operator, or with only one child, then
+     * its children are added instead, and nothing is added for a "ghost".
+     * Since a composite that is spliced is not added itself, its hints
+     * are returned, so that the caller can merge them into the hints of
+     * the composite of the children.
+     *
+     * @param children The List of children to add to.
+     * @param operator The operator that composes the children.
+     * @param node The node to add.
+     * @return The hints of the spliced composite, or no hints if the
+     *         node was added as is.
+     * @param <T> The Aggregate Root of the Specification.
+     */
+    static <T> ExecutionHints splice(final List<SpecificationNode<T>> children,
+                                     final Operator operator,
+                                     final SpecificationNode<T> node) {
+        if (node instanceof CompositeNode<T> composite
+                && (composite.isGhost() || composite.getOperator() == operator || composite.children.size() == 1)) {
+            children.addAll(composite.children);
+            return ExecutionHints.of(composite);
+        }
+        children.add(node);
+        return ExecutionHints.none();
+    }
+
+    /**
+     * Returns true if the composite does not have any children.
+     *
+     * @return Boolean indicating whether the composite is a no-op.
+     */
+    public boolean isGhost() {
+        return children.isEmpty();
+    }
+
+    /**
+     * Returns the hints of the queries that execute the composite (see
+     * {@link ExecutionHints}), which are not part of its shape and do
+     * not affect its equality.
+     *
+     * @return The hints of the composite, never null.
+     */
+    public ExecutionHints getHints() {
+        return hints;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<SpecificationNode<T>> getChildren() {
+        return children;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <R> R accept(final SpecificationVisitor<R> visitor) {
+        return visitor.visitComposite(this);
+    }
+
+    /**
+     * Renders each child and composes the non-null Predicates with a
+     * single call to the CriteriaBuilder. Returns null if no child
+     * renders a Predicate, and returns the Predicate itself if only
+     * one child renders a Predicate.
+     *
+     * @param root must not be {@literal null}.
+     * @param query can be {@literal null} to allow overrides that accept
+     *              {@link jakarta.persistence.criteria.CriteriaDelete}
+     *              which is an {@link jakarta.persistence.criteria.AbstractQuery}
+     *              but no {@link CriteriaQuery}.
+     * @param builder must not be {@literal null}.
+     * @return A composite Predicate, or null.
+     */
+    @Override
+    public Predicate toPredicate(final Root<T> root,
+                                 final CriteriaQuery<?> query,
+                                 final CriteriaBuilder builder) {
+        return render(root, query, builder, new JoinRegistry());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    Predicate render(final From<?, T> from,
+                     final CriteriaQuery<?> query,
+                     final CriteriaBuilder builder,
+                     final JoinRegistry joins) {
+        final List<Predicate> predicates = new ArrayList<>(children.size());
+        for (final SpecificationNode<T> child : children) {
+            predicates.add(child.render(
+                    from, query, builder, getOperator() == Operator.OR ? joins.disjunct() : joins));
+        }
+        return combine(builder, getOperator(), predicates);
+    }
+
+    /**
+     * Composes the non-null Predicates in the given List with a single
+     * call to the CriteriaBuilder. Returns null if there are no non-null
+     * Predicates, and returns the Predicate itself if there is only one.
+     *
+     * @param builder The CriteriaBuilder to compose the Predicates with.
+     * @param operator The operator that composes the Predicates, either
+     *                 {@link Operator#AND} or {@link Operator#OR}.
+     * @param predicates The Predicates to compose, which may contain nulls.
+     * @return A composite Predicate, or null.
+     */
+    static Predicate combine(final CriteriaBuilder builder,
+                             final Operator operator,
+                             final List<Predicate> predicates) {
+        final Predicate[] array = predicates.stream()
+                .filter(Objects::nonNull)
+                .toArray(Predicate[]::new);
+        if (array.length == 0) {
+            return null;
+        }
+        if (array.length == 1) {
+            return array[0];
+        }
+        return operator == Operator.AND ? builder.and(array) : builder.or(array);
+    }
+
+    /**
+     * Returns true if the given Object is a CompositeNode with the
+     * same operator and equal children in the same order, regardless
+     * of their hints.
+     *
+     * @param object The Object to compare.
+     * @return Boolean indicating whether the Object is equal.
+     */
+    @Override
+    public boolean equals(final Object object) {
+        if (this == object) {
+            return true;
+        }
+        return object instanceof CompositeNode<?> other
+                && getOperator() == other.getOperator()
+                && hashCode() == other.hashCode()
+                && children.equals(other.children);
+    }
+
+    /**
+     * Returns a hash code computed from the operator and children.
+     * Since the composite is immutable, the hash code is computed
+     * once and cached.
+     *
+     * @return The hash code of the composite.
+     */
+    @Override
+    public int hashCode() {
+        if (hashCode == 0) {
+            hashCode = Objects.hash(getOperator(), children);
+        }
+        return hashCode;
+    }
+}
@@ -0,0 +1,94 @@
+package io.github.quinnandrews.spring.data.specification.builder;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Objects;
+
+/**
+ * A node that wraps a Specification defined outside the
+ * SpecificationFactory, such as a lambda expression. Its
+ * contents cannot be inspected, so it is rendered as is.
+ *
+ * @param <T> The Aggregate Root of the Specification.
+ *
+ * @author Quinn Andrews
+ */
+public final class CustomNode<T> extends SpecificationNode<T> {
+
+    private final Specification<T> specification;
+
+    /**
+     * Constructs a new CustomNode that wraps the given Specification.
+     *
+     * @param specification The Specification to wrap.
+     */
+    CustomNode(final Specification<T> specification) {
+        super(Operator.CUSTOM);
+        this.specification = specification;
+    }
+
+    /**
+     * Returns the wrapped Specification.
+     *
+     * @return The wrapped Specification.
+     */
+    public Specification<T> getSpecification() {
+        return specification;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <R> R accept(final SpecificationVisitor<R> visitor) {
+        return visitor.visitCustom(this);
+    }
+
+    /**
+     * Renders the Predicate of the wrapped Specification.
+     *
+     * @param root must not be {@literal null}.
+     * @param query can be {@literal null} to allow overrides that accept
+     *              {@link jakarta.persistence.criteria.CriteriaDelete}
+     *              which is an {@link jakarta.persistence.criteria.AbstractQuery}
+     *              but no {@link CriteriaQuery}.
+     * @param builder must not be {@literal null}.
+     * @return The Predicate of the wrapped Specification, or null.
+     */
+    @Override
+    public Predicate toPredicate(final Root<T> root,
+                                 final CriteriaQuery<?> query,
+                                 final CriteriaBuilder builder) {
+        return specification.toPredicate(root, query, builder);
+    }
+
+    /**
+     * Returns true if the given Object is a CustomNode that wraps an
+     * equal Specification. Since a lambda expression is only equal to
+     * itself, CustomNodes are usually only equal if they wrap the same
+     * instance.
+     *
+     * @param object The Object to compare.
+     * @return Boolean indicating whether the Object is equal.
+     */
+    @Override
+    public boolean equals(final Object object) {
+        if (this == object) {
+            return true;
+        }
+        return object instanceof CustomNode<?> other
+                && specification.equals(other.specification);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(getOperator(), specification);
+    }
+}
@@ -0,0 +1,316 @@
+package io.github.quinnandrews.spring.data.specification.builder;
+
+import jakarta.persistence.Query;
+import org.hibernate.FlushMode;
+import org.hibernate.graph.GraphSemantic;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * The query hints a Specification carries to the
+ * {@link SpecificationExecutor} that executes it, so that callers need
+ * not drop down to the EntityManager to set them. Hints are attached to
+ * a Specification with {@link SpecificationBuilder#withHints(java.util.function.UnaryOperator)},
+ * and are applied to every query the executor creates for it, including
+ * count queries and the queries of chunks and pages.
+ *
+ * <p> Hints are carried by the composite Specification the builder
+ * returns, and are not part of its shape, so Specifications that only
+ * differ by their hints share a template. When a Specification is
+ * composed into another one, with a SpecificationBuilder or with
+ * {@link Specification#and(Specification)} for example, its hints are
+ * merged into the hints of the result, and the hints of composites
+ * nested within the result are merged as well (see
+ * {@link #of(Specification)}). They are lost only if the Specification
+ * is composed into one defined outside the SpecificationFactory, such
+ * as a lambda expression. Hints a JPA provider does not recognize are
+ * ignored, as the JPA specification requires.
+ *
+ * <p> With {@link #fetchGraph()} or {@link #loadGraph()}, the fetches of
+ * the Specification (see {@link SpecificationFactory#fetchOf}) are not
+ * rendered as inner fetch joins, but compiled into a dynamic EntityGraph
+ * that is set on the queries that select the Aggregate Root. The
+ * EntityGraph loads the associations with outer joins, so Aggregate
+ * Roots without the association are not filtered out, and it leaves the
+ * filter of the Specification without fetches, so Specifications that
+ * only differ by what they fetch share a template.
+ *
+ * <pre>{@code
+ * final var specification = SpecificationBuilder.from(GuitarPedal.class)
+ *         .withHints(hints -> hints.readOnly().flushMode(FlushMode.MANUAL))
+ *         .where().isNull(GuitarPedal_.dateSold)
+ *         .toSpecification();
+ * }</pre>
+ *
+ * @author Quinn Andrews
+ */
+public final class ExecutionHints {
+
+    private static final ExecutionHints NONE = new ExecutionHints(Map.of(), null);
+
+    private final Map<String, Object> hints;
+    private final GraphSemantic graphSemantic;
+
+    /**
+     * Constructs a new ExecutionHints.
+     *
+     * @param hints The hints by name, in the order they were added.
+     * @param graphSemantic The semantic of the EntityGraph to compile the
+     *                      fetches of the Specification into, or null to
+     *                      render them as fetch joins.
+     */
+    private ExecutionHints(final Map<String, Object> hints,
+                           final GraphSemantic graphSemantic) {
+        this.hints = hints;
+        this.graphSemantic = graphSemantic;
+    }
+
+    /**
+     * Returns hints without any hint.
+     *
+     * @return An ExecutionHints without any hint.
+     */
+    public static ExecutionHints none() {
+        return NONE;
+    }
+
+    /**
+     * Returns the hints carried by the given Specification, merged with
+     * the hints of the composites nested within it, the outer hints
+     * taking precedence (see {@link #merge(ExecutionHints)}).
+     *
+     * @param specification can be {@literal null}.
+     * @return The hints of the Specification, or no hints if it does
+     *         not carry any.
+     */
+    public static ExecutionHints of(final Specification<?> specification) {
+        if (!(specification instanceof CompositeNode<?> composite)) {
+            return NONE;
+        }
+        ExecutionHints hints = composite.getHints();
+        for (final SpecificationNode<?> child : composite.getChildren()) {
+            hints = hints.merge(of(child));
+        }
+        return hints;
+    }
+
+    /**
+     * Returns a copy of these hints that loads Entities in read-only
+     * mode, so that Hibernate neither keeps a snapshot of their state
+     * nor checks them for changes when the persistence context is
+     * flushed.
+     *
+     * @return A copy of these hints with the read-only hint.
+     */
+    public ExecutionHints readOnly() {
+        return hint(HibernateHints.HINT_READ_ONLY, true);
+    }
+
+    /**
+     * Returns a copy of these hints with the number of rows the JDBC
+     * driver fetches from the database at a time.
+     *
+     * @param fetchSize The JDBC fetch size.
+     * @return A copy of these hints with the fetch size hint.
+     * @throws IllegalArgumentException if the fetch size is not positive.
+     */
+    public ExecutionHints fetchSize(final int fetchSize) {
+        if (fetchSize < 1) {
+            throw new IllegalArgumentException("Argument 'fetchSize' must be positive.");
+        }
+        return hint(HibernateHints.HINT_FETCH_SIZE, fetchSize);
+    }
+
+    /**
+     * Returns a copy of these hints with a timeout, after which the
+     * database cancels the query.
+     *
+     * @param timeout The timeout, rounded down to milliseconds.
+     * @return A copy of these hints with the timeout hint.
+     * @throws NullPointerException if the given timeout is null.
+     * @throws IllegalArgumentException if the timeout is negative.
+     */
+    public ExecutionHints timeout(final Duration timeout) {
+        Objects.requireNonNull(timeout, "Argument 'timeout' cannot be null.");
+        if (timeout.isNegative()) {
+            throw new IllegalArgumentException("Argument 'timeout' cannot be negative.");
+        }
+        return hint(SpecHints.HINT_SPEC_QUERY_TIMEOUT, Math.toIntExact(timeout.toMillis()));
+    }
+
+    /**
+     * Returns a copy of these hints with the flush mode of the query.
+     * With {@link FlushMode#MANUAL}, the persistence context is not
+     * flushed before the query is executed.
+     *
+     * @param flushMode The flush mode of the query.
+     * @return A copy of these hints with the flush mode hint.
+     * @throws NullPointerException if the given flush mode is null.
+     */
+    public ExecutionHints flushMode(final FlushMode flushMode) {
+        Objects.requireNonNull(flushMode, "Argument 'flushMode' cannot be null.");
+        return hint(HibernateHints.HINT_FLUSH_MODE, flushMode);
+    }
+
+    /**
+     * Returns a copy of these hints that caches the results of the query
+     * in the second-level query cache, if it is enabled.
+     *
+     * @return A copy of these hints with the cacheable hint.
+     */
+    public ExecutionHints cacheable() {
+        return hint(HibernateHints.HINT_CACHEABLE, true);
+    }
+
+    /**
+     * Returns a copy of these hints with a comment that is added to the
+     * SQL statement, if SQL comments are enabled, so that the statement
+     * can be traced to its caller in the logs of the database.
+     *
+     * @param comment The comment of the query.
+     * @return A copy of these hints with the comment hint.
+     * @throws NullPointerException if the given comment is null.
+     */
+    public ExecutionHints comment(final String comment) {
+        Objects.requireNonNull(comment, "Argument 'comment' cannot be null.");
+        return hint(HibernateHints.HINT_COMMENT, comment);
+    }
+
+    /**
+     * Returns a copy of these hints that compiles the fetches of the
+     * Specification into an EntityGraph set as a fetch graph, with which
+     * attributes outside the graph are loaded lazily where possible.
+     *
+     * @return A copy of these hints with the fetch graph semantic.
+     */
+    public ExecutionHints fetchGraph() {
+        return new ExecutionHints(hints, GraphSemantic.FETCH);
+    }
+
+    /**
+     * Returns a copy of these hints that compiles the fetches of the
+     * Specification into an EntityGraph set as a load graph, with which
+     * attributes outside the graph are loaded as they are mapped.
+     *
+     * @return A copy of these hints with the load graph semantic.
+     */
+    public ExecutionHints loadGraph() {
+        return new ExecutionHints(hints, GraphSemantic.LOAD);
+    }
+
+    /**
+     * Returns a copy of these hints with the given hint, such as any of
+     * the hints of {@link SpecHints} or {@link HibernateHints}, replacing
+     * any hint of the same name.
+     *
+     * @param name The name of the hint.
+     * @param value The value of the hint.
+     * @return A copy of these hints with the given hint.
+     * @throws NullPointerException if any of the arguments is null.
+     */
+    public ExecutionHints hint(final String name,
+                               final Object value) {
+        Objects.requireNonNull(name, "Argument 'name' cannot be null.");
+        Objects.requireNonNull(value, "Argument 'value' cannot be null.");
+        final Map<String, Object> copy = new LinkedHashMap<>(hints);
+        copy.put(name, value);
+        return new ExecutionHints(Collections.unmodifiableMap(copy), graphSemantic);
+    }
+
+    /**
+     * Returns these hints merged with the given hints. Hints of the same
+     * name, and the graph semantic, are taken from these hints if they
+     * have them, and from the given hints otherwise.
+     *
+     * @param other The hints to merge into these hints.
+     * @return The merged hints.
+     */
+    ExecutionHints merge(final ExecutionHints other) {
+        if (other.isEmpty() || equals(other)) {
+            return this;
+        }
+        if (isEmpty()) {
+            return other;
+        }
+        final Map<String, Object> merged = new LinkedHashMap<>(hints);
+        other.hints.forEach(merged::putIfAbsent);
+        return new ExecutionHints(
+                Collections.unmodifiableMap(merged),
+                graphSemantic != null ? graphSemantic : other.graphSemantic);
+    }
+
+    /**
+     * Returns the hints by name, in the order they were added.
+     *
+     * @return An unmodifiable Map of hints.
+     */
+    public Map<String, Object> getHints() {
+        return hints;
+    }
+
+    /**
+     * Returns the semantic of the EntityGraph the fetches of the
+     * Specification are compiled into, if they are not rendered as
+     * fetch joins.
+     *
+     * @return An Optional of the semantic of the EntityGraph.
+     */
+    public Optional<GraphSemantic> getGraphSemantic() {
+        return Optional.ofNullable(graphSemantic);
+    }
+
+    /**
+     * Returns true if there are no hints, and fetches are rendered as
+     * fetch joins.
+     *
+     * @return Boolean indicating whether there are no hints.
+     */
+    public boolean isEmpty() {
+        return hints.isEmpty() && graphSemantic == null;
+    }
+
+    /**
+     * Sets the hints on the given query.
+     *
+     * @param query The query to set the hints on.
+     * @return The given query.
+     * @param <Q> The type of the query.
+     */
+    <Q extends Query> Q applyTo(final Q query) {
+        hints.forEach(query::setHint);
+        return query;
+    }
+
+    /**
+     * Returns true if the given Object is an ExecutionHints with the
+     * same hints and graph semantic.
+     *
+     * @param object The Object to compare.
+     * @return Boolean indicating whether the Object is equal.
+     */
+    @Override
+    public boolean equals(final Object object) {
+        if (this == object) {
+            return true;
+        }
+        return object instanceof ExecutionHints other
+                && hints.equals(other.hints)
+                && graphSemantic == other.graphSemantic;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(hints, graphSemantic);
+    }
+}
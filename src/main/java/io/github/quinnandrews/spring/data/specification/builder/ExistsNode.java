@@ -0,0 +1,205 @@
+package io.github.quinnandrews.spring.data.specification.builder;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.PluralAttribute;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A node that filters by the elements of an associated collection with
+ * a correlated SQL exists clause, such as
+ * {@code exists (select 1 from tag t where t.pedal_id = p.id and ...)},
+ * matching rows of the Aggregate Root where any element of the
+ * collection matches its Specification. Unlike a join, the subquery
+ * does not multiply the rows of the query, so there is no need for a
+ * distinct query or deduplication in memory, and the database is free
+ * to plan it as a semi-join.
+ *
+ * <p> With the {@link Operator#NOT_EXISTS} operator, the node renders a
+ * not exists clause instead, matching rows where no element matches,
+ * including rows with an empty collection. Unlike a not in clause on a
+ * subquery, it is not affected by null values, and the database is free
+ * to plan it as an anti-join.
+ *
+ * @param <T> The Aggregate Root of the Specification.
+ * @param <A> The type of the elements of the collection.
+ *
+ * @author Quinn Andrews
+ */
+public final class ExistsNode<T, A> extends SpecificationNode<T> {
+
+    private final PluralAttribute<T, ?, A> attribute;
+    private final SpecificationNode<A> specification;
+
+    /**
+     * Constructs a new ExistsNode for the given collection association.
+     *
+     * @param operator Either {@link Operator#EXISTS} or
+     *                 {@link Operator#NOT_EXISTS}.
+     * @param attribute The collection association to filter by.
+     * @param specification The Specification on the elements of the
+     *                      collection.
+     */
+    ExistsNode(final Operator operator,
+               final PluralAttribute<T, ?, A> attribute,
+               final SpecificationNode<A> specification) {
+        super(operator);
+        this.attribute = attribute;
+        this.specification = specification;
+    }
+
+    /**
+     * Returns the collection association to filter by.
+     *
+     * @return The collection association to filter by.
+     */
+    public PluralAttribute<T, ?, A> getAttribute() {
+        return attribute;
+    }
+
+    /**
+     * Returns the Specification on the elements of the collection,
+     * which is rendered in the where clause of the subquery.
+     *
+     * @return The Specification on the elements of the collection.
+     */
+    public SpecificationNode<A> getSpecification() {
+        return specification;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Attribute<?, ?>> getAttributes() {
+        return List.of(attribute);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <R> R accept(final SpecificationVisitor<R> visitor) {
+        return visitor.visitExists(this);
+    }
+
+    /**
+     * Renders the correlated exists or not exists clause.
+     *
+     * @param root must not be {@literal null}.
+     * @param query can be {@literal null} to allow overrides that accept
+     *              {@link jakarta.persistence.criteria.CriteriaDelete}
+     *              which is an {@link jakarta.persistence.criteria.AbstractQuery}
+     *              but no {@link CriteriaQuery}.
+     * @param builder must not be {@literal null}.
+     * @return The Predicate of the exists or not exists clause.
+     * @throws IllegalStateException if the query is null.
+     */
+    @Override
+    public Predicate toPredicate(final Root<T> root,
+                                 final CriteriaQuery<?> query,
+                                 final CriteriaBuilder builder) {
+        return render(root, query, builder, new JoinRegistry());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    Predicate render(final From<?, T> from,
+                     final CriteriaQuery<?> query,
+                     final CriteriaBuilder builder,
+                     final JoinRegistry joins) {
+        final Subquery<Integer> subquery = subquery(from, query, builder);
+        final Join<T, A> join = correlate(subquery, from).join(attribute.getName());
+        final Predicate predicate = specification.render(join, query, builder, joins);
+        if (predicate != null) {
+            subquery.where(predicate);
+        }
+        return exists(builder, subquery);
+    }
+
+    /**
+     * Returns the exists or not exists clause of the given subquery,
+     * depending on the operator of the node.
+     *
+     * @param builder The CriteriaBuilder of the query.
+     * @param subquery The subquery of the clause.
+     * @return The Predicate of the exists or not exists clause.
+     */
+    Predicate exists(final CriteriaBuilder builder,
+                     final Subquery<?> subquery) {
+        final Predicate exists = builder.exists(subquery);
+        return getOperator() == Operator.NOT_EXISTS ? builder.not(exists) : exists;
+    }
+
+    /**
+     * Creates the subquery of the exists or not exists clause, selecting
+     * a constant.
+     *
+     * @param from The root or join the collection belongs to.
+     * @param query The query to create the subquery of.
+     * @param builder The CriteriaBuilder of the query.
+     * @return The subquery, without a from or where clause.
+     * @throws IllegalStateException if the query is null.
+     */
+    Subquery<Integer> subquery(final From<?, T> from,
+                               final CriteriaQuery<?> query,
+                               final CriteriaBuilder builder) {
+        if (query == null) {
+            throw new IllegalStateException("Unsupported operator without a query: " + getOperator());
+        }
+        final Subquery<Integer> subquery = query.subquery(Integer.class);
+        return subquery.select(builder.literal(1));
+    }
+
+    /**
+     * Returns the given root or join correlated in the given subquery.
+     *
+     * @param subquery The subquery to correlate the From in.
+     * @param from The root or join of the enclosing query.
+     * @return The correlated root or join.
+     */
+    @SuppressWarnings("unchecked")
+    static <X> From<?, X> correlate(final Subquery<?> subquery,
+                                    final From<?, X> from) {
+        if (from instanceof Root<?> root) {
+            return subquery.correlate((Root<X>) root);
+        }
+        return subquery.correlate((Join<?, X>) from);
+    }
+
+    /**
+     * Returns true if the given Object is an ExistsNode with the same
+     * operator and association, and an equal Specification.
+     *
+     * @param object The Object to compare.
+     * @return Boolean indicating whether the Object is equal.
+     */
+    @Override
+    public boolean equals(final Object object) {
+        if (this == object) {
+            return true;
+        }
+        return object instanceof ExistsNode<?, ?> other
+                && getOperator() == other.getOperator()
+                && attribute.equals(other.attribute)
+                && specification.equals(other.specification);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(getOperator(), attribute, specification);
+    }
+}
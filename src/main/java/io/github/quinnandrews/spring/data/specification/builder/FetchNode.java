@@ -0,0 +1,280 @@
+package io.github.quinnandrews.spring.data.specification.builder;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Fetch;
+import jakarta.persistence.criteria.FetchParent;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.PluralAttribute;
+import jakarta.persistence.metamodel.SingularAttribute;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A node that defines a join with an association of the Aggregate
+ * Root in order to fetch it eagerly as part of the SQL query. The
+ * association may also be at the end of a {@link FetchPath} through
+ * nested associations, in which case each association of the path is
+ * fetched, and fetches that share a prefix share its fetch joins.
+ *
+ * <p> A fetch only applies to a query that selects the Aggregate Root.
+ * In any other query, such as the count query of a Page, the fetch
+ * join is dropped, since there is nothing to populate, and it would
+ * only multiply the rows to count. Since the fetch is an inner join,
+ * which excludes Aggregate Roots without the association, the node
+ * renders an equivalent condition without a join instead, so that the
+ * count matches the content of the Page. For a path deeper than one
+ * association, that condition is an exists subquery with inner joins
+ * along the path.
+ *
+ * <p> A {@link SpecificationExecutor} executing a Specification whose
+ * hints have a graph semantic (see {@link ExecutionHints#fetchGraph()})
+ * removes its fetches before rendering it, and loads the associations
+ * with an EntityGraph instead, so they neither join nor filter.
+ *
+ * @param <T> The Aggregate Root of the Specification.
+ *
+ * @author Quinn Andrews
+ */
+public final class FetchNode<T> extends SpecificationNode<T> {
+
+    private final List<Attribute<?, ?>> path;
+
+    /**
+     * Constructs a new FetchNode for the given association.
+     *
+     * @param attribute The singular or collection association to fetch.
+     */
+    FetchNode(final Attribute<T, ?> attribute) {
+        super(Operator.FETCH);
+        this.path = List.of(attribute);
+    }
+
+    /**
+     * Constructs a new FetchNode for the given path of associations.
+     *
+     * @param path The path of associations to fetch.
+     */
+    FetchNode(final FetchPath<T, ?> path) {
+        super(Operator.FETCH);
+        this.path = path.getAttributes();
+    }
+
+    /**
+     * Returns the association of the Aggregate Root to fetch, which is
+     * the first association of the path.
+     *
+     * @return The association of the Aggregate Root to fetch.
+     */
+    @SuppressWarnings("unchecked")
+    public Attribute<T, ?> getAttribute() {
+        return (Attribute<T, ?>) path.get(0);
+    }
+
+    /**
+     * Returns the path of associations to fetch, starting with the
+     * association of the Aggregate Root.
+     *
+     * @return An unmodifiable List of associations.
+     */
+    public List<Attribute<?, ?>> getPath() {
+        return path;
+    }
+
+    /**
+     * Returns true if any association of the path is a collection, in
+     * which case the query returns a row for each of its elements.
+     *
+     * @return Boolean indicating whether a collection is fetched.
+     */
+    public boolean fetchesCollection() {
+        return path.stream().anyMatch(Attribute::isCollection);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Attribute<?, ?>> getAttributes() {
+        return path;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <R> R accept(final SpecificationVisitor<R> visitor) {
+        return visitor.visitFetch(this);
+    }
+
+    /**
+     * Defines the fetch on the given root and returns a conjunction,
+     * since a fetch does not filter the results of the query. A fetch
+     * already defined on the same association by another node is
+     * reused rather than fetched again. If the query does not select
+     * the root, then no fetch is defined, and a condition that the
+     * association is not null or not empty, or that the path exists,
+     * is returned instead of the inner joins.
+     *
+     * @param root must not be {@literal null}.
+     * @param query can be {@literal null} to allow overrides that accept
+     *              {@link jakarta.persistence.criteria.CriteriaDelete}
+     *              which is an {@link jakarta.persistence.criteria.AbstractQuery}
+     *              but no {@link CriteriaQuery}.
+     * @param builder must not be {@literal null}.
+     * @return A conjunction, or the condition of the inner joins.
+     * @throws IllegalStateException if the query is null and the path
+     *                               is deeper than one association.
+     */
+    @Override
+    public Predicate toPredicate(final Root<T> root,
+                                 final CriteriaQuery<?> query,
+                                 final CriteriaBuilder builder) {
+        if (!selectsRoot(root, query)) {
+            return condition(root, query, builder);
+        }
+        FetchParent<?, ?> parent = root;
+        for (final Attribute<?, ?> attribute : path) {
+            parent = fetch(parent, attribute);
+        }
+        return builder.conjunction();
+    }
+
+    /**
+     * Returns the condition that the association is not null or not
+     * empty, or that the path exists, which matches the same roots as
+     * the inner fetch joins, without joining.
+     *
+     * @param root The root of the query.
+     * @param query The query, or null.
+     * @param builder The CriteriaBuilder of the query.
+     * @return The condition of the inner fetch joins.
+     * @throws IllegalStateException if the query is null and the path
+     *                               is deeper than one association.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    Predicate condition(final Root<T> root,
+                        final CriteriaQuery<?> query,
+                        final CriteriaBuilder builder) {
+        if (path.size() > 1) {
+            return exists(root, query, builder);
+        }
+        return getAttribute() instanceof SingularAttribute<T, ?> singularAttribute
+                ? builder.isNotNull(root.get(singularAttribute))
+                : builder.isNotEmpty((Expression) root.get((PluralAttribute) getAttribute()));
+    }
+
+    /**
+     * Returns the condition of the inner fetch joins (see
+     * {@link #condition}) as a node, with a join for each singular
+     * association along the path and an exists clause for each
+     * collection, so that it can be compiled to a template.
+     *
+     * @return A node that matches the same roots as the fetch joins.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    SpecificationNode<T> conditionNode() {
+        SpecificationNode node = null;
+        for (int i = path.size() - 1; i >= 0; i--) {
+            final Attribute attribute = path.get(i);
+            if (attribute.isCollection()) {
+                node = new ExistsNode<>(
+                        Operator.EXISTS, (PluralAttribute) attribute, node == null ? CompositeNode.ghost() : node);
+            } else if (node == null) {
+                node = new PredicateNode<>(Operator.IS_NOT_NULL, (SingularAttribute) attribute, List.of());
+            } else {
+                node = new JoinNode<>(attribute, node);
+            }
+        }
+        return node;
+    }
+
+    /**
+     * Returns the fetch of the given association from the given parent,
+     * reusing an existing fetch of the association, so that fetches
+     * sharing a prefix share its fetch joins.
+     *
+     * @param parent The root or fetch the association belongs to.
+     * @param attribute The association to fetch.
+     * @return The Fetch of the association.
+     */
+    private static Fetch<?, ?> fetch(final FetchParent<?, ?> parent,
+                                     final Attribute<?, ?> attribute) {
+        for (final Fetch<?, ?> fetch : parent.getFetches()) {
+            if (fetch.getAttribute().getName().equals(attribute.getName())) {
+                return fetch;
+            }
+        }
+        return parent.fetch(attribute.getName(), JoinType.INNER);
+    }
+
+    /**
+     * Returns a correlated exists clause with inner joins along the
+     * path, which matches the same roots as the fetch joins would.
+     *
+     * @param root The root of the query.
+     * @param query The query, or null.
+     * @param builder The CriteriaBuilder of the query.
+     * @return The Predicate of the exists clause.
+     * @throws IllegalStateException if the query is null.
+     */
+    private Predicate exists(final Root<T> root,
+                             final CriteriaQuery<?> query,
+                             final CriteriaBuilder builder) {
+        if (query == null) {
+            throw new IllegalStateException("Unsupported operator without a query: " + getOperator());
+        }
+        final Subquery<Integer> subquery = query.subquery(Integer.class);
+        From<?, ?> from = subquery.correlate(root);
+        for (final Attribute<?, ?> attribute : path) {
+            from = from.join(attribute.getName(), JoinType.INNER);
+        }
+        return builder.exists(subquery.select(builder.literal(1)));
+    }
+
+    /**
+     * Returns true if the given query selects the given root, rather
+     * than a count, an identifier or a projection.
+     *
+     * @param root The root of the query.
+     * @param query The query, or null.
+     * @return Boolean indicating whether the query selects the root.
+     */
+    static boolean selectsRoot(final Root<?> root,
+                               final CriteriaQuery<?> query) {
+        return query != null
+                && !Object.class.equals(query.getResultType())
+                && query.getResultType().isAssignableFrom(root.getJavaType());
+    }
+
+    /**
+     * Returns true if the given Object is a FetchNode of the same
+     * path of associations.
+     *
+     * @param object The Object to compare.
+     * @return Boolean indicating whether the Object is equal.
+     */
+    @Override
+    public boolean equals(final Object object) {
+        if (this == object) {
+            return true;
+        }
+        return object instanceof FetchNode<?> other
+                && path.equals(other.path);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(getOperator(), path);
+    }
+}
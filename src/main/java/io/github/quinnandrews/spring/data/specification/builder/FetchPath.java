@@ -0,0 +1,170 @@
+package io.github.quinnandrews.spring.data.specification.builder;
+
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.PluralAttribute;
+import jakarta.persistence.metamodel.SingularAttribute;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A path of associations from the Aggregate Root to fetch with
+ * {@link SpecificationFactory#fetchOf(FetchPath)}, such as the
+ * collection of an associated Entity, so that an Aggregate deeper than
+ * one level can be loaded with one query instead of one per level.
+ * Paths are expressed with metamodel attributes, and each step must
+ * start from the type the previous step arrives at.
+ *
+ * <pre>{@code
+ * final var specification = SpecificationBuilder.from(GuitarPedal.class)
+ *         .with().fetchOf(GuitarPedal_.manufacturer)
+ *         .and().fetchOf(FetchPath.of(GuitarPedal_.manufacturer).then(Manufacturer_.guitarPedals))
+ *         .toSpecification();
+ * }</pre>
+ *
+ * <p> Fetches that share a prefix share the fetch joins of the prefix,
+ * so the Specification above joins the manufacturer once.
+ *
+ * @param <T> The Aggregate Root of the Specification.
+ * @param <A> The type of the Entity at the end of the path.
+ *
+ * @author Quinn Andrews
+ */
+public final class FetchPath<T, A> {
+
+    private final List<Attribute<?, ?>> attributes;
+
+    /**
+     * Constructs a new FetchPath.
+     *
+     * @param attributes The associations of the path, in order.
+     */
+    private FetchPath(final List<Attribute<?, ?>> attributes) {
+        this.attributes = List.copyOf(attributes);
+    }
+
+    /**
+     * Returns a path that starts with the given singular association of
+     * the Aggregate Root.
+     *
+     * @param attribute The singular association to fetch.
+     * @return A new FetchPath.
+     * @param <T> The Aggregate Root of the Specification.
+     * @param <A> The type of the associated Entity.
+     * @throws NullPointerException if the given association is null.
+     * @throws IllegalArgumentException if the given attribute is not an
+     *                                  association.
+     */
+    public static <T, A> FetchPath<T, A> of(final SingularAttribute<T, A> attribute) {
+        return new FetchPath<>(List.of(association(attribute)));
+    }
+
+    /**
+     * Returns a path that starts with the given collection association
+     * of the Aggregate Root.
+     *
+     * @param attribute The collection association to fetch.
+     * @return A new FetchPath.
+     * @param <T> The Aggregate Root of the Specification.
+     * @param <A> The type of the elements of the collection.
+     * @throws NullPointerException if the given association is null.
+     * @throws IllegalArgumentException if the given attribute is not an
+     *                                  association.
+     */
+    public static <T, A> FetchPath<T, A> of(final PluralAttribute<T, ?, A> attribute) {
+        return new FetchPath<>(List.of(association(attribute)));
+    }
+
+    /**
+     * Returns a copy of the path that continues with the given singular
+     * association of the Entity at the end of the path.
+     *
+     * @param attribute The singular association to fetch.
+     * @return A new FetchPath.
+     * @param <B> The type of the associated Entity.
+     * @throws NullPointerException if the given association is null.
+     * @throws IllegalArgumentException if the given attribute is not an
+     *                                  association.
+     */
+    public <B> FetchPath<T, B> then(final SingularAttribute<? super A, B> attribute) {
+        return append(attribute);
+    }
+
+    /**
+     * Returns a copy of the path that continues with the given
+     * collection association of the Entity at the end of the path.
+     *
+     * @param attribute The collection association to fetch.
+     * @return A new FetchPath.
+     * @param <B> The type of the elements of the collection.
+     * @throws NullPointerException if the given association is null.
+     * @throws IllegalArgumentException if the given attribute is not an
+     *                                  association.
+     */
+    public <B> FetchPath<T, B> then(final PluralAttribute<? super A, ?, B> attribute) {
+        return append(attribute);
+    }
+
+    /**
+     * Returns the associations of the path, starting with the
+     * association of the Aggregate Root.
+     *
+     * @return An unmodifiable List of associations.
+     */
+    public List<Attribute<?, ?>> getAttributes() {
+        return attributes;
+    }
+
+    /**
+     * Returns a copy of the path with the given association appended.
+     *
+     * @param attribute The association to append.
+     * @return A new FetchPath.
+     * @param <B> The type at the end of the new path.
+     */
+    private <B> FetchPath<T, B> append(final Attribute<?, ?> attribute) {
+        final List<Attribute<?, ?>> path = new ArrayList<>(attributes);
+        path.add(association(attribute));
+        return new FetchPath<>(path);
+    }
+
+    /**
+     * Returns the given attribute, verifying that it is an association
+     * or an element collection.
+     *
+     * @param attribute The attribute to verify.
+     * @return The given attribute.
+     */
+    private static Attribute<?, ?> association(final Attribute<?, ?> attribute) {
+        Objects.requireNonNull(attribute, "Argument 'attribute' cannot be null.");
+        if (!attribute.isAssociation() && !attribute.isCollection()) {
+            throw new IllegalArgumentException("Argument 'attribute' is not an association: " + attribute.getName());
+        }
+        return attribute;
+    }
+
+    /**
+     * Returns true if the given Object is a FetchPath of the same
+     * associations.
+     *
+     * @param object The Object to compare.
+     * @return Boolean indicating whether the Object is equal.
+     */
+    @Override
+    public boolean equals(final Object object) {
+        if (this == object) {
+            return true;
+        }
+        return object instanceof FetchPath<?, ?> other
+                && attributes.equals(other.attributes);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return attributes.hashCode();
+    }
+}
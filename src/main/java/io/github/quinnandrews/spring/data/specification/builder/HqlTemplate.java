@@ -0,0 +1,535 @@
+package io.github.quinnandrews.spring.data.specification.builder;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.metamodel.Attribute;
+import org.apache.commons.lang3.ClassUtils;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.mapping.PropertyPath;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.StringJoiner;
+
+/**
+ * A template compiled to an HQL query String, with a positional
+ * parameter in place of each operand value. Unlike a CriteriaQuery, an
+ * HQL String is a key of Hibernate's query plan cache, so executing the
+ * template skips both the interpretation of the query and its
+ * translation to SQL whenever the plan is already cached. Specifications
+ * with the same shape always render exactly the same String, with the
+ * same aliases and the same parameter positions.
+ *
+ * <p> The Aggregate Root is aliased as {@code e}, each fetched
+ * association is joined with {@code join fetch} and aliased {@code f1},
+ * {@code f2} and so on, and each association sorted by is joined with
+ * {@code left join} and aliased {@code s1}, {@code s2} and so on, unless
+ * it is already fetched or joined. Each singular association filtered by
+ * a join is joined once with {@code join} and aliased {@code j1},
+ * {@code j2} and so on, separately from its fetch, while a collection,
+ * or any association filtered under an or clause, is joined in a shared
+ * correlated exists clause, as {@link JoinRegistry} does for a
+ * CriteriaQuery. Each correlated exists or not exists
+ * clause selects from its collection aliased {@code x1}, {@code x2} and
+ * so on, with the joins of its own Specification. An SQL in clause is
+ * rendered with a single collection-valued parameter, or as a call of
+ * {@value SpecificationFunctionContributor#IN_ARRAY} with a single array
+ * parameter where the {@link InClauseStrategy#array() array} strategy
+ * applies and the function is registered. A fetch contributes only a join, not a
+ * condition of the where clause, except {@code 1 = 1} in an or clause.
+ *
+ * @param <T> The Aggregate Root of the Specification.
+ *
+ * @author Quinn Andrews
+ */
+public final class HqlTemplate<T> extends QueryTemplate<T> {
+
+    private static final String ALIAS = "e";
+
+    private final Class<T> domainClass;
+    private final String queryString;
+
+    /**
+     * Constructs a new HqlTemplate.
+     *
+     * @param shapeHash The shape hash of the compiled Specification.
+     * @param domainClass The Class of the Aggregate Root.
+     * @param queryString The compiled HQL query String.
+     * @param parameterCount The number of parameters of the query.
+     * @param arrayTypes The attribute types of the array parameters, by
+     *                   the index of their parameter.
+     */
+    private HqlTemplate(final String shapeHash,
+                        final Class<T> domainClass,
+                        final String queryString,
+                        final int parameterCount,
+                        final Map<Integer, Class<?>> arrayTypes) {
+        super(shapeHash, parameterCount, arrayTypes);
+        this.domainClass = domainClass;
+        this.queryString = queryString;
+    }
+
+    /**
+     * Compiles a template from the shape of the given Specification.
+     *
+     * @param entityManager The EntityManager whose Metamodel names the
+     *                      Aggregate Root.
+     * @param domainClass The Class of the Aggregate Root.
+     * @param specification The Specification to compile.
+     * @return A template for Specifications with the same shape.
+     * @param <T> The Aggregate Root of the Specification.
+     * @throws NullPointerException if any of the arguments is null.
+     * @throws IllegalArgumentException if the Specification contains
+     *                                  Specifications defined outside the
+     *                                  SpecificationFactory.
+     */
+    public static <T> HqlTemplate<T> compile(final EntityManager entityManager,
+                                             final Class<T> domainClass,
+                                             final Specification<T> specification) {
+        return compile(entityManager, domainClass, specification, Sort.unsorted());
+    }
+
+    /**
+     * Compiles a template from the shape of the given Specification,
+     * ordering the results by the given Sort.
+     *
+     * @param entityManager The EntityManager whose Metamodel names the
+     *                      Aggregate Root.
+     * @param domainClass The Class of the Aggregate Root.
+     * @param specification The Specification to compile.
+     * @param sort The order of the results.
+     * @return A template for Specifications with the same shape.
+     * @param <T> The Aggregate Root of the Specification.
+     * @throws NullPointerException if any of the arguments is null.
+     * @throws IllegalArgumentException if the Specification contains
+     *                                  Specifications defined outside the
+     *                                  SpecificationFactory.
+     * @throws org.springframework.data.mapping.PropertyReferenceException
+     *         if the Sort refers to a property the Aggregate Root does
+     *         not have.
+     */
+    public static <T> HqlTemplate<T> compile(final EntityManager entityManager,
+                                             final Class<T> domainClass,
+                                             final Specification<T> specification,
+                                             final Sort sort) {
+        Objects.requireNonNull(entityManager, "Argument 'entityManager' cannot be null.");
+        Objects.requireNonNull(domainClass, "Argument 'domainClass' cannot be null.");
+        Objects.requireNonNull(specification, "Argument 'specification' cannot be null.");
+        Objects.requireNonNull(sort, "Argument 'sort' cannot be null.");
+        final SpecificationFingerprint fingerprint = structuralFingerprint(specification);
+        final Renderer renderer = new Renderer(
+                SpecificationFunctionContributor.isInArrayRegistered(entityManager.getCriteriaBuilder()));
+        final String where = renderer.resolve(SpecificationNode.of(specification).accept(renderer));
+        final String orderBy = renderer.orderBy(sort, domainClass);
+        final StringBuilder hql = new StringBuilder()
+                .append("select ").append(ALIAS)
+                .append(" from ").append(entityManager.getMetamodel().entity(domainClass).getName())
+                .append(' ').append(ALIAS);
+        renderer.joins.forEach(hql::append);
+        if (where != null) {
+            hql.append(" where ").append(where);
+        }
+        if (orderBy != null) {
+            hql.append(" order by ").append(orderBy);
+        }
+        return new HqlTemplate<>(
+                fingerprint.getShapeHash(),
+                domainClass,
+                hql.toString(),
+                renderer.parameterCount,
+                renderer.arrayTypes);
+    }
+
+    /**
+     * Returns the HQL query String of the template.
+     *
+     * @return An HQL query String with positional parameters.
+     */
+    public String getQueryString() {
+        return queryString;
+    }
+
+    /**
+     * Returns the values of the given Specification in the order of the
+     * positional parameters of the template, with the values of an SQL
+     * in clause as one List.
+     *
+     * @param specification The Specification whose values to return.
+     * @return A List of values, one for each parameter.
+     * @throws NullPointerException if the given Specification is null.
+     */
+    public List<Object> getParameterValues(final Specification<T> specification) {
+        Objects.requireNonNull(specification, "Argument 'specification' cannot be null.");
+        return ValueCollector.collect(SpecificationNode.of(specification));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    TypedQuery<T> bindValues(final EntityManager entityManager,
+                             final SpecificationNode<T> node) {
+        final List<Object> values = ValueCollector.collect(node);
+        final TypedQuery<T> query = entityManager.createQuery(queryString, domainClass);
+        for (int i = 0; i < values.size(); i++) {
+            query.setParameter(i + 1, parameterValue(values, i));
+        }
+        return query;
+    }
+
+    /**
+     * Renders each visited node as an HQL condition with a positional
+     * parameter in place of each operand value, and collects the joins
+     * of the query. A node without a condition, such as a fetch, is
+     * rendered as {@code 1 = 1} in an or clause, just as its conjunction
+     * in a CriteriaQuery, so that it matches the same rows in both Modes.
+     */
+    private static final class Renderer implements SpecificationVisitor<String> {
+
+        private final boolean inArrayRegistered;
+        private List<String> joins = new ArrayList<>();
+        private final Map<Integer, Class<?>> arrayTypes = new HashMap<>();
+        private final Map<String, String> aliases = new HashMap<>();
+        private final Map<String, String> joinAliases = new HashMap<>();
+        private final Map<String, String> fetchAliases = new HashMap<>();
+        private final List<Semijoin> semijoinList = new ArrayList<>();
+        private Map<String, Semijoin> semijoins = new HashMap<>();
+        private boolean disjunct;
+        private String alias = ALIAS;
+        private int joinCount;
+        private int existsCount;
+        private int subselectCount;
+        private int fetchCount;
+        private int sortJoinCount;
+        private int parameterCount;
+
+        private Renderer(final boolean inArrayRegistered) {
+            this.inArrayRegistered = inArrayRegistered;
+        }
+
+        @Override
+        public String visitComposite(final CompositeNode<?> node) {
+            final List<String> conditions = new ArrayList<>(node.getChildren().size());
+            final boolean parentDisjunct = disjunct;
+            final Map<String, Semijoin> parentSemijoins = semijoins;
+            for (final SpecificationNode<?> child : node.getChildren()) {
+                if (node.getOperator() == Operator.OR) {
+                    disjunct = true;
+                    semijoins = new HashMap<>();
+                }
+                final String condition;
+                try {
+                    condition = child.accept(this);
+                } finally {
+                    disjunct = parentDisjunct;
+                    semijoins = parentSemijoins;
+                }
+                if (condition != null) {
+                    conditions.add(condition);
+                } else if (node.getOperator() == Operator.OR) {
+                    conditions.add("1 = 1");
+                }
+            }
+            if (conditions.isEmpty()) {
+                return null;
+            }
+            if (conditions.size() == 1) {
+                return conditions.get(0);
+            }
+            final String operator = node.getOperator() == Operator.AND ? " and " : " or ";
+            return "(" + String.join(operator, conditions) + ")";
+        }
+
+        @Override
+        public String visitPredicate(final PredicateNode<?> node) {
+            final String path = alias + "." + node.getAttribute().getName();
+            final String lowerPath = String.class.equals(node.getAttribute().getJavaType())
+                    ? "lower(" + path + ")"
+                    : "lower(cast(" + path + " as String))";
+            return switch (node.getOperator()) {
+                case EQUAL -> path + " = " + parameter();
+                case NOT_EQUAL -> path + " <> " + parameter();
+                case LIKE -> lowerPath + " like " + parameter();
+                case NOT_LIKE -> lowerPath + " not like " + parameter();
+                case IS_NULL -> path + " is null";
+                case IS_NOT_NULL -> path + " is not null";
+                case IS_TRUE -> path + " = true";
+                case IS_FALSE -> path + " = false";
+                case GREATER_THAN -> path + " > " + parameter();
+                case GREATER_THAN_OR_EQUAL_TO -> path + " >= " + parameter();
+                case LESS_THAN -> path + " < " + parameter();
+                case LESS_THAN_OR_EQUAL_TO -> path + " <= " + parameter();
+                case BETWEEN -> path + " between " + parameter() + " and " + parameter();
+                case IN -> path + " in " + parameter();
+                case IN_ARRAY -> {
+                    if (!inArrayRegistered) {
+                        yield path + " in " + parameter();
+                    }
+                    final String parameter = parameter();
+                    arrayTypes.put(parameterCount - 1, node.getAttribute().getJavaType());
+                    yield SpecificationFunctionContributor.IN_ARRAY + "(" + parameter + ", " + path + ") = true";
+                }
+                default -> throw new IllegalStateException("Unsupported operator: " + node.getOperator());
+            };
+        }
+
+        @Override
+        public String visitFetch(final FetchNode<?> node) {
+            if (!ALIAS.equals(alias)) {
+                throw new IllegalStateException("Unsupported operator on an association: " + node.getOperator());
+            }
+            String parent = ALIAS;
+            String path = null;
+            for (final Attribute<?, ?> attribute : node.getPath()) {
+                final String name = attribute.getName();
+                final String join = parent;
+                path = path == null ? name : path + "." + name;
+                parent = fetchAliases.computeIfAbsent(path, key -> {
+                    final String alias = "f" + ++fetchCount;
+                    joins.add(" join fetch " + join + "." + name + " " + alias);
+                    return alias;
+                });
+                aliases.putIfAbsent(path, parent);
+            }
+            return null;
+        }
+
+        @Override
+        public String visitTuple(final TupleNode<?> node) {
+            if (node.getValues().isEmpty()) {
+                return "1 = 0";
+            }
+            final StringJoiner columns = new StringJoiner(", ", "(", ")");
+            node.getTupleAttributes().forEach(attribute -> columns.add(alias + "." + attribute.getName()));
+            final StringJoiner rows = new StringJoiner(", ", "(", ")");
+            for (int row = 0; row < node.getValues().size(); row++) {
+                final StringJoiner operands = new StringJoiner(", ", "(", ")");
+                node.getTupleAttributes().forEach(attribute -> operands.add(
+                        "cast(" + parameter() + " as "
+                                + ClassUtils.primitiveToWrapper(attribute.getJavaType()).getName() + ")"));
+                rows.add(operands.toString());
+            }
+            return columns + " in " + rows;
+        }
+
+        @Override
+        public String visitJoin(final JoinNode<?, ?> node) {
+            if (disjunct || node.getAttribute().isCollection()) {
+                return semijoin(node);
+            }
+            final String parent = alias;
+            alias = joinAliases.computeIfAbsent(parent + "." + node.getAttribute().getName(), path -> {
+                final String joinAlias = "j" + ++joinCount;
+                joins.add(" join " + path + " " + joinAlias);
+                return joinAlias;
+            });
+            try {
+                return node.getSpecification().accept(this);
+            } finally {
+                alias = parent;
+            }
+        }
+
+        @Override
+        public String visitExists(final ExistsNode<?, ?> node) {
+            final String parent = alias;
+            final List<String> parentJoins = joins;
+            final String existsAlias = "x" + ++existsCount;
+            alias = existsAlias;
+            joins = new ArrayList<>();
+            try {
+                final String condition = node.getSpecification().accept(this);
+                return (node.getOperator() == Operator.NOT_EXISTS ? "not exists" : "exists")
+                        + " (select 1 from " + parent + "." + node.getAttribute().getName() + " " + existsAlias
+                        + String.join("", joins)
+                        + (condition == null ? "" : " where " + condition) + ")";
+            } finally {
+                alias = parent;
+                joins = parentJoins;
+            }
+        }
+
+        @Override
+        public String visitSubselect(final SubselectNode<?> node) {
+            final String parent = alias;
+            final List<String> parentJoins = joins;
+            final boolean parentDisjunct = disjunct;
+            final Map<String, Semijoin> parentSemijoins = semijoins;
+            final String subselectAlias = "s" + ++subselectCount;
+            final String id = node.getIdAttribute().getName();
+            alias = subselectAlias;
+            joins = new ArrayList<>();
+            disjunct = false;
+            semijoins = new HashMap<>();
+            try {
+                final String condition = node.getSpecification().accept(this);
+                return parent + "." + id + " in (select " + subselectAlias + "." + id
+                        + " from " + node.getEntityType().getName() + " " + subselectAlias
+                        + String.join("", joins)
+                        + (condition == null ? "" : " where " + condition) + ")";
+            } finally {
+                alias = parent;
+                joins = parentJoins;
+                disjunct = parentDisjunct;
+                semijoins = parentSemijoins;
+            }
+        }
+
+        /**
+         * Adds the condition of the given JoinNode to the shared
+         * correlated exists clause of its association, creating it on
+         * first use, mirroring {@link JoinRegistry#semijoin}. Since the
+         * clause is still incomplete, a placeholder is returned in its
+         * place, which {@link #resolve(String)} replaces once every node
+         * has been rendered.
+         *
+         * @param node The JoinNode to render.
+         * @return The placeholder of the exists clause if it was created,
+         *         or null if the condition was added to a shared clause.
+         */
+        private String semijoin(final JoinNode<?, ?> node) {
+            final String path = alias + "." + node.getAttribute().getName();
+            Semijoin semijoin = semijoins.get(path);
+            final boolean created = semijoin == null;
+            if (created) {
+                semijoin = new Semijoin(path, "x" + ++existsCount, semijoinList.size());
+                semijoins.put(path, semijoin);
+                semijoinList.add(semijoin);
+            }
+            final String parent = alias;
+            final List<String> parentJoins = joins;
+            final boolean parentDisjunct = disjunct;
+            final Map<String, Semijoin> parentSemijoins = semijoins;
+            alias = semijoin.alias;
+            joins = semijoin.joins;
+            disjunct = false;
+            semijoins = new HashMap<>();
+            try {
+                final String condition = node.getSpecification().accept(this);
+                if (condition != null) {
+                    semijoin.conditions.add(condition);
+                }
+            } finally {
+                alias = parent;
+                joins = parentJoins;
+                disjunct = parentDisjunct;
+                semijoins = parentSemijoins;
+            }
+            return created ? semijoin.placeholder() : null;
+        }
+
+        /**
+         * Replaces the placeholders of exists clauses in the given
+         * condition with the clauses, in the order they were created, so
+         * that the placeholders nested in a clause are replaced after it.
+         *
+         * @param condition The condition to resolve, or null.
+         * @return The resolved condition, or null.
+         */
+        private String resolve(final String condition) {
+            if (condition == null) {
+                return null;
+            }
+            String resolved = condition;
+            for (final Semijoin semijoin : semijoinList) {
+                resolved = resolved.replace(semijoin.placeholder(), semijoin.render());
+            }
+            return resolved;
+        }
+
+        @Override
+        public String visitCustom(final CustomNode<?> node) {
+            throw new IllegalStateException("Unsupported operator: " + node.getOperator());
+        }
+
+        /**
+         * Renders the order by clause of the given Sort, verifying each
+         * property against the Aggregate Root, and joining the
+         * associations it navigates unless they are already fetched or
+         * joined.
+         *
+         * @param sort The order of the results.
+         * @param domainClass The Class of the Aggregate Root.
+         * @return The order by clause, or null if the Sort is unsorted.
+         */
+        private String orderBy(final Sort sort,
+                               final Class<?> domainClass) {
+            if (sort.isUnsorted()) {
+                return null;
+            }
+            final StringJoiner orders = new StringJoiner(", ");
+            for (final Sort.Order order : sort) {
+                final PropertyPath property = PropertyPath.from(order.getProperty(), domainClass);
+                String expression = ALIAS;
+                String path = null;
+                PropertyPath segment = property;
+                while (segment.hasNext()) {
+                    path = path == null ? segment.getSegment() : path + "." + segment.getSegment();
+                    final String parent = expression;
+                    final String segmentName = segment.getSegment();
+                    expression = aliases.computeIfAbsent(path, key -> {
+                        final String joinAlias = joinAliases.get(parent + "." + segmentName);
+                        if (joinAlias != null) {
+                            return joinAlias;
+                        }
+                        final String alias = "s" + ++sortJoinCount;
+                        joins.add(" left join " + parent + "." + segmentName + " " + alias);
+                        return alias;
+                    });
+                    segment = segment.next();
+                }
+                expression = expression + "." + segment.getSegment();
+                if (order.isIgnoreCase()) {
+                    expression = "lower(" + expression + ")";
+                }
+                expression = expression + (order.isAscending() ? " asc" : " desc");
+                expression = switch (order.getNullHandling()) {
+                    case NULLS_FIRST -> expression + " nulls first";
+                    case NULLS_LAST -> expression + " nulls last";
+                    default -> expression;
+                };
+                orders.add(expression);
+            }
+            return orders.toString();
+        }
+
+        private String parameter() {
+            return "?" + ++parameterCount;
+        }
+
+        /**
+         * A correlated exists clause that joins an association, with the
+         * conditions of the JoinNodes that share it.
+         */
+        private static final class Semijoin {
+
+            private final String path;
+            private final String alias;
+            private final int index;
+            private final List<String> joins = new ArrayList<>();
+            private final List<String> conditions = new ArrayList<>();
+
+            private Semijoin(final String path,
+                             final String alias,
+                             final int index) {
+                this.path = path;
+                this.alias = alias;
+                this.index = index;
+            }
+
+            private String placeholder() {
+                return "{semijoin" + index + "}";
+            }
+
+            private String render() {
+                return "exists (select 1 from " + path + " " + alias
+                        + String.join("", joins)
+                        + (conditions.isEmpty() ? "" : " where " + String.join(" and ", conditions)) + ")";
+            }
+        }
+    }
+}
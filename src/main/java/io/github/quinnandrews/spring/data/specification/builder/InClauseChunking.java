@@ -0,0 +1,131 @@
+package io.github.quinnandrews.spring.data.specification.builder;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+
+/**
+ * A strategy that splits an SQL in clause with more values than a
+ * database accepts in one statement (1000 for Oracle, 2100 parameters
+ * for SQL Server, 32767 for PostgreSQL) into chunks of a bounded size,
+ * executing one query per chunk and merging the results. A
+ * {@link SpecificationExecutor} constructed with an InClauseChunking
+ * applies it in {@link SpecificationExecutor#findAll(org.springframework.data.jpa.domain.Specification, org.springframework.data.domain.Sort)}.
+ *
+ * <p> Chunks are executed one after the other with the EntityManager of
+ * the executor, unless the strategy is {@link #parallel(int, Executor)
+ * parallel}, in which case each chunk is executed concurrently on the
+ * given Executor with an EntityManager of its own. The Executor is
+ * expected to be bounded, like a fixed thread pool, since it limits the
+ * number of concurrent queries and connections. Entities returned by a
+ * parallel execution are detached, and do not see changes of the calling
+ * transaction that are not yet committed, whether flushed or not, so
+ * associations they need should be fetched with {@code fetchOf()}.
+ *
+ * <p> If a Specification has several in clauses with more values than
+ * the chunk size, then a query is executed for each combination of
+ * their chunks.
+ *
+ * <p> Duplicate values are removed before chunking, and the last chunk
+ * is padded to the chunk size by repeating its last value, so that every
+ * chunk renders the same SQL statement.
+ *
+ * @author Quinn Andrews
+ */
+public final class InClauseChunking {
+
+    private final int chunkSize;
+    private final Executor executor;
+
+    /**
+     * Constructs a new InClauseChunking.
+     *
+     * @param chunkSize The maximum number of values of each chunk.
+     * @param executor The Executor to execute chunks on, or null to
+     *                 execute them one after the other.
+     */
+    private InClauseChunking(final int chunkSize,
+                             final Executor executor) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Argument 'chunkSize' must be positive.");
+        }
+        this.chunkSize = chunkSize;
+        this.executor = executor;
+    }
+
+    /**
+     * Returns a strategy that executes chunks one after the other with
+     * the EntityManager of the executor.
+     *
+     * @param chunkSize The maximum number of values of each chunk.
+     * @return An InClauseChunking that executes chunks sequentially.
+     * @throws IllegalArgumentException if the chunk size is not positive.
+     */
+    public static InClauseChunking sequential(final int chunkSize) {
+        return new InClauseChunking(chunkSize, null);
+    }
+
+    /**
+     * Returns a strategy that executes chunks concurrently on the given
+     * Executor, each with an EntityManager of its own.
+     *
+     * @param chunkSize The maximum number of values of each chunk.
+     * @param executor The bounded Executor to execute chunks on.
+     * @return An InClauseChunking that executes chunks in parallel.
+     * @throws NullPointerException if the given Executor is null.
+     * @throws IllegalArgumentException if the chunk size is not positive.
+     */
+    public static InClauseChunking parallel(final int chunkSize,
+                                            final Executor executor) {
+        return new InClauseChunking(
+                chunkSize,
+                Objects.requireNonNull(executor, "Argument 'executor' cannot be null."));
+    }
+
+    /**
+     * Returns the maximum number of values of each chunk.
+     *
+     * @return The chunk size.
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Returns the Executor that chunks are executed on, if parallel.
+     *
+     * @return An Optional of the Executor, or empty if sequential.
+     */
+    public Optional<Executor> getExecutor() {
+        return Optional.ofNullable(executor);
+    }
+
+    /**
+     * Splits the distinct values of the given collection into chunks of
+     * the chunk size, padding the last chunk by repeating its last value.
+     *
+     * @param values The values of the in clause.
+     * @return A List of chunks, each with exactly chunk size values,
+     *         unless there is only one chunk.
+     * @param <V> The type of the values.
+     */
+    <V> List<List<V>> chunk(final Collection<? extends V> values) {
+        final List<V> distinct = new ArrayList<>(new LinkedHashSet<>(values));
+        if (distinct.size() <= chunkSize) {
+            return List.of(distinct);
+        }
+        final List<List<V>> chunks = new ArrayList<>();
+        for (int i = 0; i < distinct.size(); i += chunkSize) {
+            final List<V> chunk = new ArrayList<>(distinct.subList(i, Math.min(i + chunkSize, distinct.size())));
+            while (chunk.size() < chunkSize) {
+                chunk.add(chunk.get(chunk.size() - 1));
+            }
+            chunks.add(chunk);
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,163 @@
+package io.github.quinnandrews.spring.data.specification.builder;
+
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.apache.commons.lang3.ClassUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A strategy that coalesces runs of consecutive integral values of an
+ * SQL in clause into SQL between clauses, combined with an in clause of
+ * the remaining values in an SQL or clause. Identifiers selected by a
+ * batch job are often mostly contiguous, so an in clause with 10000 of
+ * them becomes a handful of between clauses, which the database can
+ * execute as index range scans, and a much smaller statement.
+ *
+ * <p> Values are coalesced only if the attribute is a long, int, short
+ * or byte, or their wrapper, and all of them are Numbers, which are
+ * converted to the type of the attribute, so that values of different
+ * Number types that are equal are not repeated. Otherwise the in clause
+ * is left as it is. Since the
+ * number of ranges changes the shape of the Specification, each number
+ * of ranges compiles a template of its own (see
+ * {@link SpecificationExecutor}). Coalescing is opt-in per in clause with
+ * {@link SpecificationFactory#isIn(SingularAttribute, Collection, InClauseCoalescing)}
+ * or {@link SpecificationBuilder#isIn(SingularAttribute, Collection, InClauseCoalescing)}.
+ *
+ * @author Quinn Andrews
+ */
+public final class InClauseCoalescing {
+
+    private static final InClauseCoalescing RANGES = new InClauseCoalescing(3);
+
+    private final int minimumRunLength;
+
+    /**
+     * Constructs a new InClauseCoalescing.
+     *
+     * @param minimumRunLength The minimum number of consecutive values
+     *                         coalesced into a between clause.
+     */
+    private InClauseCoalescing(final int minimumRunLength) {
+        this.minimumRunLength = minimumRunLength;
+    }
+
+    /**
+     * Returns a strategy that coalesces runs of at least 3 consecutive
+     * values, the shortest run whose between clause has fewer
+     * parameters than its in clause would.
+     *
+     * @return An InClauseCoalescing that coalesces runs of 3 or more.
+     */
+    public static InClauseCoalescing ranges() {
+        return RANGES;
+    }
+
+    /**
+     * Returns a strategy that coalesces runs of at least the given
+     * number of consecutive values.
+     *
+     * @param minimumRunLength The minimum number of consecutive values
+     *                         coalesced into a between clause.
+     * @return An InClauseCoalescing that coalesces runs of the given
+     *         length or more.
+     * @throws IllegalArgumentException if the minimum run length is
+     *                                  less than 2.
+     */
+    public static InClauseCoalescing ranges(final int minimumRunLength) {
+        if (minimumRunLength < 2) {
+            throw new IllegalArgumentException("Argument 'minimumRunLength' must be at least 2.");
+        }
+        return new InClauseCoalescing(minimumRunLength);
+    }
+
+    /**
+     * Returns the minimum number of consecutive values coalesced into
+     * a between clause.
+     *
+     * @return The minimum run length.
+     */
+    public int getMinimumRunLength() {
+        return minimumRunLength;
+    }
+
+    /**
+     * Returns a node that matches the given attribute against the given
+     * values, with runs of consecutive values as between clauses and the
+     * remaining values as an in clause, in ascending order.
+     *
+     * @param attribute The attribute to match against the values.
+     * @param values The values of the in clause, not empty.
+     * @return A PredicateNode if there is one clause, otherwise a
+     *         CompositeNode that combines the clauses with or.
+     * @param <T> The Aggregate Root of the Specification.
+     */
+    <T> SpecificationNode<T> coalesce(final SingularAttribute<T, ?> attribute,
+                                      final Collection<?> values) {
+        final Class<?> type = ClassUtils.primitiveToWrapper(attribute.getJavaType());
+        if (!isIntegral(type) || !values.stream().allMatch(Number.class::isInstance)) {
+            return new PredicateNode<>(Operator.IN, attribute, new ArrayList<>(new LinkedHashSet<>(values)));
+        }
+        final Set<Object> converted = new LinkedHashSet<>();
+        values.forEach(value -> converted.add(valueOf(longValue(value), type)));
+        final List<Object> distinct = new ArrayList<>(converted);
+        distinct.sort(Comparator.comparingLong(InClauseCoalescing::longValue));
+        final List<SpecificationNode<T>> clauses = new ArrayList<>();
+        final List<Object> residual = new ArrayList<>();
+        int start = 0;
+        for (int i = 1; i <= distinct.size(); i++) {
+            if (i < distinct.size() && longValue(distinct.get(i)) == longValue(distinct.get(i - 1)) + 1) {
+                continue;
+            }
+            if (i - start >= minimumRunLength) {
+                clauses.add(new PredicateNode<>(
+                        Operator.BETWEEN, attribute, List.of(distinct.get(start), distinct.get(i - 1))));
+            } else {
+                residual.addAll(distinct.subList(start, i));
+            }
+            start = i;
+        }
+        if (!residual.isEmpty()) {
+            clauses.add(new PredicateNode<>(Operator.IN, attribute, residual));
+        }
+        return clauses.size() == 1 ? clauses.get(0) : new CompositeNode<>(Operator.OR, clauses);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "InClauseCoalescing[minimumRunLength=" + minimumRunLength + "]";
+    }
+
+    private static boolean isIntegral(final Class<?> type) {
+        return type == Long.class
+                || type == Integer.class
+                || type == Short.class
+                || type == Byte.class;
+    }
+
+    private static Object valueOf(final long value,
+                                  final Class<?> type) {
+        if (type == Integer.class) {
+            return (int) value;
+        }
+        if (type == Short.class) {
+            return (short) value;
+        }
+        if (type == Byte.class) {
+            return (byte) value;
+        }
+        return value;
+    }
+
+    private static long longValue(final Object value) {
+        return ((Number) value).longValue();
+    }
+}
@@ -0,0 +1,149 @@
+package io.github.quinnandrews.spring.data.specification.builder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A strategy that pads the values of an SQL in clause to one of a small
+ * number of sizes, by repeating the last value. Since an in clause is
+ * rendered with one bind parameter per value, in clauses with 3, 4 and
+ * 5 values otherwise render 3 distinct SQL statements, each of which
+ * takes up an entry in Hibernate's query plan cache and in the statement
+ * caches of the JDBC driver and the database. With padding, the number
+ * of distinct statements grows logarithmically with the number of
+ * values instead of linearly.
+ *
+ * <p> Duplicate values are removed before padding, so the padded values
+ * never exceed the padded size of the distinct values. Padding does not
+ * change the result of the in clause, and is opt-in per in clause with
+ * {@link SpecificationFactory#isIn(jakarta.persistence.metamodel.SingularAttribute, Collection, InClausePadding)}
+ * or {@link SpecificationBuilder#isIn(jakarta.persistence.metamodel.SingularAttribute, Collection, InClausePadding)}.
+ *
+ * @author Quinn Andrews
+ */
+public final class InClausePadding {
+
+    private static final InClausePadding NONE = new InClausePadding(new int[0], false);
+    private static final InClausePadding POWERS_OF_TWO = new InClausePadding(new int[0], true);
+
+    private final int[] buckets;
+    private final boolean powersOfTwo;
+
+    /**
+     * Constructs a new InClausePadding.
+     *
+     * @param buckets The sizes to pad to, in ascending order.
+     * @param powersOfTwo Whether to pad to the next power of two.
+     */
+    private InClausePadding(final int[] buckets,
+                            final boolean powersOfTwo) {
+        this.buckets = buckets;
+        this.powersOfTwo = powersOfTwo;
+    }
+
+    /**
+     * Returns a strategy that does not pad, but still removes
+     * duplicate values.
+     *
+     * @return An InClausePadding that does not pad.
+     */
+    public static InClausePadding none() {
+        return NONE;
+    }
+
+    /**
+     * Returns a strategy that pads to the next power of two, so that
+     * 1 to 500 values render at most 10 distinct statements.
+     *
+     * @return An InClausePadding that pads to powers of two.
+     */
+    public static InClausePadding powersOfTwo() {
+        return POWERS_OF_TWO;
+    }
+
+    /**
+     * Returns a strategy that pads to the smallest of the given sizes
+     * that fits the values, or to the next multiple of the largest size
+     * if none of them do.
+     *
+     * @param sizes The sizes to pad to, in ascending order.
+     * @return An InClausePadding that pads to the given sizes.
+     * @throws NullPointerException if the given sizes are null.
+     * @throws IllegalArgumentException if no sizes are given, or if the
+     *                                  sizes are not positive and in
+     *                                  strictly ascending order.
+     */
+    public static InClausePadding buckets(final int... sizes) {
+        Objects.requireNonNull(sizes, "Argument 'sizes' cannot be null.");
+        if (sizes.length == 0) {
+            throw new IllegalArgumentException("Argument 'sizes' cannot be empty.");
+        }
+        for (int i = 0; i < sizes.length; i++) {
+            if (sizes[i] < 1 || (i > 0 && sizes[i] <= sizes[i - 1])) {
+                throw new IllegalArgumentException(
+                        "Argument 'sizes' must be positive and in strictly ascending order.");
+            }
+        }
+        return new InClausePadding(sizes.clone(), false);
+    }
+
+    /**
+     * Returns the size that the given number of values is padded to.
+     *
+     * @param size The number of distinct values.
+     * @return The padded size, never less than the given size.
+     */
+    public int paddedSize(final int size) {
+        if (size <= 1) {
+            return size;
+        }
+        if (powersOfTwo) {
+            final int paddedSize = Integer.highestOneBit(size - 1) << 1;
+            return paddedSize > 0 ? paddedSize : size;
+        }
+        for (final int bucket : buckets) {
+            if (size <= bucket) {
+                return bucket;
+            }
+        }
+        if (buckets.length == 0) {
+            return size;
+        }
+        final int largest = buckets[buckets.length - 1];
+        return (int) Math.min(Integer.MAX_VALUE, ((long) size + largest - 1) / largest * largest);
+    }
+
+    /**
+     * Returns the distinct values of the given collection, in iteration
+     * order, padded to the padded size by repeating the last value.
+     *
+     * @param values The values of the in clause.
+     * @return A new List of padded values.
+     * @param <V> The type of the values.
+     * @throws NullPointerException if the given values are null.
+     */
+    public <V> List<V> pad(final Collection<? extends V> values) {
+        Objects.requireNonNull(values, "Argument 'values' cannot be null.");
+        final List<V> padded = new ArrayList<>(new LinkedHashSet<>(values));
+        final int paddedSize = paddedSize(padded.size());
+        while (padded.size() < paddedSize) {
+            padded.add(padded.get(padded.size() - 1));
+        }
+        return padded;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        if (powersOfTwo) {
+            return "InClausePadding[powersOfTwo]";
+        }
+        return "InClausePadding[buckets=" + Arrays.toString(buckets) + "]";
+    }
+}
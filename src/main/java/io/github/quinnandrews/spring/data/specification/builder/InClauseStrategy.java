@@ -0,0 +1,124 @@
+package io.github.quinnandrews.spring.data.specification.builder;
+
+import org.apache.commons.lang3.ClassUtils;
+
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.Iterator;
+
+/**
+ * A strategy that decides how the values of an SQL in clause are bound.
+ * By default, an in clause is rendered with one bind parameter per
+ * value, which is portable, but makes the SQL statement grow with the
+ * number of values, and fails on databases that limit the number of
+ * parameters of a statement. With the array strategy, an in clause is
+ * instead bound to a single array parameter, rendered as
+ * {@code array_contains(?, column)} on H2 and as
+ * {@code column = any(?)} on PostgreSQL, so the statement is the same
+ * for any number of values.
+ *
+ * <p> Arrays are only used where {@link SpecificationFunctionContributor}
+ * registers a function for the database. Elsewhere, an in clause with
+ * the array strategy is rendered with one parameter per value, and
+ * {@link InClauseChunking} can be used for large numbers of values
+ * instead. The strategy is chosen per in clause with
+ * {@link SpecificationFactory#isIn(jakarta.persistence.metamodel.SingularAttribute, Collection, InClauseStrategy)}
+ * or {@link SpecificationBuilder#isIn(jakarta.persistence.metamodel.SingularAttribute, Collection, InClauseStrategy)}.
+ *
+ * @author Quinn Andrews
+ */
+public final class InClauseStrategy {
+
+    private static final InClauseStrategy PARAMETERS = new InClauseStrategy(Integer.MAX_VALUE);
+    private static final InClauseStrategy ARRAY = new InClauseStrategy(0);
+
+    private final int threshold;
+
+    /**
+     * Constructs a new InClauseStrategy.
+     *
+     * @param threshold The number of distinct values above which an
+     *                  array parameter is used.
+     */
+    private InClauseStrategy(final int threshold) {
+        this.threshold = threshold;
+    }
+
+    /**
+     * Returns a strategy that binds one parameter per value.
+     *
+     * @return An InClauseStrategy that never uses an array.
+     */
+    public static InClauseStrategy parameters() {
+        return PARAMETERS;
+    }
+
+    /**
+     * Returns a strategy that binds all values to one array parameter.
+     *
+     * @return An InClauseStrategy that always uses an array.
+     */
+    public static InClauseStrategy array() {
+        return ARRAY;
+    }
+
+    /**
+     * Returns a strategy that binds one parameter per value for up to
+     * the given number of distinct values, and an array parameter for
+     * more, so that small in clauses keep the plans the database
+     * optimizes best for them.
+     *
+     * @param threshold The number of distinct values above which an
+     *                  array parameter is used.
+     * @return An InClauseStrategy that uses an array above the threshold.
+     * @throws IllegalArgumentException if the threshold is negative.
+     */
+    public static InClauseStrategy arrayAbove(final int threshold) {
+        if (threshold < 0) {
+            throw new IllegalArgumentException("Argument 'threshold' cannot be negative.");
+        }
+        return new InClauseStrategy(threshold);
+    }
+
+    /**
+     * Returns the operator of an in clause with the given number of
+     * distinct values.
+     *
+     * @param size The number of distinct values.
+     * @return {@link Operator#IN_ARRAY} if the size exceeds the
+     *         threshold, otherwise {@link Operator#IN}.
+     */
+    Operator operatorFor(final int size) {
+        return size > threshold ? Operator.IN_ARRAY : Operator.IN;
+    }
+
+    /**
+     * Returns the given values as an array whose component type is the
+     * wrapper of the given type, so that JDBC binds it as an SQL array
+     * of the type of the attribute.
+     *
+     * @param values The values of the in clause.
+     * @param type The Java type of the attribute.
+     * @return A new array of the values.
+     */
+    static Object toArray(final Collection<?> values,
+                          final Class<?> type) {
+        final Object array = Array.newInstance(ClassUtils.primitiveToWrapper(type), values.size());
+        final Iterator<?> iterator = values.iterator();
+        for (int i = 0; iterator.hasNext(); i++) {
+            Array.set(array, i, iterator.next());
+        }
+        return array;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        if (threshold == Integer.MAX_VALUE) {
+            return "InClauseStrategy[parameters]";
+        }
+        return "InClauseStrategy[arrayAbove=" + threshold + "]";
+    }
+}
@@ -0,0 +1,172 @@
+package io.github.quinnandrews.spring.data.specification.builder;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.Attribute;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A node that filters by the attributes of an association, rendering
+ * the nodes of its Specification on an inner join with the association
+ * rather than on the root. Every JoinNode on the same association of a
+ * Specification shares one join (see {@link JoinRegistry}), so that
+ * filters by several attributes apply to the same associated Entity.
+ * Since the SpecificationFactory drops a JoinNode whose Specification is
+ * a no-op "ghost", a join is only created when at least one of its
+ * filters applies.
+ *
+ * <p> A collection is joined in a correlated exists subquery rather than
+ * in the query, so that a root with several matching elements is still
+ * returned, and counted, once. An association filtered under an or
+ * clause is joined in an exists subquery of its own as well, so that the
+ * join does not filter out the rows matching the other conditions of the
+ * clause.
+ *
+ * <p> Unlike a fetch, the join does not populate the association. When
+ * the association is also fetched, the fetch keeps a join of its own,
+ * so that the whole associated collection is returned rather than only
+ * the entities that match the filters.
+ *
+ * @param <T> The Aggregate Root of the Specification.
+ * @param <A> The type of the associated Entity.
+ *
+ * @author Quinn Andrews
+ */
+public final class JoinNode<T, A> extends SpecificationNode<T> {
+
+    private final Attribute<T, ?> attribute;
+    private final SpecificationNode<A> specification;
+
+    /**
+     * Constructs a new JoinNode for the given association.
+     *
+     * @param attribute The singular or collection association to join.
+     * @param specification The Specification on the associated Entity.
+     */
+    JoinNode(final Attribute<T, ?> attribute,
+             final SpecificationNode<A> specification) {
+        super(Operator.JOIN);
+        this.attribute = attribute;
+        this.specification = specification;
+    }
+
+    /**
+     * Returns the association to join.
+     *
+     * @return The association to join.
+     */
+    public Attribute<T, ?> getAttribute() {
+        return attribute;
+    }
+
+    /**
+     * Returns the Specification on the associated Entity, which is
+     * rendered on the join.
+     *
+     * @return The Specification on the associated Entity.
+     */
+    public SpecificationNode<A> getSpecification() {
+        return specification;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Attribute<?, ?>> getAttributes() {
+        return List.of(attribute);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <R> R accept(final SpecificationVisitor<R> visitor) {
+        return visitor.visitJoin(this);
+    }
+
+    /**
+     * Renders the Specification of the node on the shared join with the
+     * association, or in the shared exists subquery of the association.
+     *
+     * @param root must not be {@literal null}.
+     * @param query can be {@literal null} to allow overrides that accept
+     *              {@link jakarta.persistence.criteria.CriteriaDelete}
+     *              which is an {@link jakarta.persistence.criteria.AbstractQuery}
+     *              but no {@link CriteriaQuery}.
+     * @param builder must not be {@literal null}.
+     * @return The Predicate of the Specification on the join.
+     */
+    @Override
+    public Predicate toPredicate(final Root<T> root,
+                                 final CriteriaQuery<?> query,
+                                 final CriteriaBuilder builder) {
+        return render(root, query, builder, new JoinRegistry());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    Predicate render(final From<?, T> from,
+                     final CriteriaQuery<?> query,
+                     final CriteriaBuilder builder,
+                     final JoinRegistry joins) {
+        if (joins.canJoin(attribute)) {
+            final Join<T, A> join = joins.join(from, attribute);
+            return specification.render(join, query, builder, joins);
+        }
+        return joins.<T, A>semijoin(from, attribute, query, builder,
+                (join, subqueryJoins) -> specification.render(join, query, builder, subqueryJoins));
+    }
+
+    /**
+     * Returns true if the given node can be rendered on a join, which
+     * is the case unless it contains a fetch or a Specification defined
+     * outside the SpecificationFactory, both of which can only be
+     * rendered on the root of a query.
+     *
+     * @param node The node to check.
+     * @return Boolean indicating whether the node can be joined.
+     */
+    static boolean isJoinable(final SpecificationNode<?> node) {
+        if (node instanceof FetchNode<?> || node instanceof CustomNode<?>) {
+            return false;
+        }
+        if (node instanceof JoinNode<?, ?> join) {
+            return isJoinable(join.specification);
+        }
+        return node.getChildren().stream().allMatch(JoinNode::isJoinable);
+    }
+
+    /**
+     * Returns true if the given Object is a JoinNode of the same
+     * association with an equal Specification.
+     *
+     * @param object The Object to compare.
+     * @return Boolean indicating whether the Object is equal.
+     */
+    @Override
+    public boolean equals(final Object object) {
+        if (this == object) {
+            return true;
+        }
+        return object instanceof JoinNode<?, ?> other
+                && attribute.equals(other.attribute)
+                && specification.equals(other.specification);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(getOperator(), attribute, specification);
+    }
+}
@@ -0,0 +1,178 @@
+package io.github.quinnandrews.spring.data.specification.builder;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Subquery;
+import jakarta.persistence.metamodel.Attribute;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * The joins created while rendering one Specification, so that every
+ * {@link JoinNode} on the same association of the same From shares a
+ * single join, rather than each creating a join of its own that
+ * multiplies the rows of the query. A registry is created each time
+ * a Specification is rendered, and is therefore scoped to one query.
+ *
+ * <p> A join of a collection would repeat each row of the query for
+ * every matching element, so a collection is joined in a correlated
+ * exists subquery instead (a semi-join), which every JoinNode on the
+ * collection shares, so that their filters still apply to the same
+ * element. A JoinNode under an or clause cannot join at the level of
+ * the query either, since the inner join would filter out the rows that
+ * only match the other conditions of the clause, so each condition of
+ * an or clause is rendered with a disjunct registry of its own (see
+ * {@link #disjunct()}), in which every association is joined in an
+ * exists subquery.
+ *
+ * @author Quinn Andrews
+ */
+final class JoinRegistry {
+
+    private final boolean disjunct;
+    private Map<From<?, ?>, Map<Attribute<?, ?>, Join<?, ?>>> joins;
+    private Map<From<?, ?>, Map<Attribute<?, ?>, Semijoin<?, ?>>> semijoins;
+
+    /**
+     * Constructs a new JoinRegistry for the top level of a query.
+     */
+    JoinRegistry() {
+        this(false);
+    }
+
+    /**
+     * Constructs a new JoinRegistry.
+     *
+     * @param disjunct Whether the registry renders a condition of an or
+     *                 clause.
+     */
+    private JoinRegistry(final boolean disjunct) {
+        this.disjunct = disjunct;
+    }
+
+    /**
+     * Returns a new registry for a condition of an or clause, which
+     * joins every association in an exists subquery.
+     *
+     * @return A new disjunct JoinRegistry.
+     */
+    JoinRegistry disjunct() {
+        return new JoinRegistry(true);
+    }
+
+    /**
+     * Returns true if an association can be joined at the level of the
+     * query, which is the case for a singular association outside of an
+     * or clause.
+     *
+     * @param attribute The association to join.
+     * @return Boolean indicating whether the association can be joined.
+     */
+    boolean canJoin(final Attribute<?, ?> attribute) {
+        return !disjunct && !attribute.isCollection();
+    }
+
+    /**
+     * Returns the inner join of the given association from the given
+     * From, creating it on first use.
+     *
+     * @param from The From to join from.
+     * @param attribute The association to join.
+     * @return The shared Join of the association.
+     * @param <X> The type of the From.
+     * @param <A> The type of the associated Entity.
+     */
+    @SuppressWarnings("unchecked")
+    <X, A> Join<X, A> join(final From<?, X> from,
+                           final Attribute<? super X, ?> attribute) {
+        if (joins == null) {
+            joins = new IdentityHashMap<>();
+        }
+        return (Join<X, A>) joins.computeIfAbsent(from, key -> new HashMap<>())
+                .computeIfAbsent(attribute, key -> from.join(attribute.getName(), JoinType.INNER));
+    }
+
+    /**
+     * Adds the condition rendered by the given function on the join of
+     * the given association to the correlated exists subquery of the
+     * association, creating the subquery on first use. The function
+     * receives the join within the subquery and the registry of the
+     * subquery.
+     *
+     * @param from The From to correlate the subquery with.
+     * @param attribute The association to join in the subquery.
+     * @param query The query to create the subquery of.
+     * @param builder The CriteriaBuilder of the query.
+     * @param condition Renders the condition on the join, or null.
+     * @return The exists clause of the subquery if it was created, or
+     *         null if the condition was added to a shared subquery whose
+     *         exists clause was already returned.
+     * @param <X> The type of the From.
+     * @param <A> The type of the associated Entity.
+     * @throws IllegalStateException if the query is null.
+     */
+    @SuppressWarnings("unchecked")
+    <X, A> Predicate semijoin(final From<?, X> from,
+                              final Attribute<? super X, ?> attribute,
+                              final CriteriaQuery<?> query,
+                              final CriteriaBuilder builder,
+                              final BiFunction<Join<X, A>, JoinRegistry, Predicate> condition) {
+        if (query == null) {
+            throw new IllegalStateException("Unsupported join of an association without a query: " + attribute.getName());
+        }
+        if (semijoins == null) {
+            semijoins = new IdentityHashMap<>();
+        }
+        final Map<Attribute<?, ?>, Semijoin<?, ?>> byAttribute = semijoins.computeIfAbsent(from, key -> new HashMap<>());
+        Semijoin<X, A> semijoin = (Semijoin<X, A>) byAttribute.get(attribute);
+        final boolean created = semijoin == null;
+        if (created) {
+            final Subquery<Integer> subquery = query.subquery(Integer.class);
+            subquery.select(builder.literal(1));
+            semijoin = new Semijoin<>(subquery, ExistsNode.correlate(subquery, from).join(attribute.getName()));
+            byAttribute.put(attribute, semijoin);
+        }
+        final Predicate predicate = condition.apply(semijoin.join, semijoin.joins);
+        if (predicate != null) {
+            semijoin.predicates.add(predicate);
+            semijoin.subquery.where(semijoin.predicates.toArray(Predicate[]::new));
+        }
+        return created ? builder.exists(semijoin.subquery) : null;
+    }
+
+    /**
+     * A correlated exists subquery that joins an association, with the
+     * conditions of the JoinNodes that share it.
+     *
+     * @param <X> The type of the From the subquery is correlated with.
+     * @param <A> The type of the associated Entity.
+     */
+    private static final class Semijoin<X, A> {
+
+        private final Subquery<Integer> subquery;
+        private final Join<X, A> join;
+        private final List<Predicate> predicates = new ArrayList<>();
+        private final JoinRegistry joins = new JoinRegistry();
+
+        /**
+         * Constructs a new Semijoin.
+         *
+         * @param subquery The exists subquery.
+         * @param join The join of the association in the subquery.
+         */
+        private Semijoin(final Subquery<Integer> subquery,
+                         final Join<X, A> join) {
+            this.subquery = subquery;
+            this.join = join;
+        }
+    }
+}
@@ -0,0 +1,364 @@
+package io.github.quinnandrews.spring.data.specification.builder;
+
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.IdentifiableType;
+import jakarta.persistence.metamodel.ManagedType;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * The ordered attributes of a keyset (or "seek") pagination, where each
+ * page is the rows that come after the last row of the previous page in
+ * the order of the attributes, rather than the rows after an offset.
+ * Since the database can seek to the first row of a page with an index
+ * on the attributes, rather than read and discard every row before the
+ * offset, fetching a page takes the same time however deep it is.
+ *
+ * <p> The identifier of the Aggregate Root is appended to the attributes
+ * as a tie-breaker, unless it is already one of them, so that the order
+ * is total and no row is skipped or repeated between pages. The values
+ * of the attributes of the last row of a page are encoded in an opaque
+ * continuation token (see {@link #tokenOf(Object)}), from which the
+ * seek predicate of the next page is built (see {@link #after(String)}),
+ * such as {@code used_value > ? or (used_value = ? and id > ?)}. The
+ * predicate has the same shape for every page, so it is compiled to a
+ * template once.
+ *
+ * <p> The attributes must be basic, non-nullable attributes of the
+ * Aggregate Root, since a null value cannot be compared in SQL. Optional
+ * attributes are rejected when the Keyset is created, rather than when
+ * a page happens to end on a row with a null value. So are attributes
+ * of a type whose values the token cannot encode without loss, which is
+ * any type other than a Number, String, Character, Boolean, enum, UUID,
+ * java.time type or java.util.Date. A java.util.Date, such as a
+ * java.sql.Timestamp, is encoded as an ISO-8601 instant with the full
+ * precision of its type, down to the nanoseconds of a Timestamp.
+ *
+ * <pre>{@code
+ * final var keyset = Keyset.of(List.of(GuitarPedal_.usedValue));
+ * final var first = executor.findAll(specification, keyset, null, 20);
+ * final var second = executor.findAll(specification, keyset, first.getNextToken(), 20);
+ * }</pre>
+ *
+ * @param <T> The Aggregate Root of the Specifications.
+ *
+ * @author Quinn Andrews
+ */
+public final class Keyset<T> {
+
+    private final List<SingularAttribute<T, ?>> attributes;
+    private final Sort.Direction direction;
+
+    /**
+     * Constructs a new Keyset.
+     *
+     * @param attributes The attributes to order by, including the
+     *                   identifier.
+     * @param direction The direction to order by.
+     */
+    private Keyset(final List<SingularAttribute<T, ?>> attributes,
+                   final Sort.Direction direction) {
+        this.attributes = List.copyOf(attributes);
+        this.direction = direction;
+    }
+
+    /**
+     * Returns a Keyset that orders by the given attributes in ascending
+     * order, followed by the identifier of the Aggregate Root.
+     *
+     * @param attributes The basic attributes to order by, in order.
+     * @return A new Keyset.
+     * @param <T> The Aggregate Root of the Specifications.
+     * @throws NullPointerException if the given List or any of its
+     *                              attributes is null.
+     * @throws IllegalArgumentException if the List is empty, if any of
+     *                                  its attributes is not basic, is
+     *                                  optional or cannot be encoded in
+     *                                  a token, or if the Aggregate
+     *                                  Root does not have a single
+     *                                  identifier.
+     */
+    public static <T> Keyset<T> of(final List<? extends SingularAttribute<T, ?>> attributes) {
+        return of(Sort.Direction.ASC, attributes);
+    }
+
+    /**
+     * Returns a Keyset that orders by the given attributes in the given
+     * direction, followed by the identifier of the Aggregate Root.
+     *
+     * @param direction The direction to order every attribute by.
+     * @param attributes The basic attributes to order by, in order.
+     * @return A new Keyset.
+     * @param <T> The Aggregate Root of the Specifications.
+     * @throws NullPointerException if the given direction, List or any
+     *                              of its attributes is null.
+     * @throws IllegalArgumentException if the List is empty, if any of
+     *                                  its attributes is not basic, is
+     *                                  optional or cannot be encoded in
+     *                                  a token, or if the Aggregate
+     *                                  Root does not have a single
+     *                                  identifier.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Keyset<T> of(final Sort.Direction direction,
+                                   final List<? extends SingularAttribute<T, ?>> attributes) {
+        Objects.requireNonNull(direction, "Argument 'direction' cannot be null.");
+        Objects.requireNonNull(attributes, "Argument 'attributes' cannot be null.");
+        if (attributes.isEmpty()) {
+            throw new IllegalArgumentException("Argument 'attributes' cannot be empty.");
+        }
+        final List<SingularAttribute<T, ?>> keys = new ArrayList<>(attributes.size() + 1);
+        for (final SingularAttribute<T, ?> attribute : attributes) {
+            Objects.requireNonNull(attribute, "Argument 'attributes' cannot contain null.");
+            if (attribute.getPersistentAttributeType() != Attribute.PersistentAttributeType.BASIC) {
+                throw new IllegalArgumentException("A Keyset can only order by basic attributes: " + attribute.getName());
+            }
+            if (attribute.isOptional()) {
+                throw new IllegalArgumentException("A Keyset can only order by non-nullable attributes: " + attribute.getName());
+            }
+            if (!isEncodable(attribute.getJavaType())) {
+                throw new IllegalArgumentException("A Keyset cannot encode the values of the attribute in a token: " + attribute.getName());
+            }
+            if (!keys.contains(attribute)) {
+                keys.add(attribute);
+            }
+        }
+        final SingularAttribute<T, ?> id = (SingularAttribute<T, ?>) idOf(attributes.get(0).getDeclaringType());
+        if (!keys.contains(id)) {
+            keys.add(id);
+        }
+        return new Keyset<>(keys, direction);
+    }
+
+    /**
+     * Returns the attributes to order by, ending with the identifier of
+     * the Aggregate Root unless it was given earlier.
+     *
+     * @return An unmodifiable List of attributes.
+     */
+    public List<SingularAttribute<T, ?>> getAttributes() {
+        return attributes;
+    }
+
+    /**
+     * Returns the direction every attribute is ordered by.
+     *
+     * @return The direction of the Keyset.
+     */
+    public Sort.Direction getDirection() {
+        return direction;
+    }
+
+    /**
+     * Returns the order of the Keyset as a Sort.
+     *
+     * @return A Sort by each attribute in the direction of the Keyset.
+     */
+    public Sort toSort() {
+        return Sort.by(direction, attributes.stream()
+                .map(Attribute::getName)
+                .toArray(String[]::new));
+    }
+
+    /**
+     * Returns the seek predicate of the page that comes after the row
+     * encoded in the given continuation token, as an SQL or clause with
+     * one term for each attribute, in which that attribute is past the
+     * value of the row and every attribute before it is equal to the
+     * value of the row.
+     *
+     * @param token The continuation token of the previous page, can be
+     *              {@literal null} for the first page.
+     * @return A Specification of the seek predicate, or a no-op "ghost"
+     *         Specification if the given token is null.
+     * @throws IllegalArgumentException if the token was not encoded by
+     *                                  a Keyset with the same attributes.
+     */
+    public Specification<T> after(final String token) {
+        if (token == null) {
+            return SpecificationFactory.ghost();
+        }
+        final List<Object> values = valuesOf(token);
+        final Operator comparison = direction.isAscending() ? Operator.GREATER_THAN : Operator.LESS_THAN;
+        final List<SpecificationNode<T>> disjunction = new ArrayList<>(attributes.size());
+        for (int i = 0; i < attributes.size(); i++) {
+            final List<SpecificationNode<T>> conjunction = new ArrayList<>(i + 1);
+            for (int j = 0; j < i; j++) {
+                conjunction.add(new PredicateNode<>(Operator.EQUAL, attributes.get(j), List.of(values.get(j))));
+            }
+            conjunction.add(new PredicateNode<>(comparison, attributes.get(i), List.of(values.get(i))));
+            disjunction.add(conjunction.size() == 1 ? conjunction.get(0) : new CompositeNode<>(Operator.AND, conjunction));
+        }
+        return disjunction.size() == 1 ? disjunction.get(0) : new CompositeNode<>(Operator.OR, disjunction);
+    }
+
+    /**
+     * Returns the continuation token of the given Entity, which encodes
+     * the values of its attributes so that the next page can be fetched
+     * with {@link #after(String)}. The token is URL-safe, and is meant
+     * to be passed to the client as is.
+     *
+     * @param entity The last Entity of a page.
+     * @return The continuation token of the Entity.
+     * @throws NullPointerException if the given Entity is null.
+     * @throws IllegalArgumentException if any attribute of the Entity
+     *                                  is null, which can only be the
+     *                                  case for an Entity that has not
+     *                                  been persisted yet.
+     */
+    public String tokenOf(final T entity) {
+        Objects.requireNonNull(entity, "Argument 'entity' cannot be null.");
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (final DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeInt(attributes.size());
+            for (final SingularAttribute<T, ?> attribute : attributes) {
+                final Object value = SortComparator.valueOf(entity, attribute.getName());
+                if (value == null) {
+                    throw new IllegalArgumentException("A Keyset cannot order by a null value: " + attribute.getName());
+                }
+                output.writeUTF(encode(value));
+            }
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    /**
+     * Returns the values encoded in the given continuation token,
+     * converted to the types of the attributes.
+     *
+     * @param token The continuation token to decode.
+     * @return The values of the token, in the order of the attributes.
+     * @throws IllegalArgumentException if the token was not encoded by
+     *                                  a Keyset with the same attributes.
+     */
+    private List<Object> valuesOf(final String token) {
+        try (final DataInputStream input = new DataInputStream(
+                new ByteArrayInputStream(Base64.getUrlDecoder().decode(token)))) {
+            if (input.readInt() != attributes.size()) {
+                throw new IllegalArgumentException("Wrong number of values.");
+            }
+            final List<Object> values = new ArrayList<>(attributes.size());
+            for (final SingularAttribute<T, ?> attribute : attributes) {
+                values.add(convert(input.readUTF(), attribute.getJavaType()));
+            }
+            if (input.available() > 0) {
+                throw new IllegalArgumentException("Unexpected trailing bytes.");
+            }
+            return values;
+        } catch (final IOException | RuntimeException e) {
+            throw new IllegalArgumentException("Argument 'token' is not a continuation token of this Keyset.", e);
+        }
+    }
+
+    /**
+     * Returns true if the values of the given type can be encoded in a
+     * token and converted back without loss.
+     *
+     * @param type The type of the attribute.
+     * @return Boolean indicating whether the type can be encoded.
+     */
+    private static boolean isEncodable(final Class<?> type) {
+        final Class<?> wrapper = ClassUtils.resolvePrimitiveIfNecessary(type);
+        return Number.class.isAssignableFrom(wrapper)
+                || String.class.equals(wrapper)
+                || Character.class.equals(wrapper)
+                || Boolean.class.equals(wrapper)
+                || UUID.class.equals(wrapper)
+                || wrapper.isEnum()
+                || TemporalAccessor.class.isAssignableFrom(wrapper)
+                || Date.class.isAssignableFrom(wrapper);
+    }
+
+    /**
+     * Encodes the given value as a String, with the name of an enum
+     * constant, the ISO-8601 instant of a java.util.Date, or the String
+     * representation of any other value.
+     *
+     * @param value The value to encode.
+     * @return The encoded value.
+     */
+    static String encode(final Object value) {
+        if (value instanceof Enum<?> constant) {
+            return constant.name();
+        }
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toInstant().toString();
+        }
+        if (value instanceof Date date) {
+            return Instant.ofEpochMilli(date.getTime()).toString();
+        }
+        return value.toString();
+    }
+
+    /**
+     * Converts the given String to the given type, with the static parse
+     * method of date and time types, as an instant for a java.util.Date,
+     * or with Spring's conversion service otherwise. A java.util.Date is
+     * converted to a java.sql.Timestamp, so that no precision is lost.
+     *
+     * @param value The String to convert.
+     * @param type The type of the attribute.
+     * @return The converted value.
+     */
+    static Object convert(final String value,
+                          final Class<?> type) {
+        final Class<?> wrapper = ClassUtils.resolvePrimitiveIfNecessary(type);
+        if (Date.class.isAssignableFrom(wrapper)) {
+            final Instant instant = Instant.parse(value);
+            if (java.sql.Date.class.equals(wrapper)) {
+                return new java.sql.Date(instant.toEpochMilli());
+            }
+            if (Time.class.equals(wrapper)) {
+                return new Time(instant.toEpochMilli());
+            }
+            return Timestamp.from(instant);
+        }
+        if (TemporalAccessor.class.isAssignableFrom(wrapper)) {
+            return ReflectionUtils.invokeMethod(
+                    Objects.requireNonNull(ReflectionUtils.findMethod(wrapper, "parse", CharSequence.class)),
+                    null,
+                    value);
+        }
+        return Objects.requireNonNull(DefaultConversionService.getSharedInstance().convert(value, wrapper));
+    }
+
+    /**
+     * Returns the identifier of the given type.
+     *
+     * @param type The type that declares the attributes of the Keyset.
+     * @return The identifier attribute.
+     * @throws IllegalArgumentException if the type does not have a
+     *                                  single identifier.
+     */
+    private static SingularAttribute<?, ?> idOf(final ManagedType<?> type) {
+        if (type instanceof IdentifiableType<?> identifiable
+                && identifiable.hasSingleIdAttribute()
+                && identifiable.getIdType() != null) {
+            return identifiable.getId(identifiable.getIdType().getJavaType());
+        }
+        throw new IllegalArgumentException("A Keyset requires an Entity with a single identifier: " + type.getJavaType());
+    }
+}
@@ -0,0 +1,60 @@
+package io.github.quinnandrews.spring.data.specification.builder;
+
+import java.util.List;
+
+/**
+ * A page of a {@link Keyset} pagination, with the continuation token
+ * of the next page. Unlike a {@link org.springframework.data.domain.Page},
+ * it does not know the total number of Entities, which would take a
+ * count query that reads every matching row.
+ *
+ * @param <T> The type of the Entities.
+ *
+ * @author Quinn Andrews
+ */
+public final class KeysetSlice<T> {
+
+    private final List<T> content;
+    private final String nextToken;
+
+    /**
+     * Constructs a new KeysetSlice.
+     *
+     * @param content The Entities of the page.
+     * @param nextToken The continuation token of the next page, or null
+     *                  if this is the last page.
+     */
+    KeysetSlice(final List<T> content,
+                final String nextToken) {
+        this.content = List.copyOf(content);
+        this.nextToken = nextToken;
+    }
+
+    /**
+     * Returns the Entities of the page.
+     *
+     * @return An unmodifiable List of Entities, never null.
+     */
+    public List<T> getContent() {
+        return content;
+    }
+
+    /**
+     * Returns the continuation token of the next page, to be passed to
+     * {@link Keyset#after(String)}.
+     *
+     * @return The continuation token, or null if this is the last page.
+     */
+    public String getNextToken() {
+        return nextToken;
+    }
+
+    /**
+     * Returns true if there is a page after this one.
+     *
+     * @return Boolean indicating whether there is a next page.
+     */
+    public boolean hasNext() {
+        return nextToken != null;
+    }
+}
@@ -0,0 +1,136 @@
+package io.github.quinnandrews.spring.data.specification.builder;
+
+/**
+ * The operators of the nodes that make up a Specification
+ * generated by the SpecificationFactory and SpecificationBuilder.
+ *
+ * @author Quinn Andrews
+ */
+public enum Operator {
+
+    /**
+     * A conjunction of Specifications, rendered as an SQL and clause.
+     */
+    AND,
+
+    /**
+     * A disjunction of Specifications, rendered as an SQL or clause.
+     */
+    OR,
+
+    /**
+     * An SQL equals clause.
+     */
+    EQUAL,
+
+    /**
+     * An SQL not equals clause.
+     */
+    NOT_EQUAL,
+
+    /**
+     * A case-insensitive SQL like clause.
+     */
+    LIKE,
+
+    /**
+     * A case-insensitive SQL not like clause.
+     */
+    NOT_LIKE,
+
+    /**
+     * An SQL is null clause.
+     */
+    IS_NULL,
+
+    /**
+     * An SQL is not null clause.
+     */
+    IS_NOT_NULL,
+
+    /**
+     * An SQL equals clause that checks if a boolean attribute is true.
+     */
+    IS_TRUE,
+
+    /**
+     * An SQL equals clause that checks if a boolean attribute is false.
+     */
+    IS_FALSE,
+
+    /**
+     * An SQL greater than clause.
+     */
+    GREATER_THAN,
+
+    /**
+     * An SQL greater than or equal to clause.
+     */
+    GREATER_THAN_OR_EQUAL_TO,
+
+    /**
+     * An SQL less than clause.
+     */
+    LESS_THAN,
+
+    /**
+     * An SQL less than or equal to clause.
+     */
+    LESS_THAN_OR_EQUAL_TO,
+
+    /**
+     * An SQL between clause.
+     */
+    BETWEEN,
+
+    /**
+     * An SQL in clause.
+     */
+    IN,
+
+    /**
+     * An SQL in clause bound to a single array parameter, where the
+     * database supports it (see {@link SpecificationFunctionContributor}).
+     */
+    IN_ARRAY,
+
+    /**
+     * A multi-column SQL in clause on a tuple of attributes.
+     */
+    TUPLE_IN,
+
+    /**
+     * A join with an association, filtered by a Specification on the
+     * associated Entity.
+     */
+    JOIN,
+
+    /**
+     * A correlated SQL exists clause on the elements of an associated
+     * collection, filtered by a Specification on the elements.
+     */
+    EXISTS,
+
+    /**
+     * A correlated SQL not exists clause on the elements of an associated
+     * collection, filtered by a Specification on the elements.
+     */
+    NOT_EXISTS,
+
+    /**
+     * An SQL in clause of an uncorrelated subquery that selects the
+     * identifiers of the Aggregate Roots matching a Specification.
+     */
+    SUBSELECT,
+
+    /**
+     * An eager fetch of an association.
+     */
+    FETCH,
+
+    /**
+     * A Specification defined outside the SpecificationFactory
+     * whose contents cannot be inspected.
+     */
+    CUSTOM
+}
@@ -0,0 +1,197 @@
+package io.github.quinnandrews.spring.data.specification.builder;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A node with a Predicate on an attribute of the Aggregate Root,
+ * such as an SQL equals, like, between or in clause.
+ *
+ * @param <T> The Aggregate Root of the Specification.
+ *
+ * @author Quinn Andrews
+ */
+public final class PredicateNode<T> extends SpecificationNode<T> {
+
+    private final SingularAttribute<T, ?> attribute;
+    private final List<Object> values;
+    private final InClausePadding padding;
+
+    /**
+     * Constructs a new PredicateNode with a copy of the given values.
+     *
+     * @param operator The operator of the Predicate.
+     * @param attribute The attribute the Predicate applies to.
+     * @param values The operand values of the Predicate.
+     */
+    PredicateNode(final Operator operator,
+                  final SingularAttribute<T, ?> attribute,
+                  final Collection<?> values) {
+        this(operator, attribute, values, null);
+    }
+
+    /**
+     * Constructs a new PredicateNode with a copy of the given values,
+     * which have been padded by the given strategy.
+     *
+     * @param operator The operator of the Predicate.
+     * @param attribute The attribute the Predicate applies to.
+     * @param values The operand values of the Predicate.
+     * @param padding The strategy the values were padded by, or null.
+     */
+    PredicateNode(final Operator operator,
+                  final SingularAttribute<T, ?> attribute,
+                  final Collection<?> values,
+                  final InClausePadding padding) {
+        super(operator);
+        this.attribute = attribute;
+        this.values = Collections.unmodifiableList(new ArrayList<>(values));
+        this.padding = padding;
+    }
+
+    /**
+     * Returns the attribute the Predicate applies to.
+     *
+     * @return The attribute the Predicate applies to.
+     */
+    public SingularAttribute<T, ?> getAttribute() {
+        return attribute;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Attribute<?, ?>> getAttributes() {
+        return List.of(attribute);
+    }
+
+    /**
+     * Returns the operand values of the Predicate. A like clause has
+     * the lower case pattern as its only value, a between clause has
+     * its two bounds, an in clause has each value of its collection
+     * whether it is bound to one parameter per value or to an array,
+     * and clauses without operands, such as an is null clause, have
+     * none.
+     *
+     * @return An unmodifiable List of values.
+     */
+    @Override
+    public List<Object> getValues() {
+        return values;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <R> R accept(final SpecificationVisitor<R> visitor) {
+        return visitor.visitPredicate(this);
+    }
+
+    /**
+     * Renders the Predicate that corresponds to the operator.
+     *
+     * @param root must not be {@literal null}.
+     * @param query can be {@literal null} to allow overrides that accept
+     *              {@link jakarta.persistence.criteria.CriteriaDelete}
+     *              which is an {@link jakarta.persistence.criteria.AbstractQuery}
+     *              but no {@link CriteriaQuery}.
+     * @param builder must not be {@literal null}.
+     * @return The Predicate that corresponds to the operator.
+     */
+    @Override
+    public Predicate toPredicate(final Root<T> root,
+                                 final CriteriaQuery<?> query,
+                                 final CriteriaBuilder builder) {
+        return render(root, query, builder, new JoinRegistry());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    Predicate render(final From<?, T> from,
+                     final CriteriaQuery<?> query,
+                     final CriteriaBuilder builder,
+                     final JoinRegistry joins) {
+        final Path<?> path = from.get(attribute);
+        return switch (getOperator()) {
+            case EQUAL -> builder.equal(path, values.get(0));
+            case NOT_EQUAL -> builder.notEqual(path, values.get(0));
+            case LIKE -> builder.like(builder.lower(path.as(String.class)), (String) values.get(0));
+            case NOT_LIKE -> builder.notLike(builder.lower(path.as(String.class)), (String) values.get(0));
+            case IS_NULL -> builder.isNull(path);
+            case IS_NOT_NULL -> builder.isNotNull(path);
+            case IS_TRUE -> builder.isTrue(path.as(Boolean.class));
+            case IS_FALSE -> builder.isFalse(path.as(Boolean.class));
+            case GREATER_THAN -> builder.greaterThan((Expression<Comparable>) path, (Comparable) values.get(0));
+            case GREATER_THAN_OR_EQUAL_TO -> builder.greaterThanOrEqualTo((Expression<Comparable>) path, (Comparable) values.get(0));
+            case LESS_THAN -> builder.lessThan((Expression<Comparable>) path, (Comparable) values.get(0));
+            case LESS_THAN_OR_EQUAL_TO -> builder.lessThanOrEqualTo((Expression<Comparable>) path, (Comparable) values.get(0));
+            case BETWEEN -> builder.between((Expression<Comparable>) path, (Comparable) values.get(0), (Comparable) values.get(1));
+            case IN -> path.in(values);
+            case IN_ARRAY -> SpecificationFunctionContributor.isInArrayRegistered(builder)
+                    ? builder.isTrue(builder.function(
+                            SpecificationFunctionContributor.IN_ARRAY,
+                            Boolean.class,
+                            ((HibernateCriteriaBuilder) builder).value(InClauseStrategy.toArray(values, attribute.getJavaType())),
+                            path))
+                    : path.in(values);
+            default -> throw new IllegalStateException("Unsupported operator: " + getOperator());
+        };
+    }
+
+    /**
+     * Returns the strategy the values of an in clause were padded by,
+     * so that values derived from them can be padded alike. It is not
+     * part of the structure of the node, since the padding is already
+     * in its values.
+     *
+     * @return The padding strategy, or null if the values are not padded.
+     */
+    InClausePadding getPadding() {
+        return padding;
+    }
+
+    /**
+     * Returns true if the given Object is a PredicateNode with the
+     * same operator, attribute and operand values.
+     *
+     * @param object The Object to compare.
+     * @return Boolean indicating whether the Object is equal.
+     */
+    @Override
+    public boolean equals(final Object object) {
+        if (this == object) {
+            return true;
+        }
+        return object instanceof PredicateNode<?> other
+                && getOperator() == other.getOperator()
+                && attribute.equals(other.attribute)
+                && values.equals(other.values);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(getOperator(), attribute, values);
+    }
+}
@@ -0,0 +1,233 @@
+package io.github.quinnandrews.spring.data.specification.builder;
+
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.apache.commons.lang3.ClassUtils;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The attributes of the Aggregate Root to select when executing a
+ * Specification with
+ * {@link SpecificationExecutor#findAll(org.springframework.data.jpa.domain.Specification, org.springframework.data.domain.Sort, Projection)},
+ * rather than the whole Entity. Only the columns of the attributes are
+ * read, and each row is returned as a {@link Tuple} or passed to the
+ * constructor of a DTO or record, so no Entity is hydrated, snapshotted
+ * or registered in the persistence context.
+ *
+ * <p> A {@link #tuple(List) tuple} projection returns a Tuple with an
+ * element for each attribute, aliased by the name of the attribute. A
+ * {@link #of(Class, List) constructor} projection passes the attributes,
+ * in order, to a constructor of the given Class whose parameters accept
+ * them. A {@link #of(Class) record} projection selects the attributes
+ * named like the components of the given record, in the order of its
+ * canonical constructor.
+ *
+ * <pre>{@code
+ * record PedalSummary(String name, Integer usedValue) {}
+ *
+ * final var summaries = executor.findAll(specification, Sort.by("name"), Projection.of(PedalSummary.class));
+ * }</pre>
+ *
+ * <p> Only basic attributes of the Aggregate Root can be selected. The
+ * fetches of the Specification are not defined on a projection query,
+ * although the condition of their inner join still applies (see
+ * {@link FetchNode}).
+ *
+ * @param <T> The Aggregate Root of the Specifications.
+ * @param <R> The type of the rows.
+ *
+ * @author Quinn Andrews
+ */
+public final class Projection<T, R> {
+
+    private final Class<R> type;
+    private final List<String> names;
+    private final List<Class<?>> types;
+
+    /**
+     * Constructs a new Projection.
+     *
+     * @param type The type of the rows.
+     * @param names The names of the attributes to select, in order.
+     * @param types The types the attributes must be assignable to, in
+     *              order, or an empty List if the types of the given
+     *              attributes were already verified.
+     */
+    private Projection(final Class<R> type,
+                       final List<String> names,
+                       final List<Class<?>> types) {
+        this.type = type;
+        this.names = List.copyOf(names);
+        this.types = List.copyOf(types);
+    }
+
+    /**
+     * Returns a projection that selects the given attributes as the
+     * elements of a Tuple, aliased by the names of the attributes.
+     *
+     * @param attributes The basic attributes to select, in order.
+     * @return A new Projection.
+     * @param <T> The Aggregate Root of the Specifications.
+     * @throws NullPointerException if the given List or any of its
+     *                              attributes is null.
+     * @throws IllegalArgumentException if the List is empty, or if any
+     *                                  of its attributes is not basic.
+     */
+    public static <T> Projection<T, Tuple> tuple(final List<? extends SingularAttribute<T, ?>> attributes) {
+        return new Projection<>(Tuple.class, namesOf(attributes), List.of());
+    }
+
+    /**
+     * Returns a projection that passes the given attributes, in order,
+     * to a constructor of the given Class.
+     *
+     * @param type The Class to construct a row with.
+     * @param attributes The basic attributes to select, in the order
+     *                   of the parameters of the constructor.
+     * @return A new Projection.
+     * @param <T> The Aggregate Root of the Specifications.
+     * @param <R> The type of the rows.
+     * @throws NullPointerException if any of the arguments, or any of
+     *                              the attributes, is null.
+     * @throws IllegalArgumentException if the List is empty, if any of
+     *                                  its attributes is not basic, or
+     *                                  if the Class has no public
+     *                                  constructor that accepts them.
+     */
+    public static <T, R> Projection<T, R> of(final Class<R> type,
+                                             final List<? extends SingularAttribute<T, ?>> attributes) {
+        Objects.requireNonNull(type, "Argument 'type' cannot be null.");
+        final List<String> names = namesOf(attributes);
+        final Class<?>[] parameterTypes = attributes.stream()
+                .map(Attribute::getJavaType)
+                .toArray(Class<?>[]::new);
+        final boolean constructible = Arrays.stream(type.getConstructors())
+                .map(Constructor::getParameterTypes)
+                .anyMatch(types -> ClassUtils.isAssignable(parameterTypes, types, true));
+        if (!constructible) {
+            throw new IllegalArgumentException(
+                    "Argument 'type' has no public constructor that accepts the attributes: " + names);
+        }
+        return new Projection<>(type, names, List.of());
+    }
+
+    /**
+     * Returns a projection that passes the attributes named like the
+     * components of the given record to its canonical constructor. The
+     * attributes are resolved when the projection is executed.
+     *
+     * @param type The record to construct a row with.
+     * @return A new Projection.
+     * @param <T> The Aggregate Root of the Specifications.
+     * @param <R> The type of the rows.
+     * @throws NullPointerException if the given type is null.
+     * @throws IllegalArgumentException if the record has no components.
+     */
+    public static <T, R extends Record> Projection<T, R> of(final Class<R> type) {
+        Objects.requireNonNull(type, "Argument 'type' cannot be null.");
+        final RecordComponent[] components = type.getRecordComponents();
+        if (components.length == 0) {
+            throw new IllegalArgumentException("Argument 'type' has no components to select.");
+        }
+        return new Projection<>(
+                type,
+                Arrays.stream(components).map(RecordComponent::getName).toList(),
+                Arrays.stream(components).<Class<?>>map(RecordComponent::getType).toList());
+    }
+
+    /**
+     * Returns the type of the rows.
+     *
+     * @return The Class of the rows.
+     */
+    public Class<R> getType() {
+        return type;
+    }
+
+    /**
+     * Returns the names of the attributes to select, in order.
+     *
+     * @return An unmodifiable List of attribute names.
+     */
+    public List<String> getAttributeNames() {
+        return names;
+    }
+
+    /**
+     * Returns the selection of the projection from the given root.
+     *
+     * @param root The root of the query.
+     * @param builder The CriteriaBuilder of the query.
+     * @return A Tuple or a constructor selection of the attributes.
+     * @throws IllegalArgumentException if the Aggregate Root has no
+     *                                  basic attribute of a name and type
+     *                                  that a record component requires.
+     */
+    @SuppressWarnings("unchecked")
+    Selection<R> toSelection(final Root<T> root,
+                             final CriteriaBuilder builder) {
+        final Selection<?>[] selections = new Selection<?>[names.size()];
+        for (int i = 0; i < names.size(); i++) {
+            if (!types.isEmpty() && !matches(root, names.get(i), types.get(i))) {
+                throw new IllegalArgumentException(
+                        "Component '" + names.get(i) + "' of " + type.getSimpleName()
+                                + " does not match a basic attribute of " + root.getJavaType().getSimpleName() + ".");
+            }
+            selections[i] = root.get(names.get(i)).alias(names.get(i));
+        }
+        return Tuple.class.equals(type)
+                ? (Selection<R>) (Selection<?>) builder.tuple(selections)
+                : builder.construct(type, selections);
+    }
+
+    /**
+     * Returns true if the given root has a basic attribute of the given
+     * name that is assignable to the given type.
+     *
+     * @param root The root of the query.
+     * @param name The name of the attribute.
+     * @param type The type the attribute must be assignable to.
+     * @return Boolean indicating whether the attribute matches.
+     */
+    private static boolean matches(final Root<?> root,
+                                   final String name,
+                                   final Class<?> type) {
+        return root.getModel().getAttributes().stream()
+                .filter(attribute -> attribute.getName().equals(name))
+                .anyMatch(attribute -> attribute.getPersistentAttributeType() == Attribute.PersistentAttributeType.BASIC
+                        && ClassUtils.isAssignable(attribute.getJavaType(), type, true));
+    }
+
+    /**
+     * Returns the names of the given attributes, verifying that they
+     * can be selected.
+     *
+     * @param attributes The attributes to select.
+     * @return The names of the attributes, in order.
+     */
+    private static List<String> namesOf(final List<? extends SingularAttribute<?, ?>> attributes) {
+        Objects.requireNonNull(attributes, "Argument 'attributes' cannot be null.");
+        if (attributes.isEmpty()) {
+            throw new IllegalArgumentException("Argument 'attributes' cannot be empty.");
+        }
+        final List<String> names = new ArrayList<>(attributes.size());
+        for (final SingularAttribute<?, ?> attribute : attributes) {
+            Objects.requireNonNull(attribute, "Argument 'attributes' cannot contain null.");
+            if (attribute.getPersistentAttributeType() != Attribute.PersistentAttributeType.BASIC) {
+                throw new IllegalArgumentException("A Projection can only select basic attributes: " + attribute.getName());
+            }
+            names.add(attribute.getName());
+        }
+        return names;
+    }
+}
@@ -0,0 +1,138 @@
+package io.github.quinnandrews.spring.data.specification.builder;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A query compiled once from the shape of a Specification, to which the
+ * values of any Specification with the same shape (see
+ * {@link SpecificationFingerprint#getShapeHash()}) can be bound each
+ * time it is executed. Only Specifications generated by the
+ * SpecificationFactory and SpecificationBuilder can be compiled, since
+ * a Specification defined with a lambda expression captures its values
+ * where they cannot be replaced with parameters.
+ *
+ * <p> A template is immutable once compiled and may be shared between
+ * threads and EntityManagers of the same persistence unit.
+ * {@link SpecificationExecutor} compiles and caches templates
+ * automatically.
+ *
+ * @param <T> The Aggregate Root of the Specification.
+ *
+ * @author Quinn Andrews
+ */
+public abstract class QueryTemplate<T> {
+
+    private final String shapeHash;
+    private final int parameterCount;
+    private final Map<Integer, Class<?>> arrayTypes;
+
+    /**
+     * Constructs a new QueryTemplate.
+     *
+     * @param shapeHash The shape hash of the compiled Specification.
+     * @param parameterCount The number of parameters of the template.
+     * @param arrayTypes The attribute types of the array parameters of
+     *                   the template, by the index of their parameter.
+     */
+    QueryTemplate(final String shapeHash,
+                  final int parameterCount,
+                  final Map<Integer, Class<?>> arrayTypes) {
+        this.shapeHash = shapeHash;
+        this.parameterCount = parameterCount;
+        this.arrayTypes = Map.copyOf(arrayTypes);
+    }
+
+    /**
+     * Returns the fingerprint of the given Specification, verifying that
+     * it can be compiled to a template.
+     *
+     * @param specification The Specification to compile.
+     * @return The fingerprint of the Specification.
+     * @throws IllegalArgumentException if the Specification contains
+     *                                  Specifications defined outside the
+     *                                  SpecificationFactory.
+     */
+    static SpecificationFingerprint structuralFingerprint(final Specification<?> specification) {
+        final SpecificationFingerprint fingerprint = SpecificationFingerprint.of(specification);
+        if (!fingerprint.isStructural()) {
+            throw new IllegalArgumentException(
+                    "Specifications defined outside the SpecificationFactory cannot be compiled to a template.");
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Returns the shape hash of the Specifications the template applies to.
+     *
+     * @return A hexadecimal String.
+     */
+    public String getShapeHash() {
+        return shapeHash;
+    }
+
+    /**
+     * Returns the number of parameters of the template.
+     *
+     * @return The number of parameters.
+     */
+    public int getParameterCount() {
+        return parameterCount;
+    }
+
+    /**
+     * Creates a query from the template and binds the values of the
+     * given Specification to its parameters.
+     *
+     * @param entityManager The EntityManager to create the query with.
+     * @param specification The Specification whose values to bind.
+     * @return A TypedQuery ready to be executed.
+     * @throws NullPointerException if any of the arguments is null.
+     * @throws IllegalArgumentException if the shape of the Specification
+     *                                  does not match the template.
+     */
+    public TypedQuery<T> bind(final EntityManager entityManager,
+                              final Specification<T> specification) {
+        Objects.requireNonNull(entityManager, "Argument 'entityManager' cannot be null.");
+        Objects.requireNonNull(specification, "Argument 'specification' cannot be null.");
+        if (!shapeHash.equals(SpecificationFingerprint.of(specification).getShapeHash())) {
+            throw new IllegalArgumentException("The shape of the Specification does not match the template.");
+        }
+        return bindValues(entityManager, SpecificationNode.of(specification));
+    }
+
+    /**
+     * Returns the value to bind to the parameter at the given index,
+     * converting the values of an in clause to an array if the
+     * parameter is an array parameter.
+     *
+     * @param values The values collected from a Specification.
+     * @param index The index of the parameter.
+     * @return The value to bind.
+     */
+    Object parameterValue(final List<Object> values,
+                          final int index) {
+        final Class<?> arrayType = arrayTypes.get(index);
+        if (arrayType == null) {
+            return values.get(index);
+        }
+        return InClauseStrategy.toArray((Collection<?>) values.get(index), arrayType);
+    }
+
+    /**
+     * Creates a query from the template and binds the values of the
+     * given node, which must already be known to match the shape of
+     * the template.
+     *
+     * @param entityManager The EntityManager to create the query with.
+     * @param node The node whose values to bind.
+     * @return A TypedQuery ready to be executed.
+     */
+    abstract TypedQuery<T> bindValues(EntityManager entityManager, SpecificationNode<T> node);
+}
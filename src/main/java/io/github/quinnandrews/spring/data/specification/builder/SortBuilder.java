@@ -0,0 +1,187 @@
+package io.github.quinnandrews.spring.data.specification.builder;
+
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Generates a Sort with a fluent-API that complements the
+ * SpecificationBuilder, requiring Attributes instead of Strings
+ * for type safety.
+ *
+ * <p> Attributes of a singular association are sorted by with the
+ * association and the attribute, such as
+ * {@code asc(GuitarPedal_.manufacturer, Manufacturer_.name)}. When the
+ * Sort is executed by a {@link SpecificationExecutor} with a Specification
+ * that already fetches or joins the association, the association is
+ * sorted through that fetch or join rather than being joined again.
+ * Otherwise, it is joined with a left join, so that sorting does not
+ * filter out rows where the association is null.
+ *
+ * <pre>{@code
+ * final var sort = SortBuilder.from(GuitarPedal.class)
+ *         .asc(GuitarPedal_.manufacturer, Manufacturer_.name).ignoringCase()
+ *         .desc(GuitarPedal_.usedValue)
+ *         .toSort();
+ * }</pre>
+ *
+ * @param <T> The Entity Type to query from as the Aggregate Root.
+ *
+ * @author Quinn Andrews
+ */
+public class SortBuilder<T> {
+
+    private final List<Sort.Order> orders = new ArrayList<>();
+
+    /**
+     * Default Constructor. Private since this Class is meant
+     * to be instantiated with the from(final Class<T> root)
+     * method.
+     */
+    private SortBuilder() {
+        // no-op
+    }
+
+    /**
+     * Returns a new instance of SortBuilder with the given
+     * root as the Aggregate Root of the Sort.
+     *
+     * @param root The Entity Class to query from as the
+     *             Aggregate Root.
+     * @return A new instance of SortBuilder
+     * @param <T> The Aggregate Root of the Sort.
+     * @throws NullPointerException if the given root is null.
+     */
+    public static <T> SortBuilder<T> from(final Class<T> root) {
+        Objects.requireNonNull(root, "Argument 'root' cannot be null.");
+        return new SortBuilder<>();
+    }
+
+    /**
+     * Returns the Sort built so far, which is unsorted if no
+     * order has been added.
+     *
+     * @return The Sort that represents the result of the build.
+     */
+    public Sort toSort() {
+        return orders.isEmpty() ? Sort.unsorted() : Sort.by(orders);
+    }
+
+    /**
+     * Adds an ascending order by the given attribute.
+     *
+     * @param attribute The attribute to sort by.
+     * @return The current instance of the SortBuilder.
+     * @throws NullPointerException if the given attribute is null.
+     */
+    public SortBuilder<T> asc(final SingularAttribute<T, ?> attribute) {
+        return add(Sort.Direction.ASC, path(attribute));
+    }
+
+    /**
+     * Adds a descending order by the given attribute.
+     *
+     * @param attribute The attribute to sort by.
+     * @return The current instance of the SortBuilder.
+     * @throws NullPointerException if the given attribute is null.
+     */
+    public SortBuilder<T> desc(final SingularAttribute<T, ?> attribute) {
+        return add(Sort.Direction.DESC, path(attribute));
+    }
+
+    /**
+     * Adds an ascending order by the given attribute of the given
+     * singular association.
+     *
+     * @param association The singular association of the attribute.
+     * @param attribute The attribute of the associated Entity to
+     *                  sort by.
+     * @return The current instance of the SortBuilder.
+     * @param <A> The type of the associated Entity.
+     * @throws NullPointerException if any of the arguments is null.
+     * @throws IllegalArgumentException if the given association is not
+     *                                  an association.
+     */
+    public <A> SortBuilder<T> asc(final SingularAttribute<T, A> association,
+                                  final SingularAttribute<A, ?> attribute) {
+        return add(Sort.Direction.ASC, path(association, attribute));
+    }
+
+    /**
+     * Adds a descending order by the given attribute of the given
+     * singular association.
+     *
+     * @param association The singular association of the attribute.
+     * @param attribute The attribute of the associated Entity to
+     *                  sort by.
+     * @return The current instance of the SortBuilder.
+     * @param <A> The type of the associated Entity.
+     * @throws NullPointerException if any of the arguments is null.
+     * @throws IllegalArgumentException if the given association is not
+     *                                  an association.
+     */
+    public <A> SortBuilder<T> desc(final SingularAttribute<T, A> association,
+                                   final SingularAttribute<A, ?> attribute) {
+        return add(Sort.Direction.DESC, path(association, attribute));
+    }
+
+    /**
+     * Makes the last added order case-insensitive.
+     *
+     * @return The current instance of the SortBuilder.
+     * @throws IllegalStateException if no order has been added.
+     */
+    public SortBuilder<T> ignoringCase() {
+        if (orders.isEmpty()) {
+            throw new IllegalStateException("No order has been added to ignore the case of.");
+        }
+        final int last = orders.size() - 1;
+        orders.set(last, orders.get(last).ignoreCase());
+        return this;
+    }
+
+    /**
+     * Adds an order by the given property path in the given direction.
+     *
+     * @param direction The direction of the order.
+     * @param path The property path to sort by.
+     * @return The current instance of the SortBuilder.
+     */
+    private SortBuilder<T> add(final Sort.Direction direction,
+                               final String path) {
+        orders.add(new Sort.Order(direction, path));
+        return this;
+    }
+
+    /**
+     * Returns the property path of the given attribute.
+     *
+     * @param attribute The attribute of the Aggregate Root.
+     * @return The name of the attribute.
+     */
+    private static String path(final SingularAttribute<?, ?> attribute) {
+        Objects.requireNonNull(attribute, "Argument 'attribute' cannot be null.");
+        return attribute.getName();
+    }
+
+    /**
+     * Returns the dot notation property path of the given attribute of
+     * the given association.
+     *
+     * @param association The association of the Aggregate Root.
+     * @param attribute The attribute of the associated Entity.
+     * @return The name of the association and the attribute.
+     */
+    private static String path(final SingularAttribute<?, ?> association,
+                               final SingularAttribute<?, ?> attribute) {
+        Objects.requireNonNull(association, "Argument 'association' cannot be null.");
+        Objects.requireNonNull(attribute, "Argument 'attribute' cannot be null.");
+        if (!association.isAssociation()) {
+            throw new IllegalArgumentException("Argument 'association' is not an association: " + association.getName());
+        }
+        return association.getName() + "." + attribute.getName();
+    }
+}
@@ -0,0 +1,103 @@
+package io.github.quinnandrews.spring.data.specification.builder;
+
+import org.springframework.beans.NullValueInNestedPathException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.util.DirectFieldAccessFallbackBeanWrapper;
+
+import java.util.Comparator;
+
+/**
+ * Compares Entities in memory by the properties of a Sort, for merging
+ * the results of several queries that were each ordered by the same
+ * Sort. Properties are read with their getters, falling back to their
+ * fields, and may navigate associations with dot notation. Null values,
+ * including those of a null association along the way, are ordered as
+ * smaller than any other value unless the Sort specifies otherwise, so
+ * the queries whose results are merged should order them explicitly
+ * (see {@link #withNullHandling(Sort)}). Other values are ordered by
+ * their natural order in Java, and Strings of an order that ignores case
+ * by their lower case, which may differ from the collation of the
+ * database.
+ *
+ * @param <T> The type of the Entities.
+ *
+ * @author Quinn Andrews
+ */
+final class SortComparator<T> implements Comparator<T> {
+
+    private final Sort sort;
+
+    /**
+     * Constructs a new SortComparator.
+     *
+     * @param sort The Sort to compare by.
+     */
+    SortComparator(final Sort sort) {
+        this.sort = sort;
+    }
+
+    /**
+     * Returns a copy of the given Sort in which every order without an
+     * explicit null handling orders null values as the comparator does,
+     * first if ascending and last if descending.
+     *
+     * @param sort The Sort to copy.
+     * @return A Sort with the null handling of every order explicit.
+     */
+    static Sort withNullHandling(final Sort sort) {
+        return Sort.by(sort.stream()
+                .map(order -> order.getNullHandling() != Sort.NullHandling.NATIVE ? order
+                        : order.isAscending() ? order.nullsFirst() : order.nullsLast())
+                .toList());
+    }
+
+    /**
+     * Returns the value of the given property of the given Entity.
+     *
+     * @param entity The Entity to read the property of.
+     * @param property The name or dot notation path of the property.
+     * @return The value of the property, or null if it or any
+     *         association along its path is null.
+     */
+    static Object valueOf(final Object entity,
+                          final String property) {
+        try {
+            return new DirectFieldAccessFallbackBeanWrapper(entity).getPropertyValue(property);
+        } catch (final NullValueInNestedPathException e) {
+            return null;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public int compare(final T first,
+                       final T second) {
+        for (final Sort.Order order : sort) {
+            Object firstValue = valueOf(first, order.getProperty());
+            Object secondValue = valueOf(second, order.getProperty());
+            if (order.isIgnoreCase() && firstValue instanceof String && secondValue instanceof String) {
+                firstValue = ((String) firstValue).toLowerCase();
+                secondValue = ((String) secondValue).toLowerCase();
+            }
+            if (firstValue == null || secondValue == null) {
+                if (firstValue != secondValue) {
+                    final boolean nullsFirst = switch (order.getNullHandling()) {
+                        case NULLS_FIRST -> true;
+                        case NULLS_LAST -> false;
+                        default -> order.isAscending();
+                    };
+                    return (firstValue == null) == nullsFirst ? -1 : 1;
+                }
+                continue;
+            }
+            final int result = ((Comparable) firstValue).compareTo(secondValue);
+            if (result != 0) {
+                return order.isAscending() ? result : -result;
+            }
+        }
+        return 0;
+    }
+}
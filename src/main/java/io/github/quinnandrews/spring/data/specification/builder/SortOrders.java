@@ -0,0 +1,112 @@
+package io.github.quinnandrews.spring.data.specification.builder;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Fetch;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Order;
+import org.hibernate.query.NullPrecedence;
+import org.hibernate.query.criteria.JpaOrder;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.mapping.PropertyPath;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Converts a Sort to the Orders of a CriteriaQuery, navigating the
+ * associations of each property through the joins the Specification
+ * of the query already rendered. Spring's QueryUtils reuses a join of
+ * the association, but not a fetch, so ordering by an attribute of a
+ * fetched association would otherwise join it a second time. An
+ * association that is neither fetched nor joined is joined with a left
+ * join, so that ordering does not filter out rows where it is null, and
+ * further properties of the same association share that join. QueryUtils
+ * also ignores the null handling of an order, which is applied to the
+ * Order if the query is Hibernate's.
+ *
+ * @author Quinn Andrews
+ */
+final class SortOrders {
+
+    /**
+     * Default Constructor. Private since this Class is not
+     * meant to be instantiated.
+     */
+    private SortOrders() {
+        // no-op
+    }
+
+    /**
+     * Returns the Orders of the given Sort, rendered on the given root
+     * after the Specification of the query.
+     *
+     * @param sort The order of the results.
+     * @param root The root of the query.
+     * @param builder The CriteriaBuilder of the query.
+     * @return The Orders of the Sort, in order.
+     * @throws org.springframework.data.mapping.PropertyReferenceException
+     *         if the Sort refers to a property the root does not have.
+     */
+    static List<Order> toOrders(final Sort sort,
+                                final From<?, ?> root,
+                                final CriteriaBuilder builder) {
+        final List<Order> orders = new ArrayList<>();
+        for (final Sort.Order order : sort) {
+            PropertyPath property = PropertyPath.from(order.getProperty(), root.getJavaType());
+            From<?, ?> from = root;
+            while (property.hasNext()) {
+                from = join(from, property.getSegment());
+                property = property.next();
+            }
+            QueryUtils.toOrders(Sort.by(order.withProperty(property.getSegment())), from, builder)
+                    .forEach(jpaOrder -> orders.add(withNullHandling(jpaOrder, order.getNullHandling())));
+        }
+        return orders;
+    }
+
+    /**
+     * Returns the given Order with the given null handling, if it is
+     * explicit and the Order is Hibernate's.
+     *
+     * @param order The Order to apply the null handling to.
+     * @param nullHandling The null handling of the order of the Sort.
+     * @return The Order with the null handling applied.
+     */
+    private static Order withNullHandling(final Order order,
+                                          final Sort.NullHandling nullHandling) {
+        if (!(order instanceof JpaOrder jpaOrder)) {
+            return order;
+        }
+        return switch (nullHandling) {
+            case NULLS_FIRST -> jpaOrder.nullPrecedence(NullPrecedence.FIRST);
+            case NULLS_LAST -> jpaOrder.nullPrecedence(NullPrecedence.LAST);
+            default -> order;
+        };
+    }
+
+    /**
+     * Returns the fetch or join of the given association from the given
+     * From, or a new left join if it has neither.
+     *
+     * @param from The From the association belongs to.
+     * @param association The name of the association.
+     * @return The From of the association.
+     */
+    private static From<?, ?> join(final From<?, ?> from,
+                                   final String association) {
+        for (final Fetch<?, ?> fetch : from.getFetches()) {
+            if (fetch instanceof From<?, ?> join && fetch.getAttribute().getName().equals(association)) {
+                return join;
+            }
+        }
+        for (final Join<?, ?> join : from.getJoins()) {
+            if (join.getAttribute().getName().equals(association)) {
+                return join;
+            }
+        }
+        return from.join(association, JoinType.LEFT);
+    }
+}
@@ -4,19 +4,30 @@ import jakarta.persistence.metamodel.PluralAttribute;
 import jakarta.persistence.metamodel.SingularAttribute;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Objects;
+import java.util.function.UnaryOperator;
 
 /**
  * Generates and composes Specifications with a fluent-API that is easy to read.
  *
+ * <p> Composed Specifications are kept in a flat list of terms rather than
+ * being wrapped in another composition on every call, so that the resulting
+ * Specification renders a single SQL and/or clause for any number of terms.
+ * No-op "ghost" Specifications are dropped as they are added.
+ *
  * @param <T> The Entity Type to query from as the Aggregate Root.
  *
  * @author Quinn Andrews
  */
 public class SpecificationBuilder<T> {
-    
-    private Specification<T> specification;
+
+    private final List<SpecificationNode<T>> terms = new ArrayList<>();
+    private Operator operator = Operator.AND;
+    private ExecutionHints hints = ExecutionHints.none();
+    private boolean defined;
 
     /**
      * Default Constructor. Private since this Class is meant
@@ -45,13 +56,49 @@ public class SpecificationBuilder<T> {
     /**
      * Returns the underlying composite Specification in
      * its current state. WARNING: Can be null under some
-     * circumstances.
+     * circumstances. The Specification is returned as a
+     * {@link CompositeNode}, so it can be inspected with a
+     * {@link SpecificationVisitor}.
      *
      * @return The underlying composite Specification that
      *         represents the result of the build.
      */
     public Specification<T> toSpecification() {
-        return specification;
+        return defined ? new CompositeNode<>(operator, terms, hints) : null;
+    }
+
+    /**
+     * Returns the underlying composite Specification in its
+     * current state, rewritten by the {@link SpecificationNormalizer}
+     * into a simpler, equivalent Specification: duplicates removed,
+     * bounds on the same attribute merged and equals conditions on
+     * the same attribute in an or clause collapsed into an in clause.
+     * WARNING: Can be null under some circumstances.
+     *
+     * @return The normalized Specification that represents the
+     *         result of the build.
+     */
+    public Specification<T> toNormalizedSpecification() {
+        return SpecificationNormalizer.normalize(toSpecification());
+    }
+
+    /**
+     * Attaches query hints to the Specification, such as read-only or a
+     * fetch size, which a {@link SpecificationExecutor} applies to every
+     * query it executes the Specification with (see {@link ExecutionHints}).
+     * The given function receives the hints attached so far, so that
+     * hints can be attached with several calls.
+     *
+     * @param definition Defines the hints, given the current hints.
+     * @return The current instance of the SpecificationBuilder.
+     * @throws NullPointerException if the given function is null.
+     */
+    public SpecificationBuilder<T> withHints(final UnaryOperator<ExecutionHints> definition) {
+        Objects.requireNonNull(definition, "Argument 'definition' cannot be null.");
+        final ExecutionHints attached = definition.apply(hints);
+        hints = attached == null ? ExecutionHints.none() : attached;
+        defined = true;
+        return this;
     }
 
     /**
@@ -78,9 +125,7 @@ public class SpecificationBuilder<T> {
      */
     public SpecificationBuilder<T> where(final Specification<T> specification) {
         Objects.requireNonNull(specification, "Argument 'specification' cannot be null.");
-        this.specification = this.specification == null ?
-                Specification.where(specification) : this.specification.and(specification);
-        return this;
+        return compose(Operator.AND, specification);
     }
 
     /**
@@ -121,9 +166,7 @@ public class SpecificationBuilder<T> {
      */
     public SpecificationBuilder<T> or(final Specification<T> specification) {
         Objects.requireNonNull(specification, "Argument 'specification' cannot be null.");
-        this.specification = this.specification == null ?
-                Specification.where(specification) : this.specification.or(specification);
-        return this;
+        return compose(Operator.OR, specification);
     }
 
     /**
@@ -374,6 +417,69 @@ public class SpecificationBuilder<T> {
         return where(SpecificationFactory.isIn(attribute, collection));
     }
 
+    /**
+     * Adds a Specification with a Predicate representing an
+     * SQL in clause, with its values padded by the given strategy,
+     * or a no-op "ghost" Predicate if the given collection is null,
+     * to the current Specification.
+     *
+     * @param attribute The attribute to match against the values.
+     * @param collection The collection of values to match against
+     *                   the attribute.
+     * @param padding The strategy that pads the values, limiting the
+     *                number of distinct SQL statements rendered.
+     * @return The current instance of the SpecificationBuilder.
+     * @throws NullPointerException if the given attribute or padding
+     *                              is null.
+     */
+    public SpecificationBuilder<T> isIn(final SingularAttribute<T, ?> attribute,
+                                        final Collection<?> collection,
+                                        final InClausePadding padding) {
+        return where(SpecificationFactory.isIn(attribute, collection, padding));
+    }
+
+    /**
+     * Adds a Specification with a Predicate representing an
+     * SQL in clause, with its values bound as the given strategy
+     * decides, or a no-op "ghost" Predicate if the given collection
+     * is null, to the current Specification.
+     *
+     * @param attribute The attribute to match against the values.
+     * @param collection The collection of values to match against
+     *                   the attribute.
+     * @param strategy The strategy that decides whether the values are
+     *                 bound to one parameter each or to an array.
+     * @return The current instance of the SpecificationBuilder.
+     * @throws NullPointerException if the given attribute or strategy
+     *                              is null.
+     */
+    public SpecificationBuilder<T> isIn(final SingularAttribute<T, ?> attribute,
+                                        final Collection<?> collection,
+                                        final InClauseStrategy strategy) {
+        return where(SpecificationFactory.isIn(attribute, collection, strategy));
+    }
+
+    /**
+     * Adds a Specification with a Predicate representing an
+     * SQL in clause, with runs of consecutive integral values coalesced
+     * into SQL between clauses by the given strategy, or a no-op
+     * "ghost" Predicate if the given collection is null, to the
+     * current Specification.
+     *
+     * @param attribute The attribute to match against the values.
+     * @param collection The collection of values to match against
+     *                   the attribute.
+     * @param coalescing The strategy that coalesces runs of values.
+     * @return The current instance of the SpecificationBuilder.
+     * @throws NullPointerException if the given attribute or coalescing
+     *                              is null.
+     */
+    public SpecificationBuilder<T> isIn(final SingularAttribute<T, ?> attribute,
+                                        final Collection<?> collection,
+                                        final InClauseCoalescing coalescing) {
+        return where(SpecificationFactory.isIn(attribute, collection, coalescing));
+    }
+
     /**
      * Adds a Specification with a Predicate representing an
      * SQL in clause, or a no-op "ghost" Predicate if the given
@@ -389,6 +495,146 @@ public class SpecificationBuilder<T> {
         return where(SpecificationFactory.isIn(attribute, values));
     }
 
+    /**
+     * Adds a Specification with a Predicate representing a
+     * multi-column SQL in clause, such as {@code (a, b) in ((?, ?))},
+     * or a no-op "ghost" Predicate if the given collection is null or
+     * every tuple contains a null value, to the current Specification.
+     *
+     * @param attributes The basic attributes to match against the
+     *                   values of each tuple.
+     * @param tuples The tuples of values to match against the
+     *               attributes, each with one value for each attribute,
+     *               in the order of the attributes.
+     * @return The current instance of the SpecificationBuilder.
+     * @throws NullPointerException if the given attributes are null or
+     *                              contain null.
+     * @throws IllegalArgumentException if no attributes are given, if an
+     *                                  attribute is not basic, or if a
+     *                                  tuple does not have one value for
+     *                                  each attribute.
+     */
+    public SpecificationBuilder<T> isIn(final List<? extends SingularAttribute<T, ?>> attributes,
+                                        final Collection<? extends List<?>> tuples) {
+        return where(SpecificationFactory.isIn(attributes, tuples));
+    }
+
+    /**
+     * Adds a filter on the attributes of the given singular association,
+     * defined with a SpecificationBuilder of the associated Entity. The
+     * filters are rendered on one inner join with the association, which
+     * is only created if at least one of them applies.
+     *
+     * @param attribute The singular association to join.
+     * @param association Defines the filters on the associated Entity.
+     * @return The current instance of the SpecificationBuilder.
+     * @param <A> The type of the associated Entity.
+     * @throws NullPointerException if any of the arguments is null.
+     * @throws IllegalArgumentException if the filters contain a fetch or
+     *                                  Specifications defined outside the
+     *                                  SpecificationFactory.
+     */
+    public <A> SpecificationBuilder<T> joinOf(final SingularAttribute<T, A> attribute,
+                                              final UnaryOperator<SpecificationBuilder<A>> association) {
+        Objects.requireNonNull(attribute, "Argument 'attribute' cannot be null.");
+        return where(SpecificationFactory.joinOf(attribute, build(attribute.getJavaType(), association)));
+    }
+
+    /**
+     * Adds a filter on the attributes of the given collection
+     * association, defined with a SpecificationBuilder of the associated
+     * Entity. The filters are rendered on one inner join with the
+     * association, which is only created if at least one of them
+     * applies, so that all of them apply to the same element of the
+     * collection.
+     *
+     * @param attribute The collection association to join.
+     * @param association Defines the filters on the associated Entity.
+     * @return The current instance of the SpecificationBuilder.
+     * @param <A> The type of the associated Entity.
+     * @throws NullPointerException if any of the arguments is null.
+     * @throws IllegalArgumentException if the filters contain a fetch or
+     *                                  Specifications defined outside the
+     *                                  SpecificationFactory.
+     */
+    public <A> SpecificationBuilder<T> joinOf(final PluralAttribute<T, ?, A> attribute,
+                                              final UnaryOperator<SpecificationBuilder<A>> association) {
+        Objects.requireNonNull(attribute, "Argument 'attribute' cannot be null.");
+        return where(SpecificationFactory.joinOf(attribute,
+                build(attribute.getElementType().getJavaType(), association)));
+    }
+
+    /**
+     * Adds a filter that matches the Aggregate Roots where any element
+     * of the given collection association matches the filters defined
+     * with a SpecificationBuilder of the element. The filters are
+     * rendered in a correlated SQL exists clause rather than on a join,
+     * so that the rows of the query are not multiplied, and the filter
+     * is only added if at least one of them applies.
+     *
+     * @param attribute The collection association to filter by.
+     * @param association Defines the filters on the elements of the
+     *                    collection.
+     * @return The current instance of the SpecificationBuilder.
+     * @param <A> The type of the elements of the collection.
+     * @throws NullPointerException if any of the arguments is null.
+     * @throws IllegalArgumentException if the filters contain a fetch or
+     *                                  Specifications defined outside the
+     *                                  SpecificationFactory.
+     */
+    public <A> SpecificationBuilder<T> anyMatch(final PluralAttribute<T, ?, A> attribute,
+                                                final UnaryOperator<SpecificationBuilder<A>> association) {
+        Objects.requireNonNull(attribute, "Argument 'attribute' cannot be null.");
+        return where(SpecificationFactory.anyMatch(attribute,
+                build(attribute.getElementType().getJavaType(), association)));
+    }
+
+    /**
+     * Adds a filter that matches the Aggregate Roots where no element of
+     * the given collection association matches the filters defined with
+     * a SpecificationBuilder of the element, including those with an
+     * empty collection. The filters are rendered in a correlated SQL not
+     * exists clause, and the filter is only added if at least one of
+     * them applies.
+     *
+     * @param attribute The collection association to filter by.
+     * @param association Defines the filters on the elements of the
+     *                    collection.
+     * @return The current instance of the SpecificationBuilder.
+     * @param <A> The type of the elements of the collection.
+     * @throws NullPointerException if any of the arguments is null.
+     * @throws IllegalArgumentException if the filters contain a fetch or
+     *                                  Specifications defined outside the
+     *                                  SpecificationFactory.
+     */
+    public <A> SpecificationBuilder<T> noneMatch(final PluralAttribute<T, ?, A> attribute,
+                                                 final UnaryOperator<SpecificationBuilder<A>> association) {
+        Objects.requireNonNull(attribute, "Argument 'attribute' cannot be null.");
+        return where(SpecificationFactory.noneMatch(attribute,
+                build(attribute.getElementType().getJavaType(), association)));
+    }
+
+    /**
+     * Adds the seek predicate of the given Keyset, matching the rows that
+     * come after the row encoded in the given continuation token, with a
+     * conjunction. The predicate is only added if the token is not null,
+     * so the first page is defined by the same call as any other. The
+     * query must be ordered by {@link Keyset#toSort()}.
+     *
+     * @param keyset The attributes to seek by.
+     * @param token The continuation token of the previous page, can be
+     *              {@literal null} for the first page.
+     * @return The current instance of the SpecificationBuilder.
+     * @throws NullPointerException if the given Keyset is null.
+     * @throws IllegalArgumentException if the token was not encoded by
+     *                                  a Keyset with the same attributes.
+     */
+    public SpecificationBuilder<T> seek(final Keyset<T> keyset,
+                                        final String token) {
+        Objects.requireNonNull(keyset, "Argument 'keyset' cannot be null.");
+        return where(keyset.after(token));
+    }
+
     /**
      * Defines a join with the given singular association
      * in order to fetch it eagerly as part of the SQL query.
@@ -416,4 +662,77 @@ public class SpecificationBuilder<T> {
     public SpecificationBuilder<T> fetchOf(final PluralAttribute<T, ?, ?> attribute) {
         return and(SpecificationFactory.fetchOf(attribute));
     }
+
+    /**
+     * Defines fetch joins with each association of the given path
+     * in order to fetch a nested association eagerly as part of the
+     * SQL query, sharing the fetch joins of any prefix that is already
+     * fetched. A useful optimization technique to fetch an Aggregate
+     * deeper than one level with one query instead of many.
+     *
+     * @param path The path of associations to fetch.
+     * @return The current instance of the SpecificationBuilder.
+     * @throws NullPointerException if the given path is null.
+     */
+    public SpecificationBuilder<T> fetchOf(final FetchPath<T, ?> path) {
+        return and(SpecificationFactory.fetchOf(path));
+    }
+
+    /**
+     * Returns the Specification defined by the given function with a new
+     * SpecificationBuilder of the given root, or a "ghost" if the function
+     * does not define one.
+     *
+     * @param root The Entity Class of the new SpecificationBuilder.
+     * @param definition Defines the Specification.
+     * @return The Specification defined by the function.
+     * @param <A> The Aggregate Root of the Specification.
+     */
+    private static <A> Specification<A> build(final Class<A> root,
+                                              final UnaryOperator<SpecificationBuilder<A>> definition) {
+        Objects.requireNonNull(definition, "Argument 'association' cannot be null.");
+        final SpecificationBuilder<A> builder = definition.apply(from(root));
+        final Specification<A> specification = builder == null ? null : builder.toSpecification();
+        return specification == null ? SpecificationFactory.ghost() : specification;
+    }
+
+    /**
+     * Adds the given Specification to the flat list of terms with
+     * the given operator. If the list already holds more than one
+     * term composed with a different operator, then those terms are
+     * first wrapped in a composite of their own, which preserves the
+     * left-to-right precedence of the chained calls. Composites whose
+     * operator matches are spliced into the list rather than nested,
+     * and "ghost" Specifications are dropped. The hints of the given
+     * Specification are merged into the hints of the builder, which
+     * take precedence (see {@link ExecutionHints#merge(ExecutionHints)}),
+     * so that they still apply to the composed Specification.
+     *
+     * @param operator The operator to compose the Specification with.
+     * @param specification The Specification to add.
+     * @return The current instance of the SpecificationBuilder.
+     */
+    private SpecificationBuilder<T> compose(final Operator operator,
+                                            final Specification<T> specification) {
+        defined = true;
+        if (CompositeNode.isGhost(specification)) {
+            hints = hints.merge(ExecutionHints.of(specification));
+            return this;
+        }
+        final SpecificationNode<T> node = SpecificationNode.of(specification);
+        if (terms.isEmpty() && node instanceof CompositeNode<T> composite) {
+            this.operator = composite.getOperator();
+            terms.addAll(composite.getChildren());
+            hints = hints.merge(ExecutionHints.of(composite));
+            return this;
+        }
+        if (terms.size() > 1 && this.operator != operator) {
+            final SpecificationNode<T> current = new CompositeNode<>(this.operator, terms);
+            terms.clear();
+            terms.add(current);
+        }
+        this.operator = operator;
+        hints = hints.merge(CompositeNode.splice(terms, operator, node));
+        return this;
+    }
 }
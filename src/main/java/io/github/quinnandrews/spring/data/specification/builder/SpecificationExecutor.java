@@ -0,0 +1,1335 @@
+package io.github.quinnandrews.spring.data.specification.builder;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityGraph;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.NonUniqueResultException;
+import jakarta.persistence.PersistenceUnitUtil;
+import jakarta.persistence.Subgraph;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Executes Specifications with {@link QueryTemplate templates} compiled
+ * once per shape and Sort, and cached for the lifetime of the executor.
+ * Executing a Specification whose shape has been seen before only binds
+ * its values to the cached template, rather than building a new query,
+ * so an executor is intended to be a long-lived Bean shared by the
+ * Services that query an Aggregate Root.
+ *
+ * <p> Specifications that contain Specifications defined outside the
+ * SpecificationFactory, such as lambda expressions, cannot be compiled
+ * to a template and are executed with a new CriteriaQuery each time,
+ * just as JpaSpecificationExecutor would execute them. So are
+ * Specifications of a new shape once the executor has cached
+ * {@value #MAX_TEMPLATE_COUNT} templates.
+ *
+ * <p> By default, templates are compiled to a CriteriaQuery (see
+ * {@link SpecificationTemplate}). Hibernate does not cache the
+ * translation of a CriteriaQuery to SQL, however, so an executor
+ * constructed with {@link Mode#HQL} compiles templates to an HQL String
+ * instead (see {@link HqlTemplate}), which is a key of Hibernate's query
+ * plan cache, skipping the translation as well.
+ *
+ * <p> An executor constructed with an {@link InClauseChunking} splits
+ * every SQL in clause of a Specification that has more values than the
+ * chunk size into chunks, and merges the results of the chunks in
+ * {@link #findAll(Specification, Sort)}.
+ *
+ * <p> A Page of a Specification that fetches a collection is loaded in
+ * two phases, first its identifiers and then its Entities, so that the
+ * limit and offset of the Page are applied in SQL rather than in memory
+ * (see {@link #findAll(Specification, Pageable)}).
+ *
+ * <p> A Specification that fetches more than one collection is loaded
+ * with a query for the Entities and additional queries for each of
+ * the collections, by batches of identifiers, rather than one query
+ * with a row for every combination of their elements. An executor constructed with an
+ * {@link AdaptiveFetching} chooses how each fetched collection is
+ * loaded from the sizes of the collections it has observed.
+ *
+ * <p> Large results, such as exports, are better streamed with a
+ * constant amount of memory (see
+ * {@link #stream(Specification, Sort, Streaming)}).
+ *
+ * <p> Deep pages are better fetched with keyset pagination, which seeks
+ * past the last row of the previous page rather than skipping an offset
+ * (see {@link #findAll(Specification, Keyset, String, int)}).
+ *
+ * <p> Lists that only need a few columns are better read as a
+ * {@link Projection}, which selects only those columns and hydrates no
+ * Entity (see {@link #findAll(Specification, Sort, Projection)}).
+ *
+ * <p> The {@link ExecutionHints} a Specification carries are set on
+ * every query executed for it, including its count query and the
+ * queries of its chunks and pages. If they have a graph semantic, then
+ * the fetches of the Specification are compiled into an EntityGraph,
+ * cached for each set of fetched associations, instead of being
+ * rendered as fetch joins.
+ *
+ * <pre>{@code
+ * final var executor = new SpecificationExecutor<>(entityManager, GuitarPedal.class);
+ * final var guitarPedals = executor.findAll(guitarPedalSpecifications.search_example_07(75));
+ * }</pre>
+ *
+ * @param <T> The Aggregate Root of the Specifications.
+ *
+ * @author Quinn Andrews
+ */
+public class SpecificationExecutor<T> {
+
+    /**
+     * The kind of query that templates are compiled to.
+     */
+    public enum Mode {
+
+        /**
+         * Compiles templates to a CriteriaQuery with ParameterExpressions.
+         */
+        CRITERIA,
+
+        /**
+         * Compiles templates to an HQL String with positional parameters.
+         */
+        HQL
+    }
+
+    /**
+     * The maximum number of identifiers in the SQL in clause of an
+     * additional query for a fetched collection, unless the executor
+     * has an {@link AdaptiveFetching} or an {@link InClauseChunking}.
+     * It is within the limits of every common database.
+     */
+    private static final int DEFAULT_FETCH_BATCH_SIZE = 500;
+
+    /**
+     * The maximum number of templates an executor caches. Once it is
+     * reached, a Specification of a new shape is executed with a new
+     * CriteriaQuery, just as one that is not structural, so that shapes
+     * that vary without bound, such as in clauses of every length, cannot
+     * grow the cache without bound.
+     */
+    static final int MAX_TEMPLATE_COUNT = 1024;
+
+    private final EntityManager entityManager;
+    private final Class<T> domainClass;
+    private final Mode mode;
+    private final InClauseChunking inClauseChunking;
+    private final AdaptiveFetching adaptiveFetching;
+    private final Map<TemplateKey, QueryTemplate<T>> templates = new ConcurrentHashMap<>();
+    private final Map<Set<List<Attribute<?, ?>>>, EntityGraph<T>> entityGraphs = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a new SpecificationExecutor.
+     *
+     * @param entityManager The EntityManager to execute queries with,
+     *                      typically the shared EntityManager provided
+     *                      by Spring.
+     * @param domainClass The Class of the Aggregate Root.
+     * @throws NullPointerException if any of the arguments is null.
+     */
+    public SpecificationExecutor(final EntityManager entityManager,
+                                 final Class<T> domainClass) {
+        this(entityManager, domainClass, Mode.CRITERIA);
+    }
+
+    /**
+     * Constructs a new SpecificationExecutor that compiles templates
+     * in the given Mode.
+     *
+     * @param entityManager The EntityManager to execute queries with,
+     *                      typically the shared EntityManager provided
+     *                      by Spring.
+     * @param domainClass The Class of the Aggregate Root.
+     * @param mode The kind of query that templates are compiled to.
+     * @throws NullPointerException if any of the arguments is null.
+     */
+    public SpecificationExecutor(final EntityManager entityManager,
+                                 final Class<T> domainClass,
+                                 final Mode mode) {
+        this(entityManager, domainClass, mode, null);
+    }
+
+    /**
+     * Constructs a new SpecificationExecutor that compiles templates
+     * in the given Mode and splits oversized SQL in clauses into chunks.
+     *
+     * @param entityManager The EntityManager to execute queries with,
+     *                      typically the shared EntityManager provided
+     *                      by Spring.
+     * @param domainClass The Class of the Aggregate Root.
+     * @param mode The kind of query that templates are compiled to.
+     * @param inClauseChunking The strategy that splits oversized SQL in
+     *                         clauses into chunks, can be {@literal null}
+     *                         to disable chunking.
+     * @throws NullPointerException if any of the other arguments is null.
+     */
+    public SpecificationExecutor(final EntityManager entityManager,
+                                 final Class<T> domainClass,
+                                 final Mode mode,
+                                 final InClauseChunking inClauseChunking) {
+        this(entityManager, domainClass, mode, inClauseChunking, null);
+    }
+
+    /**
+     * Constructs a new SpecificationExecutor that compiles templates
+     * in the given Mode, splits oversized SQL in clauses into chunks and
+     * chooses how to load fetched collections from their observed sizes.
+     *
+     * @param entityManager The EntityManager to execute queries with,
+     *                      typically the shared EntityManager provided
+     *                      by Spring.
+     * @param domainClass The Class of the Aggregate Root.
+     * @param mode The kind of query that templates are compiled to.
+     * @param inClauseChunking The strategy that splits oversized SQL in
+     *                         clauses into chunks, can be {@literal null}
+     *                         to disable chunking.
+     * @param adaptiveFetching The strategy that chooses how to load
+     *                         fetched collections, can be
+     *                         {@literal null} to fetch join a single
+     *                         collection and load several in batches.
+     * @throws NullPointerException if any of the other arguments is null.
+     */
+    public SpecificationExecutor(final EntityManager entityManager,
+                                 final Class<T> domainClass,
+                                 final Mode mode,
+                                 final InClauseChunking inClauseChunking,
+                                 final AdaptiveFetching adaptiveFetching) {
+        this.entityManager = Objects.requireNonNull(entityManager, "Argument 'entityManager' cannot be null.");
+        this.domainClass = Objects.requireNonNull(domainClass, "Argument 'domainClass' cannot be null.");
+        this.mode = Objects.requireNonNull(mode, "Argument 'mode' cannot be null.");
+        this.inClauseChunking = inClauseChunking;
+        this.adaptiveFetching = adaptiveFetching;
+    }
+
+    /**
+     * Returns all Entities matching the given Specification.
+     *
+     * @param specification can be {@literal null}.
+     * @return A List of Entities, never null.
+     */
+    public List<T> findAll(final Specification<T> specification) {
+        return findAll(specification, Sort.unsorted());
+    }
+
+    /**
+     * Returns all Entities matching the given Specification, ordered
+     * by the given Sort. If the executor has an {@link InClauseChunking}
+     * and an SQL in clause of the Specification has more values than the
+     * chunk size, then a query is executed for each combination of the
+     * chunks of every such in clause, and the results are merged, without
+     * duplicates, in the order of the Sort.
+     *
+     * <p> The merged results are ordered in memory, where null values are
+     * ordered as the Sort specifies or else as smaller than any other
+     * value, which the query of each chunk then specifies explicitly.
+     * Strings, however, including those of an order that ignores case,
+     * are ordered as in Java rather than by the collation of the
+     * database. Parallel chunks are executed with EntityManagers of their
+     * own, so they do not see changes of the calling transaction that
+     * are not yet committed, whether flushed or not.
+     *
+     * @param specification can be {@literal null}.
+     * @param sort The order of the results.
+     * @return A List of Entities, never null.
+     * @throws NullPointerException if the given Sort is null.
+     * @throws IllegalArgumentException if an in clause with more values
+     *                                  than the chunk size is nested in a
+     *                                  {@code noneMatch()}, which cannot
+     *                                  be split into chunks.
+     */
+    public List<T> findAll(final Specification<T> specification,
+                           final Sort sort) {
+        Objects.requireNonNull(sort, "Argument 'sort' cannot be null.");
+        final SpecificationNode<T> node = toNode(specification);
+        final ExecutionHints hints = ExecutionHints.of(specification);
+        if (inClauseChunking != null) {
+            final List<SpecificationNode<T>> chunks = chunk(node);
+            if (chunks.size() > 1) {
+                return findAllInChunks(chunks, sort, hints);
+            }
+        }
+        return getResultList(entityManager, node, sort, hints);
+    }
+
+    /**
+     * Returns a Page of the Entities matching the given Specification,
+     * ordered by the Sort of the given Pageable. The total number of
+     * Entities is only counted if it cannot be derived from the content
+     * of the Page. SQL in clauses are not split into chunks.
+     *
+     * <p> If the Specification fetches a collection, then a limit and
+     * offset cannot be applied in SQL to a query that returns a row for
+     * each element of the collection, and Hibernate would instead load
+     * every matching Entity and paginate in memory. In that case, the
+     * Page is loaded in two phases instead: the first selects only the
+     * distinct identifiers of the Page, with the filters, the Sort, the
+     * limit and the offset applied in SQL, and the second loads the
+     * Entities with those identifiers along with their fetches.
+     *
+     * @param specification can be {@literal null}.
+     * @param pageable The Page to return, can be unpaged.
+     * @return A Page of Entities, never null.
+     * @throws NullPointerException if the given Pageable is null.
+     */
+    public Page<T> findAll(final Specification<T> specification,
+                           final Pageable pageable) {
+        Objects.requireNonNull(pageable, "Argument 'pageable' cannot be null.");
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(findAll(specification, pageable.getSort()));
+        }
+        final SpecificationNode<T> node = toNode(specification);
+        final List<FetchNode<T>> fetches = new ArrayList<>();
+        collectFetches(node, fetches);
+        final boolean distinct = fetches.stream().anyMatch(FetchNode::fetchesCollection);
+        final ExecutionHints hints = ExecutionHints.of(specification);
+        return PageableExecutionUtils.getPage(
+                findContent(node, fetches, pageable, hints),
+                pageable,
+                () -> count(node, distinct, hints));
+    }
+
+    /**
+     * Returns a page of the Entities matching the given Specification
+     * with keyset pagination, ordered by the attributes of the given
+     * Keyset. The page begins after the row encoded in the given
+     * continuation token, rather than after an offset, so fetching a
+     * page takes the same time however deep it is. One more row than the
+     * size is fetched, in order to tell whether there is a next page
+     * without counting. Like {@link #findAll(Specification, Pageable)},
+     * a Specification that fetches a collection is paged by identifiers
+     * first.
+     *
+     * @param specification can be {@literal null}.
+     * @param keyset The attributes to order and seek by.
+     * @param token The continuation token of the previous page, can be
+     *              {@literal null} for the first page.
+     * @param size The maximum number of Entities of the page.
+     * @return A KeysetSlice of Entities, never null.
+     * @throws NullPointerException if the given Keyset is null.
+     * @throws IllegalArgumentException if the size is not positive, or if
+     *                                  the token was not encoded by a
+     *                                  Keyset with the same attributes.
+     */
+    public KeysetSlice<T> findAll(final Specification<T> specification,
+                                  final Keyset<T> keyset,
+                                  final String token,
+                                  final int size) {
+        Objects.requireNonNull(keyset, "Argument 'keyset' cannot be null.");
+        if (size < 1) {
+            throw new IllegalArgumentException("Argument 'size' must be positive.");
+        }
+        final SpecificationNode<T> node = CompositeNode.of(Operator.AND, toNode(specification), keyset.after(token));
+        final List<FetchNode<T>> fetches = new ArrayList<>();
+        collectFetches(node, fetches);
+        final List<T> rows = findContent(
+                node, fetches, PageRequest.of(0, size + 1, keyset.toSort()), ExecutionHints.of(specification));
+        if (rows.size() <= size) {
+            return new KeysetSlice<>(rows, null);
+        }
+        final List<T> content = rows.subList(0, size);
+        return new KeysetSlice<>(content, keyset.tokenOf(content.get(size - 1)));
+    }
+
+    /**
+     * Returns the attributes of the given Projection of the Entities
+     * matching the given Specification, ordered by the given Sort, as
+     * Tuples or constructed DTOs or records rather than Entities. Only
+     * the columns of the projected attributes are read, and no Entity is
+     * hydrated or registered in the persistence context. The fetches of
+     * the Specification are not defined on the query, since it does not
+     * select the Aggregate Root, and projection queries are not compiled
+     * to templates.
+     *
+     * @param specification can be {@literal null}.
+     * @param sort The order of the results.
+     * @param projection The attributes to select, and the type of row to
+     *                   return them as.
+     * @return A List of rows, never null.
+     * @param <R> The type of the rows.
+     * @throws NullPointerException if the given Sort or Projection is null.
+     * @throws IllegalArgumentException if the Aggregate Root has no
+     *                                  attribute that the Projection
+     *                                  requires.
+     */
+    public <R> List<R> findAll(final Specification<T> specification,
+                               final Sort sort,
+                               final Projection<T, R> projection) {
+        Objects.requireNonNull(sort, "Argument 'sort' cannot be null.");
+        Objects.requireNonNull(projection, "Argument 'projection' cannot be null.");
+        final CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<R> query = builder.createQuery(projection.getType());
+        final Root<T> root = query.from(domainClass);
+        query.select(projection.toSelection(root, builder));
+        final Predicate predicate = filterOf(toNode(specification), ExecutionHints.of(specification))
+                .toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        if (sort.isSorted()) {
+            query.orderBy(SortOrders.toOrders(sort, root, builder));
+        }
+        return ExecutionHints.of(specification).applyTo(entityManager.createQuery(query)).getResultList();
+    }
+
+    /**
+     * Returns a Stream of the Entities matching the given Specification,
+     * ordered by the given Sort, read with a forward-only cursor rather
+     * than loaded into a List, and released from the persistence context
+     * as they are processed (see {@link Streaming}). The memory taken by
+     * the Stream therefore stays constant however many Entities match.
+     * SQL in clauses are not split into chunks.
+     *
+     * <p> The Stream holds a database cursor open until it is closed, so
+     * it must be consumed within a transaction and closed afterwards,
+     * typically with a try-with-resources statement. With a JPA provider
+     * other than Hibernate, the fetch size is not set, and the rows are
+     * streamed however the provider streams them.
+     *
+     * <p> The rows of a cursor cannot be split into additional queries
+     * by batches of identifiers, as {@link #findAll(Specification, Sort)}
+     * does, so a Specification that fetch joins more than one collection,
+     * which would stream a row for every combination of their elements,
+     * is rejected. Such collections are better loaded with an
+     * EntityGraph (see {@link ExecutionHints#fetchGraph()}) or lazily.
+     *
+     * @param specification can be {@literal null}.
+     * @param sort The order of the results.
+     * @param streaming The fetch size, and how processed Entities are
+     *                  released.
+     * @return A Stream of Entities, to be closed after use.
+     * @throws NullPointerException if the given Sort or Streaming is null.
+     * @throws IllegalArgumentException if the Specification fetch joins
+     *                                  more than one collection.
+     */
+    @SuppressWarnings("unchecked")
+    public Stream<T> stream(final Specification<T> specification,
+                            final Sort sort,
+                            final Streaming streaming) {
+        Objects.requireNonNull(sort, "Argument 'sort' cannot be null.");
+        Objects.requireNonNull(streaming, "Argument 'streaming' cannot be null.");
+        final SpecificationNode<T> node = toNode(specification);
+        final ExecutionHints hints = ExecutionHints.of(specification);
+        final List<FetchNode<T>> fetches = new ArrayList<>();
+        collectFetches(node, fetches);
+        if (hints.getGraphSemantic().isEmpty()
+                && fetches.stream().filter(FetchNode::fetchesCollection).distinct().count() > 1) {
+            throw new IllegalArgumentException("A Stream cannot fetch join more than one collection.");
+        }
+        final TypedQuery<T> query = createQuery(entityManager, node, sort, hints);
+        if (query instanceof org.hibernate.query.Query<?> hibernateQuery) {
+            final ScrollableResults<T> results = (ScrollableResults<T>) hibernateQuery
+                    .setFetchSize(streaming.getFetchSize())
+                    .scroll(ScrollMode.FORWARD_ONLY);
+            return StreamSupport.stream(new StreamingSpliterator<>(iterator(results), entityManager, streaming), false)
+                    .onClose(results::close);
+        }
+        final Stream<T> results = query.getResultStream();
+        return StreamSupport.stream(new StreamingSpliterator<>(results.iterator(), entityManager, streaming), false)
+                .onClose(results::close);
+    }
+
+    /**
+     * Returns the number of Entities matching the given Specification.
+     * The count query has no fetch joins (see {@link FetchNode}) and no
+     * order by clause, even if a Specification defined outside the
+     * SpecificationFactory orders the query, since neither changes the
+     * count.
+     *
+     * @param specification can be {@literal null}.
+     * @return The number of Entities.
+     */
+    public long count(final Specification<T> specification) {
+        return count(toNode(specification), false, ExecutionHints.of(specification));
+    }
+
+    /**
+     * Returns the single Entity matching the given Specification,
+     * if any. If the Specification fetches a collection, then a limit
+     * would be applied in memory to the rows of every element, so the
+     * Entities are loaded as {@link #findAll(Specification, Sort)} loads
+     * them instead, with additional queries for each further collection,
+     * and their number is checked. Otherwise, at most two rows are read.
+     *
+     * @param specification can be {@literal null}.
+     * @return An Optional of the Entity, or empty if none match.
+     * @throws NonUniqueResultException if more than one Entity matches.
+     */
+    public Optional<T> findOne(final Specification<T> specification) {
+        final SpecificationNode<T> node = toNode(specification);
+        final ExecutionHints hints = ExecutionHints.of(specification);
+        final List<FetchNode<T>> fetches = new ArrayList<>();
+        collectFetches(node, fetches);
+        final List<T> entities = fetches.stream().anyMatch(FetchNode::fetchesCollection)
+                ? getResultList(entityManager, node, Sort.unsorted(), hints)
+                : createQuery(entityManager, node, Sort.unsorted(), hints).setMaxResults(2).getResultList();
+        if (entities.size() > 1) {
+            throw new NonUniqueResultException("More than one Entity matches the Specification.");
+        }
+        return entities.stream().findFirst();
+    }
+
+    /**
+     * Creates a query for the given Specification, ordered by the given
+     * Sort, with the values of the Specification bound to a cached
+     * template whenever the Specification can be compiled to one.
+     *
+     * @param specification can be {@literal null}.
+     * @param sort The order of the results.
+     * @return A TypedQuery ready to be executed.
+     * @throws NullPointerException if the given Sort is null.
+     */
+    public TypedQuery<T> createQuery(final Specification<T> specification,
+                                     final Sort sort) {
+        Objects.requireNonNull(sort, "Argument 'sort' cannot be null.");
+        return createQuery(entityManager, toNode(specification), sort, ExecutionHints.of(specification));
+    }
+
+    /**
+     * Returns the kind of query that templates are compiled to.
+     *
+     * @return The Mode of the executor.
+     */
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * Returns the strategy that chooses how fetched collections are
+     * loaded, whose Statistics expose what it has observed.
+     *
+     * @return An Optional of the AdaptiveFetching, or empty if the
+     *         executor has none.
+     */
+    public Optional<AdaptiveFetching> getAdaptiveFetching() {
+        return Optional.ofNullable(adaptiveFetching);
+    }
+
+    /**
+     * Returns the number of templates compiled and cached so far, which
+     * is bounded by {@value #MAX_TEMPLATE_COUNT}.
+     *
+     * @return The number of cached templates.
+     */
+    public int getTemplateCount() {
+        return templates.size();
+    }
+
+    /**
+     * Returns the number of EntityGraphs compiled from the fetches of
+     * Specifications and cached so far (see
+     * {@link ExecutionHints#fetchGraph()}).
+     *
+     * @return The number of cached EntityGraphs.
+     */
+    public int getEntityGraphCount() {
+        return entityGraphs.size();
+    }
+
+    /**
+     * Returns the given Specification as a node, or a "ghost" if null.
+     *
+     * @param specification can be {@literal null}.
+     * @return A SpecificationNode for the given Specification.
+     */
+    private static <T> SpecificationNode<T> toNode(final Specification<T> specification) {
+        return specification == null
+                ? CompositeNode.ghost()
+                : SpecificationNode.of(specification);
+    }
+
+    /**
+     * Returns the Entities matching the given node, ordered by the given
+     * Sort. If the node fetches more than one collection with fetch
+     * joins, then a single query would return a row for every
+     * combination of their elements (or fail with a
+     * MultipleBagFetchException, if more than one is a List). Instead,
+     * the Entities are selected without their collections first, and
+     * each collection is then fetched for them by additional queries
+     * with their identifiers in an SQL in clause, one for each batch of
+     * identifiers (see {@link #batchesOf(List)}). Since
+     * the additional queries fetch into the same persistence context,
+     * the collections of the Entities already selected are initialized
+     * in place, and the rows read grow with the sum of the sizes of the
+     * collections rather than their product.
+     *
+     * <p> If the executor has an {@link AdaptiveFetching}, then it
+     * chooses which collection, if any, is fetch joined, and whether
+     * the others are fetched by batches of identifiers or for a subquery
+     * of the identifiers matching the node (see {@link SubselectNode}),
+     * and samples the collections loaded.
+     *
+     * <p> The selected Entities must remain managed by the given
+     * EntityManager between the queries, as they do within a
+     * transaction. Fetches compiled into an EntityGraph are not split.
+     *
+     * @param entityManager The EntityManager to execute the queries with.
+     * @param node The node to match.
+     * @param sort The order of the results.
+     * @param hints The hints to set on each query.
+     * @return A List of Entities, never null.
+     */
+    @SuppressWarnings("unchecked")
+    private List<T> getResultList(final EntityManager entityManager,
+                                  final SpecificationNode<T> node,
+                                  final Sort sort,
+                                  final ExecutionHints hints) {
+        final List<FetchNode<T>> fetches = new ArrayList<>();
+        collectFetches(node, fetches);
+        final List<FetchNode<T>> collectionFetches = fetches.stream()
+                .filter(FetchNode::fetchesCollection)
+                .distinct()
+                .toList();
+        final boolean split = hints.getGraphSemantic().isEmpty()
+                && (adaptiveFetching != null ? !collectionFetches.isEmpty() : collectionFetches.size() > 1);
+        final SingularAttribute<? super T, ?> idAttribute = split ? idAttribute() : null;
+        if (idAttribute == null) {
+            return createQuery(entityManager, node, sort, hints).getResultList();
+        }
+        final Optional<FetchNode<T>> joined = adaptiveFetching != null
+                ? adaptiveFetching.joined(collectionFetches)
+                : Optional.empty();
+        final List<FetchNode<T>> additional = collectionFetches.stream()
+                .filter(fetch -> joined.map(join -> !join.equals(fetch)).orElse(true))
+                .toList();
+        final List<T> entities = createQuery(entityManager, withConditionsOf(node, additional), sort, hints)
+                .getResultList();
+        joined.ifPresent(fetch -> adaptiveFetching.record(fetch, entities, AdaptiveFetching.Strategy.JOIN));
+        if (entities.isEmpty()) {
+            return entities;
+        }
+        final PersistenceUnitUtil persistenceUnitUtil = entityManager.getEntityManagerFactory().getPersistenceUnitUtil();
+        final List<Object> ids = entities.stream()
+                .map(persistenceUnitUtil::getIdentifier)
+                .distinct()
+                .toList();
+        final AdaptiveFetching.Strategy strategy = adaptiveFetching != null
+                ? adaptiveFetching.additional(ids.size())
+                : AdaptiveFetching.Strategy.BATCH;
+        final List<List<Object>> batches = batchesOf(ids);
+        for (final FetchNode<T> fetch : additional) {
+            final List<SpecificationNode<T>> owners = strategy == AdaptiveFetching.Strategy.SUBSELECT
+                    ? List.of(new SubselectNode<>(
+                            entityManager.getMetamodel().entity(domainClass), idAttribute, withConditionsOf(node, fetches)))
+                    : batches.stream()
+                            .<SpecificationNode<T>>map(batch -> new PredicateNode<>(
+                                    Operator.IN, (SingularAttribute<T, ?>) idAttribute, batch))
+                            .toList();
+            owners.forEach(owner -> createQuery(
+                    entityManager,
+                    new CompositeNode<>(Operator.AND, List.of(fetch, owner)),
+                    Sort.unsorted(),
+                    hints
+            ).getResultList());
+            if (adaptiveFetching != null) {
+                adaptiveFetching.record(fetch, entities, strategy);
+            }
+        }
+        return entities;
+    }
+
+    /**
+     * Splits the given identifiers into batches of at most the fetch
+     * batch size, which is the batch size of the {@link AdaptiveFetching}
+     * of the executor, or else the chunk size of its
+     * {@link InClauseChunking}, or else {@value #DEFAULT_FETCH_BATCH_SIZE}.
+     * If there is more than one batch, then the last batch is padded to
+     * the batch size, as chunks are (see {@link InClauseChunking}), and
+     * otherwise the only batch is padded to the next power of two (see
+     * {@link InClausePadding#powersOfTwo()}), so that the additional
+     * queries render only a few distinct statements.
+     *
+     * @param ids The distinct identifiers of the Entities.
+     * @return A List of batches, never empty.
+     */
+    private List<List<Object>> batchesOf(final List<Object> ids) {
+        final int batchSize = adaptiveFetching != null
+                ? adaptiveFetching.getBatchSize()
+                : inClauseChunking != null ? inClauseChunking.getChunkSize() : DEFAULT_FETCH_BATCH_SIZE;
+        if (ids.size() > batchSize) {
+            return InClauseChunking.sequential(batchSize).chunk(ids);
+        }
+        final List<Object> batch = InClausePadding.powersOfTwo().pad(ids);
+        return List.of(batch.subList(0, Math.min(batch.size(), batchSize)));
+    }
+
+    /**
+     * Returns a copy of the given node in which each of the given
+     * fetches is replaced by its condition (see
+     * {@link FetchNode#conditionNode()}), so that the node matches the
+     * same Entities without fetching the associations.
+     *
+     * @param node The node to remove the fetches from.
+     * @param fetches The fetches to replace.
+     * @return The node without the given fetches.
+     */
+    private static <T> SpecificationNode<T> withConditionsOf(final SpecificationNode<T> node,
+                                                             final List<FetchNode<T>> fetches) {
+        if (node instanceof FetchNode<T> fetch && fetches.contains(fetch)) {
+            return fetch.conditionNode();
+        }
+        if (node instanceof CompositeNode<T> composite && !composite.isGhost()) {
+            return new CompositeNode<>(
+                    composite.getOperator(),
+                    composite.getChildren().stream()
+                            .map(child -> withConditionsOf(child, fetches))
+                            .toList());
+        }
+        return node;
+    }
+
+    /**
+     * Creates a query for the given node with the given EntityManager.
+     * If the hints have a graph semantic, then the fetches of the node
+     * are set on the query as an EntityGraph rather than fetch joins.
+     *
+     * @param entityManager The EntityManager to create the query with.
+     * @param node The node to create the query for.
+     * @param sort The order of the results.
+     * @param hints The hints to set on the query.
+     * @return A TypedQuery ready to be executed.
+     */
+    private TypedQuery<T> createQuery(final EntityManager entityManager,
+                                      final SpecificationNode<T> node,
+                                      final Sort sort,
+                                      final ExecutionHints hints) {
+        final SpecificationNode<T> filter = filterOf(node, hints);
+        final SpecificationFingerprint fingerprint = SpecificationFingerprint.of(filter);
+        final QueryTemplate<T> template = fingerprint.isStructural()
+                ? template(filter, fingerprint, sort)
+                : null;
+        final TypedQuery<T> query = template != null
+                ? template.bindValues(entityManager, filter)
+                : createCriteriaQuery(entityManager, filter, sort);
+        hints.applyTo(query);
+        hints.getGraphSemantic().ifPresent(semantic -> {
+            final List<FetchNode<T>> fetches = new ArrayList<>();
+            collectFetches(node, fetches);
+            if (!fetches.isEmpty()) {
+                query.setHint(semantic.getJakartaHintName(), entityGraph(entityManager, fetches));
+            }
+        });
+        return query;
+    }
+
+    /**
+     * Returns the given node without its fetches if the given hints
+     * have a graph semantic, since the fetches are then loaded with an
+     * EntityGraph rather than joined. Otherwise, returns the node as is.
+     *
+     * @param node The node to filter with.
+     * @param hints The hints of the node.
+     * @return The node that filters the query.
+     */
+    private static <T> SpecificationNode<T> filterOf(final SpecificationNode<T> node,
+                                                     final ExecutionHints hints) {
+        return hints.getGraphSemantic().isPresent() ? withoutFetches(node) : node;
+    }
+
+    /**
+     * Returns a copy of the given node without any fetches. A composite
+     * left without children is a "ghost" that renders a null Predicate.
+     *
+     * @param node The node to remove the fetches from.
+     * @return The node without fetches.
+     */
+    private static <T> SpecificationNode<T> withoutFetches(final SpecificationNode<T> node) {
+        if (node instanceof FetchNode<T>) {
+            return CompositeNode.ghost();
+        }
+        if (node instanceof CompositeNode<T> composite && !composite.isGhost()) {
+            return new CompositeNode<>(
+                    composite.getOperator(),
+                    composite.getChildren().stream()
+                            .map(SpecificationExecutor::withoutFetches)
+                            .filter(child -> !CompositeNode.isGhost(child))
+                            .toList());
+        }
+        return node;
+    }
+
+    /**
+     * Returns the EntityGraph of the given fetches, compiling it with
+     * the given EntityManager the first time the same associations are
+     * fetched.
+     *
+     * @param entityManager The EntityManager to create the EntityGraph with.
+     * @param fetches The fetches to compile into the EntityGraph.
+     * @return An EntityGraph with a node for each fetched association,
+     *         and a subgraph for each association a path goes through.
+     */
+    private EntityGraph<T> entityGraph(final EntityManager entityManager,
+                                       final List<FetchNode<T>> fetches) {
+        final Set<List<Attribute<?, ?>>> paths = Set.copyOf(fetches.stream()
+                .map(FetchNode::getPath)
+                .toList());
+        return entityGraphs.computeIfAbsent(paths, key -> {
+            final EntityGraph<T> entityGraph = entityManager.createEntityGraph(domainClass);
+            final Map<List<Attribute<?, ?>>, Subgraph<?>> subgraphs = new HashMap<>();
+            for (final List<Attribute<?, ?>> path : paths) {
+                final String name = path.get(path.size() - 1).getName();
+                if (path.size() == 1) {
+                    entityGraph.addAttributeNodes(name);
+                } else {
+                    subgraph(entityGraph, subgraphs, path.subList(0, path.size() - 1)).addAttributeNodes(name);
+                }
+            }
+            return entityGraph;
+        });
+    }
+
+    /**
+     * Returns the subgraph of the association at the end of the given
+     * path, creating it and the subgraphs of its prefixes on first use.
+     *
+     * @param entityGraph The EntityGraph of the Aggregate Root.
+     * @param subgraphs The subgraphs created so far, by path.
+     * @param path The path of the association.
+     * @return The Subgraph of the association.
+     */
+    private static Subgraph<?> subgraph(final EntityGraph<?> entityGraph,
+                                        final Map<List<Attribute<?, ?>>, Subgraph<?>> subgraphs,
+                                        final List<Attribute<?, ?>> path) {
+        final Subgraph<?> subgraph = subgraphs.get(path);
+        if (subgraph != null) {
+            return subgraph;
+        }
+        final String name = path.get(path.size() - 1).getName();
+        final Subgraph<?> created = path.size() == 1
+                ? entityGraph.addSubgraph(name)
+                : subgraph(entityGraph, subgraphs, path.subList(0, path.size() - 1)).addSubgraph(name);
+        subgraphs.put(List.copyOf(path), created);
+        return created;
+    }
+
+    /**
+     * Returns the number of Entities matching the given node, without
+     * an order by clause.
+     *
+     * @param node The node to count the matches of.
+     * @param distinct Whether to count each Entity once, even if a join
+     *                 of the node returns it more than once.
+     * @param hints The hints to set on the query.
+     * @return The number of Entities.
+     */
+    private long count(final SpecificationNode<T> node,
+                       final boolean distinct,
+                       final ExecutionHints hints) {
+        final CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<Long> query = builder.createQuery(Long.class);
+        final Root<T> root = query.from(domainClass);
+        final Predicate predicate = filterOf(node, hints).toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(distinct || query.isDistinct() ? builder.countDistinct(root) : builder.count(root));
+        query.orderBy(List.of());
+        return hints.applyTo(entityManager.createQuery(query)).getSingleResult();
+    }
+
+    /**
+     * Returns the Entities of the given Page that match the given node,
+     * in two phases if the node fetches a collection (see
+     * {@link #findAll(Specification, Pageable)}).
+     *
+     * @param node The node to match.
+     * @param fetches The fetches of the node.
+     * @param pageable The Page to return.
+     * @param hints The hints to set on the queries.
+     * @return The Entities of the Page, in order.
+     */
+    private List<T> findContent(final SpecificationNode<T> node,
+                                final List<FetchNode<T>> fetches,
+                                final Pageable pageable,
+                                final ExecutionHints hints) {
+        final SingularAttribute<? super T, ?> idAttribute = idAttribute();
+        if (idAttribute != null && fetches.stream().anyMatch(FetchNode::fetchesCollection)) {
+            final List<Object> ids = findIds(node, idAttribute, pageable, hints);
+            return ids.isEmpty() ? List.of() : findAllByIds(fetches, idAttribute, ids, hints);
+        }
+        return createQuery(entityManager, node, pageable.getSort(), hints)
+                .setFirstResult(Math.toIntExact(pageable.getOffset()))
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+    }
+
+    /**
+     * Returns the distinct identifiers of the Entities of the given Page
+     * that match the given node, in the order of the Sort of the Page.
+     * Since the query does not select the Aggregate Root, the fetches of
+     * the node are not rendered. The expressions of the Sort are
+     * selected along with the identifier, since a distinct query can
+     * only be ordered by what it selects.
+     *
+     * @param node The node to match.
+     * @param idAttribute The identifier of the Aggregate Root.
+     * @param pageable The Page to return.
+     * @param hints The hints to set on the query.
+     * @return The identifiers of the Page, in order.
+     */
+    private List<Object> findIds(final SpecificationNode<T> node,
+                                 final SingularAttribute<? super T, ?> idAttribute,
+                                 final Pageable pageable,
+                                 final ExecutionHints hints) {
+        final CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<Object[]> query = builder.createQuery(Object[].class);
+        final Root<T> root = query.from(domainClass);
+        final Predicate predicate = filterOf(node, hints).toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        final List<Order> orders = SortOrders.toOrders(pageable.getSort(), root, builder);
+        final List<Selection<?>> selections = new ArrayList<>(orders.size() + 1);
+        selections.add(root.get(idAttribute));
+        orders.forEach(order -> selections.add(order.getExpression()));
+        query.multiselect(selections).distinct(true).orderBy(orders);
+        return hints.applyTo(entityManager.createQuery(query))
+                .setFirstResult(Math.toIntExact(pageable.getOffset()))
+                .setMaxResults(pageable.getPageSize())
+                .getResultList().stream()
+                .map(row -> row[0])
+                .toList();
+    }
+
+    /**
+     * Returns the Entities with the given identifiers along with the
+     * given fetches, in the order of the identifiers. The query is
+     * compiled to a template like any other, and since the identifiers
+     * are bound to a single parameter, one template serves every Page.
+     *
+     * @param fetches The fetches of the Specification of the Page.
+     * @param idAttribute The identifier of the Aggregate Root.
+     * @param ids The identifiers of the Entities, in order.
+     * @param hints The hints to set on the query.
+     * @return The Entities, in the order of the identifiers.
+     */
+    @SuppressWarnings("unchecked")
+    private List<T> findAllByIds(final List<FetchNode<T>> fetches,
+                                 final SingularAttribute<? super T, ?> idAttribute,
+                                 final List<Object> ids,
+                                 final ExecutionHints hints) {
+        final List<SpecificationNode<T>> children = new ArrayList<>(fetches);
+        children.add(new PredicateNode<>(Operator.IN, (SingularAttribute<T, ?>) idAttribute, ids));
+        final List<T> entities = new ArrayList<>(getResultList(
+                entityManager, new CompositeNode<>(Operator.AND, children), Sort.unsorted(), hints));
+        final PersistenceUnitUtil persistenceUnitUtil = entityManager.getEntityManagerFactory().getPersistenceUnitUtil();
+        final Map<Object, Integer> positions = new HashMap<>();
+        ids.forEach(id -> positions.putIfAbsent(id, positions.size()));
+        entities.sort(Comparator.comparing(entity -> positions.get(persistenceUnitUtil.getIdentifier(entity))));
+        return entities;
+    }
+
+    /**
+     * Returns the identifier of the Aggregate Root, unless it has a
+     * composite identifier of several attributes.
+     *
+     * @return The identifier attribute, or null.
+     */
+    private SingularAttribute<? super T, ?> idAttribute() {
+        final EntityType<T> entityType = entityManager.getMetamodel().entity(domainClass);
+        if (!entityType.hasSingleIdAttribute()) {
+            return null;
+        }
+        return entityType.getId(entityType.getIdType().getJavaType());
+    }
+
+    /**
+     * Adds the fetches of the given node and its children to the given
+     * List.
+     *
+     * @param node The node to search.
+     * @param fetches The List to add the fetches to.
+     */
+    private static <T> void collectFetches(final SpecificationNode<T> node,
+                                           final List<FetchNode<T>> fetches) {
+        if (node instanceof FetchNode<T> fetch) {
+            fetches.add(fetch);
+        }
+        node.getChildren().forEach(child -> collectFetches(child, fetches));
+    }
+
+    /**
+     * Splits the largest in clause of the given node into chunks, and
+     * each of the resulting nodes in turn, until no in clause has more
+     * values than the chunk size.
+     *
+     * @param node The node to split.
+     * @return The nodes of each combination of chunks, or the node alone
+     *         if none of its in clauses is too large.
+     */
+    private List<SpecificationNode<T>> chunk(final SpecificationNode<T> node) {
+        final PredicateNode<?> inClause = largestInClause(node, false);
+        if (inClause == null || inClause.getValues().size() <= inClauseChunking.getChunkSize()) {
+            return List.of(node);
+        }
+        final List<SpecificationNode<T>> chunks = new ArrayList<>();
+        for (final List<Object> values : inClauseChunking.chunk(inClause.getValues())) {
+            chunks.addAll(chunk(replace(node, inClause, inClauseOf(inClause, values))));
+        }
+        return chunks;
+    }
+
+    /**
+     * Returns an in clause on the attribute of the given in clause with
+     * the given values.
+     *
+     * @param inClause The in clause to copy the attribute of.
+     * @param values The values of the new in clause.
+     * @return A new in clause.
+     */
+    private static <A> PredicateNode<A> inClauseOf(final PredicateNode<A> inClause,
+                                                   final List<Object> values) {
+        return new PredicateNode<>(Operator.IN, inClause.getAttribute(), values);
+    }
+
+    /**
+     * Executes a query for each of the given chunks, and merges the
+     * results without duplicates.
+     *
+     * @param chunks The nodes of each chunk.
+     * @param sort The order of the results.
+     * @param hints The hints to set on the query of each chunk.
+     * @return A List of Entities, never null.
+     */
+    private List<T> findAllInChunks(final List<SpecificationNode<T>> chunks,
+                                    final Sort sort,
+                                    final ExecutionHints hints) {
+        final Sort chunkSort = SortComparator.withNullHandling(sort);
+        final List<List<T>> results = inClauseChunking.getExecutor()
+                .map(executor -> findAllInParallel(chunks, chunkSort, hints, executor))
+                .orElseGet(() -> chunks.stream()
+                        .map(chunk -> getResultList(entityManager, chunk, chunkSort, hints))
+                        .toList());
+        final PersistenceUnitUtil persistenceUnitUtil = entityManager.getEntityManagerFactory().getPersistenceUnitUtil();
+        final Map<Object, T> merged = new LinkedHashMap<>();
+        results.forEach(result -> result.forEach(entity ->
+                merged.putIfAbsent(persistenceUnitUtil.getIdentifier(entity), entity)));
+        final List<T> entities = new ArrayList<>(merged.values());
+        if (sort.isSorted()) {
+            entities.sort(new SortComparator<>(sort));
+        }
+        return entities;
+    }
+
+    /**
+     * Executes the given chunks concurrently on the given Executor,
+     * each with an EntityManager of its own.
+     *
+     * @param chunks The nodes to execute.
+     * @param sort The order of the results.
+     * @param hints The hints to set on the query of each chunk.
+     * @param executor The Executor to execute the chunks on.
+     * @return The results of each chunk, in the order of the chunks.
+     */
+    private List<List<T>> findAllInParallel(final List<SpecificationNode<T>> chunks,
+                                            final Sort sort,
+                                            final ExecutionHints hints,
+                                            final Executor executor) {
+        final EntityManagerFactory entityManagerFactory = entityManager.getEntityManagerFactory();
+        final List<CompletableFuture<List<T>>> futures = chunks.stream()
+                .map(chunk -> CompletableFuture.supplyAsync(() -> {
+                    final EntityManager chunkEntityManager = entityManagerFactory.createEntityManager();
+                    try {
+                        return getResultList(chunkEntityManager, chunk, sort, hints);
+                    } finally {
+                        chunkEntityManager.close();
+                    }
+                }, executor))
+                .toList();
+        try {
+            return futures.stream()
+                    .map(CompletableFuture::join)
+                    .toList();
+        } catch (final CompletionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the SQL in clause of the given node with the most values,
+     * if any, including those of its joins and exists clauses, which
+     * match the union of the matches of each chunk just as an in clause
+     * of the root does. A not exists clause matches their intersection
+     * instead, so an in clause within it cannot be split.
+     *
+     * @param node The node to search.
+     * @param negated Whether the node is within a not exists clause.
+     * @return The largest in clause, or null if the node has none.
+     * @throws IllegalArgumentException if an in clause within a not
+     *                                  exists clause has more values than
+     *                                  the chunk size.
+     */
+    private PredicateNode<?> largestInClause(final SpecificationNode<?> node,
+                                             final boolean negated) {
+        if (node instanceof PredicateNode<?> predicate && predicate.getOperator() == Operator.IN) {
+            if (negated && predicate.getValues().size() > inClauseChunking.getChunkSize()) {
+                throw new IllegalArgumentException("An in clause within noneMatch() cannot be split into chunks: "
+                        + predicate.getAttribute().getName());
+            }
+            return negated ? null : predicate;
+        }
+        if (node instanceof JoinNode<?, ?> join) {
+            return largestInClause(join.getSpecification(), negated);
+        }
+        if (node instanceof ExistsNode<?, ?> exists) {
+            return largestInClause(exists.getSpecification(), negated || exists.getOperator() == Operator.NOT_EXISTS);
+        }
+        PredicateNode<?> largest = null;
+        for (final SpecificationNode<?> child : node.getChildren()) {
+            final PredicateNode<?> inClause = largestInClause(child, negated);
+            if (inClause != null && (largest == null || inClause.getValues().size() > largest.getValues().size())) {
+                largest = inClause;
+            }
+        }
+        return largest;
+    }
+
+    /**
+     * Returns a copy of the given node with the given target replaced,
+     * including within its joins and exists clauses.
+     *
+     * @param node The node to copy.
+     * @param target The node to replace, compared by identity.
+     * @param replacement The node to replace the target with.
+     * @return A copy of the node, sharing every unchanged child.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> SpecificationNode<T> replace(final SpecificationNode<T> node,
+                                                    final SpecificationNode<?> target,
+                                                    final SpecificationNode<?> replacement) {
+        if (node == target) {
+            return (SpecificationNode<T>) replacement;
+        }
+        if (node instanceof JoinNode<T, ?> join) {
+            return replaceJoin(join, target, replacement);
+        }
+        if (node instanceof ExistsNode<T, ?> exists) {
+            return replaceExists(exists, target, replacement);
+        }
+        if (node instanceof CompositeNode<T> composite && !composite.isGhost()) {
+            return new CompositeNode<>(
+                    composite.getOperator(),
+                    composite.getChildren().stream()
+                            .map(child -> replace(child, target, replacement))
+                            .toList());
+        }
+        return node;
+    }
+
+    /**
+     * Returns a copy of the given JoinNode with the given target replaced
+     * within its Specification.
+     *
+     * @param join The JoinNode to copy.
+     * @param target The node to replace, compared by identity.
+     * @param replacement The node to replace the target with.
+     * @return A copy of the JoinNode.
+     */
+    private static <T, A> SpecificationNode<T> replaceJoin(final JoinNode<T, A> join,
+                                                           final SpecificationNode<?> target,
+                                                           final SpecificationNode<?> replacement) {
+        return new JoinNode<>(join.getAttribute(), replace(join.getSpecification(), target, replacement));
+    }
+
+    /**
+     * Returns a copy of the given ExistsNode with the given target
+     * replaced within its Specification.
+     *
+     * @param exists The ExistsNode to copy.
+     * @param target The node to replace, compared by identity.
+     * @param replacement The node to replace the target with.
+     * @return A copy of the ExistsNode.
+     */
+    private static <T, A> SpecificationNode<T> replaceExists(final ExistsNode<T, A> exists,
+                                                             final SpecificationNode<?> target,
+                                                             final SpecificationNode<?> replacement) {
+        return new ExistsNode<>(exists.getOperator(), exists.getAttribute(), replace(exists.getSpecification(), target, replacement));
+    }
+
+    /**
+     * Returns the cached template for the shape of the given node and
+     * the given Sort, compiling and caching it on first use unless the
+     * cache is full.
+     *
+     * @param node The node to return the template for.
+     * @param fingerprint The fingerprint of the node.
+     * @param sort The order of the results.
+     * @return The template, or null if the shape is new and the cache
+     *         already holds {@value #MAX_TEMPLATE_COUNT} templates.
+     */
+    private QueryTemplate<T> template(final SpecificationNode<T> node,
+                                      final SpecificationFingerprint fingerprint,
+                                      final Sort sort) {
+        final TemplateKey key = new TemplateKey(fingerprint.getShapeHash(), sort);
+        final QueryTemplate<T> template = templates.get(key);
+        if (template != null || templates.size() >= MAX_TEMPLATE_COUNT) {
+            return template;
+        }
+        return templates.computeIfAbsent(key, k -> compile(node, sort));
+    }
+
+    /**
+     * Compiles a template for the given node in the Mode of the executor.
+     *
+     * @param node The node to compile.
+     * @param sort The order of the results.
+     * @return A template for nodes with the same shape.
+     */
+    private QueryTemplate<T> compile(final SpecificationNode<T> node,
+                                     final Sort sort) {
+        return switch (mode) {
+            case CRITERIA -> SpecificationTemplate.compile(entityManager, domainClass, node, sort);
+            case HQL -> HqlTemplate.compile(entityManager, domainClass, node, sort);
+        };
+    }
+
+    /**
+     * Creates a query for the given node with a new CriteriaQuery,
+     * for Specifications that cannot be compiled to a template.
+     *
+     * @param entityManager The EntityManager to create the query with.
+     * @param node The node to create the query for.
+     * @param sort The order of the results.
+     * @return A TypedQuery ready to be executed.
+     */
+    private TypedQuery<T> createCriteriaQuery(final EntityManager entityManager,
+                                              final SpecificationNode<T> node,
+                                              final Sort sort) {
+        final CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<T> query = builder.createQuery(domainClass);
+        final Root<T> root = query.from(domainClass);
+        final Predicate predicate = node.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        if (sort.isSorted()) {
+            query.orderBy(SortOrders.toOrders(sort, root, builder));
+        }
+        return entityManager.createQuery(query);
+    }
+
+    /**
+     * Returns an Iterator over the rows of the given ScrollableResults.
+     *
+     * @param results The ScrollableResults to iterate over.
+     * @return An Iterator that advances the ScrollableResults.
+     */
+    private static <T> Iterator<T> iterator(final ScrollableResults<T> results) {
+        return new Iterator<>() {
+
+            private Boolean hasNext;
+
+            @Override
+            public boolean hasNext() {
+                if (hasNext == null) {
+                    hasNext = results.next();
+                }
+                return hasNext;
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                hasNext = null;
+                return results.get();
+            }
+        };
+    }
+
+    /**
+     * Streams the rows of an Iterator, releasing the Entities it has
+     * returned from the persistence context every time the fetch size
+     * of the Streaming is reached, before advancing to the next row.
+     *
+     * @param <T> The type of the Entities.
+     */
+    private static final class StreamingSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+
+        private final Iterator<T> rows;
+        private final EntityManager entityManager;
+        private final Streaming streaming;
+        private final List<T> processed;
+
+        private StreamingSpliterator(final Iterator<T> rows,
+                                     final EntityManager entityManager,
+                                     final Streaming streaming) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.rows = rows;
+            this.entityManager = entityManager;
+            this.streaming = streaming;
+            this.processed = new ArrayList<>(streaming.getFetchSize());
+        }
+
+        @Override
+        public boolean tryAdvance(final Consumer<? super T> action) {
+            if (processed.size() == streaming.getFetchSize()) {
+                if (streaming.isClearing()) {
+                    entityManager.clear();
+                } else {
+                    processed.forEach(entityManager::detach);
+                }
+                processed.clear();
+            }
+            if (!rows.hasNext()) {
+                return false;
+            }
+            final T entity = rows.next();
+            processed.add(entity);
+            action.accept(entity);
+            return true;
+        }
+    }
+
+    /**
+     * The key of a cached template.
+     *
+     * @param shapeHash The shape hash of the compiled Specification.
+     * @param sort The order of the results.
+     */
+    private record TemplateKey(String shapeHash, Sort sort) {
+    }
+}
@@ -1,13 +1,16 @@
 package io.github.quinnandrews.spring.data.specification.builder;
 
-import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.metamodel.Attribute;
 import jakarta.persistence.metamodel.PluralAttribute;
 import jakarta.persistence.metamodel.SingularAttribute;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import static io.github.quinnandrews.spring.data.specification.builder.SpecificationUtil.*;
@@ -15,6 +18,10 @@ import static io.github.quinnandrews.spring.data.specification.builder.Specifica
 /**
  * Generates Specifications with null-safe handling of Attribute values.
  *
+ * <p> Each Specification is generated as a {@link SpecificationNode}
+ * that describes its operator, attribute and operand values, so it can
+ * be inspected with a {@link SpecificationVisitor}.
+ *
  * @author Quinn Andrews
  */
 public class SpecificationFactory {
@@ -45,7 +52,7 @@ public class SpecificationFactory {
                                                  final Object value) {
         Objects.requireNonNull(attribute, ATTRIBUTE_CANNOT_BE_NULL);
         if (noneAreNull(value)) {
-            return (root, query, builder) -> builder.equal(root.get(attribute), value);
+            return new PredicateNode<>(Operator.EQUAL, attribute, List.of(value));
         }
         return ghost();
     }
@@ -66,7 +73,7 @@ public class SpecificationFactory {
                                                     final Object value) {
         Objects.requireNonNull(attribute, ATTRIBUTE_CANNOT_BE_NULL);
         if (noneAreNull(value)) {
-            return (root, query, builder) -> builder.notEqual(root.get(attribute), value);
+            return new PredicateNode<>(Operator.NOT_EQUAL, attribute, List.of(value));
         }
         return ghost();
     }
@@ -88,10 +95,7 @@ public class SpecificationFactory {
         Objects.requireNonNull(attribute, ATTRIBUTE_CANNOT_BE_NULL);
         final Object trimmedValue = stripToNull(value);
         if (noneAreNull(trimmedValue)) {
-            return (root, query, builder) -> builder.like(
-                    builder.lower(root.get(attribute).as(String.class)),
-                    toLowerCase(trimmedValue.toString())
-            );
+            return new PredicateNode<>(Operator.LIKE, attribute, List.of(toLowerCase(trimmedValue.toString())));
         }
         return ghost();
     }
@@ -113,10 +117,7 @@ public class SpecificationFactory {
         Objects.requireNonNull(attribute, ATTRIBUTE_CANNOT_BE_NULL);
         final Object trimmedValue = stripToNull(value);
         if (noneAreNull(trimmedValue)) {
-            return (root, query, builder) -> builder.notLike(
-                    builder.lower(root.get(attribute).as(String.class)),
-                    toLowerCase(trimmedValue.toString())
-            );
+            return new PredicateNode<>(Operator.NOT_LIKE, attribute, List.of(toLowerCase(trimmedValue.toString())));
         }
         return ghost();
     }
@@ -155,7 +156,7 @@ public class SpecificationFactory {
      */
     public static <T> Specification<T> isNull(final SingularAttribute<T, ?> attribute) {
         Objects.requireNonNull(attribute, ATTRIBUTE_CANNOT_BE_NULL);
-        return (root, query, builder) -> builder.isNull(root.get(attribute));
+        return new PredicateNode<>(Operator.IS_NULL, attribute, List.of());
     }
 
     /**
@@ -170,7 +171,7 @@ public class SpecificationFactory {
      */
     public static <T> Specification<T> isNotNull(final SingularAttribute<T, ?> attribute) {
         Objects.requireNonNull(attribute, ATTRIBUTE_CANNOT_BE_NULL);
-        return (root, query, builder) -> builder.isNotNull(root.get(attribute));
+        return new PredicateNode<>(Operator.IS_NOT_NULL, attribute, List.of());
     }
 
     /**
@@ -187,7 +188,7 @@ public class SpecificationFactory {
      */
     public static <T> Specification<T> isTrue(final SingularAttribute<T, Boolean> attribute) {
         Objects.requireNonNull(attribute, ATTRIBUTE_CANNOT_BE_NULL);
-        return (root, query, builder) -> builder.isTrue(root.get(attribute).as(Boolean.class));
+        return new PredicateNode<>(Operator.IS_TRUE, attribute, List.of());
     }
 
     /**
@@ -204,7 +205,7 @@ public class SpecificationFactory {
      */
     public static <T> Specification<T> isFalse(final SingularAttribute<T, Boolean> attribute) {
         Objects.requireNonNull(attribute, ATTRIBUTE_CANNOT_BE_NULL);
-        return (root, query, builder) -> builder.isFalse(root.get(attribute).as(Boolean.class));
+        return new PredicateNode<>(Operator.IS_FALSE, attribute, List.of());
     }
 
     /**
@@ -224,7 +225,7 @@ public class SpecificationFactory {
                                                                                       final V value) {
         Objects.requireNonNull(attribute, ATTRIBUTE_CANNOT_BE_NULL);
         if (noneAreNull(value)) {
-            return (root, query, builder) -> builder.greaterThan(root.get(attribute), value);
+            return new PredicateNode<>(Operator.GREATER_THAN, attribute, List.of(value));
         }
         return ghost();
     }
@@ -247,7 +248,7 @@ public class SpecificationFactory {
                                                                                                final V value) {
         Objects.requireNonNull(attribute, ATTRIBUTE_CANNOT_BE_NULL);
         if (noneAreNull(value)) {
-            return (root, query, builder) -> builder.greaterThanOrEqualTo(root.get(attribute), value);
+            return new PredicateNode<>(Operator.GREATER_THAN_OR_EQUAL_TO, attribute, List.of(value));
         }
         return ghost();
     }
@@ -269,7 +270,7 @@ public class SpecificationFactory {
                                                                                    final V value) {
         Objects.requireNonNull(attribute, ATTRIBUTE_CANNOT_BE_NULL);
         if (noneAreNull(value)) {
-            return (root, query, builder) -> builder.lessThan(root.get(attribute), value);
+            return new PredicateNode<>(Operator.LESS_THAN, attribute, List.of(value));
         }
         return ghost();
     }
@@ -292,7 +293,7 @@ public class SpecificationFactory {
                                                                                             final V value) {
         Objects.requireNonNull(attribute, ATTRIBUTE_CANNOT_BE_NULL);
         if (noneAreNull(value)) {
-            return (root, query, builder) -> builder.lessThanOrEqualTo(root.get(attribute), value);
+            return new PredicateNode<>(Operator.LESS_THAN_OR_EQUAL_TO, attribute, List.of(value));
         }
         return ghost();
     }
@@ -320,7 +321,7 @@ public class SpecificationFactory {
                                                                                   final V secondValue) {
         Objects.requireNonNull(attribute, ATTRIBUTE_CANNOT_BE_NULL);
         if (noneAreNull(firstValue, secondValue)) {
-            return (root, query, builder) -> builder.between(root.get(attribute), firstValue, secondValue);
+            return new PredicateNode<>(Operator.BETWEEN, attribute, List.of(firstValue, secondValue));
         }
         return ghost();
     }
@@ -342,7 +343,91 @@ public class SpecificationFactory {
                                             final Collection<?> collection) {
         Objects.requireNonNull(attribute, ATTRIBUTE_CANNOT_BE_NULL);
         if (noneAreNull(collection) && !collection.isEmpty()) {
-            return (root, query, builder) -> root.get(attribute).in(collection);
+            return new PredicateNode<>(Operator.IN, attribute, collection);
+        }
+        return ghost();
+    }
+
+    /**
+     * Returns a Specification with a Predicate representing an
+     * SQL in clause, with its values padded by the given strategy,
+     * or a no-op "ghost" Predicate if the given collection is null.
+     *
+     * @param attribute The attribute to match against the values.
+     * @param collection The collection of values to match against
+     *                   the attribute.
+     * @param padding The strategy that pads the values, limiting the
+     *                number of distinct SQL statements rendered.
+     * @return A Specification with a Predicate that defines an
+     *         SQL in clause, or a no-op Predicate.
+     * @param <T> The Aggregate Root of the Specification.
+     * @throws NullPointerException if the given attribute or padding
+     *                              is null.
+     */
+    public static <T> Specification<T> isIn(final SingularAttribute<T, ?> attribute,
+                                            final Collection<?> collection,
+                                            final InClausePadding padding) {
+        Objects.requireNonNull(attribute, ATTRIBUTE_CANNOT_BE_NULL);
+        Objects.requireNonNull(padding, "Argument 'padding' cannot be null.");
+        if (noneAreNull(collection) && !collection.isEmpty()) {
+            return new PredicateNode<>(Operator.IN, attribute, padding.pad(collection), padding);
+        }
+        return ghost();
+    }
+
+    /**
+     * Returns a Specification with a Predicate representing an
+     * SQL in clause, with its values bound as the given strategy
+     * decides, or a no-op "ghost" Predicate if the given collection
+     * is null.
+     *
+     * @param attribute The attribute to match against the values.
+     * @param collection The collection of values to match against
+     *                   the attribute.
+     * @param strategy The strategy that decides whether the values are
+     *                 bound to one parameter each or to an array.
+     * @return A Specification with a Predicate that defines an
+     *         SQL in clause, or a no-op Predicate.
+     * @param <T> The Aggregate Root of the Specification.
+     * @throws NullPointerException if the given attribute or strategy
+     *                              is null.
+     */
+    public static <T> Specification<T> isIn(final SingularAttribute<T, ?> attribute,
+                                            final Collection<?> collection,
+                                            final InClauseStrategy strategy) {
+        Objects.requireNonNull(attribute, ATTRIBUTE_CANNOT_BE_NULL);
+        Objects.requireNonNull(strategy, "Argument 'strategy' cannot be null.");
+        if (noneAreNull(collection) && !collection.isEmpty()) {
+            final Set<?> distinct = new LinkedHashSet<>(collection);
+            return new PredicateNode<>(strategy.operatorFor(distinct.size()), attribute, distinct);
+        }
+        return ghost();
+    }
+
+    /**
+     * Returns a Specification with a Predicate representing an
+     * SQL in clause, with runs of consecutive integral values coalesced
+     * into SQL between clauses by the given strategy, or a no-op
+     * "ghost" Predicate if the given collection is null.
+     *
+     * @param attribute The attribute to match against the values.
+     * @param collection The collection of values to match against
+     *                   the attribute.
+     * @param coalescing The strategy that coalesces runs of values.
+     * @return A Specification with a Predicate that defines an
+     *         SQL in clause, between clauses combined with an SQL or
+     *         clause, or a no-op Predicate.
+     * @param <T> The Aggregate Root of the Specification.
+     * @throws NullPointerException if the given attribute or coalescing
+     *                              is null.
+     */
+    public static <T> Specification<T> isIn(final SingularAttribute<T, ?> attribute,
+                                            final Collection<?> collection,
+                                            final InClauseCoalescing coalescing) {
+        Objects.requireNonNull(attribute, ATTRIBUTE_CANNOT_BE_NULL);
+        Objects.requireNonNull(coalescing, "Argument 'coalescing' cannot be null.");
+        if (noneAreNull(collection) && !collection.isEmpty()) {
+            return coalescing.coalesce(attribute, collection);
         }
         return ghost();
     }
@@ -367,6 +452,169 @@ public class SpecificationFactory {
                 .collect(Collectors.toSet()));
     }
 
+    /**
+     * Returns a Specification with a Predicate representing a
+     * multi-column SQL in clause, such as {@code (a, b) in ((?, ?))},
+     * or a no-op "ghost" Predicate if the given collection is null or
+     * empty. Tuples that contain a null value cannot match and are
+     * skipped, so if every tuple contains a null value, the Predicate
+     * matches no rows. Duplicate tuples are removed.
+     *
+     * @param attributes The basic attributes to match against the
+     *                   values of each tuple.
+     * @param tuples The tuples of values to match against the
+     *               attributes, each with one value for each attribute,
+     *               in the order of the attributes.
+     * @return A Specification with a Predicate that defines a
+     *         multi-column SQL in clause, a Predicate that matches no
+     *         rows, or a no-op Predicate.
+     * @param <T> The Aggregate Root of the Specification.
+     * @throws NullPointerException if the given attributes are null or
+     *                              contain null.
+     * @throws IllegalArgumentException if no attributes are given, if an
+     *                                  attribute is not basic, or if a
+     *                                  tuple does not have one value for
+     *                                  each attribute.
+     */
+    public static <T> Specification<T> isIn(final List<? extends SingularAttribute<T, ?>> attributes,
+                                            final Collection<? extends List<?>> tuples) {
+        Objects.requireNonNull(attributes, "Argument 'attributes' cannot be null.");
+        if (attributes.isEmpty()) {
+            throw new IllegalArgumentException("Argument 'attributes' cannot be empty.");
+        }
+        for (final SingularAttribute<T, ?> attribute : attributes) {
+            Objects.requireNonNull(attribute, "Argument 'attributes' cannot contain null.");
+            if (attribute.getPersistentAttributeType() != Attribute.PersistentAttributeType.BASIC) {
+                throw new IllegalArgumentException("Attribute '" + attribute.getName() + "' is not basic.");
+            }
+        }
+        if (!noneAreNull(tuples) || tuples.isEmpty()) {
+            return ghost();
+        }
+        final Set<List<?>> distinct = new LinkedHashSet<>();
+        for (final List<?> tuple : tuples) {
+            if (tuple == null) {
+                continue;
+            }
+            if (tuple.size() != attributes.size()) {
+                throw new IllegalArgumentException("Each tuple must have one value for each attribute.");
+            }
+            if (tuple.stream().allMatch(SpecificationUtil::noneAreNull)) {
+                distinct.add(tuple);
+            }
+        }
+        return new TupleNode<>(attributes, distinct);
+    }
+
+    /**
+     * Returns a Specification that filters by the attributes of the
+     * given singular association, rendering the given Specification on
+     * an inner join with the association, or a no-op "ghost" Predicate
+     * if the given Specification is a "ghost". All filters on the same
+     * association share one join.
+     *
+     * @param attribute The singular association to join.
+     * @param specification The Specification on the associated Entity.
+     * @return A Specification with a Predicate on the join, or a no-op
+     *         Predicate.
+     * @param <T> The Aggregate Root of the Specification.
+     * @param <A> The type of the associated Entity.
+     * @throws NullPointerException if any of the arguments is null.
+     * @throws IllegalArgumentException if the given Specification
+     *                                  contains a fetch or Specifications
+     *                                  defined outside the
+     *                                  SpecificationFactory.
+     */
+    public static <T, A> Specification<T> joinOf(final SingularAttribute<T, A> attribute,
+                                                 final Specification<A> specification) {
+        Objects.requireNonNull(attribute, ATTRIBUTE_CANNOT_BE_NULL);
+        return join(attribute, specification);
+    }
+
+    /**
+     * Returns a Specification that filters by the attributes of the
+     * given collection association, rendering the given Specification
+     * on an inner join with the association, or a no-op "ghost"
+     * Predicate if the given Specification is a "ghost". All filters on
+     * the same association share one join, so each filter applies to
+     * the same element of the collection, and the Aggregate Root is
+     * returned once for each element that matches, unless the query is
+     * distinct or fetches the collection.
+     *
+     * @param attribute The collection association to join.
+     * @param specification The Specification on the associated Entity.
+     * @return A Specification with a Predicate on the join, or a no-op
+     *         Predicate.
+     * @param <T> The Aggregate Root of the Specification.
+     * @param <A> The type of the associated Entity.
+     * @throws NullPointerException if any of the arguments is null.
+     * @throws IllegalArgumentException if the given Specification
+     *                                  contains a fetch or Specifications
+     *                                  defined outside the
+     *                                  SpecificationFactory.
+     */
+    public static <T, A> Specification<T> joinOf(final PluralAttribute<T, ?, A> attribute,
+                                                 final Specification<A> specification) {
+        Objects.requireNonNull(attribute, ATTRIBUTE_CANNOT_BE_NULL);
+        return join(attribute, specification);
+    }
+
+    /**
+     * Returns a Specification that matches the Aggregate Roots where any
+     * element of the given collection association matches the given
+     * Specification, rendered as a correlated SQL exists clause rather
+     * than a join, so that the rows of the query are not multiplied.
+     * Returns a no-op "ghost" Predicate if the given Specification is a
+     * "ghost".
+     *
+     * @param attribute The collection association to filter by.
+     * @param specification The Specification on the elements of the
+     *                      collection.
+     * @return A Specification with an exists clause, or a no-op
+     *         Predicate.
+     * @param <T> The Aggregate Root of the Specification.
+     * @param <A> The type of the elements of the collection.
+     * @throws NullPointerException if any of the arguments is null.
+     * @throws IllegalArgumentException if the given Specification
+     *                                  contains a fetch or Specifications
+     *                                  defined outside the
+     *                                  SpecificationFactory.
+     */
+    public static <T, A> Specification<T> anyMatch(final PluralAttribute<T, ?, A> attribute,
+                                                   final Specification<A> specification) {
+        Objects.requireNonNull(attribute, ATTRIBUTE_CANNOT_BE_NULL);
+        final SpecificationNode<A> node = association(specification);
+        return CompositeNode.isGhost(node) ? ghost() : new ExistsNode<>(Operator.EXISTS, attribute, node);
+    }
+
+    /**
+     * Returns a Specification that matches the Aggregate Roots where no
+     * element of the given collection association matches the given
+     * Specification, including those with an empty collection, rendered
+     * as a correlated SQL not exists clause. Unlike a not in clause on a
+     * subquery, it is not affected by null values. Returns a no-op
+     * "ghost" Predicate if the given Specification is a "ghost".
+     *
+     * @param attribute The collection association to filter by.
+     * @param specification The Specification on the elements of the
+     *                      collection.
+     * @return A Specification with a not exists clause, or a no-op
+     *         Predicate.
+     * @param <T> The Aggregate Root of the Specification.
+     * @param <A> The type of the elements of the collection.
+     * @throws NullPointerException if any of the arguments is null.
+     * @throws IllegalArgumentException if the given Specification
+     *                                  contains a fetch or Specifications
+     *                                  defined outside the
+     *                                  SpecificationFactory.
+     */
+    public static <T, A> Specification<T> noneMatch(final PluralAttribute<T, ?, A> attribute,
+                                                    final Specification<A> specification) {
+        Objects.requireNonNull(attribute, ATTRIBUTE_CANNOT_BE_NULL);
+        final SpecificationNode<A> node = association(specification);
+        return CompositeNode.isGhost(node) ? ghost() : new ExistsNode<>(Operator.NOT_EXISTS, attribute, node);
+    }
+
     /**
      * Defines a join with the given singular association
      * in order to fetch it eagerly as part of the SQL query.
@@ -381,10 +629,7 @@ public class SpecificationFactory {
      */
     public static <T> Specification<T> fetchOf(final SingularAttribute<T, ?> attribute) {
         Objects.requireNonNull(attribute, ATTRIBUTE_CANNOT_BE_NULL);
-        return (root, query, builder) -> {
-            root.fetch(attribute, JoinType.INNER);
-            return builder.conjunction();
-        };
+        return new FetchNode<>(attribute);
     }
 
     /**
@@ -401,10 +646,25 @@ public class SpecificationFactory {
      */
     public static <T> Specification<T> fetchOf(final PluralAttribute<T, ?, ?> attribute) {
         Objects.requireNonNull(attribute, ATTRIBUTE_CANNOT_BE_NULL);
-        return (root, query, builder) -> {
-            root.fetch(attribute, JoinType.INNER);
-            return builder.conjunction();
-        };
+        return new FetchNode<>(attribute);
+    }
+
+    /**
+     * Defines fetch joins with each association of the given path
+     * in order to fetch a nested association eagerly as part of the
+     * SQL query. Fetches that share a prefix share its fetch joins.
+     * A useful optimization technique to fetch an Aggregate deeper
+     * than one level with one query instead of many.
+     *
+     * @param path The path of associations to fetch.
+     * @return A Specification with a Predicate that defines
+     *         an eager fetch of each association of the path.
+     * @param <T> The Aggregate Root of the Specification.
+     * @throws NullPointerException if the given path is null.
+     */
+    public static <T> Specification<T> fetchOf(final FetchPath<T, ?> path) {
+        Objects.requireNonNull(path, "Argument 'path' cannot be null.");
+        return new FetchNode<>(path);
     }
 
     /**
@@ -417,6 +677,46 @@ public class SpecificationFactory {
      * @param <T> The Aggregate Root of the Specification.
      */
     public static <T> Specification<T> ghost() {
-        return (root, query, builder) -> null;
+        return CompositeNode.ghost();
+    }
+
+    /**
+     * Returns a JoinNode that renders the given Specification on a join
+     * with the given association, or a "ghost" if the Specification is
+     * a "ghost", so that a join is only created when a filter applies.
+     *
+     * @param attribute The association to join.
+     * @param specification The Specification on the associated Entity.
+     * @return A JoinNode, or a no-op Specification.
+     * @param <T> The Aggregate Root of the Specification.
+     * @param <A> The type of the associated Entity.
+     */
+    private static <T, A> Specification<T> join(final Attribute<T, ?> attribute,
+                                                final Specification<A> specification) {
+        final SpecificationNode<A> node = association(specification);
+        return CompositeNode.isGhost(node) ? ghost() : new JoinNode<>(attribute, node);
+    }
+
+    /**
+     * Returns the given Specification on an associated Entity as a node,
+     * verifying that it can be rendered on a join or in a subquery.
+     *
+     * @param specification The Specification on the associated Entity.
+     * @return The Specification as a SpecificationNode.
+     * @param <A> The type of the associated Entity.
+     * @throws NullPointerException if the given Specification is null.
+     * @throws IllegalArgumentException if the given Specification
+     *                                  contains a fetch or Specifications
+     *                                  defined outside the
+     *                                  SpecificationFactory.
+     */
+    private static <A> SpecificationNode<A> association(final Specification<A> specification) {
+        final SpecificationNode<A> node = SpecificationNode.of(specification);
+        if (!CompositeNode.isGhost(node) && !JoinNode.isJoinable(node)) {
+            throw new IllegalArgumentException(
+                    "An association can only be filtered with Specifications of the SpecificationFactory, "
+                            + "and cannot be fetched.");
+        }
+        return node;
     }
 }
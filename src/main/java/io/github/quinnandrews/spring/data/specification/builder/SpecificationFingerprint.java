@@ -0,0 +1,245 @@
+package io.github.quinnandrews.spring.data.specification.builder;
+
+import jakarta.persistence.metamodel.Attribute;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A structural fingerprint of a Specification generated by the
+ * SpecificationFactory and SpecificationBuilder, consisting of two
+ * hashes:
+ *
+ * <ul>
+ * <li> The shape hash, computed from the operators, attributes and
+ * structure of the Specification without any of its operand values.
+ * Specifications with the same shape render the same query, give or
+ * take the number of values in an SQL in clause.
+ * <li> The full hash, computed from the shape and the operand values.
+ * Specifications with the same full hash render the same query with
+ * the same values.
+ * </ul>
+ *
+ * <p> The hashes are SHA-256 digests of the declaring type and name of
+ * each attribute, and the type and String representation of each value,
+ * so they are stable across JVMs for value types like Strings, numbers,
+ * dates and enums. Specifications defined outside the SpecificationFactory,
+ * such as lambda expressions, cannot be inspected, so they contribute
+ * only their class to the shape hash and their identity to the full hash,
+ * and the fingerprint is then not {@link #isStructural() structural}.
+ *
+ * @author Quinn Andrews
+ */
+public final class SpecificationFingerprint {
+
+    private static final String ALGORITHM = "SHA-256";
+
+    private final String shapeHash;
+    private final String fullHash;
+    private final boolean structural;
+
+    /**
+     * Constructs a new SpecificationFingerprint.
+     *
+     * @param shapeHash The hash of the shape.
+     * @param fullHash The hash of the shape and values.
+     * @param structural Whether the Specification could be fully inspected.
+     */
+    private SpecificationFingerprint(final String shapeHash,
+                                     final String fullHash,
+                                     final boolean structural) {
+        this.shapeHash = shapeHash;
+        this.fullHash = fullHash;
+        this.structural = structural;
+    }
+
+    /**
+     * Computes the fingerprint of the given Specification.
+     *
+     * @param specification The Specification to fingerprint.
+     * @return The fingerprint of the given Specification.
+     * @throws NullPointerException if the given Specification is null.
+     */
+    public static SpecificationFingerprint of(final Specification<?> specification) {
+        Objects.requireNonNull(specification, "Argument 'specification' cannot be null.");
+        final Hasher hasher = new Hasher();
+        SpecificationNode.of(specification).accept(hasher);
+        return new SpecificationFingerprint(
+                HexFormat.of().formatHex(hasher.shape.digest()),
+                HexFormat.of().formatHex(hasher.full.digest()),
+                hasher.structural
+        );
+    }
+
+    /**
+     * Returns the hash of the shape of the Specification, without
+     * any of its operand values.
+     *
+     * @return A hexadecimal String.
+     */
+    public String getShapeHash() {
+        return shapeHash;
+    }
+
+    /**
+     * Returns the hash of the shape and operand values of the
+     * Specification.
+     *
+     * @return A hexadecimal String.
+     */
+    public String getFullHash() {
+        return fullHash;
+    }
+
+    /**
+     * Returns true if every node of the Specification could be
+     * inspected, meaning it does not contain any Specifications
+     * defined outside the SpecificationFactory.
+     *
+     * @return Boolean indicating whether the fingerprint is structural.
+     */
+    public boolean isStructural() {
+        return structural;
+    }
+
+    /**
+     * Returns true if the given Object is a SpecificationFingerprint
+     * with the same hashes.
+     *
+     * @param object The Object to compare.
+     * @return Boolean indicating whether the Object is equal.
+     */
+    @Override
+    public boolean equals(final Object object) {
+        if (this == object) {
+            return true;
+        }
+        return object instanceof SpecificationFingerprint other
+                && shapeHash.equals(other.shapeHash)
+                && fullHash.equals(other.fullHash);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return fullHash.hashCode();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "SpecificationFingerprint[shape=" + shapeHash + ", full=" + fullHash + "]";
+    }
+
+    /**
+     * Feeds the tokens of each visited node into a digest of the
+     * shape and a digest of the shape and values.
+     */
+    private static final class Hasher implements SpecificationVisitor<Void> {
+
+        private final MessageDigest shape = newDigest();
+        private final MessageDigest full = newDigest();
+        private boolean structural = true;
+
+        private static MessageDigest newDigest() {
+            try {
+                return MessageDigest.getInstance(ALGORITHM);
+            } catch (final NoSuchAlgorithmException e) {
+                throw new IllegalStateException(ALGORITHM + " is not supported.", e);
+            }
+        }
+
+        @Override
+        public Void visitComposite(final CompositeNode<?> node) {
+            token(node.getOperator().name() + "(");
+            node.getChildren().forEach(child -> child.accept(this));
+            token(")");
+            return null;
+        }
+
+        @Override
+        public Void visitPredicate(final PredicateNode<?> node) {
+            token(node.getOperator().name());
+            attribute(node.getAttribute());
+            node.getValues().forEach(this::value);
+            return null;
+        }
+
+        @Override
+        public Void visitFetch(final FetchNode<?> node) {
+            token(node.getOperator().name());
+            node.getPath().forEach(this::attribute);
+            return null;
+        }
+
+        @Override
+        public Void visitTuple(final TupleNode<?> node) {
+            token(node.getOperator().name());
+            node.getTupleAttributes().forEach(this::attribute);
+            token(String.valueOf(node.getValues().size()));
+            node.getValues().forEach(tuple -> ((List<?>) tuple).forEach(this::value));
+            return null;
+        }
+
+        @Override
+        public Void visitJoin(final JoinNode<?, ?> node) {
+            token(node.getOperator().name() + "(");
+            attribute(node.getAttribute());
+            node.getSpecification().accept(this);
+            token(")");
+            return null;
+        }
+
+        @Override
+        public Void visitExists(final ExistsNode<?, ?> node) {
+            token(node.getOperator().name() + "(");
+            attribute(node.getAttribute());
+            node.getSpecification().accept(this);
+            token(")");
+            return null;
+        }
+
+        @Override
+        public Void visitSubselect(final SubselectNode<?> node) {
+            token(node.getOperator().name() + "(");
+            token(node.getEntityType().getJavaType().getName());
+            attribute(node.getIdAttribute());
+            node.getSpecification().accept(this);
+            token(")");
+            return null;
+        }
+
+        @Override
+        public Void visitCustom(final CustomNode<?> node) {
+            structural = false;
+            token(node.getOperator().name());
+            token(node.getSpecification().getClass().getName());
+            value(System.identityHashCode(node.getSpecification()));
+            return null;
+        }
+
+        private void attribute(final Attribute<?, ?> attribute) {
+            token(attribute.getDeclaringType().getJavaType().getName() + "." + attribute.getName());
+        }
+
+        private void token(final String token) {
+            final byte[] bytes = (token + '\u0000').getBytes(StandardCharsets.UTF_8);
+            shape.update(bytes);
+            full.update(bytes);
+        }
+
+        private void value(final Object value) {
+            final String string = value == null ? "null" : value.getClass().getName() + ':' + value;
+            full.update((string.length() + ":" + string).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
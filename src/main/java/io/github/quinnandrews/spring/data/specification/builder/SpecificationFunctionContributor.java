@@ -0,0 +1,85 @@
+package io.github.quinnandrews.spring.data.specification.builder;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.dialect.CockroachDialect;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.query.sqm.NodeBuilder;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registers the HQL functions the SpecificationFactory renders with,
+ * for the databases that support them. Hibernate discovers the
+ * contributor with the {@link java.util.ServiceLoader} when the
+ * persistence unit is built, so no configuration is required.
+ *
+ * <p> {@value #IN_ARRAY} takes an array parameter and an attribute and
+ * checks whether the array contains the value of the attribute. It is
+ * rendered as {@code array_contains(?, column)} on H2 and as
+ * {@code column = any(?)} on PostgreSQL and CockroachDB. On other
+ * databases it is not registered, and an in clause with the
+ * {@link InClauseStrategy#array() array} strategy is rendered as an
+ * ordinary in clause instead.
+ *
+ * @author Quinn Andrews
+ */
+public class SpecificationFunctionContributor implements FunctionContributor {
+
+    /**
+     * The name of the function that checks whether an array parameter
+     * contains the value of an attribute.
+     */
+    public static final String IN_ARRAY = "specification_in_array";
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void contributeFunctions(final FunctionContributions functionContributions) {
+        final String pattern = inArrayPattern(functionContributions.getDialect());
+        if (pattern == null) {
+            return;
+        }
+        functionContributions.getFunctionRegistry()
+                .patternDescriptorBuilder(IN_ARRAY, pattern)
+                .setInvariantType(functionContributions.getTypeConfiguration()
+                        .getBasicTypeRegistry()
+                        .resolve(StandardBasicTypes.BOOLEAN))
+                .setExactArgumentCount(2)
+                .register();
+    }
+
+    /**
+     * Returns true if the {@value #IN_ARRAY} function is registered with
+     * the persistence unit of the given CriteriaBuilder.
+     *
+     * @param builder The CriteriaBuilder of the persistence unit.
+     * @return Boolean indicating whether the function is registered.
+     */
+    static boolean isInArrayRegistered(final CriteriaBuilder builder) {
+        return builder instanceof NodeBuilder nodeBuilder
+                && nodeBuilder.getQueryEngine()
+                        .getSqmFunctionRegistry()
+                        .findFunctionDescriptor(IN_ARRAY) != null;
+    }
+
+    /**
+     * Returns the SQL pattern of the {@value #IN_ARRAY} function for the
+     * given Dialect, where ?1 is the array and ?2 is the attribute.
+     *
+     * @param dialect The Dialect of the persistence unit.
+     * @return The SQL pattern, or null if the database has no arrays.
+     */
+    private static String inArrayPattern(final Dialect dialect) {
+        if (dialect instanceof H2Dialect) {
+            return "array_contains(?1,?2)";
+        }
+        if (dialect instanceof PostgreSQLDialect || dialect instanceof CockroachDialect) {
+            return "(?2=any(?1))";
+        }
+        return null;
+    }
+}
@@ -0,0 +1,162 @@
+package io.github.quinnandrews.spring.data.specification.builder;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.Attribute;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A node of a Specification generated by the SpecificationFactory and
+ * SpecificationBuilder. Unlike a Specification defined with a lambda
+ * expression, a node describes what it contains (an operator, the
+ * attributes it applies to, its operand values and its child nodes),
+ * and can be inspected with a {@link SpecificationVisitor}. It is still
+ * a Specification, and renders its Predicate with the JPA Criteria API
+ * as usual.
+ *
+ * <p> Nodes are immutable and implement equals() and hashCode() by
+ * structure, so that Specifications generated with the same arguments
+ * are equal and can be used as cache keys. See
+ * {@link SpecificationFingerprint} for a hash that is stable across
+ * JVMs.
+ *
+ * @param <T> The Aggregate Root of the Specification.
+ *
+ * @author Quinn Andrews
+ */
+public abstract class SpecificationNode<T> implements Specification<T> {
+
+    private final Operator operator;
+
+    /**
+     * Constructs a new SpecificationNode with the given operator.
+     *
+     * @param operator The operator of the node.
+     */
+    SpecificationNode(final Operator operator) {
+        this.operator = operator;
+    }
+
+    /**
+     * Returns the given Specification as a SpecificationNode. If the
+     * given Specification is not already a SpecificationNode, then it
+     * is wrapped in a {@link CustomNode}.
+     *
+     * @param specification The Specification to return as a node.
+     * @return A SpecificationNode for the given Specification.
+     * @param <T> The Aggregate Root of the Specification.
+     * @throws NullPointerException if the given Specification is null.
+     */
+    public static <T> SpecificationNode<T> of(final Specification<T> specification) {
+        Objects.requireNonNull(specification, "Argument 'specification' cannot be null.");
+        if (specification instanceof SpecificationNode<T> node) {
+            return node;
+        }
+        return new CustomNode<>(specification);
+    }
+
+    /**
+     * Returns the operator of the node.
+     *
+     * @return The operator of the node.
+     */
+    public Operator getOperator() {
+        return operator;
+    }
+
+    /**
+     * Returns the attributes the node applies to, if any.
+     *
+     * @return An unmodifiable List of attributes, empty by default.
+     */
+    public List<Attribute<?, ?>> getAttributes() {
+        return List.of();
+    }
+
+    /**
+     * Returns the operand values of the node, if any.
+     *
+     * @return An unmodifiable List of values, empty by default.
+     */
+    public List<Object> getValues() {
+        return List.of();
+    }
+
+    /**
+     * Returns the child nodes of the node, if any.
+     *
+     * @return An unmodifiable List of child nodes, empty by default.
+     */
+    public List<SpecificationNode<T>> getChildren() {
+        return List.of();
+    }
+
+    /**
+     * Accepts the given visitor, calling the method of the visitor
+     * that corresponds to the type of the node.
+     *
+     * @param visitor The visitor to accept.
+     * @return The result of the visit.
+     * @param <R> The type of the result of the visit.
+     */
+    public abstract <R> R accept(SpecificationVisitor<R> visitor);
+
+    /**
+     * Renders the Predicate of the node on the given From, which is
+     * either the root of the query or a join with an association when
+     * the node is nested in a {@link JoinNode}. Nodes that can only be
+     * rendered on the root, such as fetches and Specifications defined
+     * outside the SpecificationFactory, render with
+     * {@link #toPredicate(Root, CriteriaQuery, CriteriaBuilder)}.
+     *
+     * @param from The root or join to render the Predicate on.
+     * @param query The query, or null.
+     * @param builder The CriteriaBuilder of the query.
+     * @param joins The joins created so far while rendering the query.
+     * @return The Predicate of the node, or null.
+     * @throws IllegalStateException if the node can only be rendered on
+     *                               the root, but the From is a join.
+     */
+    @SuppressWarnings("unchecked")
+    Predicate render(final From<?, T> from,
+                     final CriteriaQuery<?> query,
+                     final CriteriaBuilder builder,
+                     final JoinRegistry joins) {
+        if (from instanceof Root<?> root) {
+            return toPredicate((Root<T>) root, query, builder);
+        }
+        throw new IllegalStateException("Unsupported operator on an association: " + operator);
+    }
+
+    /**
+     * Returns a conjunction of the node and the given Specification
+     * as a {@link CompositeNode}, so that the result can still be
+     * inspected.
+     *
+     * @param other can be {@literal null}.
+     * @return A conjunction of the node and the given Specification.
+     */
+    @Override
+    public Specification<T> and(final Specification<T> other) {
+        return CompositeNode.of(Operator.AND, this, other);
+    }
+
+    /**
+     * Returns a disjunction of the node and the given Specification
+     * as a {@link CompositeNode}, so that the result can still be
+     * inspected.
+     *
+     * @param other can be {@literal null}.
+     * @return A disjunction of the node and the given Specification.
+     */
+    @Override
+    public Specification<T> or(final Specification<T> other) {
+        return CompositeNode.of(Operator.OR, this, other);
+    }
+}
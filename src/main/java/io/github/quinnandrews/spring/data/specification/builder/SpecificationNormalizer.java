@@ -0,0 +1,358 @@
+package io.github.quinnandrews.spring.data.specification.builder;
+
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Rewrites a Specification generated by the SpecificationFactory and
+ * SpecificationBuilder into a simpler, equivalent Specification before
+ * it is rendered. Filters assembled dynamically, such as from the facets
+ * of a search form, often repeat themselves or split one range over
+ * several conditions, and a simpler tree renders simpler SQL, which the
+ * database plans better and which takes fewer entries in the plan caches.
+ *
+ * <p> The normalizer applies the following rules, recursively, including
+ * to the Specifications of joins and exists clauses:
+ *
+ * <ul>
+ *     <li>Nested and/or clauses with the same operator are flattened into
+ *     their parent, and clauses with only one condition are replaced by
+ *     that condition.</li>
+ *     <li>Duplicate conditions of an and/or clause are removed.</li>
+ *     <li>Within an and clause, the greater than, less than and between
+ *     conditions on the same attribute are reduced to the tightest lower
+ *     and upper bound, which are merged into one between condition when
+ *     both are inclusive. Only numbers and {@code java.time} values are
+ *     merged, since Strings, for instance, are ordered by the collation
+ *     of the database rather than as they are in Java.</li>
+ *     <li>Within an or clause, the equals and in conditions on the same
+ *     attribute are collapsed into one in condition. If any of them is
+ *     a padded in clause (see {@link InClausePadding}), the values of
+ *     the collapsed in clause are padded by the same strategy, so that
+ *     it still renders one of a few distinct statements.</li>
+ * </ul>
+ *
+ * <p> Negations are already at the leaves of a generated Specification,
+ * as not equals, not like, is not null and not exists conditions, so
+ * there are none to push down. Specifications defined outside the
+ * SpecificationFactory, including those negated with
+ * {@link Specification#not(Specification)}, cannot be inspected and are
+ * left as they are, as are bounds whose values cannot be compared.
+ *
+ * <pre>{@code
+ * final var specification = SpecificationNormalizer.normalize(SpecificationBuilder.from(GuitarPedal.class)
+ *         .where().isGreaterThanOrEqualTo(GuitarPedal_.usedValue, 100)
+ *         .and().isLessThanOrEqualTo(GuitarPedal_.usedValue, 200)
+ *         .toSpecification());
+ * }</pre>
+ *
+ * @author Quinn Andrews
+ */
+public final class SpecificationNormalizer {
+
+    /**
+     * Private Constructor, since this Class only has static methods.
+     */
+    private SpecificationNormalizer() {
+        // no-op
+    }
+
+    /**
+     * Returns an equivalent of the given Specification, normalized with
+     * the rules above. The hints of the Specification are kept, merged
+     * with those of the composites flattened into it.
+     *
+     * @param specification can be {@literal null}.
+     * @return The normalized Specification, or null if the given
+     *         Specification is null.
+     * @param <T> The Aggregate Root of the Specification.
+     */
+    public static <T> Specification<T> normalize(final Specification<T> specification) {
+        if (specification == null) {
+            return null;
+        }
+        final SpecificationNode<T> node = SpecificationNode.of(specification);
+        final SpecificationNode<T> normalized = rewrite(node);
+        final ExecutionHints hints = ExecutionHints.of(node);
+        if (!hints.isEmpty()) {
+            return normalized instanceof CompositeNode<T> normalizedComposite
+                    ? new CompositeNode<>(normalizedComposite.getOperator(), normalizedComposite.getChildren(), hints)
+                    : new CompositeNode<>(Operator.AND, List.of(normalized), hints);
+        }
+        return normalized;
+    }
+
+    /**
+     * Returns the given node normalized, rewriting its children first.
+     *
+     * @param node The node to normalize.
+     * @return The normalized node.
+     */
+    private static <T> SpecificationNode<T> rewrite(final SpecificationNode<T> node) {
+        if (node instanceof JoinNode<T, ?> join) {
+            return rewriteJoin(join);
+        }
+        if (node instanceof ExistsNode<T, ?> exists) {
+            return rewriteExists(exists);
+        }
+        if (!(node instanceof CompositeNode<T> composite) || composite.isGhost()) {
+            return node;
+        }
+        final List<SpecificationNode<T>> flattened = new ArrayList<>();
+        for (final SpecificationNode<T> child : composite.getChildren()) {
+            CompositeNode.splice(flattened, composite.getOperator(), rewrite(child));
+        }
+        final List<SpecificationNode<T>> children = new ArrayList<>(new LinkedHashSet<>(
+                composite.getOperator() == Operator.AND ? mergeRanges(flattened) : mergeEquals(flattened)));
+        if (children.isEmpty()) {
+            return CompositeNode.ghost();
+        }
+        return children.size() == 1 ? children.get(0) : new CompositeNode<>(composite.getOperator(), children);
+    }
+
+    /**
+     * Returns the given JoinNode with its Specification normalized.
+     *
+     * @param join The JoinNode to normalize.
+     * @return The normalized JoinNode.
+     */
+    private static <T, A> SpecificationNode<T> rewriteJoin(final JoinNode<T, A> join) {
+        return new JoinNode<>(join.getAttribute(), rewrite(join.getSpecification()));
+    }
+
+    /**
+     * Returns the given ExistsNode with its Specification normalized.
+     *
+     * @param exists The ExistsNode to normalize.
+     * @return The normalized ExistsNode.
+     */
+    private static <T, A> SpecificationNode<T> rewriteExists(final ExistsNode<T, A> exists) {
+        return new ExistsNode<>(exists.getOperator(), exists.getAttribute(), rewrite(exists.getSpecification()));
+    }
+
+    /**
+     * Reduces the bounds on each attribute among the given conditions of
+     * an and clause to the tightest lower and upper bound, in place of
+     * the first bound on the attribute.
+     *
+     * @param children The conditions of an and clause.
+     * @return The conditions with the bounds of each attribute merged.
+     */
+    private static <T> List<SpecificationNode<T>> mergeRanges(final List<SpecificationNode<T>> children) {
+        final Map<SingularAttribute<T, ?>, Range<T>> ranges = new LinkedHashMap<>();
+        final Set<SingularAttribute<T, ?>> incomparable = new LinkedHashSet<>();
+        for (final SpecificationNode<T> child : children) {
+            if (child instanceof PredicateNode<T> predicate && isBound(predicate.getOperator())) {
+                final Range<T> range = ranges.computeIfAbsent(predicate.getAttribute(), Range::new);
+                if (!range.add(predicate)) {
+                    incomparable.add(predicate.getAttribute());
+                }
+            }
+        }
+        final List<SpecificationNode<T>> merged = new ArrayList<>(children.size());
+        final Set<SingularAttribute<T, ?>> placed = new LinkedHashSet<>();
+        for (final SpecificationNode<T> child : children) {
+            if (child instanceof PredicateNode<T> predicate
+                    && isBound(predicate.getOperator())
+                    && !incomparable.contains(predicate.getAttribute())) {
+                if (placed.add(predicate.getAttribute())) {
+                    merged.addAll(ranges.get(predicate.getAttribute()).toNodes());
+                }
+            } else {
+                merged.add(child);
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Collapses the equals and in conditions on each attribute among the
+     * given conditions of an or clause into one in condition, in place
+     * of the first condition on the attribute. An attribute with a single
+     * condition is left as it is, so that a padded in clause (see
+     * {@link InClausePadding}) keeps its padding, and the values of a
+     * collapsed in clause are padded by the strategy of the first padded
+     * condition on the attribute, if any, rather than left at their
+     * distinct number, which would render a new statement for nearly
+     * every combination of conditions.
+     *
+     * @param children The conditions of an or clause.
+     * @return The conditions with the values of each attribute collapsed.
+     */
+    private static <T> List<SpecificationNode<T>> mergeEquals(final List<SpecificationNode<T>> children) {
+        final Map<SingularAttribute<T, ?>, Set<Object>> values = new LinkedHashMap<>();
+        final Map<SingularAttribute<T, ?>, Integer> counts = new LinkedHashMap<>();
+        final Map<SingularAttribute<T, ?>, InClausePadding> paddings = new LinkedHashMap<>();
+        for (final SpecificationNode<T> child : children) {
+            if (child instanceof PredicateNode<T> predicate && isEquality(predicate.getOperator())) {
+                values.computeIfAbsent(predicate.getAttribute(), key -> new LinkedHashSet<>())
+                        .addAll(predicate.getValues());
+                counts.merge(predicate.getAttribute(), 1, Integer::sum);
+                if (predicate.getPadding() != null) {
+                    paddings.putIfAbsent(predicate.getAttribute(), predicate.getPadding());
+                }
+            }
+        }
+        final List<SpecificationNode<T>> merged = new ArrayList<>(children.size());
+        final Set<SingularAttribute<T, ?>> placed = new LinkedHashSet<>();
+        for (final SpecificationNode<T> child : children) {
+            if (child instanceof PredicateNode<T> predicate
+                    && isEquality(predicate.getOperator())
+                    && counts.get(predicate.getAttribute()) > 1) {
+                final Set<Object> attributeValues = values.get(predicate.getAttribute());
+                final InClausePadding padding = paddings.get(predicate.getAttribute());
+                if (placed.add(predicate.getAttribute())) {
+                    merged.add(attributeValues.size() == 1
+                            ? new PredicateNode<>(Operator.EQUAL, predicate.getAttribute(), attributeValues)
+                            : padding != null
+                            ? new PredicateNode<>(Operator.IN, predicate.getAttribute(), padding.pad(attributeValues), padding)
+                            : new PredicateNode<>(Operator.IN, predicate.getAttribute(), attributeValues));
+                }
+            } else {
+                merged.add(child);
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Returns true if the given operator bounds an attribute from below,
+     * above or both.
+     *
+     * @param operator The operator to check.
+     * @return Boolean indicating whether the operator is a bound.
+     */
+    private static boolean isBound(final Operator operator) {
+        return switch (operator) {
+            case GREATER_THAN, GREATER_THAN_OR_EQUAL_TO, LESS_THAN, LESS_THAN_OR_EQUAL_TO, BETWEEN -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * Returns true if the given operator matches an attribute against
+     * one or more values.
+     *
+     * @param operator The operator to check.
+     * @return Boolean indicating whether the operator is an equality.
+     */
+    private static boolean isEquality(final Operator operator) {
+        return operator == Operator.EQUAL || operator == Operator.IN;
+    }
+
+    /**
+     * The tightest lower and upper bound on one attribute.
+     *
+     * @param <T> The Aggregate Root of the Specification.
+     */
+    private static final class Range<T> {
+
+        private final SingularAttribute<T, ?> attribute;
+        private Comparable<Object> lower;
+        private boolean lowerInclusive;
+        private Comparable<Object> upper;
+        private boolean upperInclusive;
+
+        private Range(final SingularAttribute<T, ?> attribute) {
+            this.attribute = attribute;
+        }
+
+        /**
+         * Tightens the range with the bounds of the given condition.
+         *
+         * @param predicate A bound on the attribute of the range.
+         * @return False if its values cannot be compared with the bounds
+         *         so far, in which case the bounds are not merged.
+         */
+        private boolean add(final PredicateNode<T> predicate) {
+            final List<Object> values = predicate.getValues();
+            try {
+                return switch (predicate.getOperator()) {
+                    case GREATER_THAN -> lower(values.get(0), false);
+                    case GREATER_THAN_OR_EQUAL_TO -> lower(values.get(0), true);
+                    case LESS_THAN -> upper(values.get(0), false);
+                    case LESS_THAN_OR_EQUAL_TO -> upper(values.get(0), true);
+                    default -> lower(values.get(0), true) && upper(values.get(1), true);
+                };
+            } catch (final ClassCastException e) {
+                return false;
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private boolean lower(final Object value,
+                              final boolean inclusive) {
+            if (!isOrdered(value)) {
+                return false;
+            }
+            final int comparison = lower == null ? 1 : ((Comparable<Object>) value).compareTo(lower);
+            if (comparison > 0 || comparison == 0 && !inclusive) {
+                lower = (Comparable<Object>) value;
+                lowerInclusive = inclusive;
+            }
+            return true;
+        }
+
+        @SuppressWarnings("unchecked")
+        private boolean upper(final Object value,
+                              final boolean inclusive) {
+            if (!isOrdered(value)) {
+                return false;
+            }
+            final int comparison = upper == null ? -1 : ((Comparable<Object>) value).compareTo(upper);
+            if (comparison < 0 || comparison == 0 && !inclusive) {
+                upper = (Comparable<Object>) value;
+                upperInclusive = inclusive;
+            }
+            return true;
+        }
+
+        /**
+         * Returns true if the given value is ordered the same in Java as
+         * in the database, which is the case for numbers and date and time
+         * values, but not for Strings, whose order depends on the
+         * collation of the database, nor for Booleans or other Comparables.
+         *
+         * @param value The value to check.
+         * @return Boolean indicating whether the value can be merged.
+         */
+        private static boolean isOrdered(final Object value) {
+            return value instanceof Comparable<?>
+                    && (value instanceof Number || value instanceof Temporal);
+        }
+
+        /**
+         * Returns the conditions of the range, which is a single between
+         * condition if both bounds are inclusive.
+         *
+         * @return A List of one or two conditions.
+         */
+        private List<SpecificationNode<T>> toNodes() {
+            if (lower != null && upper != null && lowerInclusive && upperInclusive) {
+                return List.of(new PredicateNode<>(Operator.BETWEEN, attribute, List.of(lower, upper)));
+            }
+            final List<SpecificationNode<T>> nodes = new ArrayList<>(2);
+            if (lower != null) {
+                nodes.add(new PredicateNode<>(
+                        lowerInclusive ? Operator.GREATER_THAN_OR_EQUAL_TO : Operator.GREATER_THAN,
+                        attribute,
+                        List.of(lower)));
+            }
+            if (upper != null) {
+                nodes.add(new PredicateNode<>(
+                        upperInclusive ? Operator.LESS_THAN_OR_EQUAL_TO : Operator.LESS_THAN,
+                        attribute,
+                        List.of(upper)));
+            }
+            return nodes;
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package io.github.quinnandrews.spring.data.specification.builder;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Parameter;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.ParameterExpression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.apache.commons.lang3.ClassUtils;
+import org.hibernate.query.sqm.NodeBuilder;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiFunction;
+
+/**
+ * A template compiled to a CriteriaQuery, with a ParameterExpression in
+ * place of each operand value. Specifications that differ only in their
+ * values share a single CriteriaQuery rather than building a new one
+ * for every execution. An SQL in clause is compiled to a single
+ * collection-valued parameter, or to a single array parameter with the
+ * {@link InClauseStrategy#array() array} strategy, so the number of
+ * values in the clause does not change the shape of the template.
+ *
+ * @param <T> The Aggregate Root of the Specification.
+ *
+ * @author Quinn Andrews
+ */
+public final class SpecificationTemplate<T> extends QueryTemplate<T> {
+
+    private final CriteriaQuery<T> criteriaQuery;
+    private final List<ParameterExpression<?>> parameters;
+
+    /**
+     * Constructs a new SpecificationTemplate.
+     *
+     * @param shapeHash The shape hash of the compiled Specification.
+     * @param criteriaQuery The compiled CriteriaQuery.
+     * @param parameters The parameters of the CriteriaQuery in the order
+     *                   the values of the Specification are visited.
+     * @param arrayTypes The attribute types of the array parameters, by
+     *                   the index of their parameter.
+     */
+    private SpecificationTemplate(final String shapeHash,
+                                  final CriteriaQuery<T> criteriaQuery,
+                                  final List<ParameterExpression<?>> parameters,
+                                  final Map<Integer, Class<?>> arrayTypes) {
+        super(shapeHash, parameters.size(), arrayTypes);
+        this.criteriaQuery = criteriaQuery;
+        this.parameters = List.copyOf(parameters);
+    }
+
+    /**
+     * Compiles a template from the shape of the given Specification.
+     *
+     * @param entityManager The EntityManager to build the query with.
+     * @param domainClass The Class of the Aggregate Root.
+     * @param specification The Specification to compile.
+     * @return A template for Specifications with the same shape.
+     * @param <T> The Aggregate Root of the Specification.
+     * @throws NullPointerException if any of the arguments is null.
+     * @throws IllegalArgumentException if the Specification contains
+     *                                  Specifications defined outside the
+     *                                  SpecificationFactory.
+     */
+    public static <T> SpecificationTemplate<T> compile(final EntityManager entityManager,
+                                                       final Class<T> domainClass,
+                                                       final Specification<T> specification) {
+        return compile(entityManager, domainClass, specification, Sort.unsorted());
+    }
+
+    /**
+     * Compiles a template from the shape of the given Specification,
+     * ordering the results by the given Sort.
+     *
+     * @param entityManager The EntityManager to build the query with.
+     * @param domainClass The Class of the Aggregate Root.
+     * @param specification The Specification to compile.
+     * @param sort The order of the results.
+     * @return A template for Specifications with the same shape.
+     * @param <T> The Aggregate Root of the Specification.
+     * @throws NullPointerException if any of the arguments is null.
+     * @throws IllegalArgumentException if the Specification contains
+     *                                  Specifications defined outside the
+     *                                  SpecificationFactory.
+     */
+    public static <T> SpecificationTemplate<T> compile(final EntityManager entityManager,
+                                                       final Class<T> domainClass,
+                                                       final Specification<T> specification,
+                                                       final Sort sort) {
+        Objects.requireNonNull(entityManager, "Argument 'entityManager' cannot be null.");
+        Objects.requireNonNull(domainClass, "Argument 'domainClass' cannot be null.");
+        Objects.requireNonNull(specification, "Argument 'specification' cannot be null.");
+        Objects.requireNonNull(sort, "Argument 'sort' cannot be null.");
+        final SpecificationFingerprint fingerprint = structuralFingerprint(specification);
+        final CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<T> query = builder.createQuery(domainClass);
+        final Root<T> root = query.from(domainClass);
+        final Compiler<T> compiler = new Compiler<>(root, query, builder);
+        final Predicate predicate = SpecificationNode.of(specification).accept(compiler);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        if (sort.isSorted()) {
+            query.orderBy(SortOrders.toOrders(sort, root, builder));
+        }
+        return new SpecificationTemplate<>(
+                fingerprint.getShapeHash(),
+                query,
+                compiler.parameters,
+                compiler.arrayTypes);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    TypedQuery<T> bindValues(final EntityManager entityManager,
+                             final SpecificationNode<T> node) {
+        final List<Object> values = ValueCollector.collect(node);
+        final TypedQuery<T> query = entityManager.createQuery(criteriaQuery);
+        for (int i = 0; i < parameters.size(); i++) {
+            query.setParameter((Parameter<Object>) parameters.get(i), parameterValue(values, i));
+        }
+        return query;
+    }
+
+    /**
+     * Renders each visited node with a new ParameterExpression in place
+     * of each operand value, recording the parameters in visit order.
+     * Nodes nested in a join are rendered on the shared join with the
+     * association rather than on the root, or within the shared exists
+     * subquery of the association (see {@link JoinRegistry}).
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static final class Compiler<T> implements SpecificationVisitor<Predicate> {
+
+        private final CriteriaQuery<T> query;
+        private final CriteriaBuilder builder;
+        private final List<ParameterExpression<?>> parameters = new ArrayList<>();
+        private final Map<Integer, Class<?>> arrayTypes = new HashMap<>();
+        private JoinRegistry joins = new JoinRegistry();
+        private From from;
+
+        private Compiler(final Root<T> root,
+                         final CriteriaQuery<T> query,
+                         final CriteriaBuilder builder) {
+            this.query = query;
+            this.builder = builder;
+            this.from = root;
+        }
+
+        @Override
+        public Predicate visitComposite(final CompositeNode<?> node) {
+            final List<Predicate> predicates = new ArrayList<>(node.getChildren().size());
+            final JoinRegistry parent = joins;
+            try {
+                for (final SpecificationNode<?> child : node.getChildren()) {
+                    joins = node.getOperator() == Operator.OR ? parent.disjunct() : parent;
+                    predicates.add(child.accept(this));
+                }
+            } finally {
+                joins = parent;
+            }
+            return CompositeNode.combine(builder, node.getOperator(), predicates);
+        }
+
+        @Override
+        public Predicate visitPredicate(final PredicateNode<?> node) {
+            if (!ValueCollector.hasParameters(node.getOperator())) {
+                return ((PredicateNode) node).render(from, query, builder, joins);
+            }
+            final Path<?> path = from.get((SingularAttribute) node.getAttribute());
+            final Class<?> type = ClassUtils.primitiveToWrapper(node.getAttribute().getJavaType());
+            return switch (node.getOperator()) {
+                case EQUAL -> builder.equal(path, parameter(type));
+                case NOT_EQUAL -> builder.notEqual(path, parameter(type));
+                case LIKE -> builder.like(builder.lower(path.as(String.class)), parameter(String.class));
+                case NOT_LIKE -> builder.notLike(builder.lower(path.as(String.class)), parameter(String.class));
+                case GREATER_THAN -> builder.greaterThan((Expression<Comparable>) path, (Expression<Comparable>) parameter(type));
+                case GREATER_THAN_OR_EQUAL_TO -> builder.greaterThanOrEqualTo((Expression<Comparable>) path, (Expression<Comparable>) parameter(type));
+                case LESS_THAN -> builder.lessThan((Expression<Comparable>) path, (Expression<Comparable>) parameter(type));
+                case LESS_THAN_OR_EQUAL_TO -> builder.lessThanOrEqualTo((Expression<Comparable>) path, (Expression<Comparable>) parameter(type));
+                case BETWEEN -> builder.between((Expression<Comparable>) path, (Expression<Comparable>) parameter(type), (Expression<Comparable>) parameter(type));
+                case IN -> path.in((Expression<Collection<?>>) (Expression) parameter(Collection.class));
+                case IN_ARRAY -> SpecificationFunctionContributor.isInArrayRegistered(builder)
+                        ? builder.isTrue(builder.function(
+                                SpecificationFunctionContributor.IN_ARRAY,
+                                Boolean.class,
+                                arrayParameter(type),
+                                path))
+                        : path.in((Expression<Collection<?>>) (Expression) parameter(Collection.class));
+                default -> throw new IllegalStateException("Unsupported operator: " + node.getOperator());
+            };
+        }
+
+        @Override
+        public Predicate visitFetch(final FetchNode<?> node) {
+            return ((FetchNode) node).render(from, query, builder, joins);
+        }
+
+        @Override
+        public Predicate visitTuple(final TupleNode<?> node) {
+            final BiFunction<Integer, Integer, Expression<?>> operand = (row, column) -> {
+                final Class<?> type = ClassUtils.primitiveToWrapper(
+                        node.getTupleAttributes().get(column).getJavaType());
+                final ParameterExpression<?> parameter = parameter(type);
+                return builder instanceof NodeBuilder ? parameter.as(type) : parameter;
+            };
+            return ((TupleNode) node).render(from, builder, node.getValues().size(), operand);
+        }
+
+        @Override
+        public Predicate visitJoin(final JoinNode<?, ?> node) {
+            final From parent = from;
+            if (joins.canJoin(node.getAttribute())) {
+                from = joins.join(parent, node.getAttribute());
+                try {
+                    return node.getSpecification().accept(this);
+                } finally {
+                    from = parent;
+                }
+            }
+            final JoinRegistry parentJoins = joins;
+            return parentJoins.semijoin(parent, node.getAttribute(), query, builder, (join, subqueryJoins) -> {
+                from = (From) join;
+                joins = subqueryJoins;
+                try {
+                    return node.getSpecification().accept(this);
+                } finally {
+                    from = parent;
+                    joins = parentJoins;
+                }
+            });
+        }
+
+        @Override
+        public Predicate visitExists(final ExistsNode<?, ?> node) {
+            final From parent = from;
+            final Subquery<Integer> subquery = ((ExistsNode) node).subquery(parent, query, builder);
+            from = ExistsNode.correlate(subquery, parent).join(node.getAttribute().getName());
+            try {
+                final Predicate predicate = node.getSpecification().accept(this);
+                if (predicate != null) {
+                    subquery.where(predicate);
+                }
+            } finally {
+                from = parent;
+            }
+            return ((ExistsNode) node).exists(builder, subquery);
+        }
+
+        @Override
+        public Predicate visitSubselect(final SubselectNode<?> node) {
+            final From parent = from;
+            final JoinRegistry parentJoins = joins;
+            final Subquery<Object> subquery = ((SubselectNode) node).subquery(query);
+            from = ((SubselectNode) node).from(subquery);
+            joins = new JoinRegistry();
+            try {
+                return ((SubselectNode) node).in(parent, subquery, node.getSpecification().accept(this));
+            } finally {
+                from = parent;
+                joins = parentJoins;
+            }
+        }
+
+        @Override
+        public Predicate visitCustom(final CustomNode<?> node) {
+            throw new IllegalStateException("Unsupported operator: " + node.getOperator());
+        }
+
+        private <P> ParameterExpression<P> parameter(final Class<P> type) {
+            final ParameterExpression<P> parameter = builder.parameter(type);
+            parameters.add(parameter);
+            return parameter;
+        }
+
+        private ParameterExpression<?> arrayParameter(final Class<?> type) {
+            arrayTypes.put(parameters.size(), type);
+            return parameter(Array.newInstance(type, 0).getClass());
+        }
+    }
+}
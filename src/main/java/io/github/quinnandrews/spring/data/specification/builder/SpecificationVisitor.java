@@ -0,0 +1,82 @@
+package io.github.quinnandrews.spring.data.specification.builder;
+
+/**
+ * Visits the nodes of a Specification generated by the SpecificationFactory
+ * and SpecificationBuilder, in order to inspect, evaluate or rewrite it
+ * without rendering it with the JPA Criteria API.
+ *
+ * @param <R> The type of the result of a visit.
+ *
+ * @author Quinn Andrews
+ * @see SpecificationNode#accept(SpecificationVisitor)
+ */
+public interface SpecificationVisitor<R> {
+
+    /**
+     * Visits a conjunction or disjunction of Specifications.
+     *
+     * @param node The node to visit.
+     * @return The result of the visit.
+     */
+    R visitComposite(CompositeNode<?> node);
+
+    /**
+     * Visits a Predicate on an attribute of the Aggregate Root.
+     *
+     * @param node The node to visit.
+     * @return The result of the visit.
+     */
+    R visitPredicate(PredicateNode<?> node);
+
+    /**
+     * Visits an eager fetch of an association.
+     *
+     * @param node The node to visit.
+     * @return The result of the visit.
+     */
+    R visitFetch(FetchNode<?> node);
+
+    /**
+     * Visits a multi-column in clause on several attributes of the
+     * Aggregate Root.
+     *
+     * @param node The node to visit.
+     * @return The result of the visit.
+     */
+    R visitTuple(TupleNode<?> node);
+
+    /**
+     * Visits a join with an association, filtered by a Specification
+     * on the associated Entity.
+     *
+     * @param node The node to visit.
+     * @return The result of the visit.
+     */
+    R visitJoin(JoinNode<?, ?> node);
+
+    /**
+     * Visits a correlated exists clause on the elements of an associated
+     * collection, filtered by a Specification on the elements.
+     *
+     * @param node The node to visit.
+     * @return The result of the visit.
+     */
+    R visitExists(ExistsNode<?, ?> node);
+
+    /**
+     * Visits an in clause of a subquery of the identifiers of the
+     * Aggregate Roots matching a Specification.
+     *
+     * @param node The node to visit.
+     * @return The result of the visit.
+     */
+    R visitSubselect(SubselectNode<?> node);
+
+    /**
+     * Visits a Specification defined outside the SpecificationFactory.
+     *
+     * @param node The node to visit.
+     * @return The result of the visit.
+     */
+    R visitCustom(CustomNode<?> node);
+}
@@ -0,0 +1,91 @@
+package io.github.quinnandrews.spring.data.specification.builder;
+
+/**
+ * A strategy for streaming the results of a Specification with
+ * {@link SpecificationExecutor#stream(org.springframework.data.jpa.domain.Specification, org.springframework.data.domain.Sort, Streaming)},
+ * so that the memory a large export takes stays constant rather than
+ * growing with the number of rows. The rows are read with a forward-only
+ * cursor that fetches the given number of rows from the database at a
+ * time, and every time that many Entities have been processed, they are
+ * released from the persistence context, which would otherwise keep a
+ * reference to every Entity it has ever loaded.
+ *
+ * <p> A {@link #detaching(int) detaching} strategy detaches only the
+ * processed Aggregate Roots, leaving any other Entity of the persistence
+ * context managed, although associations are only detached along with
+ * them if the association cascades detach. A {@link #clearing(int)
+ * clearing} strategy clears the whole persistence context instead,
+ * which releases fetched associations as well, but also detaches any
+ * Entity the caller loaded before streaming, and discards any change
+ * that has not been flushed.
+ *
+ * @author Quinn Andrews
+ */
+public final class Streaming {
+
+    private final int fetchSize;
+    private final boolean clearing;
+
+    /**
+     * Constructs a new Streaming.
+     *
+     * @param fetchSize The number of rows to fetch at a time, and the
+     *                  number of Entities to release at a time.
+     * @param clearing Whether to clear the persistence context rather
+     *                 than detach the processed Entities.
+     */
+    private Streaming(final int fetchSize,
+                      final boolean clearing) {
+        if (fetchSize < 1) {
+            throw new IllegalArgumentException("Argument 'fetchSize' must be positive.");
+        }
+        this.fetchSize = fetchSize;
+        this.clearing = clearing;
+    }
+
+    /**
+     * Returns a strategy that detaches the processed Aggregate Roots
+     * every time the given number of them have been processed.
+     *
+     * @param fetchSize The number of rows to fetch at a time, and the
+     *                  number of Entities to detach at a time.
+     * @return A Streaming that detaches processed Entities.
+     * @throws IllegalArgumentException if the fetch size is not positive.
+     */
+    public static Streaming detaching(final int fetchSize) {
+        return new Streaming(fetchSize, false);
+    }
+
+    /**
+     * Returns a strategy that clears the persistence context every time
+     * the given number of Aggregate Roots have been processed.
+     *
+     * @param fetchSize The number of rows to fetch at a time, and the
+     *                  number of Entities to process between clears.
+     * @return A Streaming that clears the persistence context.
+     * @throws IllegalArgumentException if the fetch size is not positive.
+     */
+    public static Streaming clearing(final int fetchSize) {
+        return new Streaming(fetchSize, true);
+    }
+
+    /**
+     * Returns the number of rows to fetch from the database at a time,
+     * which is also the number of Entities to release at a time.
+     *
+     * @return The fetch size.
+     */
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    /**
+     * Returns true if the persistence context is cleared, rather than
+     * only the processed Entities detached.
+     *
+     * @return Boolean indicating whether the persistence context is cleared.
+     */
+    public boolean isClearing() {
+        return clearing;
+    }
+}
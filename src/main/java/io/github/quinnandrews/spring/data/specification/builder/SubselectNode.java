@@ -0,0 +1,204 @@
+package io.github.quinnandrews.spring.data.specification.builder;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.SingularAttribute;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A node that matches the rows of the Aggregate Root whose identifier
+ * is selected by an uncorrelated subquery of the Aggregate Root, such as
+ * {@code p.id in (select s.id from pedal s where ...)}, filtered by a
+ * Specification on the Aggregate Root of the subquery.
+ *
+ * <p> A {@link SpecificationExecutor} uses it to fetch a collection for
+ * every Entity of a result without binding their identifiers. The
+ * Specification is rendered in the subquery only, with joins of its own,
+ * so it neither joins nor filters the enclosing query. Since the
+ * subquery selects only identifiers, the Specification must not fetch.
+ *
+ * @param <T> The Aggregate Root of the Specification.
+ *
+ * @author Quinn Andrews
+ */
+public final class SubselectNode<T> extends SpecificationNode<T> {
+
+    private final EntityType<T> entityType;
+    private final SingularAttribute<? super T, ?> idAttribute;
+    private final SpecificationNode<T> specification;
+
+    /**
+     * Constructs a new SubselectNode.
+     *
+     * @param entityType The Aggregate Root of the subquery.
+     * @param idAttribute The identifier of the Aggregate Root.
+     * @param specification The Specification of the subquery, without
+     *                      fetches.
+     */
+    SubselectNode(final EntityType<T> entityType,
+                  final SingularAttribute<? super T, ?> idAttribute,
+                  final SpecificationNode<T> specification) {
+        super(Operator.SUBSELECT);
+        this.entityType = entityType;
+        this.idAttribute = idAttribute;
+        this.specification = specification;
+    }
+
+    /**
+     * Returns the Aggregate Root of the subquery.
+     *
+     * @return The EntityType of the Aggregate Root.
+     */
+    public EntityType<T> getEntityType() {
+        return entityType;
+    }
+
+    /**
+     * Returns the identifier of the Aggregate Root, which the subquery
+     * selects.
+     *
+     * @return The identifier attribute.
+     */
+    public SingularAttribute<? super T, ?> getIdAttribute() {
+        return idAttribute;
+    }
+
+    /**
+     * Returns the Specification on the Aggregate Root of the subquery,
+     * which is rendered in the where clause of the subquery.
+     *
+     * @return The Specification of the subquery.
+     */
+    public SpecificationNode<T> getSpecification() {
+        return specification;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Attribute<?, ?>> getAttributes() {
+        return List.of(idAttribute);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <R> R accept(final SpecificationVisitor<R> visitor) {
+        return visitor.visitSubselect(this);
+    }
+
+    /**
+     * Renders the in clause of the subquery.
+     *
+     * @param root must not be {@literal null}.
+     * @param query can be {@literal null} to allow overrides that accept
+     *              {@link jakarta.persistence.criteria.CriteriaDelete}
+     *              which is an {@link jakarta.persistence.criteria.AbstractQuery}
+     *              but no {@link CriteriaQuery}.
+     * @param builder must not be {@literal null}.
+     * @return The Predicate of the in clause.
+     * @throws IllegalStateException if the query is null.
+     */
+    @Override
+    public Predicate toPredicate(final Root<T> root,
+                                 final CriteriaQuery<?> query,
+                                 final CriteriaBuilder builder) {
+        return render(root, query, builder, new JoinRegistry());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    Predicate render(final From<?, T> from,
+                     final CriteriaQuery<?> query,
+                     final CriteriaBuilder builder,
+                     final JoinRegistry joins) {
+        final Subquery<Object> subquery = subquery(query);
+        return in(from, subquery, specification.render(from(subquery), query, builder, new JoinRegistry()));
+    }
+
+    /**
+     * Creates the subquery of the in clause, without a from or where
+     * clause.
+     *
+     * @param query The query to create the subquery of.
+     * @return The subquery.
+     * @throws IllegalStateException if the query is null.
+     */
+    @SuppressWarnings("unchecked")
+    Subquery<Object> subquery(final CriteriaQuery<?> query) {
+        if (query == null) {
+            throw new IllegalStateException("Unsupported operator without a query: " + getOperator());
+        }
+        return query.subquery((Class<Object>) idAttribute.getJavaType());
+    }
+
+    /**
+     * Adds the root of the subquery, selecting its identifier.
+     *
+     * @param subquery The subquery of the in clause.
+     * @return The root of the subquery.
+     */
+    @SuppressWarnings("unchecked")
+    Root<T> from(final Subquery<Object> subquery) {
+        final Root<T> root = subquery.from(entityType);
+        subquery.select((Path<Object>) root.get(idAttribute));
+        return root;
+    }
+
+    /**
+     * Returns the in clause of the given subquery, restricted by the
+     * given Predicate.
+     *
+     * @param from The root or join the identifier belongs to.
+     * @param subquery The subquery of the in clause.
+     * @param predicate The Predicate of the subquery, or null.
+     * @return The Predicate of the in clause.
+     */
+    Predicate in(final From<?, T> from,
+                 final Subquery<Object> subquery,
+                 final Predicate predicate) {
+        if (predicate != null) {
+            subquery.where(predicate);
+        }
+        return from.get(idAttribute).in(subquery);
+    }
+
+    /**
+     * Returns true if the given Object is a SubselectNode of the same
+     * Aggregate Root with an equal Specification.
+     *
+     * @param object The Object to compare.
+     * @return Boolean indicating whether the Object is equal.
+     */
+    @Override
+    public boolean equals(final Object object) {
+        if (this == object) {
+            return true;
+        }
+        return object instanceof SubselectNode<?> other
+                && entityType.equals(other.entityType)
+                && idAttribute.equals(other.idAttribute)
+                && specification.equals(other.specification);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(getOperator(), entityType, idAttribute, specification);
+    }
+}
@@ -0,0 +1,195 @@
+package io.github.quinnandrews.spring.data.specification.builder;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.hibernate.query.sqm.NodeBuilder;
+import org.hibernate.query.sqm.tree.expression.SqmExpression;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiFunction;
+
+/**
+ * A node with a multi-column SQL in clause on several attributes of the
+ * Aggregate Root, such as {@code (a, b) in ((?, ?), (?, ?))}, matching
+ * rows whose attributes equal all values of any one of the tuples.
+ *
+ * <p> With Hibernate, the clause is rendered as a tuple in clause, which
+ * Hibernate itself emulates with an SQL or clause of SQL and clauses on
+ * databases that do not support tuples in an in list. With other JPA
+ * providers, it is always rendered as the emulation. A node without any
+ * tuples matches no rows.
+ *
+ * @param <T> The Aggregate Root of the Specification.
+ *
+ * @author Quinn Andrews
+ */
+public final class TupleNode<T> extends SpecificationNode<T> {
+
+    private final List<SingularAttribute<T, ?>> attributes;
+    private final List<Object> values;
+
+    /**
+     * Constructs a new TupleNode with a copy of the given tuples.
+     *
+     * @param attributes The attributes the tuples apply to.
+     * @param tuples The tuples of values, each with one value for each
+     *               attribute, in the order of the attributes.
+     */
+    TupleNode(final List<? extends SingularAttribute<T, ?>> attributes,
+              final Collection<? extends List<?>> tuples) {
+        super(Operator.TUPLE_IN);
+        this.attributes = List.copyOf(attributes);
+        final List<Object> copies = new ArrayList<>(tuples.size());
+        tuples.forEach(tuple -> copies.add(Collections.unmodifiableList(new ArrayList<>(tuple))));
+        this.values = Collections.unmodifiableList(copies);
+    }
+
+    /**
+     * Returns the attributes the tuples apply to.
+     *
+     * @return An unmodifiable List of attributes.
+     */
+    public List<SingularAttribute<T, ?>> getTupleAttributes() {
+        return attributes;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Attribute<?, ?>> getAttributes() {
+        return List.copyOf(attributes);
+    }
+
+    /**
+     * Returns the tuples of the in clause, each as an unmodifiable List
+     * with one value for each attribute.
+     *
+     * @return An unmodifiable List of tuples.
+     */
+    @Override
+    public List<Object> getValues() {
+        return values;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <R> R accept(final SpecificationVisitor<R> visitor) {
+        return visitor.visitTuple(this);
+    }
+
+    /**
+     * Renders the tuple in clause.
+     *
+     * @param root must not be {@literal null}.
+     * @param query can be {@literal null} to allow overrides that accept
+     *              {@link jakarta.persistence.criteria.CriteriaDelete}
+     *              which is an {@link jakarta.persistence.criteria.AbstractQuery}
+     *              but no {@link CriteriaQuery}.
+     * @param builder must not be {@literal null}.
+     * @return The Predicate of the tuple in clause.
+     */
+    @Override
+    public Predicate toPredicate(final Root<T> root,
+                                 final CriteriaQuery<?> query,
+                                 final CriteriaBuilder builder) {
+        return render(root, query, builder, new JoinRegistry());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    Predicate render(final From<?, T> from,
+                     final CriteriaQuery<?> query,
+                     final CriteriaBuilder builder,
+                     final JoinRegistry joins) {
+        return render(from, builder, values.size(), (row, column) -> builder instanceof NodeBuilder nodeBuilder
+                ? nodeBuilder.value(((List<?>) values.get(row)).get(column))
+                : builder.literal(((List<?>) values.get(row)).get(column)));
+    }
+
+    /**
+     * Renders a tuple in clause on the given attributes with the given
+     * number of tuples, as a tuple in clause if the given CriteriaBuilder
+     * is Hibernate's, or otherwise as an SQL or clause of SQL and clauses,
+     * or as a disjunction that is always false if there are no tuples.
+     *
+     * @param from The root or join the attributes belong to.
+     * @param builder The CriteriaBuilder of the query.
+     * @param tupleCount The number of tuples.
+     * @param operand Creates the operand of the given tuple and column.
+     * @return The Predicate of the tuple in clause.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    Predicate render(final From<?, T> from,
+                     final CriteriaBuilder builder,
+                     final int tupleCount,
+                     final BiFunction<Integer, Integer, Expression<?>> operand) {
+        if (tupleCount == 0) {
+            return builder.disjunction();
+        }
+        final List<Path<?>> paths = new ArrayList<>(attributes.size());
+        attributes.forEach(attribute -> paths.add(from.get(attribute)));
+        if (builder instanceof NodeBuilder nodeBuilder) {
+            final Expression[] rows = new Expression[tupleCount];
+            for (int row = 0; row < tupleCount; row++) {
+                final List<SqmExpression<?>> operands = new ArrayList<>(paths.size());
+                for (int column = 0; column < paths.size(); column++) {
+                    operands.add((SqmExpression<?>) operand.apply(row, column));
+                }
+                rows[row] = nodeBuilder.tuple(Object[].class, operands);
+            }
+            final List<SqmExpression<?>> columns = new ArrayList<>(paths.size());
+            paths.forEach(path -> columns.add((SqmExpression<?>) path));
+            return nodeBuilder.in(nodeBuilder.tuple(Object[].class, columns), rows);
+        }
+        final List<Predicate> rows = new ArrayList<>(tupleCount);
+        for (int row = 0; row < tupleCount; row++) {
+            final List<Predicate> conditions = new ArrayList<>(paths.size());
+            for (int column = 0; column < paths.size(); column++) {
+                conditions.add(builder.equal(paths.get(column), operand.apply(row, column)));
+            }
+            rows.add(builder.and(conditions.toArray(new Predicate[0])));
+        }
+        return builder.or(rows.toArray(new Predicate[0]));
+    }
+
+    /**
+     * Returns true if the given Object is a TupleNode with the same
+     * attributes and tuples.
+     *
+     * @param object The Object to compare.
+     * @return Boolean indicating whether the Object is equal.
+     */
+    @Override
+    public boolean equals(final Object object) {
+        if (this == object) {
+            return true;
+        }
+        return object instanceof TupleNode<?> other
+                && attributes.equals(other.attributes)
+                && values.equals(other.values);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(getOperator(), attributes, values);
+    }
+}
@@ -0,0 +1,97 @@
+package io.github.quinnandrews.spring.data.specification.builder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects the operand values of a Specification in the order they are
+ * visited, which is the order that templates create their parameters in.
+ * The values of an SQL in clause are collected as one List, since an in
+ * clause is bound to a single collection-valued or array parameter.
+ *
+ * @author Quinn Andrews
+ */
+final class ValueCollector implements SpecificationVisitor<Void> {
+
+    private final List<Object> values = new ArrayList<>();
+
+    /**
+     * Constructs a new ValueCollector.
+     */
+    private ValueCollector() {
+        // no-op
+    }
+
+    /**
+     * Returns the operand values of the given node in visit order.
+     *
+     * @param node The node to collect the values of.
+     * @return A List of values, one for each parameter of a template.
+     */
+    static List<Object> collect(final SpecificationNode<?> node) {
+        final ValueCollector collector = new ValueCollector();
+        node.accept(collector);
+        return collector.values;
+    }
+
+    /**
+     * Returns true if a PredicateNode with the given operator is
+     * rendered with parameters for its values.
+     *
+     * @param operator The operator to check.
+     * @return Boolean indicating whether the operator has parameters.
+     */
+    static boolean hasParameters(final Operator operator) {
+        return switch (operator) {
+            case IS_NULL, IS_NOT_NULL, IS_TRUE, IS_FALSE -> false;
+            default -> true;
+        };
+    }
+
+    @Override
+    public Void visitComposite(final CompositeNode<?> node) {
+        node.getChildren().forEach(child -> child.accept(this));
+        return null;
+    }
+
+    @Override
+    public Void visitPredicate(final PredicateNode<?> node) {
+        if (node.getOperator() == Operator.IN || node.getOperator() == Operator.IN_ARRAY) {
+            values.add(node.getValues());
+        } else if (hasParameters(node.getOperator())) {
+            values.addAll(node.getValues());
+        }
+        return null;
+    }
+
+    @Override
+    public Void visitFetch(final FetchNode<?> node) {
+        return null;
+    }
+
+    @Override
+    public Void visitTuple(final TupleNode<?> node) {
+        node.getValues().forEach(tuple -> values.addAll((List<?>) tuple));
+        return null;
+    }
+
+    @Override
+    public Void visitJoin(final JoinNode<?, ?> node) {
+        return node.getSpecification().accept(this);
+    }
+
+    @Override
+    public Void visitExists(final ExistsNode<?, ?> node) {
+        return node.getSpecification().accept(this);
+    }
+
+    @Override
+    public Void visitSubselect(final SubselectNode<?> node) {
+        return node.getSpecification().accept(this);
+    }
+
+    @Override
+    public Void visitCustom(final CustomNode<?> node) {
+        return null;
+    }
+}
@@ -0,0 +1,29 @@
+package io.github.quinnandrews.spring.data.specification.builder;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveFetchingTest {
+
+    @Test
+    void of_hasThresholdAndBatchSize() {
+        var fetching = AdaptiveFetching.of(2.5, 500);
+        assertEquals(2.5, fetching.getJoinThreshold());
+        assertEquals(500, fetching.getBatchSize());
+        assertTrue(fetching.getStatistics().isEmpty());
+    }
+
+    @Test
+    void of_throwsException_whenArgumentIsInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> AdaptiveFetching.of(0.5, 500));
+        assertThrows(IllegalArgumentException.class, () -> AdaptiveFetching.of(2.5, 0));
+    }
+
+    @Test
+    void additional_returnsSubselect_whenRootsExceedBatchSize() {
+        var fetching = AdaptiveFetching.of(2.5, 2);
+        assertEquals(AdaptiveFetching.Strategy.BATCH, fetching.additional(2));
+        assertEquals(AdaptiveFetching.Strategy.SUBSELECT, fetching.additional(3));
+    }
+}
@@ -0,0 +1,130 @@
+package io.github.quinnandrews.spring.data.specification.builder;
+
+import io.github.quinnandrews.spring.data.specification.builder.application.data.guitarpedals.GuitarPedal;
+import io.github.quinnandrews.spring.data.specification.builder.application.data.guitarpedals.GuitarPedal_;
+import org.hibernate.FlushMode;
+import org.hibernate.graph.GraphSemantic;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.jpa.SpecHints;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static io.github.quinnandrews.spring.data.specification.builder.SpecificationFactory.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExecutionHintsTest {
+
+    @Test
+    void none_hasNoHints() {
+        assertTrue(ExecutionHints.none().isEmpty());
+        assertEquals(Map.of(), ExecutionHints.none().getHints());
+    }
+
+    @Test
+    void hints_areAddedInOrder() {
+        var hints = ExecutionHints.none()
+                .readOnly()
+                .fetchSize(500)
+                .timeout(Duration.ofSeconds(2))
+                .flushMode(FlushMode.MANUAL)
+                .cacheable()
+                .comment("export");
+        assertEquals(
+                List.of(
+                        HibernateHints.HINT_READ_ONLY,
+                        HibernateHints.HINT_FETCH_SIZE,
+                        SpecHints.HINT_SPEC_QUERY_TIMEOUT,
+                        HibernateHints.HINT_FLUSH_MODE,
+                        HibernateHints.HINT_CACHEABLE,
+                        HibernateHints.HINT_COMMENT),
+                List.copyOf(hints.getHints().keySet()));
+        assertEquals(500, hints.getHints().get(HibernateHints.HINT_FETCH_SIZE));
+        assertEquals(2000, hints.getHints().get(SpecHints.HINT_SPEC_QUERY_TIMEOUT));
+        assertEquals(FlushMode.MANUAL, hints.getHints().get(HibernateHints.HINT_FLUSH_MODE));
+    }
+
+    @Test
+    void hint_replacesHintOfSameName_withoutChangingOriginal() {
+        var original = ExecutionHints.none().fetchSize(100);
+        var replaced = original.fetchSize(200);
+        assertEquals(100, original.getHints().get(HibernateHints.HINT_FETCH_SIZE));
+        assertEquals(200, replaced.getHints().get(HibernateHints.HINT_FETCH_SIZE));
+        assertEquals(1, replaced.getHints().size());
+        assertEquals(ExecutionHints.none().fetchSize(200), replaced);
+    }
+
+    @Test
+    void fetchGraph_keepsGraphSemantic_whenHintIsAdded() {
+        var hints = ExecutionHints.none().fetchGraph().readOnly();
+        assertEquals(Optional.of(GraphSemantic.FETCH), hints.getGraphSemantic());
+        assertEquals(Optional.of(GraphSemantic.LOAD), hints.loadGraph().getGraphSemantic());
+        assertFalse(ExecutionHints.none().loadGraph().isEmpty());
+        assertTrue(ExecutionHints.none().getGraphSemantic().isEmpty());
+        assertNotEquals(ExecutionHints.none().readOnly(), hints);
+    }
+
+    @Test
+    void hint_throwsException_whenArgumentIsInvalid() {
+        var hints = ExecutionHints.none();
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> hints.fetchSize(0));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> hints.timeout(Duration.ofMillis(-1)));
+        assertThrows(
+                NullPointerException.class,
+                () -> hints.timeout(null));
+        assertThrows(
+                NullPointerException.class,
+                () -> hints.flushMode(null));
+        assertThrows(
+                NullPointerException.class,
+                () -> hints.hint(null, true));
+        assertThrows(
+                NullPointerException.class,
+                () -> hints.hint(HibernateHints.HINT_READ_ONLY, null));
+    }
+
+    @Test
+    void of_returnsHintsOfBuiltSpecification() {
+        var specification = SpecificationBuilder.from(GuitarPedal.class)
+                .withHints(ExecutionHints::readOnly)
+                .where().isNull(GuitarPedal_.dateSold)
+                .withHints(hints -> hints.fetchSize(50))
+                .toSpecification();
+        assertEquals(ExecutionHints.none().readOnly().fetchSize(50), ExecutionHints.of(specification));
+        assertTrue(ExecutionHints.of(isNull(GuitarPedal_.dateSold)).isEmpty());
+        assertTrue(ExecutionHints.of(null).isEmpty());
+    }
+
+    @Test
+    void of_mergesHintsOfComposedSpecifications() {
+        final var hinted = SpecificationBuilder.from(GuitarPedal.class)
+                .withHints(hints -> hints.readOnly().fetchSize(50))
+                .where().isNull(GuitarPedal_.dateSold)
+                .and().isGreaterThan(GuitarPedal_.usedValue, 100)
+                .toSpecification();
+        final var adopted = SpecificationBuilder.from(GuitarPedal.class)
+                .where(hinted)
+                .toSpecification();
+        assertEquals(ExecutionHints.of(hinted), ExecutionHints.of(adopted));
+        final var spliced = SpecificationBuilder.from(GuitarPedal.class)
+                .withHints(hints -> hints.fetchSize(10))
+                .where().isNotNull(GuitarPedal_.name)
+                .and(hinted)
+                .toSpecification();
+        assertEquals(ExecutionHints.none().fetchSize(10).readOnly(), ExecutionHints.of(spliced));
+        final var nested = SpecificationBuilder.from(GuitarPedal.class)
+                .where().isNotNull(GuitarPedal_.name)
+                .or(hinted)
+                .toSpecification();
+        assertEquals(ExecutionHints.of(hinted), ExecutionHints.of(nested));
+        assertEquals(ExecutionHints.of(hinted), ExecutionHints.of(isNotNull(GuitarPedal_.name).and(hinted)));
+        assertEquals(ExecutionHints.of(hinted), ExecutionHints.of(hinted.or(isNotNull(GuitarPedal_.name))));
+    }
+}
@@ -1,12 +1,15 @@
 package io.github.quinnandrews.spring.data.specification.builder;
 
 import io.github.quinnandrews.spring.data.specification.builder.application.Application;
+import io.github.quinnandrews.spring.data.specification.builder.application.data.guitarpedals.GuitarPedal;
 import io.github.quinnandrews.spring.data.specification.builder.application.data.guitarpedals.GuitarPedalTag;
 import io.github.quinnandrews.spring.data.specification.builder.application.data.guitarpedals.repository.GuitarPedalRepository;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.Test;
 import io.github.quinnandrews.spring.data.specification.builder.application.data.guitarpedals.specifications.GuitarPedalSpecifications;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 
 import java.util.Comparator;
@@ -23,6 +26,9 @@ public class GuitarPedalSpecificationsIntegrationTest {
     @Autowired
     private GuitarPedalRepository guitarPedalRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
     @Test
     void search_example_01() {
         // when passing in a value of 75
@@ -574,4 +580,106 @@ public class GuitarPedalSpecificationsIntegrationTest {
         assertEquals(1, pedals.get(0).getTags().size());
         assertEquals("shoegaze", pedals.get(0).getTags().get(0).getTag());
     }
+
+    @Test
+    void fetch_example_08() {
+        // when pedals are filtered by two properties of an associated collection of guitarPedalTags
+        // where the tag equals 'shoegaze'
+        // and where the id is greater than or equal to 300
+        // and both filters are defined with joinOf()
+        var pedals = guitarPedalRepository.findAll(
+                guitarPedalSpecifications.fetch_example_08(300L, List.of("shoegaze"))
+        );
+        // then 1 pedal is returned
+        // and the pedal has a tag named 'shoegaze'
+        // and the pedal has tags with ids greater than or equal to 300
+        // and the pedal is returned with 4 tags
+        assertEquals(1, pedals.size());
+
+        assertEquals(3L, pedals.get(0).getId());
+        assertEquals("Soft Focus Reverb", pedals.get(0).getName());
+        assertEquals("Catalinbread", pedals.get(0).getManufacturer().getName());
+
+        assertEquals(4, pedals.get(0).getTags().size());
+        pedals.get(0).getTags().sort(Comparator.comparing(GuitarPedalTag::getTag));
+        assertEquals("90s", pedals.get(0).getTags().get(0).getTag());
+        assertEquals("lo-fi", pedals.get(0).getTags().get(1).getTag());
+        assertEquals("reverb", pedals.get(0).getTags().get(2).getTag());
+        assertEquals("shoegaze", pedals.get(0).getTags().get(3).getTag());
+    }
+
+    @Test
+    void fetch_example_08_whenValuesAreNull() {
+        // when pedals are filtered by null values
+        // then no join is rendered for the filters
+        // and all 4 pedals are returned
+        var pedals = guitarPedalRepository.findAll(
+                guitarPedalSpecifications.fetch_example_08(null, null)
+        );
+        assertEquals(4, pedals.size());
+    }
+
+    @Test
+    void fetch_example_09() {
+        // when pedals are filtered by an associated collection of guitarPedalTags
+        // where any tag equals 'shoegaze'
+        // and the filter is rendered as an exists clause
+        var pedals = guitarPedalRepository.findAll(
+                guitarPedalSpecifications.fetch_example_09(List.of("shoegaze"))
+        );
+        // then 2 pedals are returned
+        // and each pedal is returned with all of its tags
+        assertEquals(2, pedals.size());
+        pedals.sort(Comparator.comparing(GuitarPedal::getId));
+
+        assertEquals(1L, pedals.get(0).getId());
+        assertEquals("Big Muff Fuzz", pedals.get(0).getName());
+        assertEquals(2, pedals.get(0).getTags().size());
+
+        assertEquals(3L, pedals.get(1).getId());
+        assertEquals("Soft Focus Reverb", pedals.get(1).getName());
+        assertEquals(4, pedals.get(1).getTags().size());
+    }
+
+    @Test
+    void search_example_08() {
+        // when pedals are filtered by an associated collection of guitarPedalTags
+        // where no tag equals 'shoegaze' or 'tremolo'
+        var pedals = guitarPedalRepository.findAll(
+                guitarPedalSpecifications.search_example_08(List.of("shoegaze", "tremolo"))
+        );
+        // then 1 pedal is returned
+        // and the pedal has neither tag
+        assertEquals(1, pedals.size());
+        assertEquals(2L, pedals.get(0).getId());
+        assertEquals("Deco: Tape Saturation and Double Tracker", pedals.get(0).getName());
+    }
+
+    @Test
+    void search_example_08_whenValueIsNull() {
+        // when pedals are filtered by a null collection of tags
+        // then the filter is ignored
+        // and all 4 pedals are returned
+        var pedals = guitarPedalRepository.findAll(
+                guitarPedalSpecifications.search_example_08(null)
+        );
+        assertEquals(4, pedals.size());
+    }
+
+    @Test
+    void fetch_example_04_paged() {
+        // when pedals are filtered and fetched with their associated collection of guitarPedalTags
+        // and a page of the pedals is requested from a SpecificationExecutor,
+        // which applies the limit in SQL rather than in memory
+        var page = new SpecificationExecutor<>(entityManager, GuitarPedal.class).findAll(
+                guitarPedalSpecifications.fetch_example_04(List.of("shoegaze")),
+                PageRequest.of(0, 1, Sort.by("id"))
+        );
+        // then the count query drops the fetch joins
+        // and counts each matching pedal once
+        assertEquals(2, page.getTotalElements());
+        assertEquals(1, page.getContent().size());
+        assertEquals(1L, page.getContent().get(0).getId());
+        assertEquals(2, page.getContent().get(0).getTags().size());
+    }
 }
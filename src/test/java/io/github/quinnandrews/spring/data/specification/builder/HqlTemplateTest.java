@@ -0,0 +1,348 @@
+package io.github.quinnandrews.spring.data.specification.builder;
+
+import io.github.quinnandrews.spring.data.specification.builder.application.Application;
+import io.github.quinnandrews.spring.data.specification.builder.application.data.guitarpedals.GuitarPedal;
+import io.github.quinnandrews.spring.data.specification.builder.application.data.guitarpedals.GuitarPedalTag_;
+import io.github.quinnandrews.spring.data.specification.builder.application.data.guitarpedals.GuitarPedal_;
+import io.github.quinnandrews.spring.data.specification.builder.application.data.guitarpedals.Manufacturer_;
+import io.github.quinnandrews.spring.data.specification.builder.application.data.guitarpedals.specifications.GuitarPedalSpecifications;
+import jakarta.persistence.EntityManager;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mapping.PropertyReferenceException;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static io.github.quinnandrews.spring.data.specification.builder.SpecificationFactory.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Transactional
+@SpringBootTest(classes = Application.class)
+class HqlTemplateTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private GuitarPedalSpecifications guitarPedalSpecifications;
+
+    @Test
+    void compile_rendersQueryStringWithPositionalParameters() {
+        final var template = HqlTemplate.compile(
+                entityManager,
+                GuitarPedal.class,
+                guitarPedalSpecifications.search_example_07(75)
+        );
+        assertEquals(
+                "select e from GuitarPedal e where (e.dateSold is null and e.usedValue > ?1)",
+                template.getQueryString()
+        );
+        assertEquals(1, template.getParameterCount());
+    }
+
+    @Test
+    void compile_rendersSameQueryString_whenOnlyValuesDiffer() {
+        assertEquals(
+                HqlTemplate.compile(entityManager, GuitarPedal.class, isIn(GuitarPedal_.id, List.of(1L, 2L)))
+                        .getQueryString(),
+                HqlTemplate.compile(entityManager, GuitarPedal.class, isIn(GuitarPedal_.id, List.of(3L)))
+                        .getQueryString()
+        );
+    }
+
+    @Test
+    void compile_rendersTupleInClauseWithTypedParameters() {
+        final var specification = isIn(
+                List.of(GuitarPedal_.id, GuitarPedal_.datePurchased),
+                List.of(List.of(1L, LocalDate.of(2023, 1, 1)), List.of(4L, LocalDate.of(2023, 1, 1))));
+        final var template = HqlTemplate.compile(entityManager, GuitarPedal.class, specification);
+        assertEquals(
+                "select e from GuitarPedal e where (e.id, e.datePurchased) in"
+                        + " ((cast(?1 as java.lang.Long), cast(?2 as java.time.LocalDate)),"
+                        + " (cast(?3 as java.lang.Long), cast(?4 as java.time.LocalDate)))",
+                template.getQueryString()
+        );
+        assertEquals(List.of(4L), ids(template.bind(entityManager, specification).getResultList()));
+    }
+
+    @Test
+    void compile_rendersSubselectWithJoinsOfItsOwn() {
+        final var specification = SpecificationBuilder.from(GuitarPedal.class)
+                .with().fetchOf(GuitarPedal_.tags)
+                .where(new SubselectNode<>(
+                        entityManager.getMetamodel().entity(GuitarPedal.class),
+                        GuitarPedal_.id,
+                        SpecificationNode.of(joinOf(GuitarPedal_.manufacturer, isEqualTo(Manufacturer_.name, "Strymon")))))
+                .toSpecification();
+        final var template = HqlTemplate.compile(entityManager, GuitarPedal.class, specification);
+        assertEquals(
+                "select e from GuitarPedal e join fetch e.tags f1 where e.id in"
+                        + " (select s1.id from GuitarPedal s1 join s1.manufacturer j1 where j1.name = ?1)",
+                template.getQueryString()
+        );
+        assertEquals(List.of(2L), ids(template.bind(entityManager, specification).getResultList()));
+    }
+
+    @Test
+    void compile_rendersArrayFunction_whenInClauseIsBoundToArray() {
+        final var specification = isIn(GuitarPedal_.id, List.of(1L, 2L), InClauseStrategy.array());
+        final var template = HqlTemplate.compile(entityManager, GuitarPedal.class, specification);
+        assertEquals(
+                "select e from GuitarPedal e where specification_in_array(?1, e.id) = true",
+                template.getQueryString()
+        );
+        assertEquals(List.of(1L, 2L), ids(template.bind(entityManager, specification).getResultList()));
+    }
+
+    @Test
+    void compile_rendersFetchJoinsAndNestedConditions() {
+        final var template = HqlTemplate.compile(
+                entityManager,
+                GuitarPedal.class,
+                SpecificationBuilder.from(GuitarPedal.class)
+                        .with().fetchOf(GuitarPedal_.manufacturer)
+                        .where().isLike(GuitarPedal_.name, "%o%")
+                        .or(isBetween(GuitarPedal_.usedValue, 100, 200))
+                        .and().isIn(GuitarPedal_.id, 1L, 2L)
+                        .toSpecification()
+        );
+        assertEquals(
+                "select e from GuitarPedal e join fetch e.manufacturer f1"
+                        + " where ((lower(e.name) like ?1 or e.usedValue between ?2 and ?3) and e.id in ?4)",
+                template.getQueryString()
+        );
+    }
+
+    @Test
+    void compile_rendersFetchPathSharingFetchJoinsOfPrefix() {
+        final var specification = SpecificationBuilder.from(GuitarPedal.class)
+                .with().fetchOf(GuitarPedal_.manufacturer)
+                .and().fetchOf(FetchPath.of(GuitarPedal_.manufacturer).then(Manufacturer_.guitarPedals))
+                .where().isEqualTo(GuitarPedal_.id, 1L)
+                .toSpecification();
+        final var template = HqlTemplate.compile(entityManager, GuitarPedal.class, specification);
+        assertEquals(
+                "select e from GuitarPedal e join fetch e.manufacturer f1 join fetch f1.guitarPedals f2"
+                        + " where e.id = ?1",
+                template.getQueryString()
+        );
+        final var pedals = template.bind(entityManager, specification).getResultList();
+        assertEquals(List.of(1L), ids(pedals));
+        assertFalse(pedals.get(0).getManufacturer().getGuitarPedals().isEmpty());
+    }
+
+    @Test
+    void compile_rendersOneSharedExistsClauseForFiltersOnCollection() {
+        final var specification = guitarPedalSpecifications.fetch_example_08(300L, List.of("shoegaze"));
+        final var template = HqlTemplate.compile(entityManager, GuitarPedal.class, specification);
+        assertEquals(
+                "select e from GuitarPedal e join fetch e.manufacturer f1 join fetch e.tags f2"
+                        + " where exists (select 1 from e.tags x1 where (x1.id >= ?1 and x1.tag in ?2))",
+                template.getQueryString()
+        );
+        final var pedals = template.bind(entityManager, specification).getResultList();
+        assertEquals(List.of(3L), ids(pedals));
+        assertEquals(4, pedals.get(0).getTags().size());
+    }
+
+    @Test
+    void compile_rendersExistsClauseForJoin_whenJoinIsUnderOr() {
+        final var specification = isEqualTo(GuitarPedal_.id, 2L)
+                .or(joinOf(GuitarPedal_.manufacturer, isEqualTo(Manufacturer_.name, "Catalinbread")));
+        final var template = HqlTemplate.compile(entityManager, GuitarPedal.class, specification);
+        assertEquals(
+                "select e from GuitarPedal e"
+                        + " where (e.id = ?1 or exists (select 1 from e.manufacturer x1 where x1.name = ?2))",
+                template.getQueryString()
+        );
+        assertEquals(List.of(2L, 3L), ids(template.bind(entityManager, specification).getResultList()));
+    }
+
+    @Test
+    void compile_rendersCorrelatedExistsClause() {
+        final var specification = SpecificationBuilder.from(GuitarPedal.class)
+                .where().isLessThan(GuitarPedal_.usedValue, 100)
+                .and().anyMatch(GuitarPedal_.tags, tag -> tag
+                        .where().isIn(GuitarPedalTag_.tag, List.of("shoegaze"))
+                        .and().isGreaterThan(GuitarPedalTag_.id, 100L))
+                .toSpecification();
+        final var template = HqlTemplate.compile(entityManager, GuitarPedal.class, specification);
+        assertEquals(
+                "select e from GuitarPedal e where (e.usedValue < ?1"
+                        + " and exists (select 1 from e.tags x1 where (x1.tag in ?2 and x1.id > ?3)))",
+                template.getQueryString()
+        );
+        assertEquals(List.of(1L), ids(template.bind(entityManager, specification).getResultList()));
+    }
+
+    @Test
+    void compile_rendersCorrelatedNotExistsClause() {
+        final var specification = guitarPedalSpecifications.search_example_08(List.of("shoegaze", "tremolo"));
+        final var template = HqlTemplate.compile(entityManager, GuitarPedal.class, specification);
+        assertEquals(
+                "select e from GuitarPedal e where not exists (select 1 from e.tags x1 where x1.tag in ?1)",
+                template.getQueryString()
+        );
+        assertEquals(List.of(2L), ids(template.bind(entityManager, specification).getResultList()));
+    }
+
+    @Test
+    void compile_rendersOrderBy_whenCompiledWithSort() {
+        final var template = HqlTemplate.compile(
+                entityManager,
+                GuitarPedal.class,
+                isNull(GuitarPedal_.dateSold),
+                Sort.by(Sort.Order.asc("manufacturer.name").ignoreCase(), Sort.Order.desc(GuitarPedal_.USED_VALUE))
+        );
+        assertEquals(
+                "select e from GuitarPedal e left join e.manufacturer s1 where e.dateSold is null"
+                        + " order by lower(s1.name) asc, e.usedValue desc",
+                template.getQueryString()
+        );
+        assertEquals(
+                List.of(3L, 1L, 2L),
+                template.bind(entityManager, isNull(GuitarPedal_.dateSold)).getResultList().stream()
+                        .map(GuitarPedal::getId)
+                        .toList()
+        );
+    }
+
+    @Test
+    void compile_reusesFetchJoin_whenSortedByFetchedAssociation() {
+        final var template = HqlTemplate.compile(
+                entityManager,
+                GuitarPedal.class,
+                fetchOf(GuitarPedal_.manufacturer),
+                Sort.by("manufacturer.name")
+        );
+        assertEquals(
+                "select e from GuitarPedal e join fetch e.manufacturer f1 order by f1.name asc",
+                template.getQueryString()
+        );
+    }
+
+    @Test
+    void compile_rendersTrue_whenFetchIsUnderOrClause() {
+        final var specification = SpecificationBuilder.from(GuitarPedal.class)
+                .where().isEqualTo(GuitarPedal_.id, 1L)
+                .or(fetchOf(GuitarPedal_.manufacturer))
+                .toSpecification();
+        final var template = HqlTemplate.compile(entityManager, GuitarPedal.class, specification);
+        assertEquals(
+                "select e from GuitarPedal e join fetch e.manufacturer f1 where (e.id = ?1 or 1 = 1)",
+                template.getQueryString()
+        );
+        assertEquals(
+                ids(SpecificationTemplate.compile(entityManager, GuitarPedal.class, specification)
+                        .bind(entityManager, specification)
+                        .getResultList()),
+                ids(template.bind(entityManager, specification).getResultList())
+        );
+    }
+
+    @Test
+    void compile_reusesJoin_whenSortedByJoinedAssociation() {
+        final var specification = SpecificationBuilder.from(GuitarPedal.class)
+                .where().joinOf(GuitarPedal_.manufacturer, manufacturer -> manufacturer
+                        .where().isNotNull(Manufacturer_.name))
+                .toSpecification();
+        final var template = HqlTemplate.compile(
+                entityManager,
+                GuitarPedal.class,
+                specification,
+                SortBuilder.from(GuitarPedal.class)
+                        .desc(GuitarPedal_.manufacturer, Manufacturer_.name)
+                        .toSort()
+        );
+        assertEquals(
+                "select e from GuitarPedal e join e.manufacturer j1 where j1.name is not null order by j1.name desc",
+                template.getQueryString()
+        );
+        assertEquals(
+                List.of(2L, 4L, 1L, 3L),
+                template.bind(entityManager, specification).getResultList().stream()
+                        .map(GuitarPedal::getId)
+                        .toList()
+        );
+    }
+
+    @Test
+    void compile_throwsException_whenSortPropertyDoesNotExist() {
+        final var sort = Sort.by("id; delete from GuitarPedal");
+        assertThrows(
+                PropertyReferenceException.class,
+                () -> HqlTemplate.compile(entityManager, GuitarPedal.class, ghost(), sort));
+    }
+
+    @Test
+    void compile_throwsException_whenSpecificationIsNotStructural() {
+        final var specification = guitarPedalSpecifications.search_example_01(75);
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> HqlTemplate.compile(entityManager, GuitarPedal.class, specification));
+    }
+
+    @Test
+    void getParameterValues_returnsValuesInPositionalOrder() {
+        final var specification = SpecificationBuilder.from(GuitarPedal.class)
+                .where().isBetween(GuitarPedal_.usedValue, 100, 200)
+                .and().isIn(GuitarPedal_.id, List.of(1L, 2L))
+                .toSpecification();
+        final var template = HqlTemplate.compile(entityManager, GuitarPedal.class, specification);
+        assertEquals(List.of(100, 200, List.of(1L, 2L)), template.getParameterValues(specification));
+    }
+
+    @Test
+    void bind_returnsSameResultsAsSpecificationTemplate() {
+        final var specification = SpecificationBuilder.from(GuitarPedal.class)
+                .with().fetchOf(GuitarPedal_.manufacturer)
+                .and().fetchOf(GuitarPedal_.tags)
+                .where().isLike(GuitarPedal_.name, "%o%")
+                .and().isNotEqualTo(GuitarPedal_.id, 4L)
+                .and().isBetween(GuitarPedal_.datePurchased, LocalDate.of(2020, 1, 1), LocalDate.of(2022, 12, 31))
+                .and().isGreaterThanOrEqualTo(GuitarPedal_.usedValue, 75)
+                .and().isLessThanOrEqualTo(GuitarPedal_.usedValue, 250)
+                .and().isFalse(GuitarPedal_.hasStereoOutput)
+                .and().isNotNull(GuitarPedal_.name)
+                .or(isIn(GuitarPedal_.id, 1L, 2L))
+                .toSpecification();
+        assertEquals(
+                ids(SpecificationTemplate.compile(entityManager, GuitarPedal.class, specification)
+                        .bind(entityManager, specification)
+                        .getResultList()),
+                ids(HqlTemplate.compile(entityManager, GuitarPedal.class, specification)
+                        .bind(entityManager, specification)
+                        .getResultList())
+        );
+    }
+
+    @Test
+    void bind_reusesCachedQueryPlan_whenOnlyValuesDiffer() {
+        final var interpretationCache = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class)
+                .getQueryEngine()
+                .getInterpretationCache();
+        final var template = HqlTemplate.compile(
+                entityManager,
+                GuitarPedal.class,
+                guitarPedalSpecifications.search_example_07(75)
+        );
+        assertEquals(List.of(2L, 3L), ids(template.bind(entityManager, guitarPedalSpecifications.search_example_07(75)).getResultList()));
+        final var cachedInterpretations = interpretationCache.getNumberOfCachedHqlInterpretations();
+        assertEquals(List.of(2L), ids(template.bind(entityManager, guitarPedalSpecifications.search_example_07(200)).getResultList()));
+        assertEquals(List.of(), ids(template.bind(entityManager, guitarPedalSpecifications.search_example_07(250)).getResultList()));
+        assertEquals(cachedInterpretations, interpretationCache.getNumberOfCachedHqlInterpretations());
+    }
+
+    private static List<Long> ids(final List<GuitarPedal> guitarPedals) {
+        return guitarPedals.stream()
+                .map(GuitarPedal::getId)
+                .sorted()
+                .toList();
+    }
+}
@@ -0,0 +1,56 @@
+package io.github.quinnandrews.spring.data.specification.builder;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InClauseChunkingTest {
+
+    @Test
+    void sequential_hasNoExecutor() {
+        var chunking = InClauseChunking.sequential(1000);
+        assertEquals(1000, chunking.getChunkSize());
+        assertTrue(chunking.getExecutor().isEmpty());
+    }
+
+    @Test
+    void parallel_hasExecutor() {
+        Executor executor = Runnable::run;
+        var chunking = InClauseChunking.parallel(1000, executor);
+        assertSame(executor, chunking.getExecutor().orElseThrow());
+    }
+
+    @Test
+    void chunk_splitsValuesAndPadsLastChunk() {
+        assertEquals(
+                List.of(List.of(1L, 2L, 3L), List.of(4L, 5L, 6L), List.of(7L, 7L, 7L)),
+                InClauseChunking.sequential(3).chunk(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L)));
+    }
+
+    @Test
+    void chunk_removesDuplicateValues() {
+        assertEquals(
+                List.of(List.of(1L, 2L), List.of(3L, 3L)),
+                InClauseChunking.sequential(2).chunk(List.of(1L, 2L, 1L, 3L, 2L)));
+    }
+
+    @Test
+    void chunk_returnsOneChunk_whenValuesFitChunkSize() {
+        assertEquals(
+                List.of(List.of(1L, 2L)),
+                InClauseChunking.sequential(3).chunk(List.of(1L, 2L)));
+    }
+
+    @Test
+    void constructor_throwsException_whenArgumentIsInvalid() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> InClauseChunking.sequential(0));
+        assertThrows(
+                NullPointerException.class,
+                () -> InClauseChunking.parallel(1000, null));
+    }
+}
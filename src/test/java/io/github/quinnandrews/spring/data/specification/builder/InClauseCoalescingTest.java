@@ -0,0 +1,77 @@
+package io.github.quinnandrews.spring.data.specification.builder;
+
+import io.github.quinnandrews.spring.data.specification.builder.application.Application;
+import io.github.quinnandrews.spring.data.specification.builder.application.data.guitarpedals.GuitarPedal;
+import io.github.quinnandrews.spring.data.specification.builder.application.data.guitarpedals.GuitarPedal_;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = Application.class)
+class InClauseCoalescingTest {
+
+    @Test
+    void coalesce_returnsBetween_whenValuesAreContiguous() {
+        var node = InClauseCoalescing.ranges().coalesce(
+                GuitarPedal_.id,
+                LongStream.rangeClosed(1, 10_000).boxed().toList());
+        assertEquals(Operator.BETWEEN, node.getOperator());
+        assertEquals(List.of(1L, 10_000L), node.getValues());
+    }
+
+    @Test
+    void coalesce_returnsRangesAndResidualIn_whenValuesHaveGaps() {
+        var node = (CompositeNode<GuitarPedal>) InClauseCoalescing.ranges().coalesce(
+                GuitarPedal_.id,
+                List.of(9L, 1L, 2L, 3L, 20L, 7L, 4L, 10L, 11L, 21L));
+        assertEquals(Operator.OR, node.getOperator());
+        assertEquals(3, node.getChildren().size());
+        assertEquals(Operator.BETWEEN, node.getChildren().get(0).getOperator());
+        assertEquals(List.of(1L, 4L), node.getChildren().get(0).getValues());
+        assertEquals(Operator.BETWEEN, node.getChildren().get(1).getOperator());
+        assertEquals(List.of(9L, 11L), node.getChildren().get(1).getValues());
+        assertEquals(Operator.IN, node.getChildren().get(2).getOperator());
+        assertEquals(List.of(7L, 20L, 21L), node.getChildren().get(2).getValues());
+    }
+
+    @Test
+    void coalesce_removesDuplicateValues() {
+        var node = InClauseCoalescing.ranges().coalesce(GuitarPedal_.id, List.of(3L, 2L, 2L, 1L, 3L));
+        assertEquals(Operator.BETWEEN, node.getOperator());
+        assertEquals(List.of(1L, 3L), node.getValues());
+    }
+
+    @Test
+    void coalesce_convertsValuesToTypeOfAttribute() {
+        var node = InClauseCoalescing.ranges().coalesce(GuitarPedal_.id, List.of(1, 2L, (short) 3, 2));
+        assertEquals(Operator.BETWEEN, node.getOperator());
+        assertEquals(List.of(1L, 3L), node.getValues());
+        var usedValues = InClauseCoalescing.ranges().coalesce(GuitarPedal_.usedValue, List.of(5L, 6L, 7L));
+        assertEquals(List.of(5, 7), usedValues.getValues());
+    }
+
+    @Test
+    void coalesce_returnsIn_whenNoRunIsLongEnough() {
+        var node = InClauseCoalescing.ranges(4).coalesce(GuitarPedal_.id, List.of(1L, 2L, 3L, 5L));
+        assertEquals(Operator.IN, node.getOperator());
+        assertEquals(List.of(1L, 2L, 3L, 5L), node.getValues());
+    }
+
+    @Test
+    void coalesce_returnsIn_whenValuesAreNotIntegral() {
+        var node = InClauseCoalescing.ranges().coalesce(GuitarPedal_.name, List.of("a", "b", "c"));
+        assertEquals(Operator.IN, node.getOperator());
+        assertEquals(List.of("a", "b", "c"), node.getValues());
+    }
+
+    @Test
+    void ranges_throwsException_whenMinimumRunLengthIsLessThanTwo() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> InClauseCoalescing.ranges(1));
+    }
+}
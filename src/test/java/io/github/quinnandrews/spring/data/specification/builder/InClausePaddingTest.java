@@ -0,0 +1,98 @@
+package io.github.quinnandrews.spring.data.specification.builder;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InClausePaddingTest {
+
+    @Test
+    void none_doesNotPad() {
+        var padding = InClausePadding.none();
+        assertEquals(0, padding.paddedSize(0));
+        assertEquals(3, padding.paddedSize(3));
+        assertEquals(List.of(1L, 2L, 3L), padding.pad(List.of(1L, 2L, 3L)));
+    }
+
+    @Test
+    void powersOfTwo_padsToNextPowerOfTwo() {
+        var padding = InClausePadding.powersOfTwo();
+        assertEquals(1, padding.paddedSize(1));
+        assertEquals(2, padding.paddedSize(2));
+        assertEquals(4, padding.paddedSize(3));
+        assertEquals(4, padding.paddedSize(4));
+        assertEquals(8, padding.paddedSize(5));
+        assertEquals(512, padding.paddedSize(500));
+    }
+
+    @Test
+    void powersOfTwo_rendersLogarithmicNumberOfSizes() {
+        var padding = InClausePadding.powersOfTwo();
+        assertEquals(10, IntStream.rangeClosed(1, 500).map(padding::paddedSize).distinct().count());
+    }
+
+    @Test
+    void buckets_padsToSmallestBucketThatFits() {
+        var padding = InClausePadding.buckets(10, 50, 100);
+        assertEquals(1, padding.paddedSize(1));
+        assertEquals(10, padding.paddedSize(2));
+        assertEquals(10, padding.paddedSize(10));
+        assertEquals(50, padding.paddedSize(11));
+        assertEquals(100, padding.paddedSize(100));
+    }
+
+    @Test
+    void buckets_padsToMultipleOfLargestBucket_whenNoBucketFits() {
+        var padding = InClausePadding.buckets(10, 50, 100);
+        assertEquals(200, padding.paddedSize(101));
+        assertEquals(500, padding.paddedSize(500));
+    }
+
+    @Test
+    void buckets_throwsException_whenSizesAreInvalid() {
+        assertThrows(
+                IllegalArgumentException.class,
+                InClausePadding::buckets);
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> InClausePadding.buckets(0, 10));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> InClausePadding.buckets(10, 10));
+        assertThrows(
+                NullPointerException.class,
+                () -> InClausePadding.buckets((int[]) null));
+    }
+
+    @Test
+    void pad_repeatsLastValue() {
+        assertEquals(
+                List.of(1L, 2L, 3L, 3L),
+                InClausePadding.powersOfTwo().pad(List.of(1L, 2L, 3L)));
+        assertEquals(
+                List.of("a", "b", "b", "b", "b"),
+                InClausePadding.buckets(5).pad(List.of("a", "b")));
+    }
+
+    @Test
+    void pad_removesDuplicateValuesBeforePadding() {
+        assertEquals(
+                List.of(1L, 2L),
+                InClausePadding.powersOfTwo().pad(List.of(1L, 2L, 2L, 1L)));
+    }
+
+    @Test
+    void pad_returnsEmptyList_whenValuesAreEmpty() {
+        assertEquals(List.of(), InClausePadding.powersOfTwo().pad(List.of()));
+    }
+
+    @Test
+    void pad_throwsException_whenValuesAreNull() {
+        assertThrows(
+                NullPointerException.class,
+                () -> InClausePadding.powersOfTwo().pad(null));
+    }
+}
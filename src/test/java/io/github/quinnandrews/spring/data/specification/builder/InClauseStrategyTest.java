@@ -0,0 +1,42 @@
+package io.github.quinnandrews.spring.data.specification.builder;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InClauseStrategyTest {
+
+    @Test
+    void parameters_neverUsesArray() {
+        assertEquals(Operator.IN, InClauseStrategy.parameters().operatorFor(1));
+        assertEquals(Operator.IN, InClauseStrategy.parameters().operatorFor(100_000));
+    }
+
+    @Test
+    void array_alwaysUsesArray() {
+        assertEquals(Operator.IN_ARRAY, InClauseStrategy.array().operatorFor(1));
+        assertEquals(Operator.IN_ARRAY, InClauseStrategy.array().operatorFor(100_000));
+    }
+
+    @Test
+    void arrayAbove_usesArray_whenSizeExceedsThreshold() {
+        var strategy = InClauseStrategy.arrayAbove(500);
+        assertEquals(Operator.IN, strategy.operatorFor(500));
+        assertEquals(Operator.IN_ARRAY, strategy.operatorFor(501));
+    }
+
+    @Test
+    void arrayAbove_throwsException_whenThresholdIsNegative() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> InClauseStrategy.arrayAbove(-1));
+    }
+
+    @Test
+    void toArray_returnsArrayOfWrapperType() {
+        assertArrayEquals(new Long[]{1L, 2L}, (Long[]) InClauseStrategy.toArray(List.of(1L, 2L), long.class));
+        assertArrayEquals(new String[]{"a"}, (String[]) InClauseStrategy.toArray(List.of("a"), String.class));
+    }
+}
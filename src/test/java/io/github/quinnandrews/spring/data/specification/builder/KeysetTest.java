@@ -0,0 +1,135 @@
+package io.github.quinnandrews.spring.data.specification.builder;
+
+import io.github.quinnandrews.spring.data.specification.builder.application.Application;
+import io.github.quinnandrews.spring.data.specification.builder.application.data.guitarpedals.GuitarPedal;
+import io.github.quinnandrews.spring.data.specification.builder.application.data.guitarpedals.GuitarPedal_;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Transactional
+@SpringBootTest(classes = Application.class)
+class KeysetTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void of_appendsIdAsTieBreaker() {
+        final var keyset = Keyset.of(List.of(GuitarPedal_.usedValue, GuitarPedal_.name));
+        assertEquals(List.of(GuitarPedal_.usedValue, GuitarPedal_.name, GuitarPedal_.id), keyset.getAttributes());
+        assertEquals(Sort.Direction.ASC, keyset.getDirection());
+        assertEquals(
+                Sort.by(Sort.Direction.ASC, GuitarPedal_.USED_VALUE, GuitarPedal_.NAME, GuitarPedal_.ID),
+                keyset.toSort());
+    }
+
+    @Test
+    void of_doesNotRepeatId_whenIdIsGiven() {
+        final var keyset = Keyset.of(Sort.Direction.DESC, List.of(GuitarPedal_.id, GuitarPedal_.name));
+        assertEquals(List.of(GuitarPedal_.id, GuitarPedal_.name), keyset.getAttributes());
+        assertEquals(Sort.by(Sort.Direction.DESC, GuitarPedal_.ID, GuitarPedal_.NAME), keyset.toSort());
+    }
+
+    @Test
+    void of_throwsException_whenArgumentIsInvalid() {
+        assertThrows(
+                NullPointerException.class,
+                () -> Keyset.of(null));
+        assertThrows(
+                NullPointerException.class,
+                () -> Keyset.of(null, List.of(GuitarPedal_.usedValue)));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> Keyset.<GuitarPedal>of(List.of()));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> Keyset.of(List.of(GuitarPedal_.manufacturer)));
+    }
+
+    @Test
+    void of_throwsException_whenAttributeIsOptional() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> Keyset.of(List.of(GuitarPedal_.dateSold)));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> Keyset.of(Sort.Direction.DESC, List.of(GuitarPedal_.usedValue, GuitarPedal_.dateSold)));
+    }
+
+    @Test
+    void after_returnsGhost_whenTokenIsNull() {
+        assertTrue(CompositeNode.isGhost(Keyset.of(List.of(GuitarPedal_.usedValue)).after(null)));
+    }
+
+    @Test
+    void after_returnsSeekPredicate_whenTokenIsGiven() {
+        final var keyset = Keyset.of(List.of(GuitarPedal_.datePurchased));
+        final var token = keyset.tokenOf(entityManager.find(GuitarPedal.class, 3L));
+        assertEquals(
+                new CompositeNode<>(Operator.OR, List.of(
+                        new PredicateNode<>(Operator.GREATER_THAN, GuitarPedal_.datePurchased,
+                                List.of(LocalDate.of(2022, 9, 11))),
+                        new CompositeNode<>(Operator.AND, List.of(
+                                new PredicateNode<>(Operator.EQUAL, GuitarPedal_.datePurchased,
+                                        List.of(LocalDate.of(2022, 9, 11))),
+                                new PredicateNode<>(Operator.GREATER_THAN, GuitarPedal_.id, List.of(3L))))
+                )),
+                keyset.after(token));
+    }
+
+    @Test
+    void after_seeksBackwards_whenDirectionIsDescending() {
+        final var keyset = Keyset.of(Sort.Direction.DESC, List.of(GuitarPedal_.id));
+        final var token = keyset.tokenOf(entityManager.find(GuitarPedal.class, 2L));
+        assertEquals(new PredicateNode<>(Operator.LESS_THAN, GuitarPedal_.id, List.of(2L)), keyset.after(token));
+    }
+
+    @Test
+    void after_throwsException_whenTokenIsInvalid() {
+        final var keyset = Keyset.of(List.of(GuitarPedal_.usedValue));
+        final var otherToken = Keyset.of(List.of(GuitarPedal_.usedValue, GuitarPedal_.name))
+                .tokenOf(entityManager.find(GuitarPedal.class, 1L));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> keyset.after("not a token"));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> keyset.after(otherToken));
+    }
+
+    @Test
+    void tokenOf_throwsException_whenValueIsNull() {
+        final var keyset = Keyset.of(List.of(GuitarPedal_.usedValue));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> keyset.tokenOf(new GuitarPedal()));
+        assertThrows(
+                NullPointerException.class,
+                () -> keyset.tokenOf(null));
+    }
+
+    @Test
+    void tokenOf_encodesDatesWithFullPrecision() {
+        final var timestamp = Timestamp.from(Instant.parse("2023-03-21T10:15:30.123456789Z"));
+        assertEquals("2023-03-21T10:15:30.123456789Z", Keyset.encode(timestamp));
+        assertEquals(timestamp, Keyset.convert(Keyset.encode(timestamp), Timestamp.class));
+        assertEquals(timestamp, Keyset.convert(Keyset.encode(timestamp), Date.class));
+        final var date = new Date(timestamp.getTime());
+        assertEquals("2023-03-21T10:15:30.123Z", Keyset.encode(date));
+        assertEquals(date.getTime(), ((Date) Keyset.convert(Keyset.encode(date), Date.class)).getTime());
+        final var sqlDate = java.sql.Date.valueOf(LocalDate.of(2023, 3, 21));
+        assertEquals(sqlDate, Keyset.convert(Keyset.encode(sqlDate), java.sql.Date.class));
+    }
+}
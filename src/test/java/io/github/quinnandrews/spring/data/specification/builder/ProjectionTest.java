@@ -0,0 +1,73 @@
+package io.github.quinnandrews.spring.data.specification.builder;
+
+import io.github.quinnandrews.spring.data.specification.builder.application.Application;
+import io.github.quinnandrews.spring.data.specification.builder.application.data.guitarpedals.GuitarPedal;
+import io.github.quinnandrews.spring.data.specification.builder.application.data.guitarpedals.GuitarPedal_;
+import jakarta.persistence.Tuple;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = Application.class)
+class ProjectionTest {
+
+    public record PedalSummary(String name, Integer usedValue) {}
+
+    public static class PedalValue {
+
+        private final String name;
+        private final int usedValue;
+
+        public PedalValue(final String name,
+                          final int usedValue) {
+            this.name = name;
+            this.usedValue = usedValue;
+        }
+    }
+
+    @Test
+    void tuple_selectsAttributesInOrder() {
+        final var projection = Projection.tuple(List.of(GuitarPedal_.name, GuitarPedal_.usedValue));
+        assertEquals(Tuple.class, projection.getType());
+        assertEquals(List.of(GuitarPedal_.NAME, GuitarPedal_.USED_VALUE), projection.getAttributeNames());
+    }
+
+    @Test
+    void of_acceptsConstructor_whenParametersAcceptAttributes() {
+        final var projection = Projection.of(PedalValue.class, List.of(GuitarPedal_.name, GuitarPedal_.usedValue));
+        assertEquals(PedalValue.class, projection.getType());
+        assertEquals(List.of(GuitarPedal_.NAME, GuitarPedal_.USED_VALUE), projection.getAttributeNames());
+    }
+
+    @Test
+    void of_selectsRecordComponents() {
+        final Projection<GuitarPedal, PedalSummary> projection = Projection.of(PedalSummary.class);
+        assertEquals(PedalSummary.class, projection.getType());
+        assertEquals(List.of(GuitarPedal_.NAME, GuitarPedal_.USED_VALUE), projection.getAttributeNames());
+    }
+
+    @Test
+    void of_throwsException_whenArgumentIsInvalid() {
+        assertThrows(
+                NullPointerException.class,
+                () -> Projection.tuple(null));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> Projection.tuple(List.of()));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> Projection.tuple(List.of(GuitarPedal_.manufacturer)));
+        assertThrows(
+                NullPointerException.class,
+                () -> Projection.of(null, List.of(GuitarPedal_.name)));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> Projection.of(PedalValue.class, List.of(GuitarPedal_.usedValue, GuitarPedal_.name)));
+        assertThrows(
+                NullPointerException.class,
+                () -> Projection.of(null));
+    }
+}
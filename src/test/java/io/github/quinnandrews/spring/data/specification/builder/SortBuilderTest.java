@@ -0,0 +1,150 @@
+package io.github.quinnandrews.spring.data.specification.builder;
+
+import io.github.quinnandrews.spring.data.specification.builder.application.Application;
+import io.github.quinnandrews.spring.data.specification.builder.application.data.guitarpedals.GuitarPedal;
+import io.github.quinnandrews.spring.data.specification.builder.application.data.guitarpedals.GuitarPedal_;
+import io.github.quinnandrews.spring.data.specification.builder.application.data.guitarpedals.Manufacturer_;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static io.github.quinnandrews.spring.data.specification.builder.SpecificationFactory.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Transactional
+@SpringBootTest(classes = Application.class)
+class SortBuilderTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private CriteriaBuilder criteriaBuilder;
+    private CriteriaQuery<GuitarPedal> query;
+    private Root<GuitarPedal> root;
+
+    @BeforeEach
+    void setUp() {
+        criteriaBuilder = entityManager.getCriteriaBuilder();
+        query = criteriaBuilder.createQuery(GuitarPedal.class);
+        root = query.from(GuitarPedal.class);
+    }
+
+    @Test
+    void toSort_returnsOrdersInOrderAdded() {
+        final var sort = SortBuilder.from(GuitarPedal.class)
+                .asc(GuitarPedal_.manufacturer, Manufacturer_.name).ignoringCase()
+                .desc(GuitarPedal_.usedValue)
+                .asc(GuitarPedal_.name)
+                .desc(GuitarPedal_.manufacturer, Manufacturer_.id)
+                .toSort();
+        assertEquals(
+                Sort.by(
+                        Sort.Order.asc("manufacturer.name").ignoreCase(),
+                        Sort.Order.desc(GuitarPedal_.USED_VALUE),
+                        Sort.Order.asc(GuitarPedal_.NAME),
+                        Sort.Order.desc("manufacturer.id")),
+                sort);
+    }
+
+    @Test
+    void toSort_returnsUnsorted_whenNoOrderIsAdded() {
+        assertTrue(SortBuilder.from(GuitarPedal.class).toSort().isUnsorted());
+    }
+
+    @Test
+    void ignoringCase_throwsException_whenNoOrderIsAdded() {
+        final var builder = SortBuilder.from(GuitarPedal.class);
+        assertThrows(
+                IllegalStateException.class,
+                builder::ignoringCase);
+    }
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void asc_throwsException_whenArgumentIsInvalid() {
+        final var builder = SortBuilder.from(GuitarPedal.class);
+        assertThrows(
+                NullPointerException.class,
+                () -> builder.asc(null));
+        assertThrows(
+                NullPointerException.class,
+                () -> builder.desc(GuitarPedal_.manufacturer, null));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> builder.asc((SingularAttribute) GuitarPedal_.name, Manufacturer_.name));
+        assertThrows(
+                NullPointerException.class,
+                () -> SortBuilder.from(null));
+    }
+
+    @Test
+    void toOrders_sortsThroughFetch_whenAssociationIsFetched() {
+        final var fetch = root.fetch(GuitarPedal_.manufacturer);
+        final var orders = SortOrders.toOrders(
+                SortBuilder.from(GuitarPedal.class).asc(GuitarPedal_.manufacturer, Manufacturer_.name).toSort(),
+                root,
+                criteriaBuilder);
+        assertSame(fetch, ((Path<?>) orders.get(0).getExpression()).getParentPath());
+        assertTrue(root.getJoins().isEmpty());
+    }
+
+    @Test
+    void toOrders_sortsThroughJoin_whenAssociationIsJoined() {
+        final var specification = SpecificationBuilder.from(GuitarPedal.class)
+                .where().joinOf(GuitarPedal_.manufacturer, manufacturer -> manufacturer
+                        .where().isEqualTo(Manufacturer_.name, "Strymon"))
+                .toSpecification();
+        specification.toPredicate(root, query, criteriaBuilder);
+        final var join = root.getJoins().iterator().next();
+        final var orders = SortOrders.toOrders(
+                SortBuilder.from(GuitarPedal.class).desc(GuitarPedal_.manufacturer, Manufacturer_.name).toSort(),
+                root,
+                criteriaBuilder);
+        assertSame(join, ((Path<?>) orders.get(0).getExpression()).getParentPath());
+        assertEquals(1, root.getJoins().size());
+    }
+
+    @Test
+    void toOrders_leftJoinsOnce_whenAssociationIsNeitherFetchedNorJoined() {
+        final var orders = SortOrders.toOrders(
+                SortBuilder.from(GuitarPedal.class)
+                        .asc(GuitarPedal_.manufacturer, Manufacturer_.name)
+                        .asc(GuitarPedal_.manufacturer, Manufacturer_.id)
+                        .toSort(),
+                root,
+                criteriaBuilder);
+        assertEquals(2, orders.size());
+        assertEquals(1, root.getJoins().size());
+        assertEquals(JoinType.LEFT, root.getJoins().iterator().next().getJoinType());
+    }
+
+    @Test
+    void findAll_sortsByAssociation_whenExecutedWithFetchingSpecification() {
+        final var executor = new SpecificationExecutor<>(entityManager, GuitarPedal.class);
+        final var sort = SortBuilder.from(GuitarPedal.class)
+                .asc(GuitarPedal_.manufacturer, Manufacturer_.name)
+                .toSort();
+        assertEquals(
+                List.of(3L, 1L, 4L, 2L),
+                executor.findAll(fetchOf(GuitarPedal_.manufacturer), sort).stream()
+                        .map(GuitarPedal::getId)
+                        .toList());
+        assertEquals(
+                List.of(3L, 1L, 4L, 2L),
+                executor.findAll(isNotNull(GuitarPedal_.name), sort).stream()
+                        .map(GuitarPedal::getId)
+                        .toList());
+    }
+}
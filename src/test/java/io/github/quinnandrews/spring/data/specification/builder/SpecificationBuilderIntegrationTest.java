@@ -66,6 +66,22 @@ public class SpecificationBuilderIntegrationTest {
         assertEquals("Soft Focus Reverb", pedals.get(1).getName());
     }
 
+    @Test
+    void or_afterConjunction() {
+        var pedals = guitarPedalRepository.findAll(
+                SpecificationBuilder.from(GuitarPedal.class)
+                        .where().isGreaterThan(GuitarPedal_.usedValue, 100)
+                        .and().isNull(GuitarPedal_.dateSold)
+                        .or(SpecificationBuilder.from(GuitarPedal.class)
+                                .where().isEqualTo(GuitarPedal_.id, 1L)
+                                .toSpecification())
+                        .toSpecification(), Sort.by("name"));
+        assertEquals(3, pedals.size());
+        assertEquals("Big Muff Fuzz", pedals.get(0).getName());
+        assertEquals("Deco: Tape Saturation and Double Tracker", pedals.get(1).getName());
+        assertEquals("Soft Focus Reverb", pedals.get(2).getName());
+    }
+
     @Test
     void isEqualTo() {
         var optionalPedal = guitarPedalRepository.findOne(
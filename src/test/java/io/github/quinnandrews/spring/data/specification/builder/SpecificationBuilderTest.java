@@ -2,10 +2,20 @@ package io.github.quinnandrews.spring.data.specification.builder;
 
 import io.github.quinnandrews.spring.data.specification.builder.application.Application;
 import io.github.quinnandrews.spring.data.specification.builder.application.data.guitarpedals.GuitarPedal;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
 import jakarta.persistence.metamodel.ListAttribute;
 import jakarta.persistence.metamodel.SingularAttribute;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import io.github.quinnandrews.spring.data.specification.builder.application.data.guitarpedals.GuitarPedal_;
+import io.github.quinnandrews.spring.data.specification.builder.application.data.guitarpedals.GuitarPedalTag;
+import io.github.quinnandrews.spring.data.specification.builder.application.data.guitarpedals.GuitarPedalTag_;
+import io.github.quinnandrews.spring.data.specification.builder.application.data.guitarpedals.Manufacturer_;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
 import java.time.LocalDate;
@@ -17,6 +27,20 @@ import static org.junit.jupiter.api.Assertions.*;
 @SpringBootTest(classes = Application.class)
 class SpecificationBuilderTest {
 
+    @Autowired
+    private EntityManager entityManager;
+
+    private CriteriaBuilder criteriaBuilder;
+    private CriteriaQuery<GuitarPedal> query;
+    private Root<GuitarPedal> root;
+
+    @BeforeEach
+    void setUp() {
+        criteriaBuilder = entityManager.getCriteriaBuilder();
+        query = criteriaBuilder.createQuery(GuitarPedal.class);
+        root = query.from(GuitarPedal.class);
+    }
+
     @Test
     void from_returnsNewInstance() {
         var builder = SpecificationBuilder.from(GuitarPedal.class);
@@ -110,6 +134,81 @@ class SpecificationBuilderTest {
         );
     }
 
+    @Test
+    void and_rendersOneFlatConjunction() {
+        var predicate = SpecificationBuilder.from(GuitarPedal.class)
+                .where().isEqualTo(GuitarPedal_.name, "test")
+                .and().isGreaterThan(GuitarPedal_.usedValue, 0)
+                .and().isNull(GuitarPedal_.dateSold)
+                .toSpecification()
+                .toPredicate(root, query, criteriaBuilder);
+        assertEquals(Predicate.BooleanOperator.AND, predicate.getOperator());
+        assertEquals(3, predicate.getExpressions().size());
+    }
+
+    @Test
+    void or_rendersOneFlatDisjunction() {
+        var predicate = SpecificationBuilder.from(GuitarPedal.class)
+                .where().isEqualTo(GuitarPedal_.id, 1L)
+                .or(SpecificationFactory.isEqualTo(GuitarPedal_.id, 2L))
+                .or(SpecificationFactory.isEqualTo(GuitarPedal_.id, 3L))
+                .toSpecification()
+                .toPredicate(root, query, criteriaBuilder);
+        assertEquals(Predicate.BooleanOperator.OR, predicate.getOperator());
+        assertEquals(3, predicate.getExpressions().size());
+    }
+
+    @Test
+    void or_preservesPrecedenceOfPrecedingConjunction() {
+        var predicate = SpecificationBuilder.from(GuitarPedal.class)
+                .where().isEqualTo(GuitarPedal_.name, "test")
+                .and().isGreaterThan(GuitarPedal_.usedValue, 0)
+                .or(SpecificationFactory.isEqualTo(GuitarPedal_.id, 3L))
+                .toSpecification()
+                .toPredicate(root, query, criteriaBuilder);
+        assertEquals(Predicate.BooleanOperator.OR, predicate.getOperator());
+        assertEquals(2, predicate.getExpressions().size());
+        var conjunction = (Predicate) predicate.getExpressions().get(0);
+        assertEquals(Predicate.BooleanOperator.AND, conjunction.getOperator());
+        assertEquals(2, conjunction.getExpressions().size());
+    }
+
+    @Test
+    void where_splicesSpecificationFromAnotherBuilder() {
+        var predicate = SpecificationBuilder.from(GuitarPedal.class)
+                .where(SpecificationBuilder.from(GuitarPedal.class)
+                        .where().isEqualTo(GuitarPedal_.name, "test")
+                        .and().isNull(GuitarPedal_.dateSold)
+                        .toSpecification())
+                .and().isGreaterThan(GuitarPedal_.usedValue, 0)
+                .toSpecification()
+                .toPredicate(root, query, criteriaBuilder);
+        assertEquals(Predicate.BooleanOperator.AND, predicate.getOperator());
+        assertEquals(3, predicate.getExpressions().size());
+    }
+
+    @Test
+    void where_dropsGhostSpecifications() {
+        var predicate = SpecificationBuilder.from(GuitarPedal.class)
+                .where().isEqualTo(GuitarPedal_.name, null)
+                .and().isGreaterThan(GuitarPedal_.usedValue, 0)
+                .or(SpecificationFactory.ghost())
+                .and().isLike(GuitarPedal_.name, null)
+                .toSpecification()
+                .toPredicate(root, query, criteriaBuilder);
+        assertTrue(predicate.getExpressions().isEmpty());
+    }
+
+    @Test
+    void toSpecification_returnsNullPredicate_whenOnlyGhostSpecificationsDefined() {
+        var specification = SpecificationBuilder.from(GuitarPedal.class)
+                .where().isEqualTo(GuitarPedal_.name, null)
+                .and(SpecificationFactory.ghost())
+                .toSpecification();
+        assertNotNull(specification);
+        assertNull(specification.toPredicate(root, query, criteriaBuilder));
+    }
+
     @Test
     void with_returnsBuilder() {
         var builder = SpecificationBuilder.from(GuitarPedal.class)
@@ -474,6 +573,77 @@ class SpecificationBuilderTest {
         );
     }
 
+    @Test
+    void isIn_padded_returnsBuilderWithSpecification() {
+        var builder = SpecificationBuilder.from(GuitarPedal.class)
+                .where().isIn(GuitarPedal_.id, List.of(1L, 2L, 3L), InClausePadding.buckets(8));
+        assertNotNull(builder);
+        var node = (CompositeNode<GuitarPedal>) builder.toSpecification();
+        assertEquals(8, node.getChildren().get(0).getValues().size());
+    }
+
+    @Test
+    void isIn_padded_throwsException_whenAttributeIsNull() {
+        assertThrows(
+                NullPointerException.class,
+                () -> SpecificationBuilder.from(GuitarPedal.class)
+                        .where().isIn(null, List.of(1L, 2L, 3L), InClausePadding.powersOfTwo())
+        );
+    }
+
+    @Test
+    void isIn_strategy_returnsBuilderWithSpecification() {
+        var builder = SpecificationBuilder.from(GuitarPedal.class)
+                .where().isIn(GuitarPedal_.id, List.of(1L, 2L, 3L), InClauseStrategy.array());
+        assertNotNull(builder);
+        var node = (CompositeNode<GuitarPedal>) builder.toSpecification();
+        assertEquals(Operator.IN_ARRAY, node.getChildren().get(0).getOperator());
+    }
+
+    @Test
+    void isIn_strategy_throwsException_whenAttributeIsNull() {
+        assertThrows(
+                NullPointerException.class,
+                () -> SpecificationBuilder.from(GuitarPedal.class)
+                        .where().isIn(null, List.of(1L, 2L, 3L), InClauseStrategy.array())
+        );
+    }
+
+    @Test
+    void isIn_coalesced_returnsBuilderWithSpecification() {
+        var builder = SpecificationBuilder.from(GuitarPedal.class)
+                .where().isIn(GuitarPedal_.id, List.of(1L, 2L, 3L), InClauseCoalescing.ranges());
+        assertNotNull(builder);
+        var node = (CompositeNode<GuitarPedal>) builder.toSpecification();
+        assertEquals(Operator.BETWEEN, node.getChildren().get(0).getOperator());
+    }
+
+    @Test
+    void isIn_coalesced_throwsException_whenAttributeIsNull() {
+        assertThrows(
+                NullPointerException.class,
+                () -> SpecificationBuilder.from(GuitarPedal.class)
+                        .where().isIn(null, List.of(1L, 2L, 3L), InClauseCoalescing.ranges())
+        );
+    }
+
+    @Test
+    void isIn_tuple_returnsBuilderWithSpecification() {
+        var builder = SpecificationBuilder.from(GuitarPedal.class)
+                .where().isIn(List.of(GuitarPedal_.id, GuitarPedal_.usedValue), List.of(List.of(1L, 75)));
+        assertNotNull(builder);
+        var node = (CompositeNode<GuitarPedal>) builder.toSpecification();
+        assertEquals(Operator.TUPLE_IN, node.getChildren().get(0).getOperator());
+    }
+
+    @Test
+    void isIn_tuple_returnsBuilderWithSpecification_evenWhenValueIsNull() {
+        var builder = SpecificationBuilder.from(GuitarPedal.class)
+                .where().isIn(List.of(GuitarPedal_.id, GuitarPedal_.usedValue), null);
+        assertNotNull(builder);
+        assertNotNull(builder.toSpecification());
+    }
+
     @Test
     void isIn_array_returnsBuilderWithSpecification() {
         var builder = SpecificationBuilder.from(GuitarPedal.class)
@@ -532,4 +702,108 @@ class SpecificationBuilderTest {
                         .with().fetchOf((ListAttribute<GuitarPedal, Object>) null)
         );
     }
-}
\ No newline at end of file
+
+    @Test
+    void joinOf_singular_returnsBuilderWithSpecification() {
+        var builder = SpecificationBuilder.from(GuitarPedal.class)
+                .where().joinOf(GuitarPedal_.manufacturer, manufacturer -> manufacturer
+                        .where().isEqualTo(Manufacturer_.name, "Catalinbread"));
+        assertNotNull(builder);
+        var specification = (CompositeNode<GuitarPedal>) builder.toSpecification();
+        assertInstanceOf(JoinNode.class, specification.getChildren().get(0));
+    }
+
+    @Test
+    void joinOf_list_dropsJoin_whenNoFilterApplies() {
+        var builder = SpecificationBuilder.from(GuitarPedal.class)
+                .where().joinOf(GuitarPedal_.tags, tag -> tag
+                        .where().isEqualTo(GuitarPedalTag_.tag, null)
+                        .and().isGreaterThan(GuitarPedalTag_.id, null));
+        assertNotNull(builder.toSpecification());
+        assertTrue(CompositeNode.isGhost(builder.toSpecification()));
+    }
+
+    @Test
+    void joinOf_list_dropsJoin_whenNoFilterIsDefined() {
+        var builder = SpecificationBuilder.from(GuitarPedal.class)
+                .where().joinOf(GuitarPedal_.tags, tag -> tag);
+        assertTrue(CompositeNode.isGhost(builder.toSpecification()));
+    }
+
+    @Test
+    void joinOf_throwsException_whenArgumentIsNull() {
+        assertThrows(
+                NullPointerException.class,
+                () -> SpecificationBuilder.from(GuitarPedal.class)
+                        .where().joinOf((ListAttribute<GuitarPedal, GuitarPedalTag>) null, tag -> tag)
+        );
+        assertThrows(
+                NullPointerException.class,
+                () -> SpecificationBuilder.from(GuitarPedal.class)
+                        .where().joinOf(GuitarPedal_.tags, null)
+        );
+    }
+
+    @Test
+    void anyMatch_returnsBuilderWithSpecification() {
+        var builder = SpecificationBuilder.from(GuitarPedal.class)
+                .where().anyMatch(GuitarPedal_.tags, tag -> tag
+                        .where().isEqualTo(GuitarPedalTag_.tag, "fuzz"));
+        assertNotNull(builder);
+        var specification = (CompositeNode<GuitarPedal>) builder.toSpecification();
+        assertInstanceOf(ExistsNode.class, specification.getChildren().get(0));
+    }
+
+    @Test
+    void anyMatch_dropsSubquery_whenNoFilterApplies() {
+        var builder = SpecificationBuilder.from(GuitarPedal.class)
+                .where().anyMatch(GuitarPedal_.tags, tag -> tag
+                        .where().isEqualTo(GuitarPedalTag_.tag, null));
+        assertTrue(CompositeNode.isGhost(builder.toSpecification()));
+    }
+
+    @Test
+    void anyMatch_throwsException_whenArgumentIsNull() {
+        assertThrows(
+                NullPointerException.class,
+                () -> SpecificationBuilder.from(GuitarPedal.class)
+                        .where().anyMatch(null, tag -> tag)
+        );
+        assertThrows(
+                NullPointerException.class,
+                () -> SpecificationBuilder.from(GuitarPedal.class)
+                        .where().anyMatch(GuitarPedal_.tags, null)
+        );
+    }
+
+    @Test
+    void noneMatch_returnsBuilderWithSpecification() {
+        var builder = SpecificationBuilder.from(GuitarPedal.class)
+                .where().noneMatch(GuitarPedal_.tags, tag -> tag
+                        .where().isEqualTo(GuitarPedalTag_.tag, "fuzz"));
+        var specification = (CompositeNode<GuitarPedal>) builder.toSpecification();
+        assertEquals(Operator.NOT_EXISTS, specification.getChildren().get(0).getOperator());
+    }
+
+    @Test
+    void noneMatch_dropsSubquery_whenNoFilterApplies() {
+        var builder = SpecificationBuilder.from(GuitarPedal.class)
+                .where().noneMatch(GuitarPedal_.tags, tag -> tag
+                        .where().isIn(GuitarPedalTag_.tag, (Collection<String>) null));
+        assertTrue(CompositeNode.isGhost(builder.toSpecification()));
+    }
+
+    @Test
+    void noneMatch_throwsException_whenArgumentIsNull() {
+        assertThrows(
+                NullPointerException.class,
+                () -> SpecificationBuilder.from(GuitarPedal.class)
+                        .where().noneMatch(null, tag -> tag)
+        );
+        assertThrows(
+                NullPointerException.class,
+                () -> SpecificationBuilder.from(GuitarPedal.class)
+                        .where().noneMatch(GuitarPedal_.tags, null)
+        );
+    }
+}
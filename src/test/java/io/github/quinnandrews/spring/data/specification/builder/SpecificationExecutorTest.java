@@ -0,0 +1,860 @@
+package io.github.quinnandrews.spring.data.specification.builder;
+
+import io.github.quinnandrews.spring.data.specification.builder.application.Application;
+import io.github.quinnandrews.spring.data.specification.builder.application.data.guitarpedals.GuitarPedal;
+import io.github.quinnandrews.spring.data.specification.builder.application.data.guitarpedals.GuitarPedalTag;
+import io.github.quinnandrews.spring.data.specification.builder.application.data.guitarpedals.GuitarPedalTag_;
+import io.github.quinnandrews.spring.data.specification.builder.application.data.guitarpedals.GuitarPedal_;
+import io.github.quinnandrews.spring.data.specification.builder.application.data.guitarpedals.Manufacturer_;
+import io.github.quinnandrews.spring.data.specification.builder.application.data.guitarpedals.specifications.GuitarPedalSpecifications;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.FlushModeType;
+import jakarta.persistence.NonUniqueResultException;
+import org.hibernate.FlushMode;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.jpa.HibernateHints;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.stream.LongStream;
+
+import static io.github.quinnandrews.spring.data.specification.builder.SpecificationFactory.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Transactional
+@SpringBootTest(classes = Application.class)
+class SpecificationExecutorTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private GuitarPedalSpecifications guitarPedalSpecifications;
+
+    private SpecificationExecutor<GuitarPedal> executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = new SpecificationExecutor<>(entityManager, GuitarPedal.class);
+    }
+
+    @Test
+    void findAll_reusesTemplate_whenOnlyValuesDiffer() {
+        assertEquals(List.of(2L, 3L), ids(executor.findAll(guitarPedalSpecifications.search_example_07(75))));
+        assertEquals(List.of(2L), ids(executor.findAll(guitarPedalSpecifications.search_example_07(200))));
+        assertEquals(List.of(), ids(executor.findAll(guitarPedalSpecifications.search_example_07(250))));
+        assertEquals(1, executor.getTemplateCount());
+    }
+
+    @Test
+    void findAll_compilesTemplate_whenShapeDiffers() {
+        assertEquals(List.of(2L, 3L), ids(executor.findAll(guitarPedalSpecifications.search_example_07(75))));
+        assertEquals(List.of(1L, 2L, 3L), ids(executor.findAll(guitarPedalSpecifications.search_example_07(null))));
+        assertEquals(2, executor.getTemplateCount());
+    }
+
+    @Test
+    void findAll_compilesTemplate_whenSortDiffers() {
+        final var ascending = executor.findAll(
+                isNull(GuitarPedal_.dateSold),
+                Sort.by(GuitarPedal_.USED_VALUE));
+        final var descending = executor.findAll(
+                isNull(GuitarPedal_.dateSold),
+                Sort.by(Sort.Direction.DESC, GuitarPedal_.USED_VALUE));
+        assertEquals(List.of(1L, 3L, 2L), ascending.stream().map(GuitarPedal::getId).toList());
+        assertEquals(List.of(2L, 3L, 1L), descending.stream().map(GuitarPedal::getId).toList());
+        assertEquals(2, executor.getTemplateCount());
+    }
+
+    @Test
+    void findAll_executesCriteriaQuery_whenTemplateCacheIsFull() {
+        final var attributes = List.of(GuitarPedal_.id, GuitarPedal_.usedValue);
+        for (long count = 1; count <= SpecificationExecutor.MAX_TEMPLATE_COUNT; count++) {
+            executor.createQuery(isIn(attributes, tuples(count)), Sort.unsorted());
+        }
+        assertEquals(SpecificationExecutor.MAX_TEMPLATE_COUNT, executor.getTemplateCount());
+        assertEquals(
+                List.of(1L),
+                ids(executor.findAll(isIn(attributes, tuples(SpecificationExecutor.MAX_TEMPLATE_COUNT + 1)))));
+        assertEquals(SpecificationExecutor.MAX_TEMPLATE_COUNT, executor.getTemplateCount());
+    }
+
+    @Test
+    void findAll_fetchesAssociations_whenSpecificationHasFetches() {
+        final var guitarPedals = executor.findAll(SpecificationBuilder.from(GuitarPedal.class)
+                .with().fetchOf(GuitarPedal_.manufacturer)
+                .where().isGreaterThan(GuitarPedal_.usedValue, 75)
+                .toSpecification());
+        assertEquals(List.of(2L, 3L, 4L), ids(guitarPedals));
+        assertEquals("Strymon", guitarPedals.get(0).getManufacturer().getName());
+        assertEquals(1, executor.getTemplateCount());
+    }
+
+    @Test
+    void findAll_executesCriteriaQuery_whenSpecificationIsNotStructural() {
+        assertEquals(List.of(2L, 3L), ids(executor.findAll(guitarPedalSpecifications.search_example_01(75))));
+        assertEquals(0, executor.getTemplateCount());
+    }
+
+    @Test
+    void findAll_returnsAllEntities_whenSpecificationIsNull() {
+        assertEquals(List.of(1L, 2L, 3L, 4L), ids(executor.findAll(null)));
+    }
+
+    @Test
+    void findAll_returnsSameResults_whenInClauseIsPadded() {
+        assertEquals(
+                List.of(1L, 2L, 3L),
+                ids(executor.findAll(isIn(GuitarPedal_.id, List.of(1L, 2L, 3L), InClausePadding.powersOfTwo()))));
+        assertEquals(
+                List.of(1L, 2L, 3L, 4L),
+                ids(executor.findAll(isIn(GuitarPedal_.id, List.of(1L, 2L, 3L, 4L), InClausePadding.powersOfTwo()))));
+    }
+
+    @Test
+    void findAll_returnsSameResults_whenInClauseIsCoalesced() {
+        assertEquals(
+                List.of(1L, 2L, 4L),
+                ids(executor.findAll(SpecificationBuilder.from(GuitarPedal.class)
+                        .where().isIn(GuitarPedal_.id, List.of(4L, 0L, 1L, 2L, 7L), InClauseCoalescing.ranges())
+                        .and().isNotNull(GuitarPedal_.name)
+                        .toSpecification())));
+    }
+
+    @Test
+    void findAll_returnsEntitiesMatchingAnyTuple_whenSpecificationHasTupleInClause() {
+        final var attributes = List.of(GuitarPedal_.id, GuitarPedal_.usedValue);
+        assertEquals(
+                List.of(2L, 4L),
+                ids(executor.findAll(isIn(attributes, List.of(List.of(2L, 250), List.of(4L, 150), List.of(1L, 0))))));
+        assertEquals(
+                List.of(1L),
+                ids(executor.findAll(isIn(attributes, List.of(List.of(1L, 75), List.of(3L, 0), List.of(4L, 0))))));
+        assertEquals(1, executor.getTemplateCount());
+    }
+
+    @Test
+    void findAll_returnsNothing_whenEveryTupleHasNullValue() {
+        final var tuple = new java.util.ArrayList<Object>();
+        tuple.add(1L);
+        tuple.add(null);
+        final var specification = isIn(List.of(GuitarPedal_.id, GuitarPedal_.usedValue), List.of(tuple));
+        assertTrue(executor.findAll(specification).isEmpty());
+        assertEquals(0, executor.count(specification));
+        final var hqlExecutor = new SpecificationExecutor<>(
+                entityManager, GuitarPedal.class, SpecificationExecutor.Mode.HQL);
+        assertTrue(hqlExecutor.findAll(specification).isEmpty());
+    }
+
+    @Test
+    void findAll_reusesTemplate_whenInClauseIsBoundToArray() {
+        assertEquals(
+                List.of(1L, 2L),
+                ids(executor.findAll(isIn(GuitarPedal_.id, List.of(1L, 2L), InClauseStrategy.array()))));
+        assertEquals(
+                List.of(1L, 3L, 4L),
+                ids(executor.findAll(isIn(GuitarPedal_.id, List.of(1L, 3L, 4L, 5L), InClauseStrategy.array()))));
+        assertEquals(1, executor.getTemplateCount());
+    }
+
+    @Test
+    void findAll_returnsSameResults_whenInClauseIsBoundToArrayInHqlMode() {
+        final var hqlExecutor = new SpecificationExecutor<>(
+                entityManager, GuitarPedal.class, SpecificationExecutor.Mode.HQL);
+        assertEquals(
+                List.of(2L, 4L),
+                ids(hqlExecutor.findAll(isIn(GuitarPedal_.name, List.of(
+                        "Deco: Tape Saturation and Double Tracker",
+                        "Sneak Attack: Attack/Decay and Tremolo"
+                ), InClauseStrategy.array()))));
+    }
+
+    @Test
+    void findAll_executesChunks_whenInClauseExceedsChunkSize() {
+        final var chunkingExecutor = new SpecificationExecutor<>(
+                entityManager,
+                GuitarPedal.class,
+                SpecificationExecutor.Mode.CRITERIA,
+                InClauseChunking.sequential(2));
+        assertEquals(
+                List.of(1L, 2L, 3L, 4L),
+                ids(chunkingExecutor.findAll(isIn(GuitarPedal_.id, List.of(1L, 2L, 3L, 4L, 5L)))));
+        assertEquals(1, chunkingExecutor.getTemplateCount());
+    }
+
+    @Test
+    void findAll_mergesChunksInOrderOfSort_whenInClauseExceedsChunkSize() {
+        final var chunkingExecutor = new SpecificationExecutor<>(
+                entityManager,
+                GuitarPedal.class,
+                SpecificationExecutor.Mode.HQL,
+                InClauseChunking.sequential(2));
+        assertEquals(
+                List.of(2L, 3L, 4L, 1L),
+                chunkingExecutor.findAll(
+                        isIn(GuitarPedal_.id, List.of(1L, 2L, 3L, 4L)),
+                        Sort.by(Sort.Direction.DESC, GuitarPedal_.USED_VALUE)).stream()
+                        .map(GuitarPedal::getId)
+                        .toList());
+    }
+
+    @Test
+    void findAll_splitsEveryInClause_whenSeveralExceedChunkSize() {
+        final var chunkingExecutor = new SpecificationExecutor<>(
+                entityManager,
+                GuitarPedal.class,
+                SpecificationExecutor.Mode.CRITERIA,
+                InClauseChunking.sequential(2));
+        final var specification = isIn(GuitarPedal_.id, List.of(1L, 2L, 3L, 4L))
+                .and(joinOf(GuitarPedal_.tags, isIn(GuitarPedalTag_.tag, List.of("fuzz", "reverb", "90s", "shoegaze", "none"))));
+        assertEquals(List.of(1L, 3L), ids(chunkingExecutor.findAll(specification, Sort.by(GuitarPedal_.ID))));
+    }
+
+    @Test
+    void findAll_throwsException_whenInClauseWithinNoneMatchExceedsChunkSize() {
+        final var chunkingExecutor = new SpecificationExecutor<>(
+                entityManager,
+                GuitarPedal.class,
+                SpecificationExecutor.Mode.CRITERIA,
+                InClauseChunking.sequential(2));
+        final var specification = noneMatch(GuitarPedal_.tags, isIn(GuitarPedalTag_.tag, List.of("fuzz", "reverb", "90s")));
+        assertThrows(IllegalArgumentException.class, () -> chunkingExecutor.findAll(specification));
+    }
+
+    @Test
+    void findAll_ordersNullsAsSortSpecifies() {
+        final var sort = Sort.by(Sort.Order.asc(GuitarPedal_.DATE_SOLD).nullsLast(), Sort.Order.asc(GuitarPedal_.ID));
+        assertEquals(List.of(4L, 1L, 2L, 3L), executor.findAll(null, sort).stream()
+                .map(GuitarPedal::getId)
+                .toList());
+        final var hqlExecutor = new SpecificationExecutor<>(
+                entityManager, GuitarPedal.class, SpecificationExecutor.Mode.HQL);
+        assertEquals(List.of(4L, 1L, 2L, 3L), hqlExecutor.findAll(null, sort).stream()
+                .map(GuitarPedal::getId)
+                .toList());
+    }
+
+    @Test
+    void findAll_removesDuplicates_whenChunksMatchSameEntities() {
+        final var chunkingExecutor = new SpecificationExecutor<>(
+                entityManager,
+                GuitarPedal.class,
+                SpecificationExecutor.Mode.CRITERIA,
+                InClauseChunking.sequential(2));
+        final var specification = SpecificationBuilder.from(GuitarPedal.class)
+                .where().isNull(GuitarPedal_.dateSold)
+                .toSpecification()
+                .or(isIn(GuitarPedal_.id, List.of(4L, 5L, 6L, 7L, 8L)));
+        assertEquals(List.of(1L, 2L, 3L, 4L), chunkingExecutor.findAll(specification).stream()
+                .map(GuitarPedal::getId)
+                .toList());
+    }
+
+    @Test
+    void findAll_executesChunksInParallel_whenChunkingIsParallel() {
+        final var threadPool = Executors.newFixedThreadPool(2);
+        try {
+            final var chunkingExecutor = new SpecificationExecutor<>(
+                    entityManager,
+                    GuitarPedal.class,
+                    SpecificationExecutor.Mode.CRITERIA,
+                    InClauseChunking.parallel(1, threadPool));
+            final var guitarPedals = chunkingExecutor.findAll(
+                    SpecificationBuilder.from(GuitarPedal.class)
+                            .with().fetchOf(GuitarPedal_.manufacturer)
+                            .where().isIn(GuitarPedal_.id, List.of(3L, 1L, 2L))
+                            .toSpecification(),
+                    Sort.by(GuitarPedal_.NAME));
+            assertEquals(List.of(1L, 2L, 3L), guitarPedals.stream().map(GuitarPedal::getId).toList());
+            assertEquals("Strymon", guitarPedals.get(1).getManufacturer().getName());
+        } finally {
+            threadPool.shutdown();
+        }
+    }
+
+    @Test
+    void findAll_returnsPage_whenPageableIsPaged() {
+        final var specification = SpecificationBuilder.from(GuitarPedal.class)
+                .with().fetchOf(GuitarPedal_.manufacturer)
+                .where().isNull(GuitarPedal_.dateSold)
+                .toSpecification();
+        final var page = executor.findAll(specification, PageRequest.of(0, 2, Sort.by(GuitarPedal_.ID)));
+        assertEquals(List.of(1L, 2L), ids(page.getContent()));
+        assertEquals(3, page.getTotalElements());
+        assertEquals(2, page.getTotalPages());
+        assertEquals("Electro-Harmonix", page.getContent().get(0).getManufacturer().getName());
+    }
+
+    @Test
+    void findAll_returnsWholePage_whenPageableIsUnpaged() {
+        final var page = executor.findAll(isNull(GuitarPedal_.dateSold), Pageable.unpaged());
+        assertEquals(List.of(1L, 2L, 3L), ids(page.getContent()));
+        assertEquals(3, page.getTotalElements());
+    }
+
+    @Test
+    void findAll_loadsPageInTwoPhases_whenSpecificationFetchesCollection() {
+        final var specification = SpecificationBuilder.from(GuitarPedal.class)
+                .with().fetchOf(GuitarPedal_.manufacturer)
+                .and().fetchOf(GuitarPedal_.tags)
+                .where().isNull(GuitarPedal_.dateSold)
+                .toSpecification();
+        final var sort = Sort.by(Sort.Direction.DESC, GuitarPedal_.USED_VALUE);
+        final var first = executor.findAll(specification, PageRequest.of(0, 2, sort));
+        assertEquals(List.of(2L, 3L), first.getContent().stream().map(GuitarPedal::getId).toList());
+        assertEquals(6, first.getContent().get(0).getTags().size());
+        assertEquals(4, first.getContent().get(1).getTags().size());
+        assertEquals(3, first.getTotalElements());
+        final var second = executor.findAll(specification, PageRequest.of(1, 2, sort));
+        assertEquals(List.of(1L), second.getContent().stream().map(GuitarPedal::getId).toList());
+        assertEquals(2, second.getContent().get(0).getTags().size());
+        assertEquals("Electro-Harmonix", second.getContent().get(0).getManufacturer().getName());
+        assertEquals(1, executor.getTemplateCount());
+    }
+
+    @Test
+    void findAll_fetchesEachCollectionWithQueryOfItsOwn_whenSpecificationFetchesSeveralCollections() {
+        final var specification = SpecificationBuilder.from(GuitarPedal.class)
+                .with().fetchOf(GuitarPedal_.tags)
+                .and().fetchOf(FetchPath.of(GuitarPedal_.manufacturer).then(Manufacturer_.guitarPedals))
+                .where().isNull(GuitarPedal_.dateSold)
+                .toSpecification();
+        final var guitarPedals = executor.findAll(specification, Sort.by(GuitarPedal_.ID));
+        assertEquals(List.of(1L, 2L, 3L), ids(guitarPedals));
+        guitarPedals.forEach(guitarPedal -> {
+            assertTrue(Hibernate.isInitialized(guitarPedal.getTags()));
+            assertTrue(Hibernate.isInitialized(guitarPedal.getManufacturer().getGuitarPedals()));
+        });
+        assertEquals(List.of(2, 6, 4), guitarPedals.stream().map(guitarPedal -> guitarPedal.getTags().size()).toList());
+        assertEquals(1, guitarPedals.get(0).getManufacturer().getGuitarPedals().size());
+    }
+
+    @Test
+    void findAll_fetchesCollectionsInBatches_whenEntitiesExceedBatchSize() {
+        final var batching = new SpecificationExecutor<>(
+                entityManager, GuitarPedal.class, SpecificationExecutor.Mode.CRITERIA, InClauseChunking.sequential(2));
+        final var specification = SpecificationBuilder.from(GuitarPedal.class)
+                .with().fetchOf(GuitarPedal_.tags)
+                .and().fetchOf(FetchPath.of(GuitarPedal_.manufacturer).then(Manufacturer_.guitarPedals))
+                .where().isNull(GuitarPedal_.dateSold)
+                .toSpecification();
+        final var guitarPedals = batching.findAll(specification, Sort.by(GuitarPedal_.ID));
+        assertEquals(List.of(1L, 2L, 3L), ids(guitarPedals));
+        guitarPedals.forEach(guitarPedal -> {
+            assertTrue(Hibernate.isInitialized(guitarPedal.getTags()));
+            assertTrue(Hibernate.isInitialized(guitarPedal.getManufacturer().getGuitarPedals()));
+        });
+        assertEquals(List.of(2, 6, 4), guitarPedals.stream().map(guitarPedal -> guitarPedal.getTags().size()).toList());
+        // one template for the Entities, and since the last batch is padded,
+        // one template for both batches of each collection
+        assertEquals(3, batching.getTemplateCount());
+    }
+
+    @Test
+    void findAll_joinsCollection_onceObservedSizeIsWithinThreshold() {
+        final var adaptive = new SpecificationExecutor<>(
+                entityManager, GuitarPedal.class, SpecificationExecutor.Mode.CRITERIA, null, AdaptiveFetching.of(5, 100));
+        final var specification = SpecificationBuilder.from(GuitarPedal.class)
+                .with().fetchOf(GuitarPedal_.tags)
+                .where().isNull(GuitarPedal_.dateSold)
+                .toSpecification();
+        final var path = FetchPath.of(GuitarPedal_.tags);
+        final var fetching = adaptive.getAdaptiveFetching().orElseThrow();
+        assertEquals(List.of(1L, 2L, 3L), ids(adaptive.findAll(specification, Sort.by(GuitarPedal_.ID))));
+        assertEquals(AdaptiveFetching.Strategy.BATCH, fetching.getStatistics(path).orElseThrow().getStrategy());
+        assertEquals(4.0, fetching.getStatistics(path).orElseThrow().getRowsPerRoot());
+        entityManager.clear();
+        final var guitarPedals = adaptive.findAll(specification, Sort.by(GuitarPedal_.ID));
+        assertEquals(List.of(2, 6, 4), guitarPedals.stream().map(guitarPedal -> guitarPedal.getTags().size()).toList());
+        assertEquals(AdaptiveFetching.Strategy.JOIN, fetching.getStatistics(path).orElseThrow().getStrategy());
+        assertEquals(2, fetching.getStatistics(path).orElseThrow().getExecutions());
+    }
+
+    @Test
+    void findAll_fetchesCollectionWithSubselect_whenRootsExceedBatchSize() {
+        final var adaptive = new SpecificationExecutor<>(
+                entityManager, GuitarPedal.class, SpecificationExecutor.Mode.CRITERIA, null, AdaptiveFetching.of(1, 2));
+        final var specification = SpecificationBuilder.from(GuitarPedal.class)
+                .with().fetchOf(GuitarPedal_.manufacturer)
+                .and().fetchOf(GuitarPedal_.tags)
+                .where().isNull(GuitarPedal_.dateSold)
+                .toSpecification();
+        final var guitarPedals = adaptive.findAll(specification, Sort.by(GuitarPedal_.ID));
+        assertEquals(List.of(1L, 2L, 3L), ids(guitarPedals));
+        guitarPedals.forEach(guitarPedal -> assertTrue(Hibernate.isInitialized(guitarPedal.getTags())));
+        assertEquals(List.of(2, 6, 4), guitarPedals.stream().map(guitarPedal -> guitarPedal.getTags().size()).toList());
+        assertEquals(
+                AdaptiveFetching.Strategy.SUBSELECT,
+                adaptive.getAdaptiveFetching().orElseThrow()
+                        .getStatistics(FetchPath.of(GuitarPedal_.tags)).orElseThrow().getStrategy());
+        // the subselect is compiled to a template like the query of the Entities
+        assertEquals(2, adaptive.getTemplateCount());
+        final var hqlAdaptive = new SpecificationExecutor<>(
+                entityManager, GuitarPedal.class, SpecificationExecutor.Mode.HQL, null, AdaptiveFetching.of(1, 2));
+        entityManager.clear();
+        assertEquals(List.of(2, 6, 4), hqlAdaptive.findAll(specification, Sort.by(GuitarPedal_.ID)).stream()
+                .map(guitarPedal -> guitarPedal.getTags().size())
+                .toList());
+    }
+
+    @Test
+    void findAll_returnsEachEntityOnce_whenSeveralElementsOfJoinedCollectionMatch() {
+        final var specification = joinOf(GuitarPedal_.tags, isIn(GuitarPedalTag_.tag, List.of("reverb", "lo-fi", "fuzz", "shoegaze")));
+        assertEquals(List.of(1L, 3L), ids(executor.findAll(specification, Sort.by(GuitarPedal_.ID))));
+        final var first = executor.findAll(specification, PageRequest.of(0, 1, Sort.by(GuitarPedal_.ID)));
+        final var second = executor.findAll(specification, PageRequest.of(1, 1, Sort.by(GuitarPedal_.ID)));
+        assertEquals(2, first.getTotalElements());
+        assertEquals(List.of(1L), ids(first.getContent()));
+        assertEquals(List.of(3L), ids(second.getContent()));
+        assertEquals(1, executor.count(joinOf(GuitarPedal_.tags, isIn(GuitarPedalTag_.tag, List.of("fuzz", "shoegaze")))
+                .and(isEqualTo(GuitarPedal_.id, 1L))));
+    }
+
+    @Test
+    void findAll_keepsEntitiesWithoutAssociation_whenJoinIsUnderOr() {
+        entityManager.createNativeQuery("insert into guitar_pedal values (5, 1, 'Untagged', false, '2024-01-01', null, 10)")
+                .executeUpdate();
+        final var specification = isEqualTo(GuitarPedal_.id, 5L)
+                .or(joinOf(GuitarPedal_.tags, isEqualTo(GuitarPedalTag_.tag, "fuzz")));
+        assertEquals(List.of(1L, 5L), ids(executor.findAll(specification, Sort.by(GuitarPedal_.ID))));
+        final var hqlExecutor = new SpecificationExecutor<>(
+                entityManager, GuitarPedal.class, SpecificationExecutor.Mode.HQL);
+        assertEquals(List.of(1L, 5L), ids(hqlExecutor.findAll(specification, Sort.by(GuitarPedal_.ID))));
+    }
+
+    @Test
+    void findAll_countsEachEntityOnce_whenPageIsLoadedInTwoPhases() {
+        final var specification = SpecificationBuilder.from(GuitarPedal.class)
+                .with().fetchOf(GuitarPedal_.tags)
+                .where().joinOf(GuitarPedal_.tags, tag -> tag.where().isGreaterThan(GuitarPedalTag_.id, 0L))
+                .toSpecification();
+        final var page = executor.findAll(specification, PageRequest.of(0, 3, Sort.by(GuitarPedal_.ID)));
+        assertEquals(List.of(1L, 2L, 3L), page.getContent().stream().map(GuitarPedal::getId).toList());
+        assertEquals(4, page.getTotalElements());
+    }
+
+    @Test
+    void findAll_returnsEmptyPage_whenPageIsLoadedInTwoPhasesAndNoneMatch() {
+        final var specification = SpecificationBuilder.from(GuitarPedal.class)
+                .with().fetchOf(GuitarPedal_.tags)
+                .where().isEqualTo(GuitarPedal_.id, 5L)
+                .toSpecification();
+        final var page = executor.findAll(specification, PageRequest.of(0, 2));
+        assertTrue(page.getContent().isEmpty());
+        assertEquals(0, page.getTotalElements());
+    }
+
+    @Test
+    void findAll_seeksPastLastRow_whenKeysetIsGiven() {
+        final var keyset = Keyset.of(Sort.Direction.DESC, List.of(GuitarPedal_.usedValue));
+        final var first = executor.findAll(null, keyset, null, 2);
+        assertEquals(List.of(2L, 3L), first.getContent().stream().map(GuitarPedal::getId).toList());
+        assertTrue(first.hasNext());
+        final var second = executor.findAll(null, keyset, first.getNextToken(), 2);
+        assertEquals(List.of(4L, 1L), second.getContent().stream().map(GuitarPedal::getId).toList());
+        assertFalse(second.hasNext());
+        assertNull(second.getNextToken());
+    }
+
+    @Test
+    void findAll_breaksTiesById_whenKeysetValuesAreEqual() {
+        final var keyset = Keyset.of(List.of(GuitarPedal_.hasStereoOutput));
+        final var ids = new ArrayList<Long>();
+        String token = null;
+        do {
+            final var slice = executor.findAll(null, keyset, token, 1);
+            slice.getContent().forEach(guitarPedal -> ids.add(guitarPedal.getId()));
+            token = slice.getNextToken();
+        } while (token != null);
+        assertEquals(List.of(1L, 3L, 4L, 2L), ids);
+        assertEquals(2, executor.getTemplateCount());
+    }
+
+    @Test
+    void findAll_seeksByIdsFirst_whenKeysetSpecificationFetchesCollection() {
+        final var specification = SpecificationBuilder.from(GuitarPedal.class)
+                .with().fetchOf(GuitarPedal_.tags)
+                .where().isNull(GuitarPedal_.dateSold)
+                .toSpecification();
+        final var keyset = Keyset.of(List.of(GuitarPedal_.datePurchased));
+        final var first = executor.findAll(specification, keyset, null, 2);
+        assertEquals(List.of(1L, 2L), first.getContent().stream().map(GuitarPedal::getId).toList());
+        assertEquals(6, first.getContent().get(1).getTags().size());
+        final var second = executor.findAll(specification, keyset, first.getNextToken(), 2);
+        assertEquals(List.of(3L), second.getContent().stream().map(GuitarPedal::getId).toList());
+        assertEquals(4, second.getContent().get(0).getTags().size());
+        assertFalse(second.hasNext());
+    }
+
+    @Test
+    void findAll_seeksPastToken_whenBuilderSeeks() {
+        final var keyset = Keyset.of(List.of(GuitarPedal_.usedValue));
+        final var token = keyset.tokenOf(executor.findOne(isEqualTo(GuitarPedal_.id, 4L)).orElseThrow());
+        final var specification = SpecificationBuilder.from(GuitarPedal.class)
+                .where().isNull(GuitarPedal_.dateSold)
+                .and().seek(keyset, token)
+                .toSpecification();
+        assertEquals(
+                List.of(3L, 2L),
+                executor.findAll(specification, keyset.toSort()).stream().map(GuitarPedal::getId).toList());
+    }
+
+    @Test
+    void findAll_throwsException_whenKeysetArgumentIsInvalid() {
+        final var keyset = Keyset.of(List.of(GuitarPedal_.usedValue));
+        assertThrows(
+                NullPointerException.class,
+                () -> executor.findAll(null, null, null, 2));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> executor.findAll(null, keyset, null, 0));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> executor.findAll(null, keyset, "not a token", 2));
+    }
+
+    @Test
+    void stream_detachesProcessedEntities_whenStreamingIsDetaching() {
+        final var tag = entityManager.find(GuitarPedalTag.class, 100L);
+        final var guitarPedals = new ArrayList<GuitarPedal>();
+        try (final var stream = executor.stream(
+                isNull(GuitarPedal_.dateSold),
+                Sort.by(GuitarPedal_.USED_VALUE),
+                Streaming.detaching(2))) {
+            stream.forEach(guitarPedals::add);
+        }
+        assertEquals(List.of(1L, 3L, 2L), guitarPedals.stream().map(GuitarPedal::getId).toList());
+        assertFalse(entityManager.contains(guitarPedals.get(0)));
+        assertFalse(entityManager.contains(guitarPedals.get(1)));
+        assertTrue(entityManager.contains(tag));
+    }
+
+    @Test
+    void stream_clearsPersistenceContext_whenStreamingIsClearing() {
+        final var specification = SpecificationBuilder.from(GuitarPedal.class)
+                .with().fetchOf(GuitarPedal_.tags)
+                .toSpecification();
+        final var tagCounts = new ArrayList<Integer>();
+        final var managed = new ArrayList<Boolean>();
+        try (final var stream = executor.stream(specification, Sort.by(GuitarPedal_.ID), Streaming.clearing(1))) {
+            stream.forEach(guitarPedal -> {
+                tagCounts.add(guitarPedal.getTags().size());
+                managed.add(entityManager.contains(guitarPedal));
+            });
+        }
+        assertEquals(List.of(2, 6, 4, 3), tagCounts);
+        assertEquals(List.of(true, true, true, true), managed);
+        assertEquals(1, executor.getTemplateCount());
+    }
+
+    @Test
+    void stream_throwsException_whenArgumentIsNull() {
+        assertThrows(
+                NullPointerException.class,
+                () -> executor.stream(null, null, Streaming.detaching(10)));
+        assertThrows(
+                NullPointerException.class,
+                () -> executor.stream(null, Sort.unsorted(), null));
+    }
+
+    @Test
+    void stream_throwsException_whenSpecificationFetchesSeveralCollections() {
+        final var specification = SpecificationBuilder.from(GuitarPedal.class)
+                .with().fetchOf(GuitarPedal_.tags)
+                .and().fetchOf(FetchPath.of(GuitarPedal_.manufacturer).then(Manufacturer_.guitarPedals))
+                .toSpecification();
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> executor.stream(specification, Sort.unsorted(), Streaming.detaching(10)));
+    }
+
+    @Test
+    void findAll_appliesHints_whenSpecificationCarriesHints() {
+        final var specification = SpecificationBuilder.from(GuitarPedal.class)
+                .withHints(hints -> hints.readOnly().flushMode(FlushMode.MANUAL))
+                .where().isNull(GuitarPedal_.dateSold)
+                .toSpecification();
+        final var session = entityManager.unwrap(Session.class);
+        final var guitarPedals = executor.findAll(specification);
+        assertEquals(List.of(1L, 2L, 3L), ids(guitarPedals));
+        guitarPedals.forEach(guitarPedal -> assertTrue(session.isReadOnly(guitarPedal)));
+        final var query = executor.createQuery(specification, Sort.unsorted());
+        assertEquals(true, query.getHints().get(HibernateHints.HINT_READ_ONLY));
+        assertEquals(FlushModeType.COMMIT, query.getFlushMode());
+    }
+
+    @Test
+    void findAll_appliesHints_whenHintedSpecificationIsComposed() {
+        final var hinted = SpecificationBuilder.from(GuitarPedal.class)
+                .withHints(hints -> hints.readOnly().flushMode(FlushMode.MANUAL))
+                .where().isNull(GuitarPedal_.dateSold)
+                .toSpecification();
+        final var specification = SpecificationBuilder.from(GuitarPedal.class)
+                .where().isGreaterThan(GuitarPedal_.usedValue, 100)
+                .and(hinted)
+                .toSpecification();
+        final var session = entityManager.unwrap(Session.class);
+        final var guitarPedals = executor.findAll(specification);
+        assertEquals(List.of(2L, 3L), ids(guitarPedals));
+        guitarPedals.forEach(guitarPedal -> assertTrue(session.isReadOnly(guitarPedal)));
+        final var query = executor.createQuery(isNotNull(GuitarPedal_.name).and(hinted), Sort.unsorted());
+        assertEquals(true, query.getHints().get(HibernateHints.HINT_READ_ONLY));
+        assertEquals(FlushModeType.COMMIT, query.getFlushMode());
+    }
+
+    @Test
+    void findAll_appliesHintsToEveryQuery_whenPageFetchesCollection() {
+        final var specification = SpecificationBuilder.from(GuitarPedal.class)
+                .withHints(ExecutionHints::readOnly)
+                .with().fetchOf(GuitarPedal_.tags)
+                .toSpecification();
+        final var session = entityManager.unwrap(Session.class);
+        final var page = executor.findAll(specification, PageRequest.of(0, 2, Sort.by(GuitarPedal_.ID)));
+        assertEquals(List.of(1L, 2L), ids(page.getContent()));
+        assertEquals(4, page.getTotalElements());
+        page.forEach(guitarPedal -> assertTrue(session.isReadOnly(guitarPedal)));
+        assertEquals(4, executor.count(specification));
+    }
+
+    @Test
+    void findAll_reusesTemplate_whenOnlyHintsDiffer() {
+        final var specification = SpecificationBuilder.from(GuitarPedal.class)
+                .where().isNull(GuitarPedal_.dateSold)
+                .toSpecification();
+        final var hinted = SpecificationBuilder.from(GuitarPedal.class)
+                .withHints(hints -> hints.readOnly().fetchSize(10))
+                .where().isNull(GuitarPedal_.dateSold)
+                .toSpecification();
+        final var session = entityManager.unwrap(Session.class);
+        executor.findAll(specification).forEach(guitarPedal -> assertFalse(session.isReadOnly(guitarPedal)));
+        entityManager.clear();
+        executor.findAll(hinted).forEach(guitarPedal -> assertTrue(session.isReadOnly(guitarPedal)));
+        assertEquals(1, executor.getTemplateCount());
+    }
+
+    @Test
+    void findAll_selectsTuples_whenProjectionIsTuple() {
+        entityManager.clear();
+        final var tuples = executor.findAll(
+                isNull(GuitarPedal_.dateSold),
+                Sort.by(GuitarPedal_.USED_VALUE),
+                Projection.tuple(List.of(GuitarPedal_.name, GuitarPedal_.usedValue)));
+        assertEquals(
+                List.of("Big Muff Fuzz", "Soft Focus Reverb", "Deco: Tape Saturation and Double Tracker"),
+                tuples.stream().map(tuple -> tuple.get(GuitarPedal_.NAME, String.class)).toList());
+        assertEquals(
+                List.of(75, 200, 250),
+                tuples.stream().map(tuple -> tuple.get(1)).toList());
+        assertEquals(0, entityManager.unwrap(SessionImplementor.class).getPersistenceContext().getNumberOfManagedEntities());
+    }
+
+    @Test
+    void findAll_constructsRecords_whenProjectionIsRecord() {
+        entityManager.clear();
+        final var specification = SpecificationBuilder.from(GuitarPedal.class)
+                .with().fetchOf(GuitarPedal_.tags)
+                .where().isGreaterThan(GuitarPedal_.usedValue, 100)
+                .toSpecification();
+        assertEquals(
+                List.of(
+                        new PedalSummary("Deco: Tape Saturation and Double Tracker", 250),
+                        new PedalSummary("Sneak Attack: Attack/Decay and Tremolo", 150),
+                        new PedalSummary("Soft Focus Reverb", 200)),
+                executor.findAll(specification, Sort.by(GuitarPedal_.NAME), Projection.of(PedalSummary.class)));
+        assertEquals(0, entityManager.unwrap(SessionImplementor.class).getPersistenceContext().getNumberOfManagedEntities());
+    }
+
+    @Test
+    void findAll_throwsException_whenRecordDoesNotMatchAttributes() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> executor.findAll(null, Sort.unsorted(), Projection.of(PedalPrice.class)));
+        assertThrows(
+                NullPointerException.class,
+                () -> executor.findAll(null, Sort.unsorted(), (Projection<GuitarPedal, PedalSummary>) null));
+    }
+
+    @Test
+    void findAll_loadsFetchesWithEntityGraph_whenHintsHaveGraphSemantic() {
+        entityManager.createNativeQuery("""
+                INSERT INTO guitar_pedal (id, manufacturer_id, name, has_stereo_output, date_purchased, used_value)
+                VALUES (5, 1, 'Bass Big Muff Pi', false, '2024-02-02', 60)
+                """).executeUpdate();
+        final var joined = SpecificationBuilder.from(GuitarPedal.class)
+                .with().fetchOf(GuitarPedal_.tags)
+                .toSpecification();
+        final var graphed = SpecificationBuilder.from(GuitarPedal.class)
+                .withHints(ExecutionHints::loadGraph)
+                .with().fetchOf(GuitarPedal_.tags)
+                .toSpecification();
+        assertEquals(List.of(1L, 2L, 3L, 4L), ids(executor.findAll(joined)));
+        entityManager.clear();
+        final var guitarPedals = executor.findAll(graphed, Sort.by(GuitarPedal_.ID));
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), ids(guitarPedals));
+        assertTrue(guitarPedals.stream().allMatch(guitarPedal -> Hibernate.isInitialized(guitarPedal.getTags())));
+        assertEquals(List.of(2, 6, 4, 3, 0), guitarPedals.stream().map(guitarPedal -> guitarPedal.getTags().size()).toList());
+        assertEquals(4, executor.count(joined));
+        assertEquals(5, executor.count(graphed));
+        assertEquals(1, executor.getEntityGraphCount());
+    }
+
+    @Test
+    void findAll_pagesInTwoPhases_whenEntityGraphFetchesCollection() {
+        final var specification = SpecificationBuilder.from(GuitarPedal.class)
+                .withHints(ExecutionHints::fetchGraph)
+                .with().fetchOf(GuitarPedal_.tags)
+                .and().fetchOf(GuitarPedal_.manufacturer)
+                .toSpecification();
+        entityManager.clear();
+        final var page = executor.findAll(specification, PageRequest.of(1, 2, Sort.by(GuitarPedal_.ID)));
+        assertEquals(List.of(3L, 4L), ids(page.getContent()));
+        assertEquals(4, page.getTotalElements());
+        page.forEach(guitarPedal -> {
+            assertTrue(Hibernate.isInitialized(guitarPedal.getTags()));
+            assertTrue(Hibernate.isInitialized(guitarPedal.getManufacturer()));
+        });
+    }
+
+    @Test
+    void findAll_reusesTemplate_whenOnlyEntityGraphDiffers() {
+        final var withTags = SpecificationBuilder.from(GuitarPedal.class)
+                .withHints(ExecutionHints::fetchGraph)
+                .where().isNull(GuitarPedal_.dateSold)
+                .and().fetchOf(GuitarPedal_.tags)
+                .toSpecification();
+        final var withManufacturer = SpecificationBuilder.from(GuitarPedal.class)
+                .withHints(ExecutionHints::fetchGraph)
+                .where().isNull(GuitarPedal_.dateSold)
+                .and().fetchOf(GuitarPedal_.manufacturer)
+                .toSpecification();
+        assertEquals(List.of(1L, 2L, 3L), ids(executor.findAll(withTags)));
+        assertEquals(List.of(1L, 2L, 3L), ids(executor.findAll(withManufacturer)));
+        assertEquals(List.of(1L, 2L, 3L), ids(executor.findAll(withTags)));
+        assertEquals(1, executor.getTemplateCount());
+        assertEquals(2, executor.getEntityGraphCount());
+    }
+
+    @Test
+    void count_dropsFetchesAndOrder() {
+        final Specification<GuitarPedal> ordered = (root, query, builder) -> {
+            query.orderBy(builder.asc(root.get(GuitarPedal_.name)));
+            return null;
+        };
+        final var specification = SpecificationBuilder.from(GuitarPedal.class)
+                .with().fetchOf(GuitarPedal_.manufacturer)
+                .and().fetchOf(GuitarPedal_.tags)
+                .where(ordered)
+                .toSpecification();
+        assertEquals(4, executor.count(specification));
+        assertEquals(4, executor.count(null));
+        assertEquals(1, executor.count(isEqualTo(GuitarPedal_.id, 2L)));
+    }
+
+    @Test
+    void findOne_returnsEntity_whenOneMatches() {
+        assertEquals(2L, executor.findOne(isEqualTo(GuitarPedal_.id, 2L)).orElseThrow().getId());
+    }
+
+    @Test
+    void findOne_returnsEmpty_whenNoneMatch() {
+        assertTrue(executor.findOne(isEqualTo(GuitarPedal_.id, 5L)).isEmpty());
+    }
+
+    @Test
+    void findOne_fetchesEveryCollection_whenSpecificationFetchesSeveralCollections() {
+        final var specification = SpecificationBuilder.from(GuitarPedal.class)
+                .with().fetchOf(GuitarPedal_.tags)
+                .and().fetchOf(FetchPath.of(GuitarPedal_.manufacturer).then(Manufacturer_.guitarPedals))
+                .where().isEqualTo(GuitarPedal_.id, 2L)
+                .toSpecification();
+        final var guitarPedal = executor.findOne(specification).orElseThrow();
+        assertEquals(6, guitarPedal.getTags().size());
+        assertTrue(Hibernate.isInitialized(guitarPedal.getManufacturer().getGuitarPedals()));
+        assertThrows(
+                NonUniqueResultException.class,
+                () -> executor.findOne(SpecificationBuilder.from(GuitarPedal.class)
+                        .with().fetchOf(GuitarPedal_.tags)
+                        .where().isNull(GuitarPedal_.dateSold)
+                        .toSpecification()));
+    }
+
+    @Test
+    void findOne_throwsException_whenMoreThanOneMatch() {
+        final var specification = isNull(GuitarPedal_.dateSold);
+        assertThrows(
+                NonUniqueResultException.class,
+                () -> executor.findOne(specification));
+    }
+
+    @Test
+    void findAll_compilesHqlTemplate_whenModeIsHql() {
+        final var hqlExecutor = new SpecificationExecutor<>(
+                entityManager,
+                GuitarPedal.class,
+                SpecificationExecutor.Mode.HQL);
+        assertEquals(SpecificationExecutor.Mode.HQL, hqlExecutor.getMode());
+        assertEquals(List.of(2L, 3L), ids(hqlExecutor.findAll(guitarPedalSpecifications.search_example_07(75))));
+        assertEquals(List.of(2L), ids(hqlExecutor.findAll(guitarPedalSpecifications.search_example_07(200))));
+        assertEquals(1, hqlExecutor.getTemplateCount());
+        assertEquals(
+                List.of(2L, 3L, 1L),
+                hqlExecutor.findAll(
+                        isNull(GuitarPedal_.dateSold),
+                        Sort.by(Sort.Direction.DESC, GuitarPedal_.USED_VALUE)).stream()
+                        .map(GuitarPedal::getId)
+                        .toList()
+        );
+    }
+
+    @Test
+    void findAll_executesCriteriaQuery_whenModeIsHqlAndSpecificationIsNotStructural() {
+        final var hqlExecutor = new SpecificationExecutor<>(
+                entityManager,
+                GuitarPedal.class,
+                SpecificationExecutor.Mode.HQL);
+        assertEquals(List.of(2L, 3L), ids(hqlExecutor.findAll(guitarPedalSpecifications.search_example_01(75))));
+        assertEquals(0, hqlExecutor.getTemplateCount());
+    }
+
+    @Test
+    void constructor_throwsException_whenArgumentIsNull() {
+        assertThrows(
+                NullPointerException.class,
+                () -> new SpecificationExecutor<>(null, GuitarPedal.class));
+        assertThrows(
+                NullPointerException.class,
+                () -> new SpecificationExecutor<>(entityManager, null));
+        assertThrows(
+                NullPointerException.class,
+                () -> new SpecificationExecutor<>(entityManager, GuitarPedal.class, null));
+    }
+
+    private static List<Long> ids(final List<GuitarPedal> guitarPedals) {
+        return guitarPedals.stream()
+                .map(GuitarPedal::getId)
+                .sorted()
+                .toList();
+    }
+
+    private static List<List<Object>> tuples(final long count) {
+        return LongStream.rangeClosed(1, count)
+                .mapToObj(id -> List.<Object>of(id, id == 1 ? 75 : 0))
+                .toList();
+    }
+
+    public record PedalSummary(String name, Integer usedValue) {}
+
+    public record PedalPrice(String name, String usedValue) {}
+}
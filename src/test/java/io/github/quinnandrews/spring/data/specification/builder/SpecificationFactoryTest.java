@@ -10,7 +10,11 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import io.github.quinnandrews.spring.data.specification.builder.application.Application;
 import io.github.quinnandrews.spring.data.specification.builder.application.data.guitarpedals.GuitarPedal;
+import io.github.quinnandrews.spring.data.specification.builder.application.data.guitarpedals.GuitarPedalTag;
+import io.github.quinnandrews.spring.data.specification.builder.application.data.guitarpedals.GuitarPedalTag_;
 import io.github.quinnandrews.spring.data.specification.builder.application.data.guitarpedals.GuitarPedal_;
+import io.github.quinnandrews.spring.data.specification.builder.application.data.guitarpedals.Manufacturer;
+import io.github.quinnandrews.spring.data.specification.builder.application.data.guitarpedals.Manufacturer_;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -362,6 +366,90 @@ class SpecificationFactoryTest {
                 () -> isIn(null, List.of(1L, 2L, 3L)));
     }
 
+    @Test
+    void isIn_padded_returnsPaddedValues_whenValueIsNotNull() {
+        var specification = isIn(GuitarPedal_.id, List.of(1L, 2L, 3L), InClausePadding.powersOfTwo());
+        assertNotNull(specification);
+        assertNotNull(specification.toPredicate(root, query, builder));
+        assertEquals(List.of(1L, 2L, 3L, 3L), ((PredicateNode<GuitarPedal>) specification).getValues());
+    }
+
+    @Test
+    void isIn_padded_returnsNullPredicate_whenValueIsNull() {
+        var specification = isIn(GuitarPedal_.id, null, InClausePadding.powersOfTwo());
+        assertNotNull(specification);
+        assertNull(specification.toPredicate(root, query, builder));
+    }
+
+    @Test
+    void isIn_padded_throwsException_whenAttributeOrPaddingIsNull() {
+        assertThrows(
+                NullPointerException.class,
+                () -> isIn(null, List.of(1L, 2L, 3L), InClausePadding.powersOfTwo()));
+        assertThrows(
+                NullPointerException.class,
+                () -> isIn(GuitarPedal_.id, List.of(1L, 2L, 3L), (InClausePadding) null));
+    }
+
+    @Test
+    void isIn_strategy_returnsInArrayPredicate_whenValuesExceedThreshold() {
+        var specification = isIn(GuitarPedal_.id, List.of(1L, 2L, 2L, 3L), InClauseStrategy.arrayAbove(2));
+        assertNotNull(specification);
+        assertNotNull(specification.toPredicate(root, query, builder));
+        assertEquals(Operator.IN_ARRAY, ((PredicateNode<GuitarPedal>) specification).getOperator());
+        assertEquals(List.of(1L, 2L, 3L), ((PredicateNode<GuitarPedal>) specification).getValues());
+    }
+
+    @Test
+    void isIn_strategy_returnsInPredicate_whenValuesDoNotExceedThreshold() {
+        var specification = isIn(GuitarPedal_.id, List.of(1L, 2L, 2L), InClauseStrategy.arrayAbove(2));
+        assertNotNull(specification);
+        assertNotNull(specification.toPredicate(root, query, builder));
+        assertEquals(Operator.IN, ((PredicateNode<GuitarPedal>) specification).getOperator());
+    }
+
+    @Test
+    void isIn_strategy_returnsNullPredicate_whenValueIsNull() {
+        var specification = isIn(GuitarPedal_.id, null, InClauseStrategy.array());
+        assertNotNull(specification);
+        assertNull(specification.toPredicate(root, query, builder));
+    }
+
+    @Test
+    void isIn_strategy_throwsException_whenAttributeOrStrategyIsNull() {
+        assertThrows(
+                NullPointerException.class,
+                () -> isIn(null, List.of(1L, 2L, 3L), InClauseStrategy.array()));
+        assertThrows(
+                NullPointerException.class,
+                () -> isIn(GuitarPedal_.id, List.of(1L, 2L, 3L), (InClauseStrategy) null));
+    }
+
+    @Test
+    void isIn_coalesced_returnsNonNullPredicate_whenValueIsNotNull() {
+        var specification = isIn(GuitarPedal_.id, List.of(1L, 2L, 3L, 5L), InClauseCoalescing.ranges());
+        assertNotNull(specification);
+        assertNotNull(specification.toPredicate(root, query, builder));
+        assertEquals(Operator.OR, ((CompositeNode<GuitarPedal>) specification).getOperator());
+    }
+
+    @Test
+    void isIn_coalesced_returnsNullPredicate_whenValueIsNull() {
+        var specification = isIn(GuitarPedal_.id, null, InClauseCoalescing.ranges());
+        assertNotNull(specification);
+        assertNull(specification.toPredicate(root, query, builder));
+    }
+
+    @Test
+    void isIn_coalesced_throwsException_whenAttributeOrCoalescingIsNull() {
+        assertThrows(
+                NullPointerException.class,
+                () -> isIn(null, List.of(1L, 2L, 3L), InClauseCoalescing.ranges()));
+        assertThrows(
+                NullPointerException.class,
+                () -> isIn(GuitarPedal_.id, List.of(1L, 2L, 3L), (InClauseCoalescing) null));
+    }
+
     @Test
     void isIn_array_returnsNonNullPredicate_whenValueIsNotNull() {
         var specification = isIn(GuitarPedal_.id, 1L, 2L, 3L);
@@ -383,6 +471,165 @@ class SpecificationFactoryTest {
                 () -> isIn(null, 1L, 2L, 3L));
     }
 
+    @Test
+    void isIn_tuple_returnsNonNullPredicate_whenValueIsNotNull() {
+        var specification = isIn(
+                List.of(GuitarPedal_.id, GuitarPedal_.name),
+                List.of(List.of(1L, "a"), List.of(2L, "b"), List.of(1L, "a")));
+        assertNotNull(specification);
+        assertNotNull(specification.toPredicate(root, query, builder));
+        assertEquals(List.of(List.of(1L, "a"), List.of(2L, "b")), ((TupleNode<GuitarPedal>) specification).getValues());
+    }
+
+    @Test
+    void isIn_tuple_skipsTuplesWithNullValues() {
+        var values = new java.util.ArrayList<Object>();
+        values.add(null);
+        values.add("a");
+        var specification = isIn(
+                List.of(GuitarPedal_.id, GuitarPedal_.name),
+                List.of(values, List.of(2L, "b")));
+        assertEquals(List.of(List.of(2L, "b")), ((TupleNode<GuitarPedal>) specification).getValues());
+    }
+
+    @Test
+    void isIn_tuple_returnsPredicateMatchingNoRows_whenEveryTupleHasNullValue() {
+        var values = new java.util.ArrayList<Object>();
+        values.add(null);
+        values.add("a");
+        var specification = isIn(List.of(GuitarPedal_.id, GuitarPedal_.name), List.of(values));
+        assertTrue(((TupleNode<GuitarPedal>) specification).getValues().isEmpty());
+        assertNotNull(specification.toPredicate(root, query, builder));
+    }
+
+    @Test
+    void isIn_tuple_returnsNullPredicate_whenValueIsNull() {
+        var specification = isIn(List.of(GuitarPedal_.id, GuitarPedal_.name), null);
+        assertNotNull(specification);
+        assertNull(specification.toPredicate(root, query, builder));
+    }
+
+    @Test
+    void isIn_tuple_throwsException_whenAttributesAreInvalid() {
+        assertThrows(
+                NullPointerException.class,
+                () -> isIn((List<SingularAttribute<GuitarPedal, ?>>) null, List.of(List.of(1L))));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> isIn(List.<SingularAttribute<GuitarPedal, ?>>of(), List.of(List.of(1L))));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> isIn(List.of(GuitarPedal_.id, GuitarPedal_.manufacturer), List.of(List.of(1L, 1L))));
+    }
+
+    @Test
+    void isIn_tuple_throwsException_whenTupleHasWrongNumberOfValues() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> isIn(List.of(GuitarPedal_.id, GuitarPedal_.name), List.of(List.of(1L))));
+    }
+
+    @Test
+    void joinOf_singular_returnsNonNullPredicate_whenSpecificationIsNotGhost() {
+        var specification = joinOf(GuitarPedal_.manufacturer, isEqualTo(Manufacturer_.name, "Electro-Harmonix"));
+        assertInstanceOf(JoinNode.class, specification);
+        assertNotNull(specification.toPredicate(root, query, builder));
+        assertEquals(1, root.getJoins().size());
+    }
+
+    @Test
+    void joinOf_singular_returnsNullPredicate_whenSpecificationIsGhost() {
+        var specification = joinOf(GuitarPedal_.manufacturer, isEqualTo(Manufacturer_.name, null));
+        assertNotNull(specification);
+        assertNull(specification.toPredicate(root, query, builder));
+        assertTrue(root.getJoins().isEmpty());
+    }
+
+    @Test
+    void joinOf_singular_throwsException_whenArgumentIsNull() {
+        assertThrows(
+                NullPointerException.class,
+                () -> joinOf((SingularAttribute<GuitarPedal, Manufacturer>) null, isEqualTo(Manufacturer_.id, 1L)));
+        assertThrows(
+                NullPointerException.class,
+                () -> joinOf(GuitarPedal_.manufacturer, null));
+    }
+
+    @Test
+    void joinOf_list_sharesOneExistsSubquery_insteadOfJoin() {
+        var specification = joinOf(GuitarPedal_.tags, isEqualTo(GuitarPedalTag_.tag, "fuzz"))
+                .and(joinOf(GuitarPedal_.tags, isGreaterThan(GuitarPedalTag_.id, 1L)));
+        var predicate = specification.toPredicate(root, query, builder);
+        assertNotNull(predicate);
+        assertTrue(root.getJoins().isEmpty());
+    }
+
+    @Test
+    void joinOf_list_throwsException_whenSpecificationCannotBeJoined() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> joinOf(GuitarPedal_.tags, isEqualTo(GuitarPedalTag_.tag, "fuzz")
+                        .and((r, q, b) -> b.conjunction())));
+    }
+
+    @Test
+    void anyMatch_returnsExistsPredicate_whenSpecificationIsNotGhost() {
+        var specification = anyMatch(GuitarPedal_.tags, isEqualTo(GuitarPedalTag_.tag, "fuzz"));
+        assertInstanceOf(ExistsNode.class, specification);
+        assertNotNull(specification.toPredicate(root, query, builder));
+        assertTrue(root.getJoins().isEmpty());
+    }
+
+    @Test
+    void anyMatch_returnsNullPredicate_whenSpecificationIsGhost() {
+        var specification = anyMatch(GuitarPedal_.tags, isEqualTo(GuitarPedalTag_.tag, null));
+        assertNotNull(specification);
+        assertNull(specification.toPredicate(root, query, builder));
+    }
+
+    @Test
+    void anyMatch_throwsException_whenArgumentIsNull() {
+        assertThrows(
+                NullPointerException.class,
+                () -> anyMatch((ListAttribute<GuitarPedal, GuitarPedalTag>) null, isEqualTo(GuitarPedalTag_.id, 1L)));
+        assertThrows(
+                NullPointerException.class,
+                () -> anyMatch(GuitarPedal_.tags, null));
+    }
+
+    @Test
+    void anyMatch_throwsException_whenSpecificationCannotBeJoined() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> anyMatch(GuitarPedal_.tags, (r, q, b) -> b.conjunction()));
+    }
+
+    @Test
+    void noneMatch_returnsNotExistsPredicate_whenSpecificationIsNotGhost() {
+        var specification = noneMatch(GuitarPedal_.tags, isEqualTo(GuitarPedalTag_.tag, "fuzz"));
+        assertInstanceOf(ExistsNode.class, specification);
+        assertEquals(Operator.NOT_EXISTS, ((ExistsNode<?, ?>) specification).getOperator());
+        assertNotNull(specification.toPredicate(root, query, builder));
+        assertNotEquals(anyMatch(GuitarPedal_.tags, isEqualTo(GuitarPedalTag_.tag, "fuzz")), specification);
+    }
+
+    @Test
+    void noneMatch_returnsNullPredicate_whenSpecificationIsGhost() {
+        var specification = noneMatch(GuitarPedal_.tags, isEqualTo(GuitarPedalTag_.tag, null));
+        assertNotNull(specification);
+        assertNull(specification.toPredicate(root, query, builder));
+    }
+
+    @Test
+    void noneMatch_throwsException_whenArgumentIsNull() {
+        assertThrows(
+                NullPointerException.class,
+                () -> noneMatch((ListAttribute<GuitarPedal, GuitarPedalTag>) null, isEqualTo(GuitarPedalTag_.id, 1L)));
+        assertThrows(
+                NullPointerException.class,
+                () -> noneMatch(GuitarPedal_.tags, null));
+    }
+
     @Test
     void fetchOf_singular_returnsNonNullPredicate() {
         var specification = fetchOf(GuitarPedal_.manufacturer);
@@ -397,6 +644,24 @@ class SpecificationFactoryTest {
                 () -> fetchOf((SingularAttribute<GuitarPedal, Object>) null));
     }
 
+    @Test
+    void fetchOf_singular_skipsFetch_whenQueryDoesNotSelectRoot() {
+        var countQuery = builder.createQuery(Long.class);
+        var countRoot = countQuery.from(GuitarPedal.class);
+        assertNotNull(fetchOf(GuitarPedal_.manufacturer).toPredicate(countRoot, countQuery, builder));
+        assertTrue(countRoot.getFetches().isEmpty());
+        assertTrue(countRoot.getJoins().isEmpty());
+    }
+
+    @Test
+    void fetchOf_list_skipsFetch_whenQueryDoesNotSelectRoot() {
+        var countQuery = builder.createQuery(Long.class);
+        var countRoot = countQuery.from(GuitarPedal.class);
+        assertNotNull(fetchOf(GuitarPedal_.tags).toPredicate(countRoot, countQuery, builder));
+        assertTrue(countRoot.getFetches().isEmpty());
+        assertTrue(countRoot.getJoins().isEmpty());
+    }
+
     @Test
     void fetchOf_list_returnsNonNullPredicate() {
         var specification = fetchOf(GuitarPedal_.tags);
@@ -411,6 +676,35 @@ class SpecificationFactoryTest {
                 () -> fetchOf((ListAttribute<GuitarPedal, Object>) null));
     }
 
+    @Test
+    void fetchOf_path_sharesFetchesOfPrefix() {
+        fetchOf(GuitarPedal_.manufacturer).toPredicate(root, query, builder);
+        var specification = fetchOf(FetchPath.of(GuitarPedal_.manufacturer).then(Manufacturer_.guitarPedals));
+        assertNotNull(specification.toPredicate(root, query, builder));
+        assertEquals(1, root.getFetches().size());
+        assertEquals(1, root.getFetches().iterator().next().getFetches().size());
+    }
+
+    @Test
+    void fetchOf_path_skipsFetch_whenQueryDoesNotSelectRoot() {
+        var countQuery = builder.createQuery(Long.class);
+        var countRoot = countQuery.from(GuitarPedal.class);
+        var specification = fetchOf(FetchPath.of(GuitarPedal_.manufacturer).then(Manufacturer_.guitarPedals));
+        assertNotNull(specification.toPredicate(countRoot, countQuery, builder));
+        assertTrue(countRoot.getFetches().isEmpty());
+        assertTrue(countRoot.getJoins().isEmpty());
+    }
+
+    @Test
+    void fetchOf_path_throwsException_whenArgumentIsInvalid() {
+        assertThrows(
+                NullPointerException.class,
+                () -> fetchOf((FetchPath<GuitarPedal, ?>) null));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> FetchPath.of(GuitarPedal_.name));
+    }
+
     @Test
     void ghost_returnsNullPredicate() {
         Specification<GuitarPedal> specification = ghost();
@@ -0,0 +1,124 @@
+package io.github.quinnandrews.spring.data.specification.builder;
+
+import io.github.quinnandrews.spring.data.specification.builder.application.Application;
+import io.github.quinnandrews.spring.data.specification.builder.application.data.guitarpedals.GuitarPedal;
+import io.github.quinnandrews.spring.data.specification.builder.application.data.guitarpedals.GuitarPedalTag_;
+import io.github.quinnandrews.spring.data.specification.builder.application.data.guitarpedals.GuitarPedal_;
+import io.github.quinnandrews.spring.data.specification.builder.application.data.guitarpedals.specifications.GuitarPedalSpecifications;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = Application.class)
+class SpecificationFingerprintTest {
+
+    @Autowired
+    private GuitarPedalSpecifications guitarPedalSpecifications;
+
+    @Test
+    void of_returnsEqualFingerprints_whenSpecificationsAreBuiltWithSameArguments() {
+        var first = SpecificationFingerprint.of(guitarPedalSpecifications.search_example_07(75));
+        var second = SpecificationFingerprint.of(guitarPedalSpecifications.search_example_07(75));
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+        assertEquals(first.getShapeHash(), second.getShapeHash());
+        assertEquals(first.getFullHash(), second.getFullHash());
+        assertTrue(first.isStructural());
+    }
+
+    @Test
+    void of_returnsSameShapeHash_whenOnlyValuesDiffer() {
+        var first = SpecificationFingerprint.of(guitarPedalSpecifications.search_example_07(75));
+        var second = SpecificationFingerprint.of(guitarPedalSpecifications.search_example_07(200));
+        assertNotEquals(first, second);
+        assertEquals(first.getShapeHash(), second.getShapeHash());
+        assertNotEquals(first.getFullHash(), second.getFullHash());
+    }
+
+    @Test
+    void of_returnsSameShapeHash_whenOnlyNumberOfInValuesDiffers() {
+        var first = SpecificationFingerprint.of(SpecificationFactory.isIn(GuitarPedal_.id, List.of(1L, 2L)));
+        var second = SpecificationFingerprint.of(SpecificationFactory.isIn(GuitarPedal_.id, List.of(1L, 2L, 3L)));
+        assertEquals(first.getShapeHash(), second.getShapeHash());
+        assertNotEquals(first.getFullHash(), second.getFullHash());
+    }
+
+    @Test
+    void of_returnsDifferentShapeHash_whenNumberOfTuplesDiffers() {
+        var attributes = List.of(GuitarPedal_.id, GuitarPedal_.usedValue);
+        var first = SpecificationFingerprint.of(SpecificationFactory.isIn(attributes, List.of(List.of(1L, 75))));
+        var second = SpecificationFingerprint.of(SpecificationFactory.isIn(attributes, List.of(List.of(2L, 250))));
+        var third = SpecificationFingerprint.of(SpecificationFactory.isIn(attributes, List.of(List.of(1L, 75), List.of(2L, 250))));
+        assertEquals(first.getShapeHash(), second.getShapeHash());
+        assertNotEquals(first.getFullHash(), second.getFullHash());
+        assertNotEquals(first.getShapeHash(), third.getShapeHash());
+    }
+
+    @Test
+    void of_returnsDifferentShapeHash_whenValueIsNull() {
+        var first = SpecificationFingerprint.of(guitarPedalSpecifications.search_example_07(75));
+        var second = SpecificationFingerprint.of(guitarPedalSpecifications.search_example_07(null));
+        assertNotEquals(first.getShapeHash(), second.getShapeHash());
+    }
+
+    @Test
+    void of_returnsDifferentShapeHash_whenOperatorsDiffer() {
+        var first = SpecificationFingerprint.of(SpecificationFactory.isGreaterThan(GuitarPedal_.usedValue, 75));
+        var second = SpecificationFingerprint.of(SpecificationFactory.isLessThan(GuitarPedal_.usedValue, 75));
+        assertNotEquals(first.getShapeHash(), second.getShapeHash());
+    }
+
+    @Test
+    void of_returnsDifferentShapeHash_whenAttributesDiffer() {
+        var first = SpecificationFingerprint.of(SpecificationFactory.isNull(GuitarPedal_.dateSold));
+        var second = SpecificationFingerprint.of(SpecificationFactory.isNull(GuitarPedal_.datePurchased));
+        assertNotEquals(first.getShapeHash(), second.getShapeHash());
+    }
+
+    @Test
+    void of_returnsDifferentShapeHash_whenJoinedAssociationDiffers() {
+        var first = SpecificationFingerprint.of(SpecificationFactory.joinOf(
+                GuitarPedal_.tags, SpecificationFactory.isEqualTo(GuitarPedalTag_.tag, "fuzz")));
+        var second = SpecificationFingerprint.of(SpecificationFactory.joinOf(
+                GuitarPedal_.tags, SpecificationFactory.isEqualTo(GuitarPedalTag_.tag, "reverb")));
+        var third = SpecificationFingerprint.of(SpecificationFactory.isEqualTo(GuitarPedal_.name, "fuzz"));
+        assertEquals(first.getShapeHash(), second.getShapeHash());
+        assertNotEquals(first.getShapeHash(), third.getShapeHash());
+    }
+
+    @Test
+    void of_returnsDifferentShapeHash_whenNestingDiffers() {
+        var first = SpecificationFingerprint.of(SpecificationBuilder.from(GuitarPedal.class)
+                .where().isNull(GuitarPedal_.dateSold)
+                .and().isEqualTo(GuitarPedal_.id, 1L)
+                .or(SpecificationFactory.isEqualTo(GuitarPedal_.id, 2L))
+                .toSpecification());
+        var second = SpecificationFingerprint.of(SpecificationBuilder.from(GuitarPedal.class)
+                .where().isNull(GuitarPedal_.dateSold)
+                .and(SpecificationFactory.isEqualTo(GuitarPedal_.id, 1L)
+                        .or(SpecificationFactory.isEqualTo(GuitarPedal_.id, 2L)))
+                .toSpecification());
+        assertNotEquals(first.getShapeHash(), second.getShapeHash());
+    }
+
+    @Test
+    void of_isNotStructural_whenSpecificationContainsLambda() {
+        var fingerprint = SpecificationFingerprint.of(guitarPedalSpecifications.fetch_example_02("Strymon"));
+        assertFalse(fingerprint.isStructural());
+        assertNotEquals(
+                fingerprint.getFullHash(),
+                SpecificationFingerprint.of(guitarPedalSpecifications.fetch_example_02("Strymon")).getFullHash()
+        );
+    }
+
+    @Test
+    void of_throwsException_whenArgumentIsNull() {
+        assertThrows(
+                NullPointerException.class,
+                () -> SpecificationFingerprint.of(null));
+    }
+}
@@ -0,0 +1,246 @@
+package io.github.quinnandrews.spring.data.specification.builder;
+
+import io.github.quinnandrews.spring.data.specification.builder.application.Application;
+import io.github.quinnandrews.spring.data.specification.builder.application.data.guitarpedals.GuitarPedal;
+import io.github.quinnandrews.spring.data.specification.builder.application.data.guitarpedals.GuitarPedal_;
+import io.github.quinnandrews.spring.data.specification.builder.application.data.guitarpedals.GuitarPedalTag_;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static io.github.quinnandrews.spring.data.specification.builder.SpecificationFactory.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = Application.class)
+class SpecificationNodeTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private CriteriaBuilder builder;
+    private CriteriaQuery<GuitarPedal> query;
+    private Root<GuitarPedal> root;
+
+    @BeforeEach
+    void setUp() {
+        builder = entityManager.getCriteriaBuilder();
+        query = builder.createQuery(GuitarPedal.class);
+        root = query.from(GuitarPedal.class);
+    }
+
+    @Test
+    void of_returnsSameInstance_whenSpecificationIsNode() {
+        var specification = isEqualTo(GuitarPedal_.id, 0L);
+        assertSame(specification, SpecificationNode.of(specification));
+    }
+
+    @Test
+    void of_returnsCustomNode_whenSpecificationIsNotNode() {
+        Specification<GuitarPedal> specification = (root, query, builder) -> null;
+        var node = SpecificationNode.of(specification);
+        assertInstanceOf(CustomNode.class, node);
+        assertEquals(Operator.CUSTOM, node.getOperator());
+        assertSame(specification, ((CustomNode<GuitarPedal>) node).getSpecification());
+    }
+
+    @Test
+    void of_throwsException_whenArgumentIsNull() {
+        assertThrows(
+                NullPointerException.class,
+                () -> SpecificationNode.of(null));
+    }
+
+    @Test
+    void predicateNode_describesOperatorAttributeAndValues() {
+        var node = (PredicateNode<GuitarPedal>) isBetween(GuitarPedal_.usedValue, 100, 200);
+        assertEquals(Operator.BETWEEN, node.getOperator());
+        assertEquals(GuitarPedal_.usedValue, node.getAttribute());
+        assertEquals(List.of(GuitarPedal_.usedValue), node.getAttributes());
+        assertEquals(List.of(100, 200), node.getValues());
+        assertTrue(node.getChildren().isEmpty());
+    }
+
+    @Test
+    void predicateNode_describesLowerCasePattern_whenLike() {
+        var node = (PredicateNode<GuitarPedal>) isLike(GuitarPedal_.name, " %Fuzz% ");
+        assertEquals(Operator.LIKE, node.getOperator());
+        assertEquals(List.of("%fuzz%"), node.getValues());
+    }
+
+    @Test
+    void predicateNode_describesEachValue_whenIn() {
+        var node = (PredicateNode<GuitarPedal>) isIn(GuitarPedal_.id, List.of(1L, 2L, 3L));
+        assertEquals(Operator.IN, node.getOperator());
+        assertEquals(List.of(1L, 2L, 3L), node.getValues());
+    }
+
+    @Test
+    void predicateNode_describesNoValues_whenIsNull() {
+        var node = (PredicateNode<GuitarPedal>) isNull(GuitarPedal_.dateSold);
+        assertEquals(Operator.IS_NULL, node.getOperator());
+        assertTrue(node.getValues().isEmpty());
+    }
+
+    @Test
+    void fetchNode_describesAssociation() {
+        var node = (FetchNode<GuitarPedal>) fetchOf(GuitarPedal_.tags);
+        assertEquals(Operator.FETCH, node.getOperator());
+        assertEquals(GuitarPedal_.tags, node.getAttribute());
+        assertNotNull(node.toPredicate(root, query, builder));
+        assertEquals(1, root.getFetches().size());
+    }
+
+    @Test
+    void compositeNode_describesChildren_whenBuilt() {
+        var node = (CompositeNode<GuitarPedal>) SpecificationBuilder.from(GuitarPedal.class)
+                .where().isNull(GuitarPedal_.dateSold)
+                .and().isGreaterThan(GuitarPedal_.usedValue, 100)
+                .toSpecification();
+        assertEquals(Operator.AND, node.getOperator());
+        assertEquals(2, node.getChildren().size());
+        assertEquals(Operator.IS_NULL, node.getChildren().get(0).getOperator());
+        assertEquals(Operator.GREATER_THAN, node.getChildren().get(1).getOperator());
+    }
+
+    @Test
+    void compositeNode_isGhost_whenGhost() {
+        var node = (CompositeNode<GuitarPedal>) SpecificationFactory.<GuitarPedal>ghost();
+        assertTrue(node.isGhost());
+        assertTrue(node.getChildren().isEmpty());
+    }
+
+    @Test
+    void and_returnsCompositeNode() {
+        var specification = isNull(GuitarPedal_.dateSold)
+                .and(isGreaterThan(GuitarPedal_.usedValue, 100))
+                .and(isLike(GuitarPedal_.name, "%fuzz%"));
+        var node = assertInstanceOf(CompositeNode.class, specification);
+        assertEquals(Operator.AND, node.getOperator());
+        assertEquals(3, node.getChildren().size());
+    }
+
+    @Test
+    void and_dropsGhostAndNullSpecifications() {
+        var node = isNull(GuitarPedal_.dateSold);
+        assertSame(node, node.and(isGreaterThan(GuitarPedal_.usedValue, null)));
+        assertSame(node, node.and(null));
+    }
+
+    @Test
+    void or_returnsCompositeNode() {
+        var specification = isEqualTo(GuitarPedal_.id, 1L)
+                .or(isEqualTo(GuitarPedal_.id, 2L));
+        var node = assertInstanceOf(CompositeNode.class, specification);
+        assertEquals(Operator.OR, node.getOperator());
+        assertEquals(2, node.getChildren().size());
+    }
+
+    @Test
+    void equals_returnsTrue_whenBuiltWithSameArguments() {
+        var first = SpecificationBuilder.from(GuitarPedal.class)
+                .with().fetchOf(GuitarPedal_.manufacturer)
+                .where().isLike(GuitarPedal_.name, "%fuzz%")
+                .and().isIn(GuitarPedal_.id, 1L, 2L)
+                .or(isBetween(GuitarPedal_.usedValue, 100, 200))
+                .toSpecification();
+        var second = SpecificationBuilder.from(GuitarPedal.class)
+                .with().fetchOf(GuitarPedal_.manufacturer)
+                .where().isLike(GuitarPedal_.name, "%FUZZ%")
+                .and().isIn(GuitarPedal_.id, 1L, 2L)
+                .or(isBetween(GuitarPedal_.usedValue, 100, 200))
+                .toSpecification();
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+        assertEquals(1, new HashSet<>(List.of(first, second)).size());
+    }
+
+    @Test
+    void equals_returnsFalse_whenValuesDiffer() {
+        assertNotEquals(isEqualTo(GuitarPedal_.id, 1L), isEqualTo(GuitarPedal_.id, 2L));
+        assertNotEquals(isEqualTo(GuitarPedal_.id, 1L), isNotEqualTo(GuitarPedal_.id, 1L));
+        assertNotEquals(fetchOf(GuitarPedal_.manufacturer), fetchOf(GuitarPedal_.tags));
+    }
+
+    @Test
+    void equals_returnsFalse_whenChildrenAreInDifferentOrder() {
+        assertNotEquals(
+                isNull(GuitarPedal_.dateSold).and(isEqualTo(GuitarPedal_.id, 1L)),
+                isEqualTo(GuitarPedal_.id, 1L).and(isNull(GuitarPedal_.dateSold))
+        );
+    }
+
+    @Test
+    void accept_callsVisitorMethodOfNode() {
+        var operators = new ArrayList<Operator>();
+        var visitor = new SpecificationVisitor<Void>() {
+            @Override
+            public Void visitComposite(final CompositeNode<?> node) {
+                operators.add(node.getOperator());
+                node.getChildren().forEach(child -> child.accept(this));
+                return null;
+            }
+            @Override
+            public Void visitPredicate(final PredicateNode<?> node) {
+                operators.add(node.getOperator());
+                return null;
+            }
+            @Override
+            public Void visitFetch(final FetchNode<?> node) {
+                operators.add(node.getOperator());
+                return null;
+            }
+            @Override
+            public Void visitTuple(final TupleNode<?> node) {
+                operators.add(node.getOperator());
+                return null;
+            }
+            @Override
+            public Void visitJoin(final JoinNode<?, ?> node) {
+                operators.add(node.getOperator());
+                node.getSpecification().accept(this);
+                return null;
+            }
+            @Override
+            public Void visitExists(final ExistsNode<?, ?> node) {
+                operators.add(node.getOperator());
+                node.getSpecification().accept(this);
+                return null;
+            }
+            @Override
+            public Void visitSubselect(final SubselectNode<?> node) {
+                operators.add(node.getOperator());
+                node.getSpecification().accept(this);
+                return null;
+            }
+            @Override
+            public Void visitCustom(final CustomNode<?> node) {
+                operators.add(node.getOperator());
+                return null;
+            }
+        };
+        SpecificationNode.of(SpecificationBuilder.from(GuitarPedal.class)
+                .with().fetchOf(GuitarPedal_.manufacturer)
+                .where().isEqualTo(GuitarPedal_.id, 1L)
+                .and().isIn(List.of(GuitarPedal_.id, GuitarPedal_.usedValue), List.of(List.of(1L, 75)))
+                .and().joinOf(GuitarPedal_.tags, tag -> tag.where().isEqualTo(GuitarPedalTag_.tag, "fuzz"))
+                .and().anyMatch(GuitarPedal_.tags, tag -> tag.where().isEqualTo(GuitarPedalTag_.tag, "reverb"))
+                .or((root, query, builder) -> null)
+                .toSpecification())
+                .accept(visitor);
+        assertEquals(
+                List.of(Operator.OR, Operator.AND, Operator.FETCH, Operator.EQUAL, Operator.TUPLE_IN,
+                        Operator.JOIN, Operator.AND, Operator.EQUAL,
+                        Operator.EXISTS, Operator.AND, Operator.EQUAL, Operator.CUSTOM),
+                operators);
+    }
+}
@@ -0,0 +1,127 @@
+package io.github.quinnandrews.spring.data.specification.builder;
+
+import io.github.quinnandrews.spring.data.specification.builder.application.Application;
+import io.github.quinnandrews.spring.data.specification.builder.application.data.guitarpedals.GuitarPedal;
+import io.github.quinnandrews.spring.data.specification.builder.application.data.guitarpedals.GuitarPedalTag_;
+import io.github.quinnandrews.spring.data.specification.builder.application.data.guitarpedals.GuitarPedal_;
+import io.github.quinnandrews.spring.data.specification.builder.application.data.guitarpedals.repository.GuitarPedalRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+import static io.github.quinnandrews.spring.data.specification.builder.SpecificationFactory.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = Application.class)
+class SpecificationNormalizerTest {
+
+    @Autowired
+    private GuitarPedalRepository guitarPedalRepository;
+
+    @Test
+    void normalize_returnsNull_whenSpecificationIsNull() {
+        assertNull(SpecificationNormalizer.normalize(null));
+    }
+
+    @Test
+    void normalize_flattensNestingAndRemovesDuplicates() {
+        final var specification = SpecificationBuilder.from(GuitarPedal.class)
+                .where().isEqualTo(GuitarPedal_.name, "Big Muff Fuzz")
+                .and(isEqualTo(GuitarPedal_.name, "Big Muff Fuzz").and(isNull(GuitarPedal_.dateSold)))
+                .toSpecification();
+        assertEquals(
+                SpecificationBuilder.from(GuitarPedal.class)
+                        .where().isEqualTo(GuitarPedal_.name, "Big Muff Fuzz")
+                        .and().isNull(GuitarPedal_.dateSold)
+                        .toSpecification(),
+                SpecificationNormalizer.normalize(specification));
+    }
+
+    @Test
+    void normalize_mergesInclusiveBoundsIntoBetween() {
+        final var specification = SpecificationBuilder.from(GuitarPedal.class)
+                .where().isGreaterThanOrEqualTo(GuitarPedal_.usedValue, 100)
+                .and().isLessThanOrEqualTo(GuitarPedal_.usedValue, 250)
+                .and().isBetween(GuitarPedal_.usedValue, 150, 300)
+                .toNormalizedSpecification();
+        assertEquals(isBetween(GuitarPedal_.usedValue, 150, 250), specification);
+        assertEquals(List.of(4L, 3L, 2L), ids(guitarPedalRepository.findAll(specification, Sort.by(GuitarPedal_.USED_VALUE))));
+    }
+
+    @Test
+    void normalize_keepsTightestBounds_whenBoundIsExclusive() {
+        final var specification = SpecificationBuilder.from(GuitarPedal.class)
+                .where().isGreaterThan(GuitarPedal_.usedValue, 100)
+                .and().isGreaterThanOrEqualTo(GuitarPedal_.usedValue, 100)
+                .and().isLessThan(GuitarPedal_.usedValue, 250)
+                .and().isLessThanOrEqualTo(GuitarPedal_.usedValue, 300)
+                .toNormalizedSpecification();
+        assertEquals(
+                SpecificationBuilder.from(GuitarPedal.class)
+                        .where().isGreaterThan(GuitarPedal_.usedValue, 100)
+                        .and().isLessThan(GuitarPedal_.usedValue, 250)
+                        .toSpecification(),
+                specification);
+    }
+
+    @Test
+    void normalize_keepsBounds_whenValuesAreNotNumbersOrDates() {
+        final var specification = SpecificationBuilder.from(GuitarPedal.class)
+                .where().isGreaterThan(GuitarPedal_.name, "B")
+                .and().isGreaterThan(GuitarPedal_.name, "a")
+                .toSpecification();
+        assertEquals(specification, SpecificationNormalizer.normalize(specification));
+    }
+
+    @Test
+    void normalize_collapsesEqualsOfDisjunctionIntoIn() {
+        final var specification = SpecificationBuilder.from(GuitarPedal.class)
+                .where().isEqualTo(GuitarPedal_.id, 1L)
+                .or(isEqualTo(GuitarPedal_.id, 2L))
+                .or(isIn(GuitarPedal_.id, List.of(2L, 3L)))
+                .or(isTrue(GuitarPedal_.hasStereoOutput))
+                .toNormalizedSpecification();
+        assertEquals(
+                isIn(GuitarPedal_.id, List.of(1L, 2L, 3L)).or(isTrue(GuitarPedal_.hasStereoOutput)),
+                specification);
+    }
+
+    @Test
+    void normalize_padsCollapsedIn_whenAnyInIsPadded() {
+        final var specification = SpecificationBuilder.from(GuitarPedal.class)
+                .where().isIn(GuitarPedal_.id, List.of(1L, 2L), InClausePadding.powersOfTwo())
+                .or(isEqualTo(GuitarPedal_.id, 3L))
+                .toNormalizedSpecification();
+        assertEquals(isIn(GuitarPedal_.id, List.of(1L, 2L, 3L, 3L)), specification);
+        assertEquals(List.of(1L, 2L, 3L), ids(guitarPedalRepository.findAll(specification, Sort.by(GuitarPedal_.ID))));
+    }
+
+    @Test
+    void normalize_rewritesSpecificationsOfAssociations() {
+        final var specification = SpecificationBuilder.from(GuitarPedal.class)
+                .where().anyMatch(GuitarPedal_.tags, tag -> tag
+                        .where().isEqualTo(GuitarPedalTag_.tag, "fuzz")
+                        .or(isEqualTo(GuitarPedalTag_.tag, "reverb")))
+                .toNormalizedSpecification();
+        assertEquals(anyMatch(GuitarPedal_.tags, isIn(GuitarPedalTag_.tag, List.of("fuzz", "reverb"))), specification);
+        assertEquals(List.of(1L, 3L), ids(guitarPedalRepository.findAll(specification, Sort.by(GuitarPedal_.ID))));
+    }
+
+    @Test
+    void normalize_keepsHints() {
+        final var specification = SpecificationBuilder.from(GuitarPedal.class)
+                .withHints(ExecutionHints::readOnly)
+                .where().isEqualTo(GuitarPedal_.id, 1L)
+                .and().isEqualTo(GuitarPedal_.id, 1L)
+                .toNormalizedSpecification();
+        assertEquals(ExecutionHints.none().readOnly(), ExecutionHints.of(specification));
+        assertEquals(SpecificationNode.of(isEqualTo(GuitarPedal_.id, 1L)), SpecificationNode.of(specification).getChildren().get(0));
+    }
+
+    private static List<Long> ids(final List<GuitarPedal> guitarPedals) {
+        return guitarPedals.stream().map(GuitarPedal::getId).toList();
+    }
+}
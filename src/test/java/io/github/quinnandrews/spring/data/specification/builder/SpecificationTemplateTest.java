@@ -0,0 +1,249 @@
+package io.github.quinnandrews.spring.data.specification.builder;
+
+import io.github.quinnandrews.spring.data.specification.builder.application.Application;
+import io.github.quinnandrews.spring.data.specification.builder.application.data.guitarpedals.GuitarPedal;
+import io.github.quinnandrews.spring.data.specification.builder.application.data.guitarpedals.GuitarPedal_;
+import io.github.quinnandrews.spring.data.specification.builder.application.data.guitarpedals.specifications.GuitarPedalSpecifications;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static io.github.quinnandrews.spring.data.specification.builder.SpecificationFactory.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Transactional
+@SpringBootTest(classes = Application.class)
+class SpecificationTemplateTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private GuitarPedalSpecifications guitarPedalSpecifications;
+
+    @Test
+    void compile_createsParameterForEachValue() {
+        final var template = SpecificationTemplate.compile(
+                entityManager,
+                GuitarPedal.class,
+                guitarPedalSpecifications.search_example_07(75)
+        );
+        assertEquals(1, template.getParameterCount());
+        assertEquals(
+                SpecificationFingerprint.of(guitarPedalSpecifications.search_example_07(75)).getShapeHash(),
+                template.getShapeHash()
+        );
+    }
+
+    @Test
+    void bind_returnsResultsForValuesOfEachSpecification() {
+        final var template = SpecificationTemplate.compile(
+                entityManager,
+                GuitarPedal.class,
+                guitarPedalSpecifications.search_example_07(75)
+        );
+        assertEquals(
+                List.of(2L, 3L),
+                ids(template.bind(entityManager, guitarPedalSpecifications.search_example_07(75)).getResultList())
+        );
+        assertEquals(
+                List.of(2L),
+                ids(template.bind(entityManager, guitarPedalSpecifications.search_example_07(200)).getResultList())
+        );
+    }
+
+    @Test
+    void bind_returnsResults_whenNumberOfInValuesDiffers() {
+        final var template = SpecificationTemplate.compile(
+                entityManager,
+                GuitarPedal.class,
+                isIn(GuitarPedal_.id, List.of(1L, 2L))
+        );
+        assertEquals(1, template.getParameterCount());
+        assertEquals(
+                List.of(1L, 3L, 4L),
+                ids(template.bind(entityManager, isIn(GuitarPedal_.id, List.of(1L, 3L, 4L))).getResultList())
+        );
+    }
+
+    @Test
+    void bind_returnsResults_whenSpecificationHasTupleInClause() {
+        final var attributes = List.of(GuitarPedal_.name, GuitarPedal_.usedValue);
+        final var template = SpecificationTemplate.compile(
+                entityManager,
+                GuitarPedal.class,
+                isIn(attributes, List.of(List.of("x", 0), List.of("y", 0)))
+        );
+        assertEquals(4, template.getParameterCount());
+        assertEquals(
+                List.of(1L, 3L),
+                ids(template.bind(entityManager, isIn(attributes, List.of(
+                        List.of("Big Muff Fuzz", 75),
+                        List.of("Soft Focus Reverb", 200)
+                ))).getResultList())
+        );
+    }
+
+    @Test
+    void bind_returnsResults_whenSpecificationFiltersByAssociation() {
+        final var template = SpecificationTemplate.compile(
+                entityManager,
+                GuitarPedal.class,
+                guitarPedalSpecifications.fetch_example_08(300L, List.of("shoegaze"))
+        );
+        assertEquals(2, template.getParameterCount());
+        assertEquals(
+                List.of(3L),
+                ids(template.bind(entityManager, guitarPedalSpecifications.fetch_example_08(300L, List.of("shoegaze")))
+                        .getResultList())
+        );
+        assertEquals(
+                List.of(1L, 3L),
+                ids(template.bind(entityManager, guitarPedalSpecifications.fetch_example_08(0L, List.of("shoegaze")))
+                        .getResultList())
+        );
+    }
+
+    @Test
+    void bind_returnsResults_whenSpecificationHasExistsClause() {
+        final var template = SpecificationTemplate.compile(
+                entityManager,
+                GuitarPedal.class,
+                guitarPedalSpecifications.fetch_example_09(List.of("shoegaze"))
+        );
+        assertEquals(1, template.getParameterCount());
+        assertEquals(
+                List.of(1L, 3L),
+                ids(template.bind(entityManager, guitarPedalSpecifications.fetch_example_09(List.of("shoegaze")))
+                        .getResultList())
+        );
+        assertEquals(
+                List.of(2L, 4L),
+                ids(template.bind(entityManager, guitarPedalSpecifications.fetch_example_09(List.of("tape", "tremolo")))
+                        .getResultList())
+        );
+    }
+
+    @Test
+    void bind_returnsResults_whenSpecificationHasNotExistsClause() {
+        final var template = SpecificationTemplate.compile(
+                entityManager,
+                GuitarPedal.class,
+                guitarPedalSpecifications.search_example_08(List.of("shoegaze"))
+        );
+        assertEquals(
+                List.of(2L, 4L),
+                ids(template.bind(entityManager, guitarPedalSpecifications.search_example_08(List.of("shoegaze")))
+                        .getResultList())
+        );
+        assertEquals(
+                List.of(1L, 2L),
+                ids(template.bind(entityManager, guitarPedalSpecifications.search_example_08(List.of("reverb", "tremolo")))
+                        .getResultList())
+        );
+    }
+
+    @Test
+    void bind_returnsResults_whenInClauseIsBoundToArray() {
+        final var template = SpecificationTemplate.compile(
+                entityManager,
+                GuitarPedal.class,
+                isIn(GuitarPedal_.id, List.of(1L, 2L), InClauseStrategy.array())
+        );
+        assertEquals(1, template.getParameterCount());
+        assertEquals(
+                List.of(1L, 3L, 4L),
+                ids(template.bind(entityManager, isIn(GuitarPedal_.id, List.of(1L, 3L, 4L), InClauseStrategy.array()))
+                        .getResultList())
+        );
+    }
+
+    @Test
+    void bind_returnsResults_whenSpecificationHasEveryKindOfValue() {
+        final var specification = SpecificationBuilder.from(GuitarPedal.class)
+                .with().fetchOf(GuitarPedal_.manufacturer)
+                .where().isLike(GuitarPedal_.name, "%o%")
+                .and().isNotEqualTo(GuitarPedal_.id, 4L)
+                .and().isBetween(GuitarPedal_.datePurchased, LocalDate.of(2020, 1, 1), LocalDate.of(2022, 12, 31))
+                .and().isGreaterThanOrEqualTo(GuitarPedal_.usedValue, 75)
+                .and().isLessThan(GuitarPedal_.usedValue, 250)
+                .and().isFalse(GuitarPedal_.hasStereoOutput)
+                .toSpecification();
+        final var template = SpecificationTemplate.compile(entityManager, GuitarPedal.class, specification);
+        assertEquals(6, template.getParameterCount());
+        assertEquals(
+                List.of(3L),
+                ids(template.bind(entityManager, specification).getResultList())
+        );
+    }
+
+    @Test
+    void bind_returnsSortedResults_whenCompiledWithSort() {
+        final var template = SpecificationTemplate.compile(
+                entityManager,
+                GuitarPedal.class,
+                isNull(GuitarPedal_.dateSold),
+                Sort.by(Sort.Direction.DESC, GuitarPedal_.USED_VALUE)
+        );
+        assertEquals(
+                List.of(2L, 3L, 1L),
+                template.bind(entityManager, isNull(GuitarPedal_.dateSold)).getResultList().stream()
+                        .map(GuitarPedal::getId)
+                        .toList()
+        );
+    }
+
+    @Test
+    void bind_returnsAllResults_whenSpecificationIsGhost() {
+        final var template = SpecificationTemplate.compile(entityManager, GuitarPedal.class, ghost());
+        assertEquals(0, template.getParameterCount());
+        assertEquals(4, template.bind(entityManager, ghost()).getResultList().size());
+    }
+
+    @Test
+    void bind_throwsException_whenShapeDiffers() {
+        final var template = SpecificationTemplate.compile(
+                entityManager,
+                GuitarPedal.class,
+                guitarPedalSpecifications.search_example_07(75)
+        );
+        final var specification = guitarPedalSpecifications.search_example_07(null);
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> template.bind(entityManager, specification));
+    }
+
+    @Test
+    void compile_throwsException_whenSpecificationIsNotStructural() {
+        final var specification = guitarPedalSpecifications.search_example_01(75);
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> SpecificationTemplate.compile(entityManager, GuitarPedal.class, specification));
+    }
+
+    @Test
+    void compile_throwsException_whenArgumentIsNull() {
+        assertThrows(
+                NullPointerException.class,
+                () -> SpecificationTemplate.compile(null, GuitarPedal.class, ghost()));
+        assertThrows(
+                NullPointerException.class,
+                () -> SpecificationTemplate.compile(entityManager, null, ghost()));
+        assertThrows(
+                NullPointerException.class,
+                () -> SpecificationTemplate.compile(entityManager, GuitarPedal.class, null));
+    }
+
+    private static List<Long> ids(final List<GuitarPedal> guitarPedals) {
+        return guitarPedals.stream()
+                .map(GuitarPedal::getId)
+                .sorted()
+                .toList();
+    }
+}
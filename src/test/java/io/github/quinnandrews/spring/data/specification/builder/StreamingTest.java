@@ -0,0 +1,32 @@
+package io.github.quinnandrews.spring.data.specification.builder;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamingTest {
+
+    @Test
+    void detaching_doesNotClear() {
+        var streaming = Streaming.detaching(500);
+        assertEquals(500, streaming.getFetchSize());
+        assertFalse(streaming.isClearing());
+    }
+
+    @Test
+    void clearing_clears() {
+        var streaming = Streaming.clearing(1000);
+        assertEquals(1000, streaming.getFetchSize());
+        assertTrue(streaming.isClearing());
+    }
+
+    @Test
+    void detaching_throwsException_whenFetchSizeIsNotPositive() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> Streaming.detaching(0));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> Streaming.clearing(-1));
+    }
+}
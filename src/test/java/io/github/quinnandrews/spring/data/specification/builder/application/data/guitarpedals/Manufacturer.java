@@ -3,8 +3,11 @@ package io.github.quinnandrews.spring.data.specification.builder.application.dat
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
 
+import java.util.Set;
+
 @Table(name = "manufacturer")
 @Entity
 public class Manufacturer {
@@ -21,6 +24,9 @@ public class Manufacturer {
             nullable = false)
     private String name;
 
+    @OneToMany(mappedBy = "manufacturer")
+    private Set<GuitarPedal> guitarPedals;
+
     public Manufacturer() {
         // no-op
     }
@@ -32,4 +38,8 @@ public class Manufacturer {
     public String getName() {
         return name;
     }
+
+    public Set<GuitarPedal> getGuitarPedals() {
+        return guitarPedals;
+    }
 }
@@ -676,5 +676,98 @@ public class GuitarPedalSpecifications {
                 )
                 .toSpecification();
     }
-}
 
+    /*
+    This example, Fetch Example #8, renders the same query as Example #6, with one join
+    for the eager fetch and another for the filtering, but with joinOf() rather than a
+    hand-written Specification.
+
+    The joinOf() method accepts a function that defines the filters with a builder of
+    the associated Entity, and renders all of them on one join that is shared by every
+    filter on the same association. And since the filters are "ghosts" when their values
+    are null, the join is only rendered if at least one of them applies, which takes care
+    of the null check we had to write by hand in Example #6.
+
+    Given the state of the test data, if this method is called with an id of '300' and
+    a Collection containing just one String of 'shoegaze', then 1 Guitar Pedal will be
+    returned with a Collection containing all 4 of its GuitarPedalTags, just like with
+    Example #6.
+     */
+    public Specification<GuitarPedal> fetch_example_08(final Long id,
+                                                       final Collection<String> tags) {
+        return from(GuitarPedal.class)
+                .with().fetchOf(GuitarPedal_.manufacturer)
+                .and().fetchOf(GuitarPedal_.tags)
+                .where().joinOf(GuitarPedal_.tags, tag -> tag
+                        .where().isGreaterThanOrEqualTo(GuitarPedalTag_.id, id)
+                        .and().isIn(GuitarPedalTag_.tag, tags))
+                .toSpecification();
+    }
+
+    /*
+    This example, Fetch Example #9, filters by the associated Collection without a join
+    at all, with anyMatch() rather than joinOf().
+
+    The anyMatch() method renders the filters on the elements of the Collection in a
+    correlated exists clause, so that a Guitar Pedal is returned if any of its tags
+    matches. Since a subquery does not multiply the rows of the query like a join
+    does, there is no risk of duplicates and no need for a distinct query, and the
+    database is free to plan the exists clause as a semi-join.
+
+    The SQL renders as:
+
+    select
+        ...
+    from
+        guitar_pedal g1_0
+    join
+        manufacturer m1_0
+            on m1_0.id=g1_0.manufacturer_id
+    join
+        guitar_pedal_tag t1_0
+            on g1_0.id=t1_0.guitar_pedal_id
+    where
+        1=1
+        and 1=1
+        and exists(select
+            1
+        from
+            guitar_pedal_tag t2_0
+        where
+            t2_0.tag in (?)
+            and g1_0.id=t2_0.guitar_pedal_id)
+
+    Given the state of the test data, if this method is called with a Collection
+    containing just one String of 'shoegaze', then 2 Guitar Pedals will be returned,
+    each with its whole Collection of GuitarPedalTags.
+     */
+    public Specification<GuitarPedal> fetch_example_09(final Collection<String> tags) {
+        return from(GuitarPedal.class)
+                .with().fetchOf(GuitarPedal_.manufacturer)
+                .and().fetchOf(GuitarPedal_.tags)
+                .where().anyMatch(GuitarPedal_.tags, tag -> tag
+                        .where().isIn(GuitarPedalTag_.tag, tags))
+                .toSpecification();
+    }
+
+    /*
+    This example, Search Example #8, excludes Guitar Pedals by their associated Collection
+    with noneMatch(), returning those that have none of the given tags.
+
+    Such a filter is often written by hand as a not in clause on a subquery, but a not in
+    clause matches nothing at all as soon as the subquery returns a null, and tends to be
+    planned as a full scan. The noneMatch() method renders a correlated not exists clause
+    instead, which is not affected by nulls and can be planned as an anti-join. Guitar
+    Pedals without any tags are returned as well, since none of their tags match.
+
+    Given the state of the test data, if this method is called with a Collection
+    containing the Strings 'shoegaze' and 'tremolo', then 1 Guitar Pedal will be
+    returned, the only one that is tagged with neither.
+     */
+    public Specification<GuitarPedal> search_example_08(final Collection<String> excludedTags) {
+        return from(GuitarPedal.class)
+                .where().noneMatch(GuitarPedal_.tags, tag -> tag
+                        .where().isIn(GuitarPedalTag_.tag, excludedTags))
+                .toSpecification();
+    }
+}